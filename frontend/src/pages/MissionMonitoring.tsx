@@ -98,9 +98,17 @@ const subscribeToMission = (missionId: string, callback: (data: any) => void) =>
   
   const subscription = stompClient.subscribe(`/topic/missions/${missionId}`, (message: IMessage) => {
     try {
-      const data = JSON.parse(message.body);
+      let data = JSON.parse(message.body);
       console.log('Received mission update:', data);
-      
+
+      // The server answers a new subscription with a snapshot of the live mission state
+      if (data.snapshot) {
+        if (!data.progress) {
+          return;
+        }
+        data = data.progress;
+      }
+
       // Transform the backend data to match frontend expectations
       const transformedData = {
         missionId: data.missionId,
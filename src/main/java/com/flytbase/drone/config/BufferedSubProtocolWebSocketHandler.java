@@ -0,0 +1,48 @@
+package com.flytbase.drone.config;
+
+import com.flytbase.drone.service.WebSocketSessionRegistry;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * STOMP WebSocket handler that buffers sends per connection with the configured overflow strategy
+ * and hands each buffered connection to the session registry. The buffering decorator is the one
+ * the handler sends through, so an overflowing buffer drops its oldest messages or terminates the
+ * session as configured, and the registry reads the buffer that actually fills up.
+ */
+public class BufferedSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+
+  private final WebSocketSessionRegistry sessionRegistry;
+  private final OverflowStrategy overflowStrategy;
+
+  public BufferedSubProtocolWebSocketHandler(
+      MessageChannel clientInboundChannel,
+      SubscribableChannel clientOutboundChannel,
+      WebSocketSessionRegistry sessionRegistry,
+      OverflowStrategy overflowStrategy) {
+    super(clientInboundChannel, clientOutboundChannel);
+    this.sessionRegistry = sessionRegistry;
+    this.overflowStrategy = overflowStrategy;
+  }
+
+  @Override
+  protected WebSocketSession decorateSession(WebSocketSession session) {
+    WebSocketSession buffered =
+        new ConcurrentWebSocketSessionDecorator(
+            session, getSendTimeLimit(), getSendBufferSizeLimit(), overflowStrategy);
+    sessionRegistry.attach(buffered);
+    return buffered;
+  }
+
+  @Override
+  public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus)
+      throws Exception {
+    sessionRegistry.detach(session.getId());
+    super.afterConnectionClosed(session, closeStatus);
+  }
+}
@@ -0,0 +1,55 @@
+package com.flytbase.drone.config;
+
+import java.util.UUID;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration properties for fan-out of mission updates across application nodes. */
+@Configuration
+@ConfigurationProperties(prefix = "app.cluster")
+@Data
+public class ClusterConfig {
+
+  /** Identifier of this node; random unless set, so every instance is distinct. */
+  private String nodeId = UUID.randomUUID().toString();
+
+  /** Message bus between nodes: "in-process" for a single node, or "postgres". */
+  private String bus = "in-process";
+
+  /** PostgreSQL notification channel used by the postgres bus. */
+  private String channel = "mission_updates";
+
+  /** Interval in milliseconds at which coalesced updates are published to other nodes. */
+  private long flushMs = 100;
+
+  /** Maximum size in bytes of a single notification payload; PostgreSQL allows under 8000. */
+  private int maxPayloadBytes = 7900;
+
+  /** Time in milliseconds the listener waits for notifications before checking for shutdown. */
+  private int listenTimeoutMs = 500;
+
+  /** Time in milliseconds to wait before reconnecting a failed listener connection. */
+  private long reconnectDelayMs = 5000;
+
+  /** URL at which other nodes reach this node, used to forward ingest to mission owners. */
+  private String baseUrl = "http://localhost:8080";
+
+  /** Interval in milliseconds at which this node renews its membership. */
+  private long heartbeatMs = 5000;
+
+  /** Time in milliseconds without a heartbeat after which a member is considered gone. */
+  private long memberTimeoutMs = 15000;
+
+  /**
+   * Time in milliseconds a node that takes over a mission from a live member waits for its live
+   * state to be handed off, before reloading it from the database instead.
+   */
+  private long handoffTimeoutMs = 15000;
+
+  /** Points per member on the consistent-hash ring; more points spread missions more evenly. */
+  private int virtualNodes = 128;
+
+  /** Timeout in milliseconds for ingest requests forwarded to the owning node. */
+  private int forwardTimeoutMs = 2000;
+}
@@ -0,0 +1,118 @@
+package com.flytbase.drone.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration properties for flight paths. */
+@Configuration
+@ConfigurationProperties(prefix = "app.flight-path")
+@Data
+public class FlightPathConfig {
+
+  /** Number of parsed flight paths kept in memory, least recently used evicted first. */
+  private int cacheCapacity = 1024;
+
+  /** Number of generated patterns kept in memory, least recently used evicted first. */
+  private int patternCacheCapacity = 256;
+
+  private Sweep sweep = new Sweep();
+
+  private Battery battery = new Battery();
+
+  private Flight flight = new Flight();
+
+  /** Camera of drones whose model has no profile in {@code cameras}. */
+  private Camera camera = new Camera();
+
+  /** Camera profiles by drone model. */
+  private Map<String, Camera> cameras = new HashMap<>();
+
+  /** Selection of the sweep direction of linear and crosshatch patterns. */
+  @Data
+  public static class Sweep {
+
+    /** Speed of missions without one, in meters per second. */
+    private double cruiseSpeed = 10;
+
+    /** Time lost to the turn at the end of a sweep line, in seconds. */
+    private double turnSeconds = 8;
+
+    /** Evenly spread directions scored besides the minimum-width one; 0 scores only that. */
+    private int candidateAngles = 12;
+
+    /** Score candidate directions in parallel on the common fork-join pool. */
+    private boolean parallelScoring = false;
+
+    /** Number of boustrophedon cells from which cell paths are planned in parallel. */
+    private int parallelCells = 256;
+
+    /** Number of sweep lines from which lines are clipped in parallel strips. */
+    private int parallelLines = 4096;
+
+    /** Number of consecutive lines clipped by one task in parallel mode. */
+    private int stripLines = 1024;
+  }
+
+  /** Energy model splitting long flight paths into sorties of one battery each. */
+  @Data
+  public static class Battery {
+
+    /** Energy of a full battery, in watt-hours. */
+    private double capacityWh = 90;
+
+    /** Share of the battery kept in reserve on landing, in percent. */
+    private double reservePercent = 20;
+
+    /** Power drawn in level flight, in watts. */
+    private double cruisePowerWatts = 200;
+
+    /** Energy spent per meter of climb, in joules; descents are free. */
+    private double climbJoulesPerMeter = 60;
+
+    /** Energy spent braking and accelerating for a full reversal of heading, in joules. */
+    private double turnJoules = 150;
+
+    /** Last share of the usable energy in which a sortie looks for the cheapest split point. */
+    private double splitWindowPercent = 20;
+  }
+
+  /** Flight dynamics used to estimate the duration of a flight path. */
+  @Data
+  public static class Flight {
+
+    /** Horizontal acceleration and braking, in meters per second squared. */
+    private double acceleration = 2.5;
+
+    /** Vertical speed when climbing, in meters per second. */
+    private double climbRate = 5;
+
+    /** Vertical speed when descending, in meters per second. */
+    private double descentRate = 3;
+
+    /** Use the latest wind recorded for a mission in its duration estimate. */
+    private boolean windEnabled = true;
+  }
+
+  /** Camera used to space sweep lines and photo triggers, its image width across the lines. */
+  @Data
+  public static class Camera {
+
+    /** Sensor width, in millimeters. */
+    private double sensorWidthMm = 13.2;
+
+    /** Sensor height, in millimeters. */
+    private double sensorHeightMm = 8.8;
+
+    /** Lens focal length, in millimeters. */
+    private double focalLengthMm = 8.8;
+
+    /** Image width, in pixels. */
+    private int imageWidth = 5472;
+
+    /** Image height, in pixels. */
+    private int imageHeight = 3648;
+  }
+}
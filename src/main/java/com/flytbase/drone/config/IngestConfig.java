@@ -0,0 +1,91 @@
+package com.flytbase.drone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration properties for telemetry and progress ingest. */
+@Configuration
+@ConfigurationProperties(prefix = "app.ingest")
+@Data
+public class IngestConfig {
+
+  /** Time in milliseconds samples of a mission are collected before being written. */
+  private long batchWindowMs = 5;
+
+  /** Maximum number of frames written in one batch. */
+  private int maxBatchSize = 500;
+
+  /** Number of threads writing batches to the database. */
+  private int workerThreads = 4;
+
+  /** Time in milliseconds a REST ingest request waits for its sample to be written. */
+  private long restTimeoutMs = 5000;
+
+  /** Interval in milliseconds over which per-transport sample rates are measured. */
+  private long statsIntervalMs = 10000;
+
+  /** Number of recent samples kept in memory per active mission for history queries; 0 disables. */
+  private int historyCapacity = 3000;
+
+  /** Write-ahead log of accepted samples. */
+  private Wal wal = new Wal();
+
+  /** Send intervals recommended to drones. */
+  private RateControl rateControl = new RateControl();
+
+  /** Settings of the telemetry write-ahead log. */
+  @Data
+  public static class Wal {
+
+    /** Whether samples are acknowledged once durable in the log instead of once stored. */
+    private boolean enabled = false;
+
+    /** Directory holding the segment files. */
+    private String directory = "data/telemetry-wal";
+
+    /** Size of a segment file in bytes. */
+    private int segmentBytes = 64 * 1024 * 1024;
+
+    /** Maximum number of segments; once reached, samples are refused until segments drain. */
+    private int maxSegments = 16;
+
+    /** Interval in milliseconds at which samples not yet stored are written to the database. */
+    private long replayIntervalMs = 5000;
+  }
+
+  /** Settings of the send intervals recommended to drones. */
+  @Data
+  public static class RateControl {
+
+    /** Whether an interval is recommended with each ingest response and pushed over STOMP. */
+    private boolean enabled = false;
+
+    /** Interval in milliseconds near turns and while an alert is active. */
+    private long minIntervalMs = 100;
+
+    /** Interval in milliseconds when the position along the flight path is not known. */
+    private long defaultIntervalMs = 500;
+
+    /** Interval in milliseconds on long straight legs. */
+    private long maxIntervalMs = 2000;
+
+    /** Distance in meters to a waypoint within which the minimum interval is used. */
+    private double nearWaypointMeters = 30;
+
+    /** Distance in meters to the closest waypoint from which the maximum interval is used. */
+    private double farWaypointMeters = 300;
+
+    /** Heading change in degrees between samples taken as a turn. */
+    private double turnHeadingDegrees = 15;
+
+    /** GPS HDOP above which the reported position is not trusted to stretch the interval. */
+    private double maxHdop = 2.0;
+
+    /** Time in milliseconds the minimum interval is kept after an alert is raised. */
+    private long alertHoldMs = 300000;
+
+    /** Queued samples at which the node counts as fully loaded, doubling stretched intervals. */
+    private int loadQueuedSamples = 5000;
+  }
+}
@@ -0,0 +1,21 @@
+package com.flytbase.drone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration properties for live map viewport subscriptions. */
+@Configuration
+@ConfigurationProperties(prefix = "app.live-map")
+@Data
+public class LiveMapConfig {
+
+  /** Size of a spatial grid cell in degrees of latitude and longitude. */
+  private double cellSizeDegrees = 0.01;
+
+  /**
+   * Viewports covering more cells than this are matched by bounding box test instead of being
+   * registered on every cell.
+   */
+  private int maxViewportCells = 10000;
+}
@@ -0,0 +1,24 @@
+package com.flytbase.drone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration properties for the store holding the latest progress of running missions. */
+@Configuration
+@ConfigurationProperties(prefix = "app.live-state")
+@Data
+public class LiveStateConfig {
+
+  /** Where the latest progress is kept: heap or off-heap. */
+  private String store = "heap";
+
+  /** Maximum number of missions tracked by the off-heap store. */
+  private int capacity = 131072;
+
+  /**
+   * File the off-heap store is memory-mapped to, so that live state survives a restart. When empty,
+   * a direct buffer is used and nothing is recovered.
+   */
+  private String file = "";
+}
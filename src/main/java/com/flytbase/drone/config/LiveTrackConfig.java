@@ -0,0 +1,21 @@
+package com.flytbase.drone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration properties for dead-reckoned positions published between telemetry samples. */
+@Configuration
+@ConfigurationProperties(prefix = "app.live-track")
+@Data
+public class LiveTrackConfig {
+
+  /** Whether interpolated positions are published on the mission topics and the live map. */
+  private boolean enabled = false;
+
+  /** Time in milliseconds after the last sample beyond which positions are no longer projected. */
+  private long maxExtrapolationMs = 3000;
+
+  /** Ground speed in meters per second below which a drone is treated as hovering. */
+  private double minSpeed = 0.2;
+}
@@ -0,0 +1,100 @@
+package com.flytbase.drone.config;
+
+import com.flytbase.drone.dto.mission.MissionSnapshotResponse;
+import com.flytbase.drone.service.MissionLiveStateService;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inbound channel interceptor that answers a SUBSCRIBE to {@code /topic/missions/{id}} with a
+ * snapshot of the mission's live state. The snapshot is sent only to the new subscriber, on the
+ * destination it subscribed to, straight from the in-memory store.
+ */
+@Component
+@Slf4j
+public class MissionSnapshotInterceptor implements ChannelInterceptor {
+
+  private static final String MISSION_TOPIC_PREFIX = "/topic/missions/";
+
+  private final MissionLiveStateService liveStateService;
+  private final MessageChannel clientOutboundChannel;
+  private final MessageConverter messageConverter;
+
+  @Autowired
+  public MissionSnapshotInterceptor(
+      MissionLiveStateService liveStateService,
+      @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+      @Lazy @Qualifier("brokerMessageConverter") MessageConverter messageConverter) {
+    this.liveStateService = liveStateService;
+    this.clientOutboundChannel = clientOutboundChannel;
+    this.messageConverter = messageConverter;
+  }
+
+  @Override
+  public void postSend(Message<?> message, MessageChannel channel, boolean sent) {
+    StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+    if (!sent || accessor.getCommand() != StompCommand.SUBSCRIBE) {
+      return;
+    }
+
+    String destination = accessor.getDestination();
+    UUID missionId = parseMissionId(destination);
+    if (missionId == null) {
+      return;
+    }
+
+    Optional<MissionSnapshotResponse> snapshot = liveStateService.getSnapshot(missionId);
+    if (!snapshot.isPresent()) {
+      return;
+    }
+
+    try {
+      SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+      headers.setSessionId(accessor.getSessionId());
+      headers.setSubscriptionId(accessor.getSubscriptionId());
+      headers.setDestination(destination);
+      headers.setLeaveMutable(true);
+
+      Message<?> reply = messageConverter.toMessage(snapshot.get(), headers.getMessageHeaders());
+      if (reply != null) {
+        clientOutboundChannel.send(reply);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to send snapshot for mission {}: {}", missionId, e.getMessage());
+    }
+  }
+
+  /**
+   * Extract the mission ID from a mission progress topic.
+   *
+   * @param destination the subscription destination
+   * @return the mission ID, or null if the destination is not a mission progress topic
+   */
+  private UUID parseMissionId(String destination) {
+    if (destination == null || !destination.startsWith(MISSION_TOPIC_PREFIX)) {
+      return null;
+    }
+    String id = destination.substring(MISSION_TOPIC_PREFIX.length());
+    if (id.indexOf('/') >= 0) {
+      return null;
+    }
+    try {
+      return UUID.fromString(id);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.flytbase.drone.config;
+
+import com.flytbase.drone.service.WebSocketSessionRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+/** Inbound channel interceptor that records frames and heartbeats in the session registry. */
+@Component
+@RequiredArgsConstructor
+public class SessionActivityInterceptor implements ChannelInterceptor {
+
+  private final WebSocketSessionRegistry sessionRegistry;
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    if (sessionId != null) {
+      SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+      sessionRegistry.recordInbound(sessionId, type == SimpMessageType.HEARTBEAT);
+    }
+    return message;
+  }
+}
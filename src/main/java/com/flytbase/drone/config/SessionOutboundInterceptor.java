@@ -0,0 +1,101 @@
+package com.flytbase.drone.config;
+
+import com.flytbase.drone.service.WebSocketSessionRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbound channel interceptor that tracks, per session, how many messages are queued on the
+ * clientOutboundChannel but not yet handed to the connection and how long they waited, and applies
+ * the configured slow-consumer policy to sessions that fall behind.
+ *
+ * <p>Only mission progress messages are conflated or skipped, since each one carries the full state
+ * of its mission; status changes, alerts and live map deltas are always delivered.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionOutboundInterceptor implements ExecutorChannelInterceptor {
+
+  private static final String ENQUEUED_AT_HEADER = "enqueuedAt";
+  private static final String MISSION_TOPIC_PREFIX = "/topic/missions/";
+
+  private final WebSocketSessionRegistry sessionRegistry;
+  private final WebSocketBrokerConfig webSocketBrokerConfig;
+
+  @Override
+  public Message<?> preSend(Message<?> message, MessageChannel channel) {
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    if (sessionId == null) {
+      return message;
+    }
+
+    sessionRegistry.recordOutboundQueued(sessionId);
+    MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+    accessor.setHeader(ENQUEUED_AT_HEADER, System.nanoTime());
+    return MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders());
+  }
+
+  @Override
+  public Message<?> beforeHandle(
+      Message<?> message, MessageChannel channel, MessageHandler handler) {
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    if (sessionId == null || !sessionRegistry.isSlow(sessionId)) {
+      return message;
+    }
+
+    switch (webSocketBrokerConfig.getSlowConsumerPolicy()) {
+      case DISCONNECT:
+        sessionRegistry.disconnectSlow(sessionId);
+        break;
+      case SKIP:
+        if (!isProgressMessage(message)) {
+          return message;
+        }
+        sessionRegistry.recordDropped(sessionId);
+        break;
+      case CONFLATE:
+      default:
+        if (!isProgressMessage(message)) {
+          return message;
+        }
+        sessionRegistry.conflate(
+            sessionId, SimpMessageHeaderAccessor.getDestination(message.getHeaders()), message);
+        break;
+    }
+
+    // afterMessageHandled is not invoked for messages this interceptor swallows
+    sessionRegistry.recordOutboundSent(sessionId, enqueuedAt(message));
+    return null;
+  }
+
+  @Override
+  public void afterMessageHandled(
+      Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+    if (sessionId != null) {
+      sessionRegistry.recordOutboundSent(sessionId, enqueuedAt(message));
+    }
+  }
+
+  private boolean isProgressMessage(Message<?> message) {
+    if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+      return false;
+    }
+    String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    return destination != null
+        && destination.startsWith(MISSION_TOPIC_PREFIX)
+        && destination.indexOf('/', MISSION_TOPIC_PREFIX.length()) < 0;
+  }
+
+  private Long enqueuedAt(Message<?> message) {
+    return message.getHeaders().get(ENQUEUED_AT_HEADER, Long.class);
+  }
+}
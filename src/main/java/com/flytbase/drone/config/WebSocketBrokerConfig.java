@@ -0,0 +1,71 @@
+package com.flytbase.drone.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Configuration properties for the STOMP broker and WebSocket sessions. */
+@Configuration
+@ConfigurationProperties(prefix = "app.websocket")
+@Data
+public class WebSocketBrokerConfig {
+
+  /** Interval in milliseconds at which the broker sends heartbeats to clients. */
+  private long serverHeartbeatMs = 10000;
+
+  /** Interval in milliseconds at which clients are expected to send heartbeats. */
+  private long clientHeartbeatMs = 10000;
+
+  /** Time in milliseconds without any inbound frame after which a session is evicted. */
+  private long sessionTimeoutMs = 60000;
+
+  /** Maximum time in milliseconds a single send to a session may take. */
+  private int sendTimeLimitMs = 10000;
+
+  /** Maximum number of bytes buffered for a session while a send is in progress. */
+  private int sendBufferSizeLimitBytes = 512 * 1024;
+
+  /** Buffered bytes above which a session is treated as slow. */
+  private int slowBufferBytes = 64 * 1024;
+
+  /** Time in milliseconds a send may be in progress before a session is treated as slow. */
+  private long slowSendTimeMs = 1000;
+
+  /** Messages queued on the outbound channel for a session above which it is treated as slow. */
+  private int slowQueueDepth = 200;
+
+  /** How messages for slow sessions are handled. */
+  private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.CONFLATE;
+
+  /** Thread pool of the clientInboundChannel, which runs message handling and ingest. */
+  private ChannelPool inboundChannel = new ChannelPool(8, 16, 10000);
+
+  /** Thread pool of the clientOutboundChannel, which writes messages to sessions. */
+  private ChannelPool outboundChannel = new ChannelPool(8, 16, 10000);
+
+  /** Handling of messages for sessions that cannot keep up. */
+  public enum SlowConsumerPolicy {
+    /** Keep only the latest progress message per destination until the session catches up. */
+    CONFLATE,
+    /** Drop progress messages while the session is slow. */
+    SKIP,
+    /** Close the session. */
+    DISCONNECT
+  }
+
+  /** Sizing of a channel thread pool. */
+  @Data
+  public static class ChannelPool {
+    private int corePoolSize;
+    private int maxPoolSize;
+    private int queueCapacity;
+
+    public ChannelPool() {}
+
+    public ChannelPool(int corePoolSize, int maxPoolSize, int queueCapacity) {
+      this.corePoolSize = corePoolSize;
+      this.maxPoolSize = maxPoolSize;
+      this.queueCapacity = queueCapacity;
+    }
+  }
+}
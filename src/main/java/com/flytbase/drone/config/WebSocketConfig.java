@@ -1,24 +1,48 @@
 package com.flytbase.drone.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 /**
- * Configuration for WebSocket communication. Enables STOMP messaging and configures endpoints for
- * real-time mission monitoring.
+ * Configuration for WebSocket communication. Configures STOMP messaging, enabled by {@link
+ * WebSocketMessageBrokerConfig}, and its endpoints for real-time mission monitoring.
  */
 @Configuration
-@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+  private final WebSocketBrokerConfig webSocketBrokerConfig;
+  private final MissionSnapshotInterceptor missionSnapshotInterceptor;
+  private final SessionActivityInterceptor sessionActivityInterceptor;
+  private final SessionOutboundInterceptor sessionOutboundInterceptor;
+
+  private TaskScheduler messageBrokerTaskScheduler;
+
+  @Autowired
+  public void setMessageBrokerTaskScheduler(@Lazy TaskScheduler messageBrokerTaskScheduler) {
+    this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+  }
+
   @Override
   public void configureMessageBroker(MessageBrokerRegistry config) {
     // Enable a simple in-memory message broker to carry messages back to the client
-    // on destinations prefixed with /topic
-    config.enableSimpleBroker("/topic");
+    // on destinations prefixed with /topic, and to single sessions on /queue
+    config
+        .enableSimpleBroker("/topic", "/queue")
+        .setHeartbeatValue(
+            new long[] {
+              webSocketBrokerConfig.getServerHeartbeatMs(),
+              webSocketBrokerConfig.getClientHeartbeatMs()
+            })
+        .setTaskScheduler(messageBrokerTaskScheduler);
 
     // Set prefix for messages bound for @MessageMapping methods
     config.setApplicationDestinationPrefixes("/app");
@@ -33,4 +57,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         .setAllowedOrigins("*") // Enable CORS for WebSocket
         .withSockJS();
   }
+
+  @Override
+  public void configureClientInboundChannel(ChannelRegistration registration) {
+    // Track session activity first, then push the live state of a mission to clients as soon
+    // as they subscribe to it
+    registration.interceptors(sessionActivityInterceptor, missionSnapshotInterceptor);
+    configureExecutor(registration, webSocketBrokerConfig.getInboundChannel());
+  }
+
+  @Override
+  public void configureClientOutboundChannel(ChannelRegistration registration) {
+    registration.interceptors(sessionOutboundInterceptor);
+    configureExecutor(registration, webSocketBrokerConfig.getOutboundChannel());
+  }
+
+  @Override
+  public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+    // Limits of the per-connection send buffer of BufferedSubProtocolWebSocketHandler, so that a
+    // slow client never blocks an outbound channel thread
+    registration
+        .setSendTimeLimit(webSocketBrokerConfig.getSendTimeLimitMs())
+        .setSendBufferSizeLimit(webSocketBrokerConfig.getSendBufferSizeLimitBytes());
+  }
+
+  private void configureExecutor(
+      ChannelRegistration registration, WebSocketBrokerConfig.ChannelPool pool) {
+    registration
+        .taskExecutor()
+        .corePoolSize(pool.getCorePoolSize())
+        .maxPoolSize(pool.getMaxPoolSize())
+        .queueCapacity(pool.getQueueCapacity());
+  }
 }
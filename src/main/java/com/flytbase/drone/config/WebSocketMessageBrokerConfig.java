@@ -0,0 +1,43 @@
+package com.flytbase.drone.config;
+
+import com.flytbase.drone.service.WebSocketSessionRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+
+/**
+ * STOMP broker infrastructure, as enabled by {@code @EnableWebSocketMessageBroker} and customized
+ * by {@link WebSocketConfig}, with a WebSocket handler that buffers sends with the configured
+ * overflow strategy.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebSocketMessageBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+  private final WebSocketBrokerConfig webSocketBrokerConfig;
+  private final WebSocketSessionRegistry sessionRegistry;
+
+  public WebSocketMessageBrokerConfig(
+      WebSocketBrokerConfig webSocketBrokerConfig, WebSocketSessionRegistry sessionRegistry) {
+    this.webSocketBrokerConfig = webSocketBrokerConfig;
+    this.sessionRegistry = sessionRegistry;
+  }
+
+  @Bean
+  @Override
+  public WebSocketHandler subProtocolWebSocketHandler(
+      AbstractSubscribableChannel clientInboundChannel,
+      AbstractSubscribableChannel clientOutboundChannel) {
+    // Unless slow sessions are to be disconnected, an overflowing buffer drops its oldest messages
+    // instead of terminating the session
+    OverflowStrategy overflowStrategy =
+        webSocketBrokerConfig.getSlowConsumerPolicy()
+                == WebSocketBrokerConfig.SlowConsumerPolicy.DISCONNECT
+            ? OverflowStrategy.TERMINATE
+            : OverflowStrategy.DROP;
+    return new BufferedSubProtocolWebSocketHandler(
+        clientInboundChannel, clientOutboundChannel, sessionRegistry, overflowStrategy);
+  }
+}
@@ -2,12 +2,14 @@ package com.flytbase.drone.controller;
 
 import com.flytbase.drone.dto.flightpath.FlightPathRequest;
 import com.flytbase.drone.dto.flightpath.FlightPathResponse;
+import com.flytbase.drone.dto.flightpath.PatternCacheStatsResponse;
+import com.flytbase.drone.dto.flightpath.PhotoPointsResponse;
+import com.flytbase.drone.dto.flightpath.SortiePlanResponse;
 import com.flytbase.drone.dto.mission.MissionResponse;
-import com.flytbase.drone.dto.surveyarea.SurveyAreaResponse;
-import com.flytbase.drone.entity.Mission.PatternType;
+import com.flytbase.drone.dto.mission.PatternGenerationRequest;
 import com.flytbase.drone.service.FlightPathService;
 import com.flytbase.drone.service.MissionService;
-import com.flytbase.drone.service.SurveyAreaService;
+import com.flytbase.drone.service.PatternCache;
 import java.util.UUID;
 import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -25,7 +27,7 @@ public class FlightPathController {
 
   private final FlightPathService flightPathService;
   private final MissionService missionService;
-  private final SurveyAreaService surveyAreaService;
+  private final PatternCache patternCache;
 
   /**
    * Get a flight path by mission ID.
@@ -66,6 +68,39 @@ public class FlightPathController {
     return ResponseEntity.noContent().build();
   }
 
+  /**
+   * Get the photo trigger points of a mission's flight path.
+   *
+   * @param missionId the mission ID
+   * @return the photo points
+   */
+  @GetMapping("/mission/{missionId}/photos")
+  public ResponseEntity<PhotoPointsResponse> getPhotoPoints(@PathVariable UUID missionId) {
+    return ResponseEntity.ok(flightPathService.getPhotoPoints(missionId));
+  }
+
+  /**
+   * Split a mission's flight path into sorties that each fit on one battery.
+   *
+   * @param missionId the mission ID
+   * @return the sortie plan
+   */
+  @GetMapping("/mission/{missionId}/sorties")
+  public ResponseEntity<SortiePlanResponse> planSorties(@PathVariable UUID missionId) {
+    return ResponseEntity.ok(flightPathService.planSorties(missionId));
+  }
+
+  /**
+   * Get the hit rate of the generated pattern cache.
+   *
+   * @return the cache statistics
+   */
+  @GetMapping("/pattern-cache/stats")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<PatternCacheStatsResponse> getPatternCacheStats() {
+    return ResponseEntity.ok(patternCache.getStats());
+  }
+
   /**
    * Generate a flight path for a mission based on pattern type.
    *
@@ -75,47 +110,19 @@ public class FlightPathController {
   @PostMapping("/mission/{missionId}/generate")
   @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
   public ResponseEntity<FlightPathResponse> generateFlightPath(@PathVariable UUID missionId) {
-    // Get mission details
+    // Generate over the mission's survey area with its settings
     MissionResponse missionResponse = missionService.getMissionById(missionId);
-    SurveyAreaResponse surveyAreaResponse =
-        surveyAreaService.getSurveyAreaById(missionResponse.getSurveyAreaId());
-
-    // Generate waypoints based on pattern type
-    String waypoints;
-    PatternType patternType = PatternType.valueOf(missionResponse.getPatternType());
-
-    switch (patternType) {
-      case LINEAR:
-        waypoints =
-            flightPathService.generateLinearPattern(
-                null, missionResponse.getFlightAltitude(), missionResponse.getOverlapPercentage());
-        break;
-      case CROSSHATCH:
-        waypoints =
-            flightPathService.generateCrosshatchPattern(
-                null, missionResponse.getFlightAltitude(), missionResponse.getOverlapPercentage());
-        break;
-      case PERIMETER:
-        waypoints =
-            flightPathService.generatePerimeterPattern(
-                null, missionResponse.getFlightAltitude(), missionResponse.getOverlapPercentage());
-        break;
-      default:
-        waypoints =
-            flightPathService.generateLinearPattern(
-                null, missionResponse.getFlightAltitude(), missionResponse.getOverlapPercentage());
-    }
-
-    // Create flight path request
-    FlightPathRequest request = new FlightPathRequest();
-    request.setPatternType(patternType);
-    request.setWaypoints(waypoints);
-
-    // Calculate approximate distance and duration (simplified)
-    // In a real application, these would be calculated based on the waypoints
-    request.setTotalDistance(500.0); // 500 meters
-    request.setEstimatedDuration(300); // 5 minutes
+    PatternGenerationRequest.PatternType patternType =
+        missionResponse.getPatternType() != null
+            ? PatternGenerationRequest.PatternType.valueOf(missionResponse.getPatternType())
+            : PatternGenerationRequest.PatternType.LINEAR;
 
-    return ResponseEntity.ok(flightPathService.createOrUpdateFlightPath(missionId, request));
+    return ResponseEntity.ok(
+        missionService.generatePattern(
+            missionId,
+            new PatternGenerationRequest(
+                patternType,
+                missionResponse.getFlightAltitude(),
+                missionResponse.getOverlapPercentage())));
   }
 }
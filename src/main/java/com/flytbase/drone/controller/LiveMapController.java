@@ -0,0 +1,45 @@
+package com.flytbase.drone.controller;
+
+import com.flytbase.drone.dto.map.ViewportRequest;
+import com.flytbase.drone.service.LiveMapService;
+import javax.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Controller for live map viewport subscriptions over WebSocket. Clients subscribe once to {@code
+ * /user/queue/map} and send their bounding box whenever the map viewport changes.
+ */
+@Controller
+@RequiredArgsConstructor
+public class LiveMapController {
+
+  private final LiveMapService liveMapService;
+
+  /**
+   * Set or replace the viewport of the sending session.
+   *
+   * @param sessionId the STOMP session ID
+   * @param request the viewport bounding box
+   */
+  @MessageMapping("/map/viewport")
+  public void setViewport(
+      @Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId,
+      @Valid @Payload ViewportRequest request) {
+    liveMapService.setViewport(sessionId, request);
+  }
+
+  /**
+   * Stop sending live map updates to the sending session.
+   *
+   * @param sessionId the STOMP session ID
+   */
+  @MessageMapping("/map/viewport/clear")
+  public void clearViewport(@Header(SimpMessageHeaderAccessor.SESSION_ID_HEADER) String sessionId) {
+    liveMapService.clearViewport(sessionId);
+  }
+}
@@ -3,9 +3,11 @@ package com.flytbase.drone.controller;
 import com.flytbase.drone.dto.flightpath.FlightPathResponse;
 import com.flytbase.drone.dto.mission.CreateMissionRequest;
 import com.flytbase.drone.dto.mission.MissionResponse;
+import com.flytbase.drone.dto.mission.PartitionMissionRequest;
 import com.flytbase.drone.dto.mission.PatternGenerationRequest;
 import com.flytbase.drone.dto.mission.UpdateMissionRequest;
 import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.service.MissionPartitionService;
 import com.flytbase.drone.service.MissionService;
 import com.flytbase.drone.service.MissionWebSocketService;
 import java.util.List;
@@ -26,6 +28,7 @@ public class MissionController {
 
   private final MissionService missionService;
   private final MissionWebSocketService missionWebSocketService;
+  private final MissionPartitionService missionPartitionService;
 
   /**
    * Get all missions.
@@ -62,6 +65,20 @@ public class MissionController {
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
 
+  /**
+   * Split a survey area among several drones, creating a mission with a flight path for each.
+   *
+   * @param request the partition request
+   * @return the created missions, in the order of the drones
+   */
+  @PostMapping("/partition")
+  @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
+  public ResponseEntity<List<MissionResponse>> createPartitionedMissions(
+      @Valid @RequestBody PartitionMissionRequest request) {
+    List<MissionResponse> response = missionPartitionService.createPartitionedMissions(request);
+    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+  }
+
   /**
    * Update an existing mission.
    *
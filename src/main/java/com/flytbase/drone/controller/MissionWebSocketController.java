@@ -1,74 +1,66 @@
 package com.flytbase.drone.controller;
 
 import com.flytbase.drone.dto.mission.MissionProgressRequest;
-import com.flytbase.drone.dto.mission.MissionProgressResponse;
-import com.flytbase.drone.service.MissionProgressService;
-import com.flytbase.drone.service.MissionWebSocketService;
+import com.flytbase.drone.service.cluster.IngestForwarder;
+import com.flytbase.drone.service.ingest.IngestGateway;
+import com.flytbase.drone.service.ingest.TelemetryDecoder;
+import com.flytbase.drone.service.ingest.TelemetrySample;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Controller;
 
-/** Controller for handling WebSocket communication for mission monitoring. */
+/**
+ * Controller for handling WebSocket communication for mission monitoring. Frames for missions owned
+ * by another node are relayed to that node, so each mission is ingested in one place.
+ */
 @Controller
 public class MissionWebSocketController {
 
-  private final MissionProgressService missionProgressService;
-  private final MissionWebSocketService missionWebSocketService;
+  private final IngestGateway ingestGateway;
+  private final IngestForwarder ingestForwarder;
+  private final TelemetryDecoder telemetryDecoder;
 
   @Autowired
   public MissionWebSocketController(
-      MissionProgressService missionProgressService,
-      MissionWebSocketService missionWebSocketService) {
-    this.missionProgressService = missionProgressService;
-    this.missionWebSocketService = missionWebSocketService;
+      IngestGateway ingestGateway,
+      IngestForwarder ingestForwarder,
+      TelemetryDecoder telemetryDecoder) {
+    this.ingestGateway = ingestGateway;
+    this.ingestForwarder = ingestForwarder;
+    this.telemetryDecoder = telemetryDecoder;
   }
 
   /**
-   * Handle mission progress updates from clients.
+   * Handle mission progress updates from clients. Updates are written and broadcast in
+   * micro-batches per mission, so this returns without touching the database.
    *
    * @param missionId the mission ID
-   * @param request the progress update request
-   * @return the progress response
+   * @param payload the progress update, a {@link MissionProgressRequest} as JSON
    */
   @MessageMapping("/missions/{missionId}/progress")
-  @SendTo("/topic/missions/{missionId}")
-  public MissionProgressResponse handleProgressUpdate(
-      @DestinationVariable UUID missionId, MissionProgressRequest request) {
-    // Ensure the missionId in the path matches the one in the request
-    if (!missionId.equals(request.getMissionId())) {
-      request.setMissionId(missionId);
-    }
-
-    // Record the progress and get the response
-    MissionProgressResponse response = missionProgressService.recordProgress(request);
-
-    // Broadcast the update to all subscribers
-    missionWebSocketService.broadcastProgressUpdate(missionId, response);
-
-    return response;
+  public void handleProgressUpdate(@DestinationVariable UUID missionId, @Payload byte[] payload) {
+    ingest(missionId, payload);
   }
 
   /**
    * Handle telemetry data from drones.
    *
    * @param missionId the mission ID
-   * @param request the telemetry data
+   * @param payload the telemetry data, a {@link MissionProgressRequest} as JSON
    */
   @MessageMapping("/missions/{missionId}/telemetry")
-  public void handleTelemetryData(
-      @DestinationVariable UUID missionId, MissionProgressRequest request) {
-    // Ensure the missionId in the path matches the one in the request
-    if (!missionId.equals(request.getMissionId())) {
-      request.setMissionId(missionId);
-    }
-
+  public void handleTelemetryData(@DestinationVariable UUID missionId, @Payload byte[] payload) {
     // Process telemetry data (same as progress for now)
-    MissionProgressResponse response = missionProgressService.recordProgress(request);
+    ingest(missionId, payload);
+  }
 
-    // Broadcast the update to all subscribers
-    missionWebSocketService.broadcastProgressUpdate(missionId, response);
+  private void ingest(UUID missionId, byte[] payload) {
+    TelemetrySample sample = telemetryDecoder.decodeProgress(missionId, payload);
+    if (!ingestForwarder.relay(missionId, payload)) {
+      ingestGateway.submit(sample);
+    }
   }
 }
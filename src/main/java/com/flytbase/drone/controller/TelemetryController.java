@@ -1,16 +1,25 @@
 package com.flytbase.drone.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.dto.telemetry.IngestStatsResponse;
 import com.flytbase.drone.dto.telemetry.TelemetryRequest;
 import com.flytbase.drone.dto.telemetry.TelemetryResponse;
 import com.flytbase.drone.service.TelemetryService;
+import com.flytbase.drone.service.cluster.IngestForwarder;
+import com.flytbase.drone.service.ingest.IngestGateway;
+import com.flytbase.drone.service.ingest.TelemetryDecoder;
+import com.flytbase.drone.service.ingest.TelemetrySample;
 import java.time.LocalDateTime;
+import java.util.Optional;
 import java.util.UUID;
-import javax.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -20,20 +29,47 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/telemetry")
 @CrossOrigin
 @RequiredArgsConstructor
+@Slf4j
 public class TelemetryController {
 
   private final TelemetryService telemetryService;
+  private final IngestForwarder ingestForwarder;
+  private final IngestGateway ingestGateway;
+  private final TelemetryDecoder telemetryDecoder;
+  private final ObjectMapper objectMapper;
 
   /**
    * Record telemetry data for a mission. This would typically be called by the drone or ground
-   * control system.
+   * control system. The body is a {@link TelemetryRequest}, decoded without databind. When several
+   * nodes run, samples for a mission owned by another node are forwarded to that node. With the
+   * write-ahead log enabled the sample is accepted once logged, before it is stored.
    */
-  @PostMapping("/missions/{missionId}")
+  @PostMapping(value = "/missions/{missionId}", consumes = MediaType.APPLICATION_JSON_VALUE)
   @PreAuthorize("hasRole('ADMIN') or hasRole('OPERATOR')")
   public ResponseEntity<TelemetryResponse> recordTelemetry(
-      @PathVariable UUID missionId, @Valid @RequestBody TelemetryRequest request) {
-    TelemetryResponse response = telemetryService.recordTelemetry(missionId, request);
-    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+      @PathVariable UUID missionId,
+      @RequestBody byte[] body,
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+      @RequestHeader(value = IngestForwarder.FORWARDED_HEADER, required = false)
+          String forwardedBy) {
+    TelemetrySample sample = telemetryDecoder.decodeTelemetry(missionId, body);
+    if (forwardedBy == null) {
+      Optional<TelemetryResponse> forwarded =
+          ingestForwarder.forward(missionId, body, authorization);
+      if (forwarded.isPresent()) {
+        return ResponseEntity.status(recordedStatus()).body(forwarded.get());
+      }
+    }
+
+    TelemetryResponse response = ingestGateway.ingest(sample);
+    return ResponseEntity.status(recordedStatus()).body(response);
+  }
+
+  /** Get ingest throughput per transport. */
+  @GetMapping("/ingest/stats")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<IngestStatsResponse> getIngestStats() {
+    return ResponseEntity.ok(ingestGateway.getStats());
   }
 
   /** Get telemetry history for a mission. */
@@ -57,12 +93,15 @@ public class TelemetryController {
 
   /**
    * Simulate telemetry for testing (development only). In production, this would be removed and
-   * telemetry would come from actual drones.
+   * telemetry would come from actual drones. Like recorded samples, simulated samples for a mission
+   * owned by another node are forwarded to that node.
    */
   @PostMapping("/missions/{missionId}/simulate")
   @PreAuthorize("hasRole('ADMIN')")
   public ResponseEntity<String> simulateTelemetry(
-      @PathVariable UUID missionId, @RequestParam(defaultValue = "60") int durationSeconds) {
+      @PathVariable UUID missionId,
+      @RequestParam(defaultValue = "60") int durationSeconds,
+      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
 
     // This starts a background thread to simulate telemetry
     new Thread(
@@ -89,16 +128,27 @@ public class TelemetryController {
                   telemetry.setBatteryTemperature(25.0 + Math.random() * 10);
                   telemetry.setSignalStrength(80 + (int) (Math.random() * 20));
 
-                  telemetryService.recordTelemetry(missionId, telemetry);
+                  byte[] body = objectMapper.writeValueAsBytes(telemetry);
+                  if (!ingestForwarder.forward(missionId, body, authorization).isPresent()) {
+                    ingestGateway.ingest(
+                        TelemetrySample.fromTelemetryRequest(missionId, telemetry));
+                  }
 
                   Thread.sleep(1000); // 1 second intervals
                 }
               } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+              } catch (Exception e) {
+                log.warn(
+                    "Telemetry simulation for mission {} stopped: {}", missionId, e.getMessage());
               }
             })
         .start();
 
     return ResponseEntity.ok("Telemetry simulation started for " + durationSeconds + " seconds");
   }
+
+  private HttpStatus recordedStatus() {
+    return ingestGateway.isAsynchronous() ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+  }
 }
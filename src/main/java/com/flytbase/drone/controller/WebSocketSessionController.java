@@ -0,0 +1,31 @@
+package com.flytbase.drone.controller;
+
+import com.flytbase.drone.dto.websocket.WebSocketSessionResponse;
+import com.flytbase.drone.service.WebSocketSessionRegistry;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** REST controller for inspecting live WebSocket sessions. */
+@RestController
+@RequestMapping("/api/websocket")
+@RequiredArgsConstructor
+public class WebSocketSessionController {
+
+  private final WebSocketSessionRegistry sessionRegistry;
+
+  /**
+   * Get the delivery state of all live sessions, slowest first.
+   *
+   * @return list of session states
+   */
+  @GetMapping("/sessions")
+  @PreAuthorize("hasRole('ADMIN')")
+  public ResponseEntity<List<WebSocketSessionResponse>> getSessions() {
+    return ResponseEntity.ok(sessionRegistry.getSessions());
+  }
+}
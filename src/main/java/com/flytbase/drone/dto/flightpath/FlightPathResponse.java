@@ -19,6 +19,7 @@ public class FlightPathResponse {
   private String waypoints;
   private BigDecimal totalDistance;
   private Integer estimatedDuration;
+  private Integer photoCount;
   private LocalDateTime createdAt;
 
   /**
@@ -34,6 +35,7 @@ public class FlightPathResponse {
     response.setWaypoints(flightPath.getWaypoints());
     response.setTotalDistance(flightPath.getTotalDistance());
     response.setEstimatedDuration(flightPath.getEstimatedDuration());
+    response.setPhotoCount(flightPath.getPhotoCount());
     response.setCreatedAt(flightPath.getCreatedAt());
     return response;
   }
@@ -0,0 +1,40 @@
+package com.flytbase.drone.dto.flightpath;
+
+import com.flytbase.drone.entity.FlightPath;
+import java.math.BigDecimal;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Lightweight flight path description sent to live monitoring clients. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightPathSummaryResponse {
+
+  private UUID flightPathId;
+  private UUID missionId;
+  private Integer waypointCount;
+  private BigDecimal totalDistance;
+  private Integer estimatedDuration;
+  private Integer photoCount;
+
+  /**
+   * Create a FlightPathSummaryResponse from a FlightPath entity.
+   *
+   * @param flightPath the flight path entity
+   * @param waypointCount the number of waypoints in the flight path
+   * @return the flight path summary DTO
+   */
+  public static FlightPathSummaryResponse fromEntity(FlightPath flightPath, int waypointCount) {
+    FlightPathSummaryResponse response = new FlightPathSummaryResponse();
+    response.setFlightPathId(flightPath.getId());
+    response.setMissionId(flightPath.getMission().getId());
+    response.setWaypointCount(waypointCount);
+    response.setTotalDistance(flightPath.getTotalDistance());
+    response.setEstimatedDuration(flightPath.getEstimatedDuration());
+    response.setPhotoCount(flightPath.getPhotoCount());
+    return response;
+  }
+}
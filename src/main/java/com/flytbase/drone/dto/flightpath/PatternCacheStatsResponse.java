@@ -0,0 +1,19 @@
+package com.flytbase.drone.dto.flightpath;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the hit rate and size of the generated pattern cache. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatternCacheStatsResponse {
+
+  private long hits;
+  private long misses;
+  private long evictions;
+  private double hitRate;
+  private int size;
+  private int capacity;
+}
@@ -0,0 +1,53 @@
+package com.flytbase.drone.dto.flightpath;
+
+import com.flytbase.drone.util.geometry.PackedWaypoints;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the photo trigger points of a flight path. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhotoPointsResponse {
+
+  private UUID missionId;
+  private int photoCount;
+
+  /** Ground distance covered by one pixel at the mission altitude, in centimeters. */
+  private Double groundSamplingDistanceCm;
+
+  private List<PhotoPoint> points;
+
+  /** A position at which a photo is taken. */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class PhotoPoint {
+    private double latitude;
+    private double longitude;
+    private Double altitude;
+  }
+
+  /**
+   * Convert packed photo positions to their DTOs.
+   *
+   * @param photos the photo positions
+   * @return the DTOs in trigger order
+   */
+  public static List<PhotoPoint> toPoints(PackedWaypoints photos) {
+    List<PhotoPoint> points = new ArrayList<>(photos.size());
+    for (int i = 0; i < photos.size(); i++) {
+      double altitude = photos.getAltitude(i);
+      points.add(
+          new PhotoPoint(
+              photos.getLatitude(i),
+              photos.getLongitude(i),
+              Double.isNaN(altitude) ? null : altitude));
+    }
+    return points;
+  }
+}
@@ -0,0 +1,54 @@
+package com.flytbase.drone.dto.flightpath;
+
+import com.flytbase.drone.util.geometry.SortiePlanner;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for a flight path split into sorties that each fit on one battery. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SortiePlanResponse {
+
+  private UUID missionId;
+  private double capacityWh;
+  private double usableWh;
+  private List<Sortie> sorties;
+
+  /** A sortie: a return-to-home leg follows its last waypoint, a resume leg precedes its first. */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Sortie {
+    private int firstWaypoint;
+    private int lastWaypoint;
+    private double pathDistance;
+    private double resumeDistance;
+    private double returnDistance;
+    private double energyWh;
+    private double batteryPercent;
+    private int durationSeconds;
+
+    /**
+     * Convert a planned sortie to its DTO.
+     *
+     * @param sortie the sortie
+     * @param capacityWh the battery capacity in watt-hours
+     * @return the DTO
+     */
+    public static Sortie fromSortie(SortiePlanner.Sortie sortie, double capacityWh) {
+      return new Sortie(
+          sortie.getFirstWaypoint(),
+          sortie.getLastWaypoint(),
+          sortie.getPathDistance(),
+          sortie.getResumeDistance(),
+          sortie.getReturnDistance(),
+          sortie.getEnergyWh(),
+          capacityWh > 0 ? sortie.getEnergyWh() / capacityWh * 100 : 0,
+          (int) Math.ceil(sortie.getDurationSeconds()));
+    }
+  }
+}
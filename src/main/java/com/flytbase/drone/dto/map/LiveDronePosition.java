@@ -0,0 +1,47 @@
+package com.flytbase.drone.dto.map;
+
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the live position of a drone flying a mission, as shown on the live map. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveDronePosition {
+
+  private UUID missionId;
+  private String missionName;
+  private double latitude;
+  private double longitude;
+  private Integer altitude;
+  private Double speed;
+  private Integer batteryLevel;
+  private Double completionPercentage;
+  private LocalDateTime timestamp;
+  private boolean interpolated;
+
+  /**
+   * Create a LiveDronePosition from a mission progress update.
+   *
+   * @param progress the progress update
+   * @return the live position DTO
+   */
+  public static LiveDronePosition fromProgress(MissionProgressResponse progress) {
+    LiveDronePosition position = new LiveDronePosition();
+    position.setMissionId(progress.getMissionId());
+    position.setMissionName(progress.getMissionName());
+    position.setLatitude(progress.getLatitude());
+    position.setLongitude(progress.getLongitude());
+    position.setAltitude(progress.getAltitude());
+    position.setSpeed(progress.getSpeed());
+    position.setBatteryLevel(progress.getBatteryLevel());
+    position.setCompletionPercentage(progress.getCompletionPercentage());
+    position.setTimestamp(progress.getTimestamp());
+    position.setInterpolated(progress.isInterpolated());
+    return position;
+  }
+}
@@ -0,0 +1,24 @@
+package com.flytbase.drone.dto.map;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO sent to a live map client. A full update replaces everything the client shows; otherwise the
+ * client applies the updated positions and drops the removed missions.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveMapUpdate {
+
+  private boolean full;
+  private List<LiveDronePosition> updated = new ArrayList<>();
+  private List<UUID> removed = new ArrayList<>();
+  private LocalDateTime timestamp;
+}
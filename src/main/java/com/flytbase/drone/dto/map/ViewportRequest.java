@@ -0,0 +1,35 @@
+package com.flytbase.drone.dto.map;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the map viewport a live map client wants to receive drone positions for. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ViewportRequest {
+
+  @NotNull(message = "Minimum latitude is required")
+  @Min(value = -90, message = "Latitude must be between -90 and 90")
+  @Max(value = 90, message = "Latitude must be between -90 and 90")
+  private Double minLatitude;
+
+  @NotNull(message = "Minimum longitude is required")
+  @Min(value = -180, message = "Longitude must be between -180 and 180")
+  @Max(value = 180, message = "Longitude must be between -180 and 180")
+  private Double minLongitude;
+
+  @NotNull(message = "Maximum latitude is required")
+  @Min(value = -90, message = "Latitude must be between -90 and 90")
+  @Max(value = 90, message = "Latitude must be between -90 and 90")
+  private Double maxLatitude;
+
+  @NotNull(message = "Maximum longitude is required")
+  @Min(value = -180, message = "Longitude must be between -180 and 180")
+  @Max(value = 180, message = "Longitude must be between -180 and 180")
+  private Double maxLongitude;
+}
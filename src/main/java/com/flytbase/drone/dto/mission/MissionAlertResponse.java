@@ -0,0 +1,42 @@
+package com.flytbase.drone.dto.mission;
+
+import com.flytbase.drone.entity.MissionAlert;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for mission alerts pushed to live monitoring clients. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MissionAlertResponse {
+
+  private UUID id;
+  private UUID missionId;
+  private MissionAlert.AlertType alertType;
+  private MissionAlert.Severity severity;
+  private String message;
+  private LocalDateTime occurredAt;
+  private Boolean acknowledged;
+
+  /**
+   * Convert a MissionAlert entity to a MissionAlertResponse DTO.
+   *
+   * @param alert the alert entity
+   * @param missionId the ID of the mission the alert belongs to
+   * @return the alert response DTO
+   */
+  public static MissionAlertResponse fromEntity(MissionAlert alert, UUID missionId) {
+    MissionAlertResponse response = new MissionAlertResponse();
+    response.setId(alert.getId());
+    response.setMissionId(missionId);
+    response.setAlertType(alert.getAlertType());
+    response.setSeverity(alert.getSeverity());
+    response.setMessage(alert.getMessage());
+    response.setOccurredAt(alert.getOccurredAt());
+    response.setAcknowledged(alert.getAcknowledged());
+    return response;
+  }
+}
@@ -21,9 +21,14 @@ public class MissionProgressResponse {
   private Double longitude;
   private Integer altitude;
   private Double speed;
+  private Double heading;
+  private Double verticalSpeed;
   private Integer batteryLevel;
   private String droneStatus;
   private String missionStatus;
   private Double completionPercentage;
   private LocalDateTime timestamp;
+
+  /** Whether the position was projected from the last sample rather than reported. */
+  private boolean interpolated;
 }
@@ -32,6 +32,7 @@ public class MissionResponse {
   private Double speed;
   private Integer overlapPercentage;
   private String patternType;
+  private UUID groupId;
   private LocalDateTime createdAt;
   private LocalDateTime updatedAt;
 
@@ -62,6 +63,7 @@ public class MissionResponse {
     response.setSpeed(mission.getSpeed());
     response.setOverlapPercentage(mission.getOverlapPercentage());
     response.setPatternType(mission.getPatternType().name());
+    response.setGroupId(mission.getGroupId());
     response.setCreatedAt(mission.getCreatedAt());
     response.setUpdatedAt(mission.getUpdatedAt());
     return response;
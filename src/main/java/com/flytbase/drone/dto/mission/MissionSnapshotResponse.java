@@ -0,0 +1,28 @@
+package com.flytbase.drone.dto.mission;
+
+import com.flytbase.drone.dto.flightpath.FlightPathSummaryResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO sent to a client as soon as it subscribes to a mission topic. Carries the last known live
+ * state so the client does not have to wait for the next telemetry sample or call the REST API.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MissionSnapshotResponse {
+
+  /** Always true; lets clients tell the snapshot apart from regular progress updates. */
+  private boolean snapshot = true;
+
+  private UUID missionId;
+  private MissionProgressResponse progress;
+  private FlightPathSummaryResponse flightPath;
+  private List<MissionAlertResponse> activeAlerts;
+  private LocalDateTime generatedAt;
+}
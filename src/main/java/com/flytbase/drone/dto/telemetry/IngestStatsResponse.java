@@ -0,0 +1,38 @@
+package com.flytbase.drone.dto.telemetry;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for throughput of the telemetry ingest gateway, per transport, and the memory held by the
+ * recent telemetry buffers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestStatsResponse {
+
+  private List<SourceStats> sources = new ArrayList<>();
+  private long batches;
+  private double averageBatchSize;
+  private double averageWriteMs;
+  private int queuedSamples;
+  private int historyBuffers;
+  private long historyBufferBytesPerMission;
+  private long historyBufferBytes;
+
+  /** Counters of a single transport. */
+  @Data
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class SourceStats {
+    private String source;
+    private long accepted;
+    private long duplicates;
+    private long rejected;
+    private double samplesPerSecond;
+  }
+}
@@ -0,0 +1,34 @@
+package com.flytbase.drone.dto.telemetry;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO pushed to a drone with the interval at which it should send telemetry. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryRateResponse {
+
+  /** What the recommended interval is based on. */
+  public enum Reason {
+    /** An alert was raised recently. */
+    ALERT,
+    /** The heading changed between samples. */
+    TURN,
+    /** The drone is close to a waypoint. */
+    WAYPOINT,
+    /** The position along the flight path is not known or not trusted. */
+    UNCERTAIN,
+    /** The drone is on a straight leg. */
+    CRUISE
+  }
+
+  private UUID droneId;
+  private UUID missionId;
+  private long intervalMs;
+  private Reason reason;
+  private LocalDateTime issuedAt;
+}
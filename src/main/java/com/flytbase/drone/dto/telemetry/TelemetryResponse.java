@@ -50,6 +50,9 @@ public class TelemetryResponse {
   private Integer currentWaypointIndex;
   private Double distanceCovered;
 
+  /** Send interval recommended to the drone, when rate control is enabled. */
+  private Long recommendedIntervalMs;
+
   /** Convert entity to DTO. */
   public static TelemetryResponse fromEntity(DroneTelemetry telemetry) {
     TelemetryResponse response = new TelemetryResponse();
@@ -0,0 +1,28 @@
+package com.flytbase.drone.dto.websocket;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** DTO for the delivery state of a single STOMP session. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketSessionResponse {
+
+  private String sessionId;
+  private LocalDateTime connectedAt;
+  private LocalDateTime lastActivity;
+  private int subscriptions;
+  private long heartbeats;
+  private int outboundQueueDepth;
+  private int sendBufferBytes;
+  private long sendInProgressMs;
+  private long lastQueueLatencyMs;
+  private long maxQueueLatencyMs;
+  private long droppedMessages;
+  private long conflatedMessages;
+  private int pendingConflated;
+  private boolean slow;
+}
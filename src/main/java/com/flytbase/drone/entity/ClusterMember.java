@@ -0,0 +1,29 @@
+package com.flytbase.drone.entity;
+
+import java.time.LocalDateTime;
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Entity representing a live application node and the URL other nodes can reach it on. */
+@Entity
+@Table(name = "cluster_members")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterMember {
+
+  @Id
+  @Column(name = "node_id", length = 64)
+  private String nodeId;
+
+  @Column(name = "base_url", nullable = false)
+  private String baseUrl;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "last_heartbeat", nullable = false)
+  private LocalDateTime lastHeartbeat;
+}
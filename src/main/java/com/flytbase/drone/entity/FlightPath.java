@@ -25,12 +25,23 @@ public class FlightPath {
   @Column(name = "waypoints", nullable = false, columnDefinition = "TEXT")
   private String waypoints;
 
+  /** The waypoints in binary form, see {@link com.flytbase.drone.util.geometry.PackedWaypoints}. */
+  @Column(name = "waypoint_data", columnDefinition = "BYTEA")
+  private byte[] waypointData;
+
   @Column(name = "total_distance", precision = 15, scale = 2)
   private BigDecimal totalDistance;
 
   @Column(name = "estimated_duration")
   private Integer estimatedDuration;
 
+  @Column(name = "photo_count")
+  private Integer photoCount;
+
+  /** The photo trigger points, packed like {@link #waypointData}. */
+  @Column(name = "photo_data", columnDefinition = "BYTEA")
+  private byte[] photoData;
+
   @Column(name = "created_at", nullable = false)
   private LocalDateTime createdAt;
 
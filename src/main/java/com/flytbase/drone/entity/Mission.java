@@ -69,6 +69,10 @@ public class Mission {
   @Column(name = "pattern_type", nullable = false)
   private PatternType patternType;
 
+  /** Shared by the missions of drones splitting one survey area between them. */
+  @Column(name = "group_id")
+  private UUID groupId;
+
   @Column(name = "created_at", nullable = false)
   private LocalDateTime createdAt;
 
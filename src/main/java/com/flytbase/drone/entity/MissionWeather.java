@@ -0,0 +1,62 @@
+package com.flytbase.drone.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+
+/** Entity representing weather recorded for a mission. Wind speeds are in meters per second. */
+@Entity
+@Table(
+    name = "mission_weather",
+    indexes = {@Index(name = "idx_weather_mission", columnList = "mission_id")})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MissionWeather {
+
+  @Id
+  @GeneratedValue
+  @Type(type = "org.hibernate.type.UUIDCharType")
+  private UUID id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "mission_id")
+  private Mission mission;
+
+  @Column(name = "recorded_at", nullable = false)
+  private LocalDateTime recordedAt;
+
+  private Double temperature;
+  private Integer humidity;
+
+  @Column(name = "wind_speed")
+  private Double windSpeed;
+
+  /** Direction the wind blows from, in degrees clockwise from north. */
+  @Column(name = "wind_direction")
+  private Integer windDirection;
+
+  private Double visibility;
+  private Double precipitation;
+  private Double pressure;
+
+  @Column(name = "weather_condition", length = 50)
+  private String weatherCondition;
+
+  @Column(name = "cloud_coverage")
+  private Integer cloudCoverage;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  protected void onCreate() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package com.flytbase.drone.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing aggregate WebSocket connection metrics over one reporting interval.
+ * Per-session state is kept in memory only.
+ */
+@Entity
+@Table(name = "websocket_connection_metrics")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebSocketConnectionMetrics {
+
+  @Id @GeneratedValue private UUID id;
+
+  @Column(name = "recorded_at", nullable = false)
+  private LocalDateTime recordedAt;
+
+  @Column(name = "active_sessions", nullable = false)
+  private Integer activeSessions;
+
+  @Column(name = "active_subscriptions", nullable = false)
+  private Integer activeSubscriptions;
+
+  @Column(name = "connects", nullable = false)
+  private Integer connects;
+
+  @Column(name = "disconnects", nullable = false)
+  private Integer disconnects;
+
+  @Column(name = "evictions", nullable = false)
+  private Integer evictions;
+
+  @Column(name = "heartbeats", nullable = false)
+  private Long heartbeats;
+
+  @Column(name = "peak_outbound_queue_depth", nullable = false)
+  private Integer peakOutboundQueueDepth;
+
+  @PrePersist
+  protected void onCreate() {
+    if (recordedAt == null) {
+      recordedAt = LocalDateTime.now();
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.flytbase.drone.exception;
+
+import java.util.Map;
+
+/** Exception for request fields that fail validation outside of bean validation. */
+public class FieldValidationException extends BusinessException {
+
+  private final Map<String, String> errors;
+
+  /**
+   * Create a new field validation exception.
+   *
+   * @param errors the error message per field
+   */
+  public FieldValidationException(Map<String, String> errors) {
+    super(errors.toString());
+    this.errors = errors;
+  }
+
+  /**
+   * Get the error message per field.
+   *
+   * @return the errors
+   */
+  public Map<String, String> getErrors() {
+    return errors;
+  }
+}
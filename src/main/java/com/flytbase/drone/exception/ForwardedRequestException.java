@@ -0,0 +1,53 @@
+package com.flytbase.drone.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+/** Exception for a request rejected by the node it was forwarded to, relayed to the caller. */
+public class ForwardedRequestException extends RuntimeException {
+
+  private final HttpStatus status;
+  private final HttpHeaders headers;
+  private final byte[] body;
+
+  /**
+   * Create a new forwarded request exception.
+   *
+   * @param status the status returned by the other node
+   * @param headers the response headers returned by the other node
+   * @param body the response body returned by the other node
+   */
+  public ForwardedRequestException(HttpStatus status, HttpHeaders headers, byte[] body) {
+    super("Request rejected by forwarding target: " + status);
+    this.status = status;
+    this.headers = headers;
+    this.body = body;
+  }
+
+  /**
+   * Get the status returned by the other node.
+   *
+   * @return the status
+   */
+  public HttpStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Get the response headers returned by the other node.
+   *
+   * @return the headers
+   */
+  public HttpHeaders getHeaders() {
+    return headers;
+  }
+
+  /**
+   * Get the response body returned by the other node.
+   *
+   * @return the body
+   */
+  public byte[] getBody() {
+    return body;
+  }
+}
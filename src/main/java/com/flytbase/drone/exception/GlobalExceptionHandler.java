@@ -6,6 +6,7 @@ import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -48,6 +49,24 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  /**
+   * Handle validation exceptions raised while decoding requests by hand.
+   *
+   * @param ex the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(FieldValidationException.class)
+  public ResponseEntity<ErrorResponse> handleFieldValidationException(FieldValidationException ex) {
+    ErrorResponse errorResponse =
+        new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Validation Error",
+            ex.getErrors().toString(),
+            LocalDateTime.now());
+
+    return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+  }
+
   /**
    * Handle authentication exceptions.
    *
@@ -97,6 +116,22 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
   }
 
+  /**
+   * Handle requests rejected by the node they were forwarded to, relaying that node's status and
+   * body unchanged.
+   *
+   * @param ex the exception
+   * @return the response entity
+   */
+  @ExceptionHandler(ForwardedRequestException.class)
+  public ResponseEntity<byte[]> handleForwardedRequestException(ForwardedRequestException ex) {
+    HttpHeaders headers = new HttpHeaders();
+    if (ex.getHeaders() != null && ex.getHeaders().getContentType() != null) {
+      headers.setContentType(ex.getHeaders().getContentType());
+    }
+    return new ResponseEntity<>(ex.getBody(), headers, ex.getStatus());
+  }
+
   /**
    * Handle general exceptions.
    *
@@ -0,0 +1,22 @@
+package com.flytbase.drone.repository;
+
+import com.flytbase.drone.entity.ClusterMember;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Repository for cluster membership. */
+@Repository
+public interface ClusterMemberRepository extends JpaRepository<ClusterMember, String> {
+
+  /** Find members that sent a heartbeat after the given time. */
+  List<ClusterMember> findByLastHeartbeatAfter(LocalDateTime after);
+
+  /** Delete members whose last heartbeat is older than the given time. */
+  @Modifying
+  @Transactional
+  void deleteByLastHeartbeatBefore(LocalDateTime before);
+}
@@ -38,4 +38,13 @@ public interface DroneTelemetryRepository extends JpaRepository<DroneTelemetry,
 
   /** Count telemetry records for a mission. */
   long countByMissionId(UUID missionId);
+
+  /** Find the timestamps of the telemetry stored for a mission within a time range. */
+  @Query(
+      "SELECT t.timestamp FROM DroneTelemetry t WHERE t.mission.id = :missionId "
+          + "AND t.timestamp BETWEEN :startTime AND :endTime")
+  List<LocalDateTime> findTimestamps(
+      @Param("missionId") UUID missionId,
+      @Param("startTime") LocalDateTime startTime,
+      @Param("endTime") LocalDateTime endTime);
 }
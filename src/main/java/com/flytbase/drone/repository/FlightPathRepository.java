@@ -4,7 +4,12 @@ import com.flytbase.drone.entity.FlightPath;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 /** Repository for FlightPath entity. */
 @Repository
@@ -32,4 +37,16 @@ public interface FlightPathRepository extends JpaRepository<FlightPath, UUID> {
    * @return true if a flight path exists for the mission, false otherwise
    */
   boolean existsByMissionId(UUID missionId);
+
+  /**
+   * Store the binary waypoints of a flight path. Runs in its own transaction, so that paths loaded
+   * within read-only transactions can be filled in.
+   *
+   * @param id the flight path ID
+   * @param waypointData the binary waypoints
+   */
+  @Modifying
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  @Query("UPDATE FlightPath f SET f.waypointData = :waypointData WHERE f.id = :id")
+  void updateWaypointData(@Param("id") UUID id, @Param("waypointData") byte[] waypointData);
 }
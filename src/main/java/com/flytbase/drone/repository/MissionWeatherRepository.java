@@ -0,0 +1,15 @@
+package com.flytbase.drone.repository;
+
+import com.flytbase.drone.entity.MissionWeather;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/** Repository for mission weather operations. */
+@Repository
+public interface MissionWeatherRepository extends JpaRepository<MissionWeather, UUID> {
+
+  /** Find the latest weather recorded for a mission. */
+  Optional<MissionWeather> findFirstByMissionIdOrderByRecordedAtDesc(UUID missionId);
+}
@@ -0,0 +1,17 @@
+package com.flytbase.drone.repository;
+
+import com.flytbase.drone.entity.WebSocketConnectionMetrics;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/** Repository for aggregate WebSocket connection metrics. */
+@Repository
+public interface WebSocketConnectionMetricsRepository
+    extends JpaRepository<WebSocketConnectionMetrics, UUID> {
+
+  /** Find metrics recorded after the given time, oldest first. */
+  List<WebSocketConnectionMetrics> findByRecordedAtAfterOrderByRecordedAtAsc(LocalDateTime after);
+}
@@ -0,0 +1,112 @@
+package com.flytbase.drone.service;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import com.flytbase.drone.entity.FlightPath;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.repository.FlightPathRepository;
+import com.flytbase.drone.util.geometry.PackedWaypoints;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded LRU cache of the parsed waypoints of flight paths, keyed by mission ID. Paths are loaded
+ * from the binary waypoint data stored next to the JSON; paths stored before that column existed
+ * are parsed from the JSON once and their binary data is written back.
+ */
+@Service
+@Slf4j
+public class FlightPathCache {
+
+  private final FlightPathRepository flightPathRepository;
+  private final Map<UUID, PackedWaypoints> paths;
+
+  @Autowired
+  public FlightPathCache(
+      FlightPathRepository flightPathRepository, FlightPathConfig flightPathConfig) {
+    this.flightPathRepository = flightPathRepository;
+    int capacity = Math.max(1, flightPathConfig.getCacheCapacity());
+    this.paths =
+        new LinkedHashMap<UUID, PackedWaypoints>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<UUID, PackedWaypoints> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /**
+   * Parse waypoint JSON into the form stored and cached.
+   *
+   * @param waypoints the waypoint JSON
+   * @return the waypoints
+   */
+  public static PackedWaypoints parse(String waypoints) {
+    try {
+      return PackedWaypoints.parseJson(waypoints);
+    } catch (IOException e) {
+      throw new BusinessException("Invalid waypoints: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Get the waypoints of a mission's flight path, loading them if not cached.
+   *
+   * @param missionId the mission ID
+   * @return the waypoints, or empty if the mission has no flight path
+   */
+  public Optional<PackedWaypoints> get(UUID missionId) {
+    synchronized (paths) {
+      PackedWaypoints cached = paths.get(missionId);
+      if (cached != null) {
+        return Optional.of(cached);
+      }
+    }
+    return flightPathRepository.findByMissionId(missionId).map(this::load);
+  }
+
+  /**
+   * Get the waypoints of a flight path that was just read or written, caching them.
+   *
+   * @param flightPath the flight path entity
+   * @return the waypoints
+   */
+  public PackedWaypoints load(FlightPath flightPath) {
+    PackedWaypoints waypoints;
+    if (flightPath.getWaypointData() != null) {
+      waypoints = PackedWaypoints.decode(flightPath.getWaypointData());
+    } else {
+      waypoints = parse(flightPath.getWaypoints());
+      flightPath.setWaypointData(waypoints.encode());
+      try {
+        flightPathRepository.updateWaypointData(flightPath.getId(), flightPath.getWaypointData());
+      } catch (Exception e) {
+        // Parsed again next time it is loaded
+        log.warn(
+            "Failed to store binary waypoints of flight path {}: {}",
+            flightPath.getId(),
+            e.getMessage());
+      }
+    }
+    synchronized (paths) {
+      paths.put(flightPath.getMission().getId(), waypoints);
+    }
+    return waypoints;
+  }
+
+  /**
+   * Drop the cached waypoints of a mission, once its flight path is replaced or deleted.
+   *
+   * @param missionId the mission ID
+   */
+  public void invalidate(UUID missionId) {
+    synchronized (paths) {
+      paths.remove(missionId);
+    }
+  }
+}
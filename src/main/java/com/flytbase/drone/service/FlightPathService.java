@@ -1,19 +1,30 @@
 package com.flytbase.drone.service;
 
+import com.flytbase.drone.config.FlightPathConfig;
 import com.flytbase.drone.dto.flightpath.FlightPathRequest;
 import com.flytbase.drone.dto.flightpath.FlightPathResponse;
+import com.flytbase.drone.dto.flightpath.PhotoPointsResponse;
+import com.flytbase.drone.dto.flightpath.SortiePlanResponse;
+import com.flytbase.drone.entity.Drone;
 import com.flytbase.drone.entity.FlightPath;
 import com.flytbase.drone.entity.Mission;
-import com.flytbase.drone.entity.SurveyArea;
+import com.flytbase.drone.entity.MissionWeather;
 import com.flytbase.drone.entity.User;
 import com.flytbase.drone.exception.BusinessException;
 import com.flytbase.drone.repository.FlightPathRepository;
 import com.flytbase.drone.repository.MissionRepository;
-import com.flytbase.drone.util.geometry.GeoJsonParser;
+import com.flytbase.drone.repository.MissionWeatherRepository;
+import com.flytbase.drone.service.PatternCache.GeneratedPattern;
+import com.flytbase.drone.util.geometry.FlightTimeEstimator;
+import com.flytbase.drone.util.geometry.PackedWaypoints;
+import com.flytbase.drone.util.geometry.PhotoPlanner;
+import com.flytbase.drone.util.geometry.SortiePlanner;
 import com.flytbase.drone.util.geometry.WaypointGenerator;
-import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.locationtech.jts.geom.Polygon;
 import org.springframework.stereotype.Service;
@@ -27,9 +38,16 @@ public class FlightPathService {
 
   private final FlightPathRepository flightPathRepository;
   private final MissionRepository missionRepository;
+  private final MissionWeatherRepository missionWeatherRepository;
   private final UserService userService;
-  private final GeoJsonParser geoJsonParser;
   private final WaypointGenerator waypointGenerator;
+  private final MissionLiveStateService liveStateService;
+  private final FlightPathCache flightPathCache;
+  private final PatternCache patternCache;
+  private final SortiePlanner sortiePlanner;
+  private final FlightTimeEstimator flightTimeEstimator;
+  private final PhotoPlanner photoPlanner;
+  private final FlightPathConfig flightPathConfig;
 
   /**
    * Get a flight path by mission ID.
@@ -85,14 +103,43 @@ public class FlightPathService {
         flightPathRepository.findByMissionId(missionId).orElse(new FlightPath());
 
     flightPath.setMission(mission);
+    PackedWaypoints waypoints = FlightPathCache.parse(request.getWaypoints());
     flightPath.setWaypoints(request.getWaypoints());
+    flightPath.setWaypointData(waypoints.encode());
+    setPhotos(flightPath, mission, waypoints);
     flightPath.setTotalDistance(BigDecimal.valueOf(request.getTotalDistance()));
     flightPath.setEstimatedDuration(request.getEstimatedDuration());
 
     flightPath = flightPathRepository.save(flightPath);
+    flightPathCache.invalidate(missionId);
+    liveStateService.updateFlightPath(flightPath);
     return FlightPathResponse.fromEntity(flightPath);
   }
 
+  /**
+   * Plan the photos of a flight path, triggered along it by the footprint of the mission drone's
+   * camera. Paths of missions without an altitude, or at full overlap, get no photos.
+   */
+  private void setPhotos(FlightPath flightPath, Mission mission, PackedWaypoints waypoints) {
+    PackedWaypoints photos = null;
+    if (mission.getFlightAltitude() != null && mission.getOverlapPercentage() != null) {
+      double distance =
+          PhotoPlanner.triggerDistance(
+              cameraOf(mission.getDrone()),
+              mission.getFlightAltitude(),
+              mission.getOverlapPercentage());
+      if (distance > 0) {
+        try {
+          photos = PhotoPlanner.triggerPoints(waypoints, distance);
+        } catch (IllegalArgumentException e) {
+          throw new BusinessException("Cannot plan photos: " + e.getMessage());
+        }
+      }
+    }
+    flightPath.setPhotoCount(photos != null ? photos.size() : null);
+    flightPath.setPhotoData(photos != null ? photos.encode() : null);
+  }
+
   /**
    * Delete a flight path.
    *
@@ -115,82 +162,207 @@ public class FlightPathService {
     }
 
     flightPathRepository.deleteByMissionId(missionId);
+    flightPathCache.invalidate(missionId);
+    liveStateService.removeFlightPath(missionId);
   }
 
   /**
-   * Generate a linear pattern flight path.
+   * Get the photo trigger points of a mission's flight path.
    *
-   * @param surveyArea the survey area
-   * @param altitude the flight altitude
-   * @param overlapPercentage the overlap percentage
-   * @return the generated waypoints as a JSON string
+   * @param missionId the mission ID
+   * @return the photo points, none if they were not planned
    */
-  public String generateLinearPattern(SurveyArea surveyArea, int altitude, int overlapPercentage) {
+  @Transactional(readOnly = true)
+  public PhotoPointsResponse getPhotoPoints(UUID missionId) {
+    User currentUser = userService.getCurrentUser();
+
+    // Validate mission
+    Mission mission =
+        missionRepository
+            .findById(missionId)
+            .filter(m -> m.getOrganization().getId().equals(currentUser.getOrganization().getId()))
+            .orElseThrow(() -> new BusinessException("Mission not found with ID: " + missionId));
+
+    FlightPath flightPath =
+        flightPathRepository
+            .findByMissionId(missionId)
+            .orElseThrow(
+                () -> new BusinessException("Flight path not found for mission ID: " + missionId));
+
+    List<PhotoPointsResponse.PhotoPoint> points =
+        flightPath.getPhotoData() != null
+            ? PhotoPointsResponse.toPoints(PackedWaypoints.decode(flightPath.getPhotoData()))
+            : new ArrayList<>();
+    FlightPathConfig.Camera camera = cameraOf(mission.getDrone());
+    Double groundSamplingDistanceCm =
+        mission.getFlightAltitude() != null
+            ? PhotoPlanner.groundSamplingDistance(camera, mission.getFlightAltitude()) * 100
+            : null;
+    return new PhotoPointsResponse(missionId, points.size(), groundSamplingDistanceCm, points);
+  }
+
+  /**
+   * Split a mission's flight path into sorties that each fit on one battery of its drone.
+   *
+   * @param missionId the mission ID
+   * @return the sortie plan
+   */
+  @Transactional(readOnly = true)
+  public SortiePlanResponse planSorties(UUID missionId) {
+    User currentUser = userService.getCurrentUser();
+
+    // Validate mission
+    Mission mission =
+        missionRepository
+            .findById(missionId)
+            .filter(m -> m.getOrganization().getId().equals(currentUser.getOrganization().getId()))
+            .orElseThrow(() -> new BusinessException("Mission not found with ID: " + missionId));
+
+    PackedWaypoints waypoints =
+        flightPathCache
+            .get(missionId)
+            .orElseThrow(
+                () -> new BusinessException("Flight path not found for mission ID: " + missionId));
+
+    Drone drone = mission.getDrone();
+    List<SortiePlanner.Sortie> sorties;
     try {
-      // Parse the boundary polygon from GeoJSON
-      Polygon boundary = geoJsonParser.parsePolygon(surveyArea.getBoundaryPolygon());
-
-      // Calculate spacing based on overlap percentage
-      // For simplicity, we'll use a fixed base spacing and adjust by overlap
-      double baseSpacing = 50.0; // 50 meters between lines
-      double spacing = baseSpacing * (1.0 - (overlapPercentage / 100.0));
-
-      // Generate the waypoints
-      return waypointGenerator.generateLinearPattern(boundary, altitude, spacing);
-    } catch (IOException e) {
-      throw new BusinessException("Failed to parse boundary polygon: " + e.getMessage());
+      sorties =
+          sortiePlanner.plan(
+              waypoints,
+              drone.getHomeLocationLongitude(),
+              drone.getHomeLocationLatitude(),
+              speedOf(mission));
+    } catch (IllegalArgumentException e) {
+      throw new BusinessException("Cannot split flight path into sorties: " + e.getMessage());
     }
+
+    FlightPathConfig.Battery battery = flightPathConfig.getBattery();
+    double usableWh = battery.getCapacityWh() * (1 - battery.getReservePercent() / 100);
+    return new SortiePlanResponse(
+        missionId,
+        battery.getCapacityWh(),
+        usableWh,
+        sorties.stream()
+            .map(sortie -> SortiePlanResponse.Sortie.fromSortie(sortie, battery.getCapacityWh()))
+            .collect(Collectors.toList()));
   }
 
   /**
-   * Generate a crosshatch pattern flight path.
+   * Generate a pattern over a mission's survey area, reusing the result of an earlier generation
+   * over the same boundary with the same settings.
    *
-   * @param surveyArea the survey area
+   * @param mission the mission, whose drone's camera spaces the lines and whose speed the sweep
+   *     direction is chosen for
+   * @param patternType the pattern type
    * @param altitude the flight altitude
    * @param overlapPercentage the overlap percentage
-   * @return the generated waypoints as a JSON string
+   * @return the generated pattern
    */
-  public String generateCrosshatchPattern(
-      SurveyArea surveyArea, int altitude, int overlapPercentage) {
+  public GeneratedPattern generatePattern(
+      Mission mission, Mission.PatternType patternType, int altitude, int overlapPercentage) {
+    PatternCache.Boundary boundary = patternCache.getBoundary(mission.getSurveyArea());
+    boolean perimeter = patternType == Mission.PatternType.PERIMETER;
+    double parameter =
+        perimeter
+            ? perimeterRings(overlapPercentage)
+            : lineSpacing(mission.getDrone(), altitude, overlapPercentage);
+    // Perimeter rings do not depend on the speed, so they are shared across speeds
+    double speed = perimeter ? 0 : speedOf(mission);
+    return patternCache.get(
+        boundary,
+        patternType,
+        altitude,
+        parameter,
+        speed,
+        polygon -> toPattern(generateWaypoints(polygon, patternType, altitude, parameter, speed)));
+  }
+
+  private String generateWaypoints(
+      Polygon boundary,
+      Mission.PatternType patternType,
+      int altitude,
+      double parameter,
+      double speed) {
     try {
-      // Parse the boundary polygon from GeoJSON
-      Polygon boundary = geoJsonParser.parsePolygon(surveyArea.getBoundaryPolygon());
+      switch (patternType) {
+        case LINEAR:
+          return waypointGenerator.generateLinearPattern(boundary, altitude, parameter, speed);
+        case CROSSHATCH:
+          return waypointGenerator.generateCrosshatchPattern(boundary, altitude, parameter, speed);
+        case PERIMETER:
+          return waypointGenerator.generatePerimeterPattern(boundary, altitude, (int) parameter);
+        default:
+          throw new BusinessException("Unsupported pattern type: " + patternType);
+      }
+    } catch (IllegalArgumentException e) {
+      throw new BusinessException("Cannot plan flight path: " + e.getMessage());
+    }
+  }
 
-      // Calculate spacing based on overlap percentage
-      double baseSpacing = 50.0; // 50 meters between lines
-      double spacing = baseSpacing * (1.0 - (overlapPercentage / 100.0));
+  private GeneratedPattern toPattern(String waypoints) {
+    return new GeneratedPattern(waypoints, FlightPathCache.parse(waypoints));
+  }
 
-      // Generate the waypoints
-      return waypointGenerator.generateCrosshatchPattern(boundary, altitude, spacing);
-    } catch (IOException e) {
-      throw new BusinessException("Failed to parse boundary polygon: " + e.getMessage());
+  /**
+   * Estimate the time a mission's drone takes to fly a path, at the mission speed and in the latest
+   * wind recorded for the mission.
+   *
+   * @param mission the mission
+   * @param path the flight path
+   * @return the estimated duration in minutes
+   */
+  public int estimateDuration(Mission mission, PackedWaypoints path) {
+    double windSpeed = 0;
+    double windDirection = 0;
+    if (flightPathConfig.getFlight().isWindEnabled() && mission.getId() != null) {
+      MissionWeather weather =
+          missionWeatherRepository
+              .findFirstByMissionIdOrderByRecordedAtDesc(mission.getId())
+              .orElse(null);
+      if (weather != null && weather.getWindSpeed() != null && weather.getWindDirection() != null) {
+        windSpeed = weather.getWindSpeed();
+        windDirection = weather.getWindDirection();
+      }
+    }
+    try {
+      double seconds =
+          flightTimeEstimator.estimateSeconds(path, speedOf(mission), windSpeed, windDirection);
+      return (int) Math.ceil(seconds / 60);
+    } catch (IllegalArgumentException e) {
+      throw new BusinessException("Cannot estimate flight duration: " + e.getMessage());
     }
   }
 
+  /** Get the speed a mission is flown at, the cruise speed if it has none. */
+  private double speedOf(Mission mission) {
+    return mission.getSpeed() != null
+        ? mission.getSpeed()
+        : flightPathConfig.getSweep().getCruiseSpeed();
+  }
+
   /**
-   * Generate a perimeter pattern flight path.
+   * Get the spacing between sweep lines for a drone: the ground footprint width of its camera at
+   * the altitude, reduced by the overlap.
    *
-   * @param surveyArea the survey area
+   * @param drone the drone, or null for the default camera
    * @param altitude the flight altitude
-   * @param overlapPercentage the overlap percentage
-   * @return the generated waypoints as a JSON string
+   * @param overlapPercentage the side overlap percentage
+   * @return the spacing in meters
    */
-  public String generatePerimeterPattern(
-      SurveyArea surveyArea, int altitude, int overlapPercentage) {
-    try {
-      // Parse the boundary polygon from GeoJSON
-      Polygon boundary = geoJsonParser.parsePolygon(surveyArea.getBoundaryPolygon());
-
-      // For perimeter pattern, we'll use the overlap percentage to determine
-      // the number of concentric rings (1-3 rings based on percentage)
-      int numRings =
-          1 + (overlapPercentage / 50); // 0-49% = 1 ring, 50-99% = 2 rings, 100% = 3 rings
-      numRings = Math.min(numRings, 3); // Cap at 3 rings
-
-      // Generate the waypoints
-      return waypointGenerator.generatePerimeterPattern(boundary, altitude, numRings);
-    } catch (IOException e) {
-      throw new BusinessException("Failed to parse boundary polygon: " + e.getMessage());
-    }
+  public double lineSpacing(Drone drone, int altitude, int overlapPercentage) {
+    return PhotoPlanner.lineSpacing(cameraOf(drone), altitude, overlapPercentage);
+  }
+
+  private FlightPathConfig.Camera cameraOf(Drone drone) {
+    return photoPlanner.getCamera(drone != null ? drone.getModel() : null);
+  }
+
+  /**
+   * Get the number of concentric perimeter rings for an overlap: 1 ring below 50%, 2 below 100%, 3
+   * at 100%.
+   */
+  private static int perimeterRings(int overlapPercentage) {
+    return Math.min(1 + overlapPercentage / 50, 3);
   }
 }
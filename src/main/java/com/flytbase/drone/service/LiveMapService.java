@@ -0,0 +1,308 @@
+package com.flytbase.drone.service;
+
+import com.flytbase.drone.config.LiveMapConfig;
+import com.flytbase.drone.dto.map.LiveDronePosition;
+import com.flytbase.drone.dto.map.LiveMapUpdate;
+import com.flytbase.drone.dto.map.ViewportRequest;
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.util.geometry.GeoGrid;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Service behind live map viewport subscriptions. Live drone positions are kept in a uniform grid
+ * that is updated in O(1) per sample; position changes are collected per tick and matched against
+ * the viewports registered on the changed cells, so each client only receives drones inside its
+ * bounding box.
+ */
+@Service
+public class LiveMapService {
+
+  /** User destination live map updates are sent to; clients subscribe to /user/queue/map. */
+  public static final String MAP_DESTINATION = "/queue/map";
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final LiveMapConfig liveMapConfig;
+  private final GeoGrid grid;
+
+  // Live positions, the cell each mission currently sits in and the missions in each cell
+  private final Map<UUID, LiveDronePosition> positions = new ConcurrentHashMap<>();
+  private final Map<UUID, Long> missionCells = new ConcurrentHashMap<>();
+  private final Map<Long, Set<UUID>> cellMembers = new ConcurrentHashMap<>();
+
+  // Missions that moved since the last tick, with the cell they were in at the last tick
+  private final Map<UUID, CellChange> changes = new ConcurrentHashMap<>();
+
+  // Viewport subscriptions by session, and the sessions registered on each cell
+  private final Map<String, Viewport> viewports = new ConcurrentHashMap<>();
+  private final Map<Long, Set<String>> cellSubscribers = new ConcurrentHashMap<>();
+  private final Set<String> wideViewports = ConcurrentHashMap.newKeySet();
+
+  @Autowired
+  public LiveMapService(SimpMessagingTemplate messagingTemplate, LiveMapConfig liveMapConfig) {
+    this.messagingTemplate = messagingTemplate;
+    this.liveMapConfig = liveMapConfig;
+    this.grid = new GeoGrid(liveMapConfig.getCellSizeDegrees());
+  }
+
+  /**
+   * Record the latest position of a mission's drone.
+   *
+   * @param missionId the mission ID
+   * @param progress the progress update carrying the position
+   */
+  public void updatePosition(UUID missionId, MissionProgressResponse progress) {
+    if (progress.getLatitude() == null || progress.getLongitude() == null) {
+      return;
+    }
+
+    LiveDronePosition position = LiveDronePosition.fromProgress(progress);
+    position.setMissionId(missionId);
+    long cell = grid.cellKey(position.getLatitude(), position.getLongitude());
+
+    positions.put(missionId, position);
+    Long previousCell = missionCells.put(missionId, cell);
+    if (previousCell == null || previousCell != cell) {
+      if (previousCell != null) {
+        removeFromCell(previousCell, missionId);
+      }
+      cellMembers.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet()).add(missionId);
+    }
+    recordChange(missionId, previousCell, cell);
+  }
+
+  /**
+   * Remove a mission from the live map, typically once it has completed or been aborted.
+   *
+   * @param missionId the mission ID
+   */
+  public void removeMission(UUID missionId) {
+    positions.remove(missionId);
+    Long previousCell = missionCells.remove(missionId);
+    if (previousCell != null) {
+      removeFromCell(previousCell, missionId);
+      recordChange(missionId, previousCell, null);
+    }
+  }
+
+  /**
+   * Register or replace the viewport of a session and send it every drone currently inside.
+   *
+   * @param sessionId the STOMP session ID
+   * @param request the viewport bounding box
+   */
+  public void setViewport(String sessionId, ViewportRequest request) {
+    if (request.getMinLatitude() > request.getMaxLatitude()
+        || request.getMinLongitude() > request.getMaxLongitude()) {
+      throw new BusinessException("Viewport minimum must not exceed maximum");
+    }
+
+    clearViewport(sessionId);
+
+    Viewport viewport = new Viewport(request);
+    long columns = (long) viewport.maxColumn - viewport.minColumn + 1;
+    long rows = (long) viewport.maxRow - viewport.minRow + 1;
+    viewport.wide = columns * rows > liveMapConfig.getMaxViewportCells();
+
+    LiveMapUpdate update = new LiveMapUpdate();
+    update.setFull(true);
+    synchronized (viewport) {
+      viewports.put(sessionId, viewport);
+      if (viewport.wide) {
+        wideViewports.add(sessionId);
+        for (LiveDronePosition position : positions.values()) {
+          showInitial(viewport, position, update);
+        }
+      } else {
+        for (int column = viewport.minColumn; column <= viewport.maxColumn; column++) {
+          for (int row = viewport.minRow; row <= viewport.maxRow; row++) {
+            long key = GeoGrid.key(column, row);
+            cellSubscribers.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(sessionId);
+            for (UUID missionId : cellMembers.getOrDefault(key, Collections.emptySet())) {
+              showInitial(viewport, positions.get(missionId), update);
+            }
+          }
+        }
+      }
+    }
+
+    send(sessionId, update);
+  }
+
+  /**
+   * Drop the viewport of a session.
+   *
+   * @param sessionId the STOMP session ID
+   */
+  public void clearViewport(String sessionId) {
+    Viewport viewport = viewports.remove(sessionId);
+    if (viewport == null) {
+      return;
+    }
+
+    if (viewport.wide) {
+      wideViewports.remove(sessionId);
+      return;
+    }
+    for (int column = viewport.minColumn; column <= viewport.maxColumn; column++) {
+      for (int row = viewport.minRow; row <= viewport.maxRow; row++) {
+        long key = GeoGrid.key(column, row);
+        Set<String> subscribers = cellSubscribers.get(key);
+        if (subscribers != null) {
+          subscribers.remove(sessionId);
+          if (subscribers.isEmpty()) {
+            cellSubscribers.remove(key, subscribers);
+          }
+        }
+      }
+    }
+  }
+
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    clearViewport(event.getSessionId());
+  }
+
+  /** Match the positions changed since the last tick against the registered viewports. */
+  @Scheduled(fixedDelayString = "${app.live-map.tick-ms:250}")
+  public void tick() {
+    if (changes.isEmpty()) {
+      return;
+    }
+
+    Map<String, LiveMapUpdate> updates = new HashMap<>();
+    for (UUID missionId : new ArrayList<>(changes.keySet())) {
+      CellChange change = changes.remove(missionId);
+      if (change == null) {
+        continue;
+      }
+
+      Set<String> candidates = new HashSet<>(wideViewports);
+      addSubscribers(candidates, change.fromCell);
+      addSubscribers(candidates, change.toCell);
+
+      LiveDronePosition position = positions.get(missionId);
+      for (String sessionId : candidates) {
+        Viewport viewport = viewports.get(sessionId);
+        if (viewport == null) {
+          continue;
+        }
+        synchronized (viewport) {
+          if (position != null && viewport.contains(position)) {
+            viewport.visible.add(missionId);
+            updateFor(updates, sessionId).getUpdated().add(position);
+          } else if (viewport.visible.remove(missionId)) {
+            updateFor(updates, sessionId).getRemoved().add(missionId);
+          }
+        }
+      }
+    }
+
+    updates.forEach(this::send);
+  }
+
+  private void showInitial(Viewport viewport, LiveDronePosition position, LiveMapUpdate update) {
+    if (position != null && viewport.contains(position)) {
+      update.getUpdated().add(position);
+      viewport.visible.add(position.getMissionId());
+    }
+  }
+
+  private LiveMapUpdate updateFor(Map<String, LiveMapUpdate> updates, String sessionId) {
+    return updates.computeIfAbsent(sessionId, id -> new LiveMapUpdate());
+  }
+
+  private void recordChange(UUID missionId, Long fromCell, Long toCell) {
+    changes.merge(
+        missionId,
+        new CellChange(fromCell, toCell),
+        (previous, current) -> new CellChange(previous.fromCell, current.toCell));
+  }
+
+  private void removeFromCell(long cell, UUID missionId) {
+    Set<UUID> members = cellMembers.get(cell);
+    if (members != null) {
+      members.remove(missionId);
+      if (members.isEmpty()) {
+        cellMembers.remove(cell, members);
+      }
+    }
+  }
+
+  private void addSubscribers(Set<String> candidates, Long cell) {
+    if (cell != null) {
+      Set<String> subscribers = cellSubscribers.get(cell);
+      if (subscribers != null) {
+        candidates.addAll(subscribers);
+      }
+    }
+  }
+
+  private void send(String sessionId, LiveMapUpdate update) {
+    update.setTimestamp(LocalDateTime.now());
+    SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    headers.setSessionId(sessionId);
+    headers.setLeaveMutable(true);
+    messagingTemplate.convertAndSendToUser(
+        sessionId, MAP_DESTINATION, update, headers.getMessageHeaders());
+  }
+
+  /** Change of cell of a mission between two ticks; null means not on the map. */
+  private static class CellChange {
+    private final Long fromCell;
+    private final Long toCell;
+
+    private CellChange(Long fromCell, Long toCell) {
+      this.fromCell = fromCell;
+      this.toCell = toCell;
+    }
+  }
+
+  /** Viewport of a single session and the missions it currently shows. */
+  private class Viewport {
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double maxLatitude;
+    private final double maxLongitude;
+    private final int minColumn;
+    private final int maxColumn;
+    private final int minRow;
+    private final int maxRow;
+    private final Set<UUID> visible = new HashSet<>();
+    private boolean wide;
+
+    private Viewport(ViewportRequest request) {
+      this.minLatitude = request.getMinLatitude();
+      this.minLongitude = request.getMinLongitude();
+      this.maxLatitude = request.getMaxLatitude();
+      this.maxLongitude = request.getMaxLongitude();
+      this.minColumn = grid.column(minLongitude);
+      this.maxColumn = grid.column(maxLongitude);
+      this.minRow = grid.row(minLatitude);
+      this.maxRow = grid.row(maxLatitude);
+    }
+
+    private boolean contains(LiveDronePosition position) {
+      return position.getLatitude() >= minLatitude
+          && position.getLatitude() <= maxLatitude
+          && position.getLongitude() >= minLongitude
+          && position.getLongitude() <= maxLongitude;
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package com.flytbase.drone.service;
+
+import com.flytbase.drone.config.LiveTrackConfig;
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.util.geometry.DistanceCalculator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.locationtech.jts.geom.Coordinate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Publishes dead-reckoned positions of active missions between telemetry samples, so that live
+ * tracks render smoothly while drones report at a low rate. Every tick, the position of each drone
+ * is projected from its last reported sample along the heading at the ground speed, and the
+ * altitude along the vertical speed. Projected frames are marked {@code interpolated} and go to the
+ * mission topic and the live map, never into the live state. A reported sample replaces the
+ * projection before it is delivered: once {@link #update} returns, no frame projected from an
+ * earlier sample is sent, so a projection never overtakes the sample that superseded it.
+ *
+ * <p>Samples without a heading, such as STOMP progress frames, are projected along the course
+ * between the last two reported positions. Hovering drones are not projected, and projection stops
+ * {@code app.live-track.max-extrapolation-ms} after the last sample. Every node projects the
+ * progress it delivers, including progress published by other nodes, so projected frames are never
+ * sent across the cluster.
+ */
+@Service
+public class LiveTrackInterpolator {
+
+  /** Time without samples after which a track is dropped, in multiples of the projection time. */
+  private static final int EXPIRY_FACTOR = 10;
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final LiveMapService liveMapService;
+  private final DistanceCalculator distanceCalculator;
+  private final LiveTrackConfig liveTrackConfig;
+
+  private final Map<UUID, Track> tracks = new ConcurrentHashMap<>();
+
+  @Autowired
+  public LiveTrackInterpolator(
+      SimpMessagingTemplate messagingTemplate,
+      LiveMapService liveMapService,
+      DistanceCalculator distanceCalculator,
+      LiveTrackConfig liveTrackConfig) {
+    this.messagingTemplate = messagingTemplate;
+    this.liveMapService = liveMapService;
+    this.distanceCalculator = distanceCalculator;
+    this.liveTrackConfig = liveTrackConfig;
+  }
+
+  /**
+   * Restart the projection of a mission from a reported sample.
+   *
+   * @param missionId the mission ID
+   * @param progress the reported progress
+   */
+  public void update(UUID missionId, MissionProgressResponse progress) {
+    if (!liveTrackConfig.isEnabled()) {
+      return;
+    }
+    if (!Mission.MissionStatus.ACTIVE.name().equals(progress.getMissionStatus())
+        || progress.getLatitude() == null
+        || progress.getLongitude() == null) {
+      retire(tracks.remove(missionId));
+      return;
+    }
+
+    Track previous = tracks.get(missionId);
+    Double course = progress.getHeading();
+    if (course == null && previous != null) {
+      double bearing =
+          distanceCalculator.calculateBearing(
+              previous.sample.getLongitude(),
+              previous.sample.getLatitude(),
+              progress.getLongitude(),
+              progress.getLatitude());
+      // At the same position, keep the previous course
+      course = Double.isNaN(bearing) ? previous.course : Double.valueOf(bearing);
+    }
+    retire(tracks.put(missionId, new Track(progress, course, System.currentTimeMillis())));
+  }
+
+  /**
+   * Stop projecting a mission, typically once it has completed or been aborted.
+   *
+   * @param missionId the mission ID
+   */
+  public void remove(UUID missionId) {
+    retire(tracks.remove(missionId));
+  }
+
+  /** Publish the projected position of every moving drone. */
+  @Scheduled(fixedRateString = "${app.live-track.tick-ms:100}")
+  public void tick() {
+    if (!liveTrackConfig.isEnabled() || tracks.isEmpty()) {
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    long maxAge = liveTrackConfig.getMaxExtrapolationMs();
+    for (Map.Entry<UUID, Track> entry : tracks.entrySet()) {
+      Track track = entry.getValue();
+      long elapsed = now - track.receivedAt;
+      if (elapsed > maxAge * EXPIRY_FACTOR) {
+        tracks.remove(entry.getKey(), track);
+        continue;
+      }
+      if (elapsed > maxAge || !track.isMoving(liveTrackConfig.getMinSpeed())) {
+        continue;
+      }
+
+      MissionProgressResponse frame = project(track, elapsed);
+      synchronized (track) {
+        // Replaced by a reported sample while projecting
+        if (track.retired) {
+          continue;
+        }
+        messagingTemplate.convertAndSend("/topic/missions/" + entry.getKey(), frame);
+        liveMapService.updatePosition(entry.getKey(), frame);
+      }
+    }
+  }
+
+  /** Stop a replaced track from publishing, waiting for a projection of it being sent. */
+  private static void retire(Track track) {
+    if (track != null) {
+      synchronized (track) {
+        track.retired = true;
+      }
+    }
+  }
+
+  private MissionProgressResponse project(Track track, long elapsedMs) {
+    MissionProgressResponse sample = track.sample;
+    double seconds = elapsedMs / 1000.0;
+
+    MissionProgressResponse frame = new MissionProgressResponse();
+    frame.setMissionId(sample.getMissionId());
+    frame.setMissionName(sample.getMissionName());
+    frame.setCurrentWaypointIndex(sample.getCurrentWaypointIndex());
+    frame.setTotalWaypoints(sample.getTotalWaypoints());
+    frame.setSpeed(sample.getSpeed());
+    frame.setHeading(track.course);
+    frame.setVerticalSpeed(sample.getVerticalSpeed());
+    frame.setBatteryLevel(sample.getBatteryLevel());
+    frame.setDroneStatus(sample.getDroneStatus());
+    frame.setMissionStatus(sample.getMissionStatus());
+    frame.setCompletionPercentage(sample.getCompletionPercentage());
+    frame.setInterpolated(true);
+    if (sample.getTimestamp() != null) {
+      frame.setTimestamp(sample.getTimestamp().plusNanos(elapsedMs * 1_000_000L));
+    }
+
+    Coordinate position = new Coordinate(sample.getLongitude(), sample.getLatitude());
+    if (track.course != null && sample.getSpeed() != null) {
+      position =
+          distanceCalculator.calculatePointAtDistance(
+              position, sample.getSpeed() * seconds, track.course);
+    }
+    frame.setLatitude(position.y);
+    frame.setLongitude(position.x);
+
+    if (sample.getAltitude() != null) {
+      double climb = sample.getVerticalSpeed() != null ? sample.getVerticalSpeed() * seconds : 0;
+      frame.setAltitude((int) Math.round(sample.getAltitude() + climb));
+    }
+    return frame;
+  }
+
+  /** The last reported sample of a mission and the course it is projected along. */
+  private static final class Track {
+    private final MissionProgressResponse sample;
+    private final Double course;
+    private final long receivedAt;
+
+    /** Set under the track's lock once the track has been replaced or removed. */
+    private boolean retired;
+
+    private Track(MissionProgressResponse sample, Double course, long receivedAt) {
+      this.sample = sample;
+      this.course = course;
+      this.receivedAt = receivedAt;
+    }
+
+    private boolean isMoving(double minSpeed) {
+      boolean horizontal =
+          course != null && sample.getSpeed() != null && sample.getSpeed() >= minSpeed;
+      boolean vertical =
+          sample.getVerticalSpeed() != null && Math.abs(sample.getVerticalSpeed()) >= minSpeed;
+      return horizontal || vertical;
+    }
+  }
+}
@@ -0,0 +1,308 @@
+package com.flytbase.drone.service;
+
+import com.flytbase.drone.dto.flightpath.FlightPathSummaryResponse;
+import com.flytbase.drone.dto.mission.MissionAlertResponse;
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import com.flytbase.drone.dto.mission.MissionSnapshotResponse;
+import com.flytbase.drone.entity.FlightPath;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.entity.MissionAlert;
+import com.flytbase.drone.repository.FlightPathRepository;
+import com.flytbase.drone.repository.MissionAlertRepository;
+import com.flytbase.drone.repository.MissionRepository;
+import com.flytbase.drone.service.livestate.LiveProgressStore;
+import com.flytbase.drone.util.geometry.PackedWaypoints;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-memory store of the live state of running missions: the latest progress update, a summary of
+ * the flight path and the active alerts. Fed by the telemetry, progress and flight path write paths
+ * so that subscribers can be served without touching the database. The latest progress is held by a
+ * {@link LiveProgressStore}, which can keep it off the heap for very large fleets.
+ */
+@Service
+@Slf4j
+public class MissionLiveStateService {
+
+  /** Maximum number of active alerts kept per mission. */
+  private static final int MAX_ACTIVE_ALERTS = 20;
+
+  private final Map<UUID, MissionLiveState> states = new ConcurrentHashMap<>();
+
+  private final MissionRepository missionRepository;
+  private final FlightPathRepository flightPathRepository;
+  private final MissionAlertRepository alertRepository;
+  private final LiveProgressStore progressStore;
+  private final FlightPathCache flightPathCache;
+
+  @Autowired
+  public MissionLiveStateService(
+      MissionRepository missionRepository,
+      FlightPathRepository flightPathRepository,
+      MissionAlertRepository alertRepository,
+      LiveProgressStore progressStore,
+      FlightPathCache flightPathCache) {
+    this.missionRepository = missionRepository;
+    this.flightPathRepository = flightPathRepository;
+    this.alertRepository = alertRepository;
+    this.progressStore = progressStore;
+    this.flightPathCache = flightPathCache;
+  }
+
+  /**
+   * Load the flight paths and unacknowledged alerts of running missions once at startup, so that
+   * snapshots are available before the first telemetry sample arrives.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  @Transactional(readOnly = true)
+  public void warmUp() {
+    try {
+      List<Mission> running = new ArrayList<>();
+      running.addAll(missionRepository.findByStatus(Mission.MissionStatus.ACTIVE));
+      running.addAll(missionRepository.findByStatus(Mission.MissionStatus.PAUSED));
+
+      Set<UUID> runningIds = new HashSet<>();
+      for (Mission mission : running) {
+        loadMission(mission.getId());
+        runningIds.add(mission.getId());
+      }
+      // Progress recovered from a previous run may belong to missions that ended since
+      progressStore.retainAll(runningIds);
+      log.info("Loaded live state for {} running missions", running.size());
+    } catch (Exception e) {
+      log.error("Failed to load live mission state", e);
+    }
+  }
+
+  /**
+   * Load the flight path and unacknowledged alerts of a mission from the database, for example when
+   * this node takes over a mission without receiving its live state.
+   *
+   * @param missionId the mission ID
+   */
+  @Transactional(readOnly = true)
+  public void loadMission(UUID missionId) {
+    flightPathRepository.findByMissionId(missionId).ifPresent(this::updateFlightPath);
+
+    Deque<MissionAlertResponse> active = state(missionId).alerts;
+    active.clear();
+    for (MissionAlert alert : alertRepository.findByMissionIdOrderByOccurredAtDesc(missionId)) {
+      if (active.size() >= MAX_ACTIVE_ALERTS) {
+        break;
+      }
+      if (!Boolean.TRUE.equals(alert.getAcknowledged())) {
+        active.addLast(MissionAlertResponse.fromEntity(alert, missionId));
+      }
+    }
+  }
+
+  /**
+   * Replace the live state of a mission with a snapshot handed over by another node.
+   *
+   * @param snapshot the snapshot
+   */
+  public void restore(MissionSnapshotResponse snapshot) {
+    MissionLiveState state = state(snapshot.getMissionId());
+    if (snapshot.getProgress() != null) {
+      progressStore.put(snapshot.getMissionId(), snapshot.getProgress());
+    }
+    if (snapshot.getFlightPath() != null) {
+      state.flightPath = snapshot.getFlightPath();
+    }
+    if (snapshot.getActiveAlerts() != null) {
+      state.alerts.clear();
+      state.alerts.addAll(snapshot.getActiveAlerts());
+    }
+  }
+
+  /**
+   * Check whether any live state is held for a mission.
+   *
+   * @param missionId the mission ID
+   * @return true if the mission has live state
+   */
+  public boolean contains(UUID missionId) {
+    return states.containsKey(missionId) || progressStore.get(missionId).isPresent();
+  }
+
+  /**
+   * Get the IDs of all missions with live state.
+   *
+   * @return the mission IDs
+   */
+  public Set<UUID> getMissionIds() {
+    Set<UUID> missionIds = new HashSet<>(states.keySet());
+    missionIds.addAll(progressStore.getMissionIds());
+    return missionIds;
+  }
+
+  /**
+   * Record the latest progress update of a mission.
+   *
+   * @param missionId the mission ID
+   * @param progress the progress update
+   */
+  public void updateProgress(UUID missionId, MissionProgressResponse progress) {
+    state(missionId);
+    progressStore.put(missionId, progress);
+  }
+
+  /**
+   * Record the flight path of a mission.
+   *
+   * @param flightPath the flight path entity
+   */
+  public void updateFlightPath(FlightPath flightPath) {
+    UUID missionId = flightPath.getMission().getId();
+    PackedWaypoints waypoints = loadWaypoints(flightPath);
+    MissionLiveState state = state(missionId);
+    state.waypoints = waypoints;
+    state.flightPath = FlightPathSummaryResponse.fromEntity(flightPath, waypoints.size());
+  }
+
+  /**
+   * Forget the flight path of a mission.
+   *
+   * @param missionId the mission ID
+   */
+  public void removeFlightPath(UUID missionId) {
+    MissionLiveState state = states.get(missionId);
+    if (state != null) {
+      state.flightPath = null;
+      state.waypoints = null;
+    }
+  }
+
+  /**
+   * Record a newly raised alert for a mission.
+   *
+   * @param missionId the mission ID
+   * @param alert the alert
+   */
+  public void addAlert(UUID missionId, MissionAlertResponse alert) {
+    Deque<MissionAlertResponse> alerts = state(missionId).alerts;
+    alerts.addFirst(alert);
+    while (alerts.size() > MAX_ACTIVE_ALERTS) {
+      alerts.pollLast();
+    }
+  }
+
+  /**
+   * Drop all live state of a mission, typically once it has completed or been aborted.
+   *
+   * @param missionId the mission ID
+   */
+  public void evict(UUID missionId) {
+    states.remove(missionId);
+    progressStore.remove(missionId);
+  }
+
+  /**
+   * Get the latest progress update of a mission.
+   *
+   * @param missionId the mission ID
+   * @return the latest progress, or empty if none has been seen
+   */
+  public Optional<MissionProgressResponse> getLatestProgress(UUID missionId) {
+    return progressStore.get(missionId);
+  }
+
+  /**
+   * Get the number of waypoints in the flight path of a mission.
+   *
+   * @param missionId the mission ID
+   * @return the waypoint count, or null if the flight path is not known
+   */
+  public Integer getWaypointCount(UUID missionId) {
+    MissionLiveState state = states.get(missionId);
+    FlightPathSummaryResponse flightPath = state != null ? state.flightPath : null;
+    return flightPath != null ? flightPath.getWaypointCount() : null;
+  }
+
+  /**
+   * Get the position of a waypoint in the flight path of a mission.
+   *
+   * @param missionId the mission ID
+   * @param index the waypoint index
+   * @return the position, x being the longitude, or empty if not known
+   */
+  public Optional<Coordinate> getWaypointPosition(UUID missionId, int index) {
+    MissionLiveState state = states.get(missionId);
+    PackedWaypoints waypoints = state != null ? state.waypoints : null;
+    if (waypoints == null || index < 0 || index >= waypoints.size()) {
+      return Optional.empty();
+    }
+    return Optional.of(waypoints.getCoordinate(index));
+  }
+
+  /**
+   * Get the time the most recent active alert of a mission was raised.
+   *
+   * @param missionId the mission ID
+   * @return the time, or empty if the mission has no active alert
+   */
+  public Optional<LocalDateTime> getLatestAlertTime(UUID missionId) {
+    MissionLiveState state = states.get(missionId);
+    MissionAlertResponse latest = state != null ? state.alerts.peekFirst() : null;
+    return latest != null ? Optional.ofNullable(latest.getOccurredAt()) : Optional.empty();
+  }
+
+  /**
+   * Build a snapshot of everything known about a mission.
+   *
+   * @param missionId the mission ID
+   * @return the snapshot, or empty if nothing is known about the mission
+   */
+  public Optional<MissionSnapshotResponse> getSnapshot(UUID missionId) {
+    MissionLiveState state = states.get(missionId);
+    Optional<MissionProgressResponse> progress = progressStore.get(missionId);
+    if (state == null && !progress.isPresent()) {
+      return Optional.empty();
+    }
+
+    MissionSnapshotResponse snapshot = new MissionSnapshotResponse();
+    snapshot.setMissionId(missionId);
+    snapshot.setProgress(progress.orElse(null));
+    snapshot.setFlightPath(state != null ? state.flightPath : null);
+    snapshot.setActiveAlerts(state != null ? new ArrayList<>(state.alerts) : new ArrayList<>());
+    snapshot.setGeneratedAt(LocalDateTime.now());
+    return Optional.of(snapshot);
+  }
+
+  private MissionLiveState state(UUID missionId) {
+    return states.computeIfAbsent(missionId, id -> new MissionLiveState());
+  }
+
+  private PackedWaypoints loadWaypoints(FlightPath flightPath) {
+    try {
+      return flightPathCache.load(flightPath);
+    } catch (Exception e) {
+      log.warn("Failed to parse waypoints of flight path {}", flightPath.getId());
+      return PackedWaypoints.of(new double[0], new double[0], new double[0]);
+    }
+  }
+
+  /** Live state of a single mission, apart from its latest progress. */
+  private static class MissionLiveState {
+    private volatile FlightPathSummaryResponse flightPath;
+    private volatile PackedWaypoints waypoints;
+    private final Deque<MissionAlertResponse> alerts = new ConcurrentLinkedDeque<>();
+  }
+}
@@ -0,0 +1,153 @@
+package com.flytbase.drone.service;
+
+import com.flytbase.drone.dto.mission.CreateMissionRequest;
+import com.flytbase.drone.dto.mission.MissionResponse;
+import com.flytbase.drone.dto.mission.PartitionMissionRequest;
+import com.flytbase.drone.dto.mission.PatternGenerationRequest;
+import com.flytbase.drone.entity.Drone;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.entity.SurveyArea;
+import com.flytbase.drone.entity.User;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.repository.DroneRepository;
+import com.flytbase.drone.repository.MissionRepository;
+import com.flytbase.drone.repository.SurveyAreaRepository;
+import com.flytbase.drone.util.geometry.AreaPartitioner;
+import com.flytbase.drone.util.geometry.GeoJsonParser;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for splitting a survey area among several drones. The area is cut into one sub-area per
+ * drone, of about equal coverage time including the trip from the drone's home location. Each
+ * sub-area is stored as a survey area of its own, and each drone gets a mission over it with a
+ * generated flight path. The missions share a group ID.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class MissionPartitionService {
+
+  private final MissionRepository missionRepository;
+  private final DroneRepository droneRepository;
+  private final SurveyAreaRepository surveyAreaRepository;
+  private final UserService userService;
+  private final MissionService missionService;
+  private final FlightPathService flightPathService;
+  private final PatternCache patternCache;
+  private final AreaPartitioner areaPartitioner;
+  private final GeoJsonParser geoJsonParser;
+
+  /**
+   * Split a survey area among drones and create a mission with a flight path for each.
+   *
+   * @param request the partition request
+   * @return the created missions, in the order of the drones
+   */
+  public List<MissionResponse> createPartitionedMissions(PartitionMissionRequest request) {
+    User currentUser = userService.getCurrentUser();
+    Long organizationId = currentUser.getOrganization().getId();
+
+    SurveyArea surveyArea =
+        surveyAreaRepository
+            .findById(request.getSurveyAreaId())
+            .filter(sa -> sa.getOrganization().getId().equals(organizationId))
+            .orElseThrow(
+                () ->
+                    new BusinessException(
+                        "Survey area not found with ID: " + request.getSurveyAreaId()));
+
+    if (new HashSet<>(request.getDroneIds()).size() != request.getDroneIds().size()) {
+      throw new BusinessException("Each drone can only fly one part of the survey area");
+    }
+    List<Coordinate> homes = new ArrayList<>();
+    double spacing = Double.POSITIVE_INFINITY;
+    for (UUID droneId : request.getDroneIds()) {
+      Drone drone =
+          droneRepository
+              .findByIdAndOrganizationId(droneId, organizationId)
+              .orElseThrow(() -> new BusinessException("Drone not found with ID: " + droneId));
+      if (drone.getStatus() != Drone.DroneStatus.AVAILABLE) {
+        throw new BusinessException("Drone " + drone.getName() + " is not available for mission");
+      }
+      homes.add(new Coordinate(drone.getHomeLocationLongitude(), drone.getHomeLocationLatitude()));
+      spacing =
+          Math.min(
+              spacing,
+              flightPathService.lineSpacing(
+                  drone, request.getFlightAltitude(), request.getOverlapPercentage()));
+    }
+
+    // Split the area, timing sweeps at the narrowest line spacing among the drones' cameras
+    Polygon boundary = patternCache.getBoundary(surveyArea).getPolygon();
+    List<Polygon> parts;
+    try {
+      parts = areaPartitioner.partition(boundary, spacing, request.getSpeed(), homes);
+    } catch (IllegalArgumentException e) {
+      throw new BusinessException("Cannot split survey area: " + e.getMessage());
+    }
+
+    UUID groupId = UUID.randomUUID();
+    List<MissionResponse> missions = new ArrayList<>();
+    for (int i = 0; i < parts.size(); i++) {
+      String suffix = " " + (i + 1) + "/" + parts.size();
+      SurveyArea part = createPart(surveyArea, boundary, parts.get(i), request.getName() + suffix);
+
+      CreateMissionRequest missionRequest = new CreateMissionRequest();
+      missionRequest.setName(request.getName() + suffix);
+      missionRequest.setDescription(request.getDescription());
+      missionRequest.setDroneId(request.getDroneIds().get(i));
+      missionRequest.setSurveyAreaId(part.getId());
+      missionRequest.setType(request.getType());
+      missionRequest.setScheduledStart(request.getScheduledStart());
+      missionRequest.setFlightAltitude(request.getFlightAltitude());
+      missionRequest.setSpeed(request.getSpeed());
+      missionRequest.setOverlapPercentage(request.getOverlapPercentage());
+      missionRequest.setPatternType(request.getPatternType());
+      UUID missionId = missionService.createMission(missionRequest).getId();
+
+      missionService.generatePattern(
+          missionId,
+          new PatternGenerationRequest(
+              PatternGenerationRequest.PatternType.valueOf(request.getPatternType().name()),
+              request.getFlightAltitude(),
+              request.getOverlapPercentage()));
+
+      Mission mission =
+          missionRepository
+              .findById(missionId)
+              .orElseThrow(() -> new BusinessException("Mission not found with ID: " + missionId));
+      mission.setGroupId(groupId);
+      missions.add(MissionResponse.fromEntity(missionRepository.save(mission)));
+    }
+    return missions;
+  }
+
+  /** Store a sub-area as a survey area, its size being its share of the whole area. */
+  private SurveyArea createPart(
+      SurveyArea surveyArea, Polygon boundary, Polygon polygon, String missionName) {
+    String name = surveyArea.getName() + " - " + missionName;
+    if (surveyAreaRepository.existsByNameAndOrganizationId(
+        name, surveyArea.getOrganization().getId())) {
+      name += " (" + UUID.randomUUID().toString().substring(0, 8) + ")";
+    }
+
+    SurveyArea part = new SurveyArea();
+    part.setName(name);
+    part.setDescription("Part of " + surveyArea.getName());
+    part.setBoundaryPolygon(geoJsonParser.polygonToGeoJson(polygon));
+    if (surveyArea.getArea() != null && boundary.getArea() > 0) {
+      part.setArea(surveyArea.getArea() * polygon.getArea() / boundary.getArea());
+    }
+    part.setOrganization(surveyArea.getOrganization());
+    part.setCreatedBy(userService.getCurrentUser());
+    return surveyAreaRepository.save(part);
+  }
+}
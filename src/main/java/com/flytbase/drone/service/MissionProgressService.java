@@ -1,19 +1,16 @@
 package com.flytbase.drone.service;
 
-import com.flytbase.drone.dto.mission.MissionProgressRequest;
 import com.flytbase.drone.dto.mission.MissionProgressResponse;
 import com.flytbase.drone.entity.Mission;
 import com.flytbase.drone.entity.MissionProgress;
 import com.flytbase.drone.exception.BusinessException;
 import com.flytbase.drone.repository.MissionProgressRepository;
 import com.flytbase.drone.repository.MissionRepository;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /** Service for handling mission progress operations. */
 @Service
@@ -29,47 +26,6 @@ public class MissionProgressService {
     this.missionRepository = missionRepository;
   }
 
-  /**
-   * Record a new mission progress update.
-   *
-   * @param request the progress update request
-   * @return the created mission progress response
-   */
-  @Transactional
-  public MissionProgressResponse recordProgress(MissionProgressRequest request) {
-    // Validate request
-    if (request.getMissionId() == null) {
-      throw new BusinessException("Mission ID is required");
-    }
-
-    // Find mission
-    Mission mission =
-        missionRepository
-            .findById(request.getMissionId())
-            .orElseThrow(
-                () ->
-                    new BusinessException("Mission not found with ID: " + request.getMissionId()));
-
-    // Create and save progress
-    MissionProgress progress = new MissionProgress();
-    progress.setMission(mission);
-    progress.setCurrentWaypointIndex(request.getCurrentWaypointIndex());
-    progress.setLatitude(request.getLatitude());
-    progress.setLongitude(request.getLongitude());
-    progress.setAltitude(request.getAltitude());
-    progress.setSpeed(request.getSpeed());
-    progress.setBatteryLevel(request.getBatteryLevel());
-    progress.setTimestamp(
-        request.getTimestamp() != null ? request.getTimestamp() : LocalDateTime.now());
-
-    missionProgressRepository.save(progress);
-
-    // Update mission status if needed
-    updateMissionStatus(mission, progress);
-
-    return convertToResponse(progress);
-  }
-
   /**
    * Get the latest progress for a mission.
    *
@@ -108,21 +64,6 @@ public class MissionProgressService {
     return progressList.stream().map(this::convertToResponse).collect(Collectors.toList());
   }
 
-  /**
-   * Update mission status based on progress.
-   *
-   * @param mission the mission
-   * @param progress the progress update
-   */
-  private void updateMissionStatus(Mission mission, MissionProgress progress) {
-    // If mission is PLANNED and we get a progress update, set it to ACTIVE
-    if (mission.getStatus() == Mission.MissionStatus.PLANNED) {
-      mission.setStatus(Mission.MissionStatus.ACTIVE);
-      mission.setActualStart(LocalDateTime.now());
-      missionRepository.save(mission);
-    }
-  }
-
   /**
    * Convert MissionProgress entity to MissionProgressResponse DTO.
    *
@@ -144,20 +85,21 @@ public class MissionProgressService {
       completionPercentage = (double) progress.getCurrentWaypointIndex() / totalWaypoints * 100;
     }
 
-    return new MissionProgressResponse(
-        progress.getId(),
-        mission.getId(),
-        mission.getName(),
-        progress.getCurrentWaypointIndex(),
-        totalWaypoints,
-        progress.getLatitude(),
-        progress.getLongitude(),
-        progress.getAltitude(),
-        progress.getSpeed(),
-        progress.getBatteryLevel(),
-        mission.getDrone().getStatus().name(),
-        mission.getStatus().name(),
-        completionPercentage,
-        progress.getTimestamp());
+    MissionProgressResponse response = new MissionProgressResponse();
+    response.setId(progress.getId());
+    response.setMissionId(mission.getId());
+    response.setMissionName(mission.getName());
+    response.setCurrentWaypointIndex(progress.getCurrentWaypointIndex());
+    response.setTotalWaypoints(totalWaypoints);
+    response.setLatitude(progress.getLatitude());
+    response.setLongitude(progress.getLongitude());
+    response.setAltitude(progress.getAltitude());
+    response.setSpeed(progress.getSpeed());
+    response.setBatteryLevel(progress.getBatteryLevel());
+    response.setDroneStatus(mission.getDrone().getStatus().name());
+    response.setMissionStatus(mission.getStatus().name());
+    response.setCompletionPercentage(completionPercentage);
+    response.setTimestamp(progress.getTimestamp());
+    return response;
   }
 }
@@ -14,6 +14,8 @@ import com.flytbase.drone.exception.BusinessException;
 import com.flytbase.drone.repository.DroneRepository;
 import com.flytbase.drone.repository.MissionRepository;
 import com.flytbase.drone.repository.SurveyAreaRepository;
+import com.flytbase.drone.service.PatternCache.GeneratedPattern;
+import com.flytbase.drone.service.ingest.IngestGateway;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -35,6 +37,9 @@ public class MissionService {
   private final UserService userService;
   private final FlightPathService flightPathService;
   private final MissionWebSocketService webSocketService;
+  private final MissionLiveStateService liveStateService;
+  private final LiveMapService liveMapService;
+  private final IngestGateway ingestGateway;
 
   /**
    * Get all missions for the current user's organization.
@@ -302,6 +307,11 @@ public class MissionService {
                 : "Mission has been aborted";
 
         webSocketService.sendStatusChangeNotification(mission.getId(), newStatus.name(), message);
+
+        // The mission is over, so its live state is no longer needed
+        liveStateService.evict(mission.getId());
+        liveMapService.removeMission(mission.getId());
+        ingestGateway.evict(mission.getId());
       }
 
       mission.setStatus(newStatus);
@@ -389,41 +399,6 @@ public class MissionService {
           "Cannot generate pattern for mission in " + mission.getStatus() + " state");
     }
 
-    SurveyArea surveyArea = mission.getSurveyArea();
-
-    // Generate waypoints based on pattern type
-    String waypoints;
-    switch (request.getPatternType()) {
-      case LINEAR:
-        waypoints =
-            flightPathService.generateLinearPattern(
-                surveyArea, request.getAltitude(), request.getOverlapPercentage());
-        break;
-      case CROSSHATCH:
-        waypoints =
-            flightPathService.generateCrosshatchPattern(
-                surveyArea, request.getAltitude(), request.getOverlapPercentage());
-        break;
-      case PERIMETER:
-        waypoints =
-            flightPathService.generatePerimeterPattern(
-                surveyArea, request.getAltitude(), request.getOverlapPercentage());
-        break;
-      default:
-        throw new BusinessException("Unsupported pattern type: " + request.getPatternType());
-    }
-
-    // Create or update flight path
-    FlightPathRequest flightPathRequest = new FlightPathRequest();
-    flightPathRequest.setWaypoints(waypoints);
-
-    // Estimate distance and duration based on waypoints
-    // This is a simplified calculation - in a real application, you would calculate this more
-    // accurately
-    flightPathRequest.setTotalDistance(1000.0); // Default to 1000 meters
-    flightPathRequest.setEstimatedDuration(15); // Default to 15 minutes
-
-    // Update mission with pattern type and altitude
     // Convert PatternGenerationRequest.PatternType to Mission.PatternType
     Mission.PatternType missionPatternType;
     switch (request.getPatternType()) {
@@ -440,6 +415,19 @@ public class MissionService {
         throw new BusinessException("Unsupported pattern type: " + request.getPatternType());
     }
 
+    // Generate waypoints, or reuse those generated earlier for the same boundary and settings
+    GeneratedPattern pattern =
+        flightPathService.generatePattern(
+            mission, missionPatternType, request.getAltitude(), request.getOverlapPercentage());
+
+    // Create or update flight path
+    FlightPathRequest flightPathRequest = new FlightPathRequest();
+    flightPathRequest.setWaypoints(pattern.getWaypoints());
+    flightPathRequest.setTotalDistance(pattern.getTotalDistance());
+    flightPathRequest.setEstimatedDuration(
+        flightPathService.estimateDuration(mission, pattern.getPath()));
+
+    // Update mission with pattern type and altitude
     mission.setPatternType(missionPatternType);
     mission.setFlightAltitude(request.getAltitude());
     mission.setOverlapPercentage(request.getOverlapPercentage());
@@ -1,40 +1,63 @@
 package com.flytbase.drone.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.flytbase.drone.dto.mission.MissionProgressResponse;
-import com.flytbase.drone.entity.FlightPath;
+import com.flytbase.drone.dto.telemetry.TelemetryRateResponse;
 import com.flytbase.drone.entity.Mission;
-import com.flytbase.drone.repository.FlightPathRepository;
 import com.flytbase.drone.repository.MissionRepository;
+import com.flytbase.drone.service.cluster.ClusterBroadcaster;
+import com.flytbase.drone.service.cluster.ClusterMessage;
+import com.flytbase.drone.util.geometry.PackedWaypoints;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import javax.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
-/** Service for handling WebSocket communication for mission monitoring. */
+/**
+ * Service for handling WebSocket communication for mission monitoring. Updates are delivered to the
+ * clients connected to this node and forwarded through the {@link ClusterBroadcaster} to clients
+ * connected to other nodes.
+ */
 @Service
 @Slf4j
 public class MissionWebSocketService {
 
   private final SimpMessagingTemplate messagingTemplate;
   private final MissionRepository missionRepository;
-  private final FlightPathRepository flightPathRepository;
+  private final FlightPathCache flightPathCache;
+  private final MissionLiveStateService liveStateService;
+  private final LiveMapService liveMapService;
+  private final LiveTrackInterpolator trackInterpolator;
+  private final ClusterBroadcaster clusterBroadcaster;
   private final ObjectMapper objectMapper;
 
   @Autowired
   public MissionWebSocketService(
       SimpMessagingTemplate messagingTemplate,
       MissionRepository missionRepository,
-      FlightPathRepository flightPathRepository) {
+      FlightPathCache flightPathCache,
+      MissionLiveStateService liveStateService,
+      LiveMapService liveMapService,
+      LiveTrackInterpolator trackInterpolator,
+      ClusterBroadcaster clusterBroadcaster,
+      ObjectMapper objectMapper) {
     this.messagingTemplate = messagingTemplate;
     this.missionRepository = missionRepository;
-    this.flightPathRepository = flightPathRepository;
-    this.objectMapper = new ObjectMapper();
+    this.flightPathCache = flightPathCache;
+    this.liveStateService = liveStateService;
+    this.liveMapService = liveMapService;
+    this.trackInterpolator = trackInterpolator;
+    this.clusterBroadcaster = clusterBroadcaster;
+    this.objectMapper = objectMapper;
+  }
+
+  @PostConstruct
+  public void registerClusterListener() {
+    clusterBroadcaster.addListener(this::handleClusterMessage);
   }
 
   /**
@@ -44,11 +67,16 @@ public class MissionWebSocketService {
    * @param progressResponse the progress response to broadcast
    */
   public void broadcastProgressUpdate(UUID missionId, MissionProgressResponse progressResponse) {
-    messagingTemplate.convertAndSend("/topic/missions/" + missionId, progressResponse);
+    deliverProgress(missionId, progressResponse);
+    clusterBroadcaster.publishProgress(missionId, progressResponse);
   }
 
   /** Broadcast mission progress update to subscribers. Overloaded method for compatibility. */
   public void broadcastProgressUpdate(UUID missionId, Object progressResponse) {
+    if (progressResponse instanceof MissionProgressResponse) {
+      broadcastProgressUpdate(missionId, (MissionProgressResponse) progressResponse);
+      return;
+    }
     messagingTemplate.convertAndSend("/topic/missions/" + missionId, progressResponse);
   }
 
@@ -61,7 +89,62 @@ public class MissionWebSocketService {
    */
   public void sendStatusChangeNotification(UUID missionId, String status, String message) {
     StatusChangeNotification notification = new StatusChangeNotification(status, message);
+    stopTrackIfNotActive(missionId, status);
     messagingTemplate.convertAndSend("/topic/missions/" + missionId + "/status", notification);
+    clusterBroadcaster.publishStatus(missionId, notification);
+  }
+
+  /**
+   * Send a drone the interval at which it should send telemetry. Drones stream over STOMP to the
+   * node ingesting their mission, so the recommendation is only delivered locally.
+   *
+   * @param rate the recommended interval
+   */
+  public void sendTelemetryRate(TelemetryRateResponse rate) {
+    messagingTemplate.convertAndSend(
+        "/topic/drones/" + rate.getDroneId() + "/telemetry-rate", rate);
+  }
+
+  /** Deliver a mission update published by another node to the clients of this node. */
+  private void handleClusterMessage(ClusterMessage message) {
+    UUID missionId = message.getMissionId();
+    JsonNode payload = message.getPayload();
+    if (message.getType() == ClusterMessage.Type.PROGRESS) {
+      try {
+        MissionProgressResponse progress =
+            objectMapper.treeToValue(payload, MissionProgressResponse.class);
+        deliverProgress(missionId, progress);
+      } catch (Exception e) {
+        log.warn("Invalid progress update from cluster for mission {}", missionId);
+      }
+      return;
+    }
+    if (message.getType() != ClusterMessage.Type.STATUS) {
+      return;
+    }
+
+    messagingTemplate.convertAndSend("/topic/missions/" + missionId + "/status", payload);
+    String status = payload.path("status").asText();
+    stopTrackIfNotActive(missionId, status);
+    if ("COMPLETED".equals(status) || "ABORTED".equals(status)) {
+      liveStateService.evict(missionId);
+      liveMapService.removeMission(missionId);
+    }
+  }
+
+  private void deliverProgress(UUID missionId, MissionProgressResponse progressResponse) {
+    // Stop the projection from the previous sample before this one goes out
+    trackInterpolator.update(missionId, progressResponse);
+    liveStateService.updateProgress(missionId, progressResponse);
+    liveMapService.updatePosition(missionId, progressResponse);
+    messagingTemplate.convertAndSend("/topic/missions/" + missionId, progressResponse);
+  }
+
+  /** Stop projecting the position of a mission that was paused or has ended. */
+  private void stopTrackIfNotActive(UUID missionId, String status) {
+    if ("PAUSED".equals(status) || "COMPLETED".equals(status) || "ABORTED".equals(status)) {
+      trackInterpolator.remove(missionId);
+    }
   }
 
   /**
@@ -83,26 +166,13 @@ public class MissionWebSocketService {
                   return;
                 }
 
-                FlightPath flightPath =
-                    flightPathRepository.findByMissionId(missionId).orElse(null);
-                if (flightPath == null) {
+                PackedWaypoints waypoints = flightPathCache.get(missionId).orElse(null);
+                if (waypoints == null) {
                   log.error("Flight path not found for mission: {}", missionId);
                   return;
                 }
 
-                // Parse waypoints from JSON string
-                List<Map<String, Double>> waypoints = null;
-                try {
-                  waypoints =
-                      objectMapper.readValue(
-                          flightPath.getWaypoints(),
-                          new TypeReference<List<Map<String, Double>>>() {});
-                } catch (Exception e) {
-                  log.error("Failed to parse waypoints: {}", e.getMessage());
-                  return;
-                }
-
-                if (waypoints == null || waypoints.isEmpty()) {
+                if (waypoints.size() == 0) {
                   log.error("No waypoints found for mission: {}", missionId);
                   return;
                 }
@@ -124,10 +194,10 @@ public class MissionWebSocketService {
                   Thread.sleep(2000);
 
                   // Get current waypoint
-                  Map<String, Double> waypoint = waypoints.get(i);
-                  double lat = waypoint.get("lat");
-                  double lng = waypoint.get("lng");
-                  double wpAlt = waypoint.getOrDefault("alt", altitude);
+                  double lat = waypoints.getLatitude(i);
+                  double lng = waypoints.getLongitude(i);
+                  double wpAlt =
+                      Double.isNaN(waypoints.getAltitude(i)) ? altitude : waypoints.getAltitude(i);
 
                   // Decrease battery level gradually
                   batteryLevel = Math.max(20, 100 - (int) ((i / totalWaypoints) * 80));
@@ -0,0 +1,226 @@
+package com.flytbase.drone.service;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import com.flytbase.drone.dto.flightpath.PatternCacheStatsResponse;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.entity.SurveyArea;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.util.geometry.GeoJsonParser;
+import com.flytbase.drone.util.geometry.PackedWaypoints;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded LRU cache of generated flight path patterns, so that planners flipping between pattern
+ * settings they already tried do not regenerate them. Patterns are keyed by content: a hash of the
+ * normalized boundary polygon, the pattern type, the altitude, the pattern parameter, such as the
+ * line spacing, and the speed. Survey areas with the same boundary therefore share patterns,
+ * whichever missions use them. The sweep direction is chosen from the polygon, spacing and speed,
+ * so it is covered by the key.
+ *
+ * <p>The parsed boundary and its hash are also kept per survey area, and reused for as long as the
+ * area's GeoJSON is unchanged. Patterns are generated outside the cache lock, so concurrent misses
+ * on the same key may both generate it.
+ */
+@Service
+public class PatternCache {
+
+  /** Coordinates are rounded to 1e-7 degrees, about a centimeter, before hashing. */
+  private static final double HASH_SCALE = 1e7;
+
+  private final GeoJsonParser geoJsonParser;
+  private final int capacity;
+  private final Map<UUID, Boundary> boundaries;
+  private final Map<String, GeneratedPattern> patterns;
+
+  // Guarded by patterns
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  @Autowired
+  public PatternCache(GeoJsonParser geoJsonParser, FlightPathConfig flightPathConfig) {
+    this.geoJsonParser = geoJsonParser;
+    this.capacity = Math.max(1, flightPathConfig.getPatternCacheCapacity());
+    this.boundaries =
+        new LinkedHashMap<UUID, Boundary>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<UUID, Boundary> eldest) {
+            return size() > capacity;
+          }
+        };
+    this.patterns =
+        new LinkedHashMap<String, GeneratedPattern>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, GeneratedPattern> eldest) {
+            if (size() > capacity) {
+              evictions++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Get the parsed and hashed boundary of a survey area.
+   *
+   * @param surveyArea the survey area
+   * @return the boundary
+   * @throws BusinessException if the boundary GeoJSON is invalid
+   */
+  public Boundary getBoundary(SurveyArea surveyArea) {
+    String geoJson = surveyArea.getBoundaryPolygon();
+    synchronized (boundaries) {
+      Boundary cached = boundaries.get(surveyArea.getId());
+      if (cached != null && cached.geoJson.equals(geoJson)) {
+        return cached;
+      }
+    }
+
+    Polygon polygon;
+    try {
+      polygon = geoJsonParser.parsePolygon(geoJson);
+    } catch (IOException | IllegalArgumentException e) {
+      throw new BusinessException("Failed to parse boundary polygon: " + e.getMessage());
+    }
+    Boundary boundary = new Boundary(geoJson, polygon, hash(polygon));
+    if (surveyArea.getId() != null) {
+      synchronized (boundaries) {
+        boundaries.put(surveyArea.getId(), boundary);
+      }
+    }
+    return boundary;
+  }
+
+  /**
+   * Get a generated pattern, generating and caching it if not cached.
+   *
+   * @param boundary the survey area boundary
+   * @param patternType the pattern type
+   * @param altitude the flight altitude
+   * @param parameter the pattern parameter, such as the line spacing in meters
+   * @param speed the flight speed the pattern is planned for, 0 if it does not depend on it
+   * @param generator generates the pattern from the boundary polygon on a miss
+   * @return the pattern
+   */
+  public GeneratedPattern get(
+      Boundary boundary,
+      Mission.PatternType patternType,
+      int altitude,
+      double parameter,
+      double speed,
+      Function<Polygon, GeneratedPattern> generator) {
+    String key = boundary.hash + ':' + patternType + ':' + altitude + ':' + parameter + ':' + speed;
+    synchronized (patterns) {
+      GeneratedPattern cached = patterns.get(key);
+      if (cached != null) {
+        hits++;
+        return cached;
+      }
+      misses++;
+    }
+
+    GeneratedPattern pattern = generator.apply(boundary.polygon);
+    synchronized (patterns) {
+      patterns.put(key, pattern);
+    }
+    return pattern;
+  }
+
+  /**
+   * Get the hit rate and size of the cache.
+   *
+   * @return the statistics
+   */
+  public PatternCacheStatsResponse getStats() {
+    synchronized (patterns) {
+      long lookups = hits + misses;
+      return new PatternCacheStatsResponse(
+          hits,
+          misses,
+          evictions,
+          lookups > 0 ? (double) hits / lookups : 0,
+          patterns.size(),
+          capacity);
+    }
+  }
+
+  /** Hash of a polygon normalized to a canonical ring order and orientation. */
+  private static String hash(Polygon polygon) {
+    Polygon normalized = (Polygon) polygon.norm();
+    Coordinate[] coordinates = normalized.getCoordinates();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(Integer.BYTES * 2 + coordinates.length * Long.BYTES * 2);
+    buffer.putInt(normalized.getNumInteriorRing());
+    buffer.putInt(coordinates.length);
+    for (Coordinate coordinate : coordinates) {
+      buffer.putLong(Math.round(coordinate.x * HASH_SCALE));
+      buffer.putLong(Math.round(coordinate.y * HASH_SCALE));
+    }
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+      return String.format("%064x", new BigInteger(1, digest));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /** The parsed boundary of a survey area and the hash of its normalized form. */
+  public static final class Boundary {
+    private final String geoJson;
+    private final Polygon polygon;
+    private final String hash;
+
+    private Boundary(String geoJson, Polygon polygon, String hash) {
+      this.geoJson = geoJson;
+      this.polygon = polygon;
+      this.hash = hash;
+    }
+
+    public Polygon getPolygon() {
+      return polygon;
+    }
+
+    public String getHash() {
+      return hash;
+    }
+  }
+
+  /** Waypoints of a generated pattern, as JSON and parsed. */
+  public static final class GeneratedPattern {
+    private final String waypoints;
+    private final PackedWaypoints path;
+
+    public GeneratedPattern(String waypoints, PackedWaypoints path) {
+      this.waypoints = waypoints;
+      this.path = path;
+    }
+
+    /** The waypoint JSON. */
+    public String getWaypoints() {
+      return waypoints;
+    }
+
+    /** The parsed waypoints. */
+    public PackedWaypoints getPath() {
+      return path;
+    }
+
+    /** The path length in meters. */
+    public double getTotalDistance() {
+      return path.getTotalDistance();
+    }
+  }
+}
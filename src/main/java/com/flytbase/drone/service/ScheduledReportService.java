@@ -66,7 +66,7 @@ public class ScheduledReportService {
         reportRequest.setReportType("DAILY");
         reportRequest.setTotalArea(1000.0); // This would be calculated in a real implementation
         reportRequest.setCoveredArea(900.0); // This would be calculated in a real implementation
-        reportRequest.setImageCount(50); // This would be calculated in a real implementation
+        reportRequest.setImageCount(surveyReportService.getImageCount(mission.getId()));
         reportRequest.setAnomaliesDetected(2); // This would be calculated in a real implementation
         reportRequest.setReportData("Daily report for mission: " + mission.getName());
 
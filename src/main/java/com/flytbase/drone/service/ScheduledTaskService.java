@@ -37,21 +37,4 @@ public class ScheduledTaskService {
       log.error("Failed to cleanup old telemetry", e);
     }
   }
-
-  /** Check for stale WebSocket sessions. Runs every minute. */
-  @Scheduled(fixedDelay = 60000) // 1 minute
-  public void cleanupStaleSessions() {
-    try {
-      // Mark sessions as disconnected if no ping in last 5 minutes
-      String sql =
-          "UPDATE websocket_sessions SET disconnected_at = CURRENT_TIMESTAMP "
-              + "WHERE disconnected_at IS NULL AND last_ping < CURRENT_TIMESTAMP - INTERVAL '5 minutes'";
-      int updated = jdbcTemplate.update(sql);
-      if (updated > 0) {
-        log.info("Marked {} stale WebSocket sessions as disconnected", updated);
-      }
-    } catch (Exception e) {
-      log.error("Failed to cleanup stale sessions", e);
-    }
-  }
 }
@@ -2,9 +2,11 @@ package com.flytbase.drone.service;
 
 import com.flytbase.drone.dto.report.CreateSurveyReportRequest;
 import com.flytbase.drone.dto.report.SurveyReportResponse;
+import com.flytbase.drone.entity.FlightPath;
 import com.flytbase.drone.entity.Mission;
 import com.flytbase.drone.entity.SurveyReport;
 import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.repository.FlightPathRepository;
 import com.flytbase.drone.repository.MissionRepository;
 import com.flytbase.drone.repository.SurveyReportRepository;
 import java.time.LocalDateTime;
@@ -21,18 +23,33 @@ public class SurveyReportService {
 
   private final SurveyReportRepository surveyReportRepository;
   private final MissionRepository missionRepository;
+  private final FlightPathRepository flightPathRepository;
   private final UserService userService;
 
   @Autowired
   public SurveyReportService(
       SurveyReportRepository surveyReportRepository,
       MissionRepository missionRepository,
+      FlightPathRepository flightPathRepository,
       UserService userService) {
     this.surveyReportRepository = surveyReportRepository;
     this.missionRepository = missionRepository;
+    this.flightPathRepository = flightPathRepository;
     this.userService = userService;
   }
 
+  /**
+   * Get the number of photos planned along a mission's flight path. Photos are planned along the
+   * whole path, turns and transits included, so this is an upper bound on the useful images.
+   *
+   * @param missionId the mission ID
+   * @return the photo count, 0 if the mission has no flight path or its photos were not planned
+   */
+  @Transactional(readOnly = true)
+  public int getImageCount(UUID missionId) {
+    return flightPathRepository.findByMissionId(missionId).map(FlightPath::getPhotoCount).orElse(0);
+  }
+
   /**
    * Create a new survey report.
    *
@@ -165,7 +182,7 @@ public class SurveyReportService {
     request.setReportType("PDF");
     request.setTotalArea(1000.0);
     request.setCoveredArea(800.0);
-    request.setImageCount(50);
+    request.setImageCount(getImageCount(missionId));
     request.setAnomaliesDetected(5);
     request.setReportData("PDF report data would be stored here");
 
@@ -202,7 +219,7 @@ public class SurveyReportService {
     request.setReportType("EXCEL");
     request.setTotalArea(1000.0);
     request.setCoveredArea(800.0);
-    request.setImageCount(50);
+    request.setImageCount(getImageCount(missionId));
     request.setAnomaliesDetected(5);
     request.setReportData("Excel report data would be stored here");
 
@@ -1,23 +1,34 @@
 package com.flytbase.drone.service;
 
-import com.flytbase.drone.dto.telemetry.TelemetryRequest;
 import com.flytbase.drone.dto.telemetry.TelemetryResponse;
 import com.flytbase.drone.entity.DroneTelemetry;
 import com.flytbase.drone.entity.Mission;
 import com.flytbase.drone.entity.MissionAlert;
+import com.flytbase.drone.entity.MissionProgress;
 import com.flytbase.drone.entity.MissionProgressCache;
 import com.flytbase.drone.exception.BusinessException;
 import com.flytbase.drone.repository.*;
+import com.flytbase.drone.service.ingest.TelemetryHistoryBuffer;
+import com.flytbase.drone.service.ingest.TelemetrySample;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-/** Service for handling drone telemetry data. Manages real-time data persistence and retrieval. */
+/**
+ * Service for handling drone telemetry data. Manages telemetry persistence and retrieval; samples
+ * reach it in batches through the {@link com.flytbase.drone.service.ingest.IngestGateway}.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -26,62 +37,166 @@ public class TelemetryService {
 
   private final DroneTelemetryRepository telemetryRepository;
   private final MissionRepository missionRepository;
-  private final DroneRepository droneRepository;
+  private final MissionProgressRepository missionProgressRepository;
   private final MissionProgressCacheRepository progressCacheRepository;
   private final MissionAlertRepository alertRepository;
-  private final MissionWebSocketService webSocketService;
-
-  /** Record telemetry data from drone. */
-  public TelemetryResponse recordTelemetry(UUID missionId, TelemetryRequest request) {
+  private final TelemetryHistoryBuffer historyBuffer;
+
+  /**
+   * Persist a batch of samples for one mission: resolves the mission once, inserts all samples
+   * together and updates the progress cache. A planned mission becomes active with its first
+   * sample; completed and aborted missions accept no telemetry.
+   *
+   * @param missionId the mission ID
+   * @param samples the samples, ordered by timestamp
+   * @param latest the sample to update the progress cache from, or null if the batch only holds
+   *     samples older than those already applied
+   * @param completionPercentage the completion percentage after the latest sample
+   * @param totalWaypoints the number of waypoints of the mission, or null if unknown
+   * @return the saved telemetry records, in the order of the samples
+   */
+  public List<DroneTelemetry> persistBatch(
+      UUID missionId,
+      List<TelemetrySample> samples,
+      TelemetrySample latest,
+      double completionPercentage,
+      Integer totalWaypoints) {
     Mission mission =
         missionRepository
             .findById(missionId)
             .orElseThrow(() -> new BusinessException("Mission not found"));
 
-    if (mission.getStatus() != Mission.MissionStatus.ACTIVE) {
+    if (mission.getStatus() == Mission.MissionStatus.PLANNED) {
+      mission.setStatus(Mission.MissionStatus.ACTIVE);
+      mission.setActualStart(LocalDateTime.now());
+      missionRepository.save(mission);
+    } else if (mission.getStatus() != Mission.MissionStatus.ACTIVE
+        && mission.getStatus() != Mission.MissionStatus.PAUSED) {
       throw new BusinessException("Cannot record telemetry for inactive mission");
     }
 
-    // Create telemetry record
-    DroneTelemetry telemetry = new DroneTelemetry();
-    telemetry.setMission(mission);
-    telemetry.setDrone(mission.getDrone());
-    telemetry.setTimestamp(LocalDateTime.now());
-    telemetry.setGpsLatitude(request.getLatitude());
-    telemetry.setGpsLongitude(request.getLongitude());
-    telemetry.setGpsAltitude(request.getAltitude());
-    telemetry.setGpsSatellites(request.getGpsSatellites());
-    telemetry.setGpsHdop(request.getGpsHdop());
-    telemetry.setHeading(request.getHeading());
-    telemetry.setPitch(request.getPitch());
-    telemetry.setRoll(request.getRoll());
-    telemetry.setGroundSpeed(request.getGroundSpeed());
-    telemetry.setVerticalSpeed(request.getVerticalSpeed());
-    telemetry.setBatteryVoltage(request.getBatteryVoltage());
-    telemetry.setBatteryCurrent(request.getBatteryCurrent());
-    telemetry.setBatteryLevel(request.getBatteryLevel());
-    telemetry.setBatteryTemperature(request.getBatteryTemperature());
-    telemetry.setMotorRpm(request.getMotorRpm());
-    telemetry.setSignalStrength(request.getSignalStrength());
-
-    telemetry = telemetryRepository.save(telemetry);
-
-    // Update mission progress
-    updateMissionProgress(mission, telemetry);
-
-    // Check for alerts
-    checkAndCreateAlerts(mission, telemetry);
-
-    // Broadcast via WebSocket
-    broadcastTelemetry(mission, telemetry);
-
-    return TelemetryResponse.fromEntity(telemetry);
+    List<DroneTelemetry> telemetry = new ArrayList<>(samples.size());
+    List<MissionProgress> waypointProgress = new ArrayList<>();
+    for (TelemetrySample sample : samples) {
+      telemetry.add(toTelemetry(mission, sample));
+      if (TelemetrySample.isPresent(sample.getWaypointIndex())
+          && TelemetrySample.isPresent(sample.getAltitude())
+          && TelemetrySample.isPresent(sample.getGroundSpeed())
+          && TelemetrySample.isPresent(sample.getBatteryLevel())) {
+        waypointProgress.add(toProgress(mission, sample));
+      }
+    }
+    List<DroneTelemetry> saved = telemetryRepository.saveAll(telemetry);
+    if (!waypointProgress.isEmpty()) {
+      missionProgressRepository.saveAll(waypointProgress);
+    }
+
+    if (latest != null) {
+      updateProgressCache(mission, latest, completionPercentage, totalWaypoints);
+    }
+    return saved;
+  }
+
+  /**
+   * Check whether an alert of the given type was raised for a mission after the given time.
+   *
+   * @param missionId the mission ID
+   * @param type the alert type
+   * @param after the start of the window
+   * @return true if such an alert exists
+   */
+  @Transactional(readOnly = true)
+  public boolean hasAlertSince(UUID missionId, MissionAlert.AlertType type, LocalDateTime after) {
+    return alertRepository.existsByMissionIdAndAlertTypeAndOccurredAtAfter(missionId, type, after);
+  }
+
+  /**
+   * Save a new alert for a mission.
+   *
+   * @param missionId the mission ID
+   * @param type the alert type
+   * @param severity the alert severity
+   * @param message the alert message
+   * @return the saved alert
+   */
+  public MissionAlert saveAlert(
+      UUID missionId, MissionAlert.AlertType type, MissionAlert.Severity severity, String message) {
+    MissionAlert alert = new MissionAlert();
+    alert.setMission(missionRepository.getById(missionId));
+    alert.setAlertType(type);
+    alert.setSeverity(severity);
+    alert.setMessage(message);
+    alert.setOccurredAt(LocalDateTime.now());
+    return alertRepository.save(alert);
   }
 
-  /** Get telemetry history for a mission. */
+  /**
+   * Count the telemetry samples recorded for a mission.
+   *
+   * @param missionId the mission ID
+   * @return the number of samples
+   */
   @Transactional(readOnly = true)
+  public long countSamples(UUID missionId) {
+    return telemetryRepository.countByMissionId(missionId);
+  }
+
+  /**
+   * Persist samples replayed from the write-ahead log. Samples already stored, because the process
+   * stopped between writing them and releasing them from the log, are skipped; the status of the
+   * mission is not checked, since the samples were accepted while it was running.
+   *
+   * @param missionId the mission ID
+   * @param samples the samples, all of the mission
+   * @return the number of samples stored
+   */
+  public int persistReplayed(UUID missionId, List<TelemetrySample> samples) {
+    Optional<Mission> mission = missionRepository.findById(missionId);
+    if (!mission.isPresent()) {
+      log.warn("Dropping {} logged samples of deleted mission {}", samples.size(), missionId);
+      return 0;
+    }
+
+    LocalDateTime start = samples.get(0).getTimestamp();
+    LocalDateTime end = start;
+    for (TelemetrySample sample : samples) {
+      start = sample.getTimestamp().isBefore(start) ? sample.getTimestamp() : start;
+      end = sample.getTimestamp().isAfter(end) ? sample.getTimestamp() : end;
+    }
+    Set<LocalDateTime> stored =
+        new HashSet<>(telemetryRepository.findTimestamps(missionId, start, end));
+
+    List<DroneTelemetry> telemetry = new ArrayList<>();
+    List<MissionProgress> waypointProgress = new ArrayList<>();
+    for (TelemetrySample sample : samples) {
+      if (!stored.add(sample.getTimestamp())) {
+        continue;
+      }
+      telemetry.add(toTelemetry(mission.get(), sample));
+      if (TelemetrySample.isPresent(sample.getWaypointIndex())
+          && TelemetrySample.isPresent(sample.getAltitude())
+          && TelemetrySample.isPresent(sample.getGroundSpeed())
+          && TelemetrySample.isPresent(sample.getBatteryLevel())) {
+        waypointProgress.add(toProgress(mission.get(), sample));
+      }
+    }
+    telemetryRepository.saveAll(telemetry);
+    missionProgressRepository.saveAll(waypointProgress);
+    return telemetry.size();
+  }
+
+  /**
+   * Get telemetry history for a mission. Ranges within the recent telemetry held in memory for an
+   * active mission are served without a transaction or a query.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
   public Page<TelemetryResponse> getTelemetryHistory(
       UUID missionId, LocalDateTime startTime, LocalDateTime endTime, Pageable pageable) {
+    Optional<Page<TelemetryResponse>> recent =
+        historyBuffer.getHistory(missionId, startTime, endTime, pageable);
+    if (recent.isPresent()) {
+      return recent.get();
+    }
 
     return telemetryRepository
         .findByMissionIdAndTimestampBetweenOrderByTimestampDesc(
@@ -99,8 +214,50 @@ public class TelemetryService {
     return TelemetryResponse.fromEntity(latest);
   }
 
-  /** Update mission progress based on telemetry. */
-  private void updateMissionProgress(Mission mission, DroneTelemetry telemetry) {
+  private DroneTelemetry toTelemetry(Mission mission, TelemetrySample sample) {
+    DroneTelemetry telemetry = new DroneTelemetry();
+    telemetry.setMission(mission);
+    telemetry.setDrone(mission.getDrone());
+    telemetry.setTimestamp(sample.getTimestamp());
+    telemetry.setGpsLatitude(TelemetrySample.nullable(sample.getLatitude()));
+    telemetry.setGpsLongitude(TelemetrySample.nullable(sample.getLongitude()));
+    telemetry.setGpsAltitude(
+        TelemetrySample.isPresent(sample.getAltitude()) ? sample.getAltitude() : 0.0);
+    telemetry.setGpsSatellites(TelemetrySample.nullable(sample.getGpsSatellites()));
+    telemetry.setGpsHdop(TelemetrySample.nullable(sample.getGpsHdop()));
+    telemetry.setHeading(TelemetrySample.nullable(sample.getHeading()));
+    telemetry.setPitch(TelemetrySample.nullable(sample.getPitch()));
+    telemetry.setRoll(TelemetrySample.nullable(sample.getRoll()));
+    telemetry.setGroundSpeed(TelemetrySample.nullable(sample.getGroundSpeed()));
+    telemetry.setVerticalSpeed(TelemetrySample.nullable(sample.getVerticalSpeed()));
+    telemetry.setBatteryVoltage(TelemetrySample.nullable(sample.getBatteryVoltage()));
+    telemetry.setBatteryCurrent(TelemetrySample.nullable(sample.getBatteryCurrent()));
+    telemetry.setBatteryLevel(TelemetrySample.nullable(sample.getBatteryLevel()));
+    telemetry.setBatteryTemperature(TelemetrySample.nullable(sample.getBatteryTemperature()));
+    telemetry.setMotorRpm(sample.getMotorRpm());
+    telemetry.setSignalStrength(TelemetrySample.nullable(sample.getSignalStrength()));
+    return telemetry;
+  }
+
+  private MissionProgress toProgress(Mission mission, TelemetrySample sample) {
+    MissionProgress progress = new MissionProgress();
+    progress.setMission(mission);
+    progress.setCurrentWaypointIndex(TelemetrySample.nullable(sample.getWaypointIndex()));
+    progress.setLatitude(TelemetrySample.nullable(sample.getLatitude()));
+    progress.setLongitude(TelemetrySample.nullable(sample.getLongitude()));
+    progress.setAltitude((int) Math.round(sample.getAltitude()));
+    progress.setSpeed(TelemetrySample.nullable(sample.getGroundSpeed()));
+    progress.setBatteryLevel(TelemetrySample.nullable(sample.getBatteryLevel()));
+    progress.setTimestamp(sample.getTimestamp());
+    return progress;
+  }
+
+  /** Update the cached mission progress from the latest sample. */
+  private void updateProgressCache(
+      Mission mission,
+      TelemetrySample latest,
+      double completionPercentage,
+      Integer totalWaypoints) {
     MissionProgressCache progress =
         progressCacheRepository
             .findByMissionId(mission.getId())
@@ -114,118 +271,19 @@ public class TelemetryService {
                 });
 
     // Update current position
-    progress.setCurrentLatitude(telemetry.getGpsLatitude());
-    progress.setCurrentLongitude(telemetry.getGpsLongitude());
-    progress.setCurrentAltitude(telemetry.getGpsAltitude());
+    progress.setCurrentLatitude(TelemetrySample.nullable(latest.getLatitude()));
+    progress.setCurrentLongitude(TelemetrySample.nullable(latest.getLongitude()));
+    progress.setCurrentAltitude(TelemetrySample.nullable(latest.getAltitude()));
     progress.setLastUpdated(LocalDateTime.now());
-
-    // Calculate progress percentage based on waypoints
-    // This is simplified - in production, you'd calculate based on actual flight path
-    // For now, always calculate progress
-    double progressPercentage = calculateProgressPercentage(mission, telemetry);
-    progress.setProgressPercentage(progressPercentage);
-
-    progressCacheRepository.save(progress);
-  }
-
-  /** Check telemetry data for alert conditions. */
-  private void checkAndCreateAlerts(Mission mission, DroneTelemetry telemetry) {
-    // Low battery alert
-    if (telemetry.getBatteryLevel() < 20) {
-      createAlert(
-          mission,
-          MissionAlert.AlertType.LOW_BATTERY,
-          MissionAlert.Severity.WARNING,
-          "Battery level critical: " + telemetry.getBatteryLevel() + "%");
-    }
-
-    // GPS signal loss
-    if (telemetry.getGpsSatellites() != null && telemetry.getGpsSatellites() < 6) {
-      createAlert(
-          mission,
-          MissionAlert.AlertType.GPS_LOSS,
-          MissionAlert.Severity.WARNING,
-          "GPS signal weak: " + telemetry.getGpsSatellites() + " satellites");
-    }
-
-    // Altitude breach
-    if (telemetry.getGpsAltitude() > mission.getFlightAltitude() + 50) {
-      createAlert(
-          mission,
-          MissionAlert.AlertType.ALTITUDE_BREACH,
-          MissionAlert.Severity.CRITICAL,
-          "Altitude exceeded: "
-              + telemetry.getGpsAltitude()
-              + "m (limit: "
-              + mission.getFlightAltitude()
-              + "m)");
+    progress.setProgressPercentage(completionPercentage);
+    if (TelemetrySample.isPresent(latest.getWaypointIndex())) {
+      progress.setWaypointsCompleted(latest.getWaypointIndex());
     }
-
-    // Signal strength
-    if (telemetry.getSignalStrength() != null && telemetry.getSignalStrength() < 30) {
-      createAlert(
-          mission,
-          MissionAlert.AlertType.SIGNAL_LOSS,
-          MissionAlert.Severity.WARNING,
-          "Weak signal strength: " + telemetry.getSignalStrength() + "%");
+    if (totalWaypoints != null) {
+      progress.setTotalWaypoints(totalWaypoints);
     }
-  }
-
-  /** Create an alert if it doesn't already exist. */
-  private void createAlert(
-      Mission mission,
-      MissionAlert.AlertType type,
-      MissionAlert.Severity severity,
-      String message) {
-    // Check if similar alert was created recently (within last 5 minutes)
-    LocalDateTime recentTime = LocalDateTime.now().minusMinutes(5);
-    boolean recentAlertExists =
-        alertRepository.existsByMissionIdAndAlertTypeAndOccurredAtAfter(
-            mission.getId(), type, recentTime);
-
-    if (!recentAlertExists) {
-      MissionAlert alert = new MissionAlert();
-      alert.setMission(mission);
-      alert.setAlertType(type);
-      alert.setSeverity(severity);
-      alert.setMessage(message);
-      alert.setOccurredAt(LocalDateTime.now());
-
-      alertRepository.save(alert);
-
-      // Broadcast alert via WebSocket
-      webSocketService.sendStatusChangeNotification(mission.getId(), "ALERT", message);
-    }
-  }
-
-  /** Broadcast telemetry via WebSocket. */
-  private void broadcastTelemetry(Mission mission, DroneTelemetry telemetry) {
-    // Create response for WebSocket
-    TelemetryResponse response = TelemetryResponse.fromEntity(telemetry);
 
-    // Add mission progress info
-    MissionProgressCache progress =
-        progressCacheRepository.findByMissionId(mission.getId()).orElse(null);
-    if (progress != null) {
-      response.setProgressPercentage(
-          progress.getProgressPercentage() != null ? progress.getProgressPercentage() : 0.0);
-    }
-
-    // Send via WebSocket service
-    webSocketService.broadcastProgressUpdate(mission.getId(), response.toProgressResponse());
-  }
-
-  /** Calculate progress percentage based on distance. */
-  private double calculateProgressPercentage(Mission mission, DroneTelemetry telemetry) {
-    // This is a simplified calculation
-    // In production, you'd calculate based on:
-    // - Distance along planned route
-    // - Waypoints reached
-    // - Area covered for survey missions
-
-    // For now, return a mock calculation
-    long telemetryCount = telemetryRepository.countByMissionId(mission.getId());
-    return Math.min(100.0, (telemetryCount * 2.0)); // Rough estimate
+    progressCacheRepository.save(progress);
   }
 
   /** Clean up old telemetry data. */
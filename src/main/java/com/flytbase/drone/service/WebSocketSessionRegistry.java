@@ -0,0 +1,402 @@
+package com.flytbase.drone.service;
+
+import com.flytbase.drone.config.WebSocketBrokerConfig;
+import com.flytbase.drone.dto.websocket.WebSocketSessionResponse;
+import com.flytbase.drone.entity.WebSocketConnectionMetrics;
+import com.flytbase.drone.repository.WebSocketConnectionMetricsRepository;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+/**
+ * In-memory registry of STOMP sessions. Tracks subscriptions, heartbeats, outbound queue depth and
+ * delivery lag per session from STOMP lifecycle events and channel interceptors, detects sessions
+ * that cannot keep up with their outbound traffic, evicts sessions that stopped talking, and
+ * periodically persists aggregate connection metrics.
+ */
+@Service
+@Slf4j
+public class WebSocketSessionRegistry {
+
+  private final WebSocketConnectionMetricsRepository metricsRepository;
+  private final WebSocketBrokerConfig webSocketBrokerConfig;
+  private final MessageChannel clientOutboundChannel;
+
+  private final Map<String, SessionInfo> sessions = new ConcurrentHashMap<>();
+
+  // Counters for the current metrics interval
+  private final AtomicInteger connects = new AtomicInteger();
+  private final AtomicInteger disconnects = new AtomicInteger();
+  private final AtomicInteger evictions = new AtomicInteger();
+  private final AtomicLong heartbeats = new AtomicLong();
+  private final AtomicInteger peakOutboundQueueDepth = new AtomicInteger();
+
+  @Autowired
+  public WebSocketSessionRegistry(
+      WebSocketConnectionMetricsRepository metricsRepository,
+      WebSocketBrokerConfig webSocketBrokerConfig,
+      @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+    this.metricsRepository = metricsRepository;
+    this.webSocketBrokerConfig = webSocketBrokerConfig;
+    this.clientOutboundChannel = clientOutboundChannel;
+  }
+
+  /**
+   * Remember the WebSocket connection of a session so that its send buffer can be inspected and it
+   * can be closed later.
+   *
+   * @param webSocketSession the WebSocket session
+   */
+  public void attach(WebSocketSession webSocketSession) {
+    session(webSocketSession.getId()).connection = webSocketSession;
+  }
+
+  /**
+   * Forget the underlying WebSocket connection of a session.
+   *
+   * @param sessionId the session ID
+   */
+  public void detach(String sessionId) {
+    remove(sessionId);
+  }
+
+  @EventListener
+  public void onConnected(SessionConnectedEvent event) {
+    String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    if (sessionId != null) {
+      session(sessionId);
+      connects.incrementAndGet();
+    }
+  }
+
+  @EventListener
+  public void onSubscribe(SessionSubscribeEvent event) {
+    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+    if (accessor.getSessionId() != null && accessor.getSubscriptionId() != null) {
+      SessionInfo info = session(accessor.getSessionId());
+      info.subscriptions.put(
+          accessor.getSubscriptionId(), String.valueOf(accessor.getDestination()));
+      info.touch();
+    }
+  }
+
+  @EventListener
+  public void onUnsubscribe(SessionUnsubscribeEvent event) {
+    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+    if (accessor.getSessionId() == null) {
+      return;
+    }
+    SessionInfo info = sessions.get(accessor.getSessionId());
+    if (info != null && accessor.getSubscriptionId() != null) {
+      info.subscriptions.remove(accessor.getSubscriptionId());
+      info.touch();
+    }
+  }
+
+  @EventListener
+  public void onDisconnect(SessionDisconnectEvent event) {
+    remove(event.getSessionId());
+  }
+
+  /**
+   * Record an inbound frame on a session.
+   *
+   * @param sessionId the session ID
+   * @param heartbeat whether the frame was a heartbeat
+   */
+  public void recordInbound(String sessionId, boolean heartbeat) {
+    SessionInfo info = sessions.get(sessionId);
+    if (info != null) {
+      info.touch();
+      if (heartbeat) {
+        info.heartbeats.incrementAndGet();
+        heartbeats.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Record a message queued for delivery to a session.
+   *
+   * @param sessionId the session ID
+   */
+  public void recordOutboundQueued(String sessionId) {
+    SessionInfo info = sessions.get(sessionId);
+    if (info != null) {
+      int depth = info.outboundQueueDepth.incrementAndGet();
+      peakOutboundQueueDepth.accumulateAndGet(depth, Math::max);
+    }
+  }
+
+  /**
+   * Record a message that left the outbound queue of a session, either handed to its connection or
+   * dropped.
+   *
+   * @param sessionId the session ID
+   * @param enqueuedAt {@link System#nanoTime()} at which the message was queued, or null
+   */
+  public void recordOutboundSent(String sessionId, Long enqueuedAt) {
+    SessionInfo info = sessions.get(sessionId);
+    if (info != null) {
+      info.outboundQueueDepth.updateAndGet(depth -> Math.max(0, depth - 1));
+      if (enqueuedAt != null) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - enqueuedAt);
+        info.lastQueueLatencyMs = latency;
+        info.maxQueueLatencyMs = Math.max(info.maxQueueLatencyMs, latency);
+      }
+    }
+  }
+
+  /**
+   * Check whether a session is falling behind: too many messages queued for it on the outbound
+   * channel, too many bytes buffered on its connection, or a send that has been in progress for too
+   * long.
+   *
+   * @param sessionId the session ID
+   * @return true if the session is slow
+   */
+  public boolean isSlow(String sessionId) {
+    SessionInfo info = sessions.get(sessionId);
+    if (info == null) {
+      return false;
+    }
+
+    boolean slow = isBacklogged(info);
+    if (slow != info.slow) {
+      info.slow = slow;
+      if (slow) {
+        log.info(
+            "WebSocket session {} is falling behind, applying {} policy",
+            sessionId,
+            webSocketBrokerConfig.getSlowConsumerPolicy());
+      } else {
+        log.info("WebSocket session {} caught up", sessionId);
+      }
+    }
+    return slow;
+  }
+
+  /**
+   * Record a message dropped for a slow session.
+   *
+   * @param sessionId the session ID
+   */
+  public void recordDropped(String sessionId) {
+    SessionInfo info = sessions.get(sessionId);
+    if (info != null) {
+      info.droppedMessages.incrementAndGet();
+    }
+  }
+
+  /**
+   * Hold back a message for a slow session, replacing any message held for the same destination.
+   * The latest message per destination is delivered once the session has caught up.
+   *
+   * @param sessionId the session ID
+   * @param destination the destination of the message
+   * @param message the message
+   */
+  public void conflate(String sessionId, String destination, Message<?> message) {
+    SessionInfo info = sessions.get(sessionId);
+    if (info == null) {
+      return;
+    }
+    info.conflatedMessages.incrementAndGet();
+    if (info.pending.put(destination, message) != null) {
+      info.droppedMessages.incrementAndGet();
+    }
+  }
+
+  /**
+   * Close a session that cannot keep up with its outbound traffic.
+   *
+   * @param sessionId the session ID
+   */
+  public void disconnectSlow(String sessionId) {
+    SessionInfo info = sessions.get(sessionId);
+    if (info != null) {
+      log.warn("Closing WebSocket session {} that is falling behind", sessionId);
+      evictions.incrementAndGet();
+      close(info, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+  }
+
+  /**
+   * Get the delivery state of all sessions, slowest first.
+   *
+   * @return the session states
+   */
+  public List<WebSocketSessionResponse> getSessions() {
+    List<WebSocketSessionResponse> responses = new ArrayList<>();
+    sessions.forEach((sessionId, info) -> responses.add(toResponse(sessionId, info)));
+    responses.sort(
+        Comparator.comparingLong(WebSocketSessionResponse::getLastQueueLatencyMs).reversed());
+    return responses;
+  }
+
+  /**
+   * Get the number of registered sessions.
+   *
+   * @return the number of sessions
+   */
+  public int getSessionCount() {
+    return sessions.size();
+  }
+
+  /** Close and forget sessions that have not sent any frame within the session timeout. */
+  @Scheduled(fixedDelayString = "${app.websocket.eviction-check-ms:30000}")
+  public void evictStaleSessions() {
+    long cutoff = System.currentTimeMillis() - webSocketBrokerConfig.getSessionTimeoutMs();
+    sessions.forEach(
+        (sessionId, info) -> {
+          if (info.lastActivity < cutoff) {
+            evictions.incrementAndGet();
+            remove(sessionId);
+            close(info, CloseStatus.SESSION_NOT_RELIABLE);
+          }
+        });
+  }
+
+  /** Deliver the messages held back for sessions that have caught up. */
+  @Scheduled(fixedDelayString = "${app.websocket.conflation-flush-ms:100}")
+  public void flushConflated() {
+    sessions.forEach(
+        (sessionId, info) -> {
+          if (info.pending.isEmpty() || isSlow(sessionId)) {
+            return;
+          }
+          for (String destination : new ArrayList<>(info.pending.keySet())) {
+            Message<?> message = info.pending.remove(destination);
+            if (message != null) {
+              clientOutboundChannel.send(message);
+            }
+          }
+        });
+  }
+
+  /** Persist aggregate connection metrics for the elapsed interval. */
+  @Scheduled(fixedDelayString = "${app.websocket.metrics-flush-ms:60000}")
+  public void flushMetrics() {
+    try {
+      WebSocketConnectionMetrics metrics = new WebSocketConnectionMetrics();
+      metrics.setActiveSessions(sessions.size());
+      metrics.setActiveSubscriptions(
+          sessions.values().stream().mapToInt(info -> info.subscriptions.size()).sum());
+      metrics.setConnects(connects.getAndSet(0));
+      metrics.setDisconnects(disconnects.getAndSet(0));
+      metrics.setEvictions(evictions.getAndSet(0));
+      metrics.setHeartbeats(heartbeats.getAndSet(0));
+      metrics.setPeakOutboundQueueDepth(peakOutboundQueueDepth.getAndSet(0));
+      metricsRepository.save(metrics);
+    } catch (Exception e) {
+      log.error("Failed to persist WebSocket connection metrics", e);
+    }
+  }
+
+  private SessionInfo session(String sessionId) {
+    return sessions.computeIfAbsent(sessionId, id -> new SessionInfo());
+  }
+
+  private void remove(String sessionId) {
+    if (sessionId != null && sessions.remove(sessionId) != null) {
+      disconnects.incrementAndGet();
+    }
+  }
+
+  private boolean isBacklogged(SessionInfo info) {
+    if (info.outboundQueueDepth.get() > webSocketBrokerConfig.getSlowQueueDepth()) {
+      return true;
+    }
+    if (info.connection instanceof ConcurrentWebSocketSessionDecorator) {
+      ConcurrentWebSocketSessionDecorator connection =
+          (ConcurrentWebSocketSessionDecorator) info.connection;
+      return connection.getBufferSize() > webSocketBrokerConfig.getSlowBufferBytes()
+          || connection.getTimeSinceSendStarted() > webSocketBrokerConfig.getSlowSendTimeMs();
+    }
+    return false;
+  }
+
+  private WebSocketSessionResponse toResponse(String sessionId, SessionInfo info) {
+    WebSocketSessionResponse response = new WebSocketSessionResponse();
+    response.setSessionId(sessionId);
+    response.setConnectedAt(toDateTime(info.connectedAt));
+    response.setLastActivity(toDateTime(info.lastActivity));
+    response.setSubscriptions(info.subscriptions.size());
+    response.setHeartbeats(info.heartbeats.get());
+    response.setOutboundQueueDepth(info.outboundQueueDepth.get());
+    if (info.connection instanceof ConcurrentWebSocketSessionDecorator) {
+      ConcurrentWebSocketSessionDecorator connection =
+          (ConcurrentWebSocketSessionDecorator) info.connection;
+      response.setSendBufferBytes(connection.getBufferSize());
+      response.setSendInProgressMs(connection.getTimeSinceSendStarted());
+    }
+    response.setLastQueueLatencyMs(info.lastQueueLatencyMs);
+    response.setMaxQueueLatencyMs(info.maxQueueLatencyMs);
+    response.setDroppedMessages(info.droppedMessages.get());
+    response.setConflatedMessages(info.conflatedMessages.get());
+    response.setPendingConflated(info.pending.size());
+    response.setSlow(info.slow);
+    return response;
+  }
+
+  private LocalDateTime toDateTime(long epochMillis) {
+    return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+  }
+
+  private void close(SessionInfo info, CloseStatus status) {
+    WebSocketSession connection = info.connection;
+    if (connection != null && connection.isOpen()) {
+      try {
+        connection.close(status);
+      } catch (IOException e) {
+        log.debug("Failed to close WebSocket session {}: {}", connection.getId(), e.getMessage());
+      }
+    }
+  }
+
+  /** In-memory state of a single STOMP session. */
+  private static class SessionInfo {
+    private final long connectedAt = System.currentTimeMillis();
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicLong heartbeats = new AtomicLong();
+    private final AtomicInteger outboundQueueDepth = new AtomicInteger();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final AtomicLong conflatedMessages = new AtomicLong();
+    private final Map<String, Message<?>> pending = new ConcurrentHashMap<>();
+    private volatile long lastActivity = connectedAt;
+    private volatile long lastQueueLatencyMs;
+    private volatile long maxQueueLatencyMs;
+    private volatile boolean slow;
+    private volatile WebSocketSession connection;
+
+    private void touch() {
+      lastActivity = System.currentTimeMillis();
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.flytbase.drone.service.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The mission updates a node publishes in one flush. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterBatch {
+
+  private String origin;
+  private List<ClusterMessage> messages = new ArrayList<>();
+}
@@ -0,0 +1,169 @@
+package com.flytbase.drone.service.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flytbase.drone.config.ClusterConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Forwards mission updates to the other nodes of the cluster. Progress updates are coalesced to the
+ * latest one per mission and everything is published in one batch per flush interval, so cross-node
+ * traffic grows with the number of active missions rather than with the sample rate. Batches from
+ * other nodes are handed to the registered listeners; a node's own batches are ignored since it has
+ * already delivered them locally.
+ */
+@Service
+@Slf4j
+public class ClusterBroadcaster {
+
+  private final ClusterMessageBus messageBus;
+  private final ClusterConfig clusterConfig;
+  private final ObjectMapper objectMapper;
+
+  private final Map<UUID, Object> pendingProgress = new ConcurrentHashMap<>();
+  private final Queue<ClusterMessage> pendingEvents = new ConcurrentLinkedQueue<>();
+  private final List<Consumer<ClusterMessage>> listeners = new CopyOnWriteArrayList<>();
+
+  @Autowired
+  public ClusterBroadcaster(
+      ClusterMessageBus messageBus, ClusterConfig clusterConfig, ObjectMapper objectMapper) {
+    this.messageBus = messageBus;
+    this.clusterConfig = clusterConfig;
+    this.objectMapper = objectMapper;
+    messageBus.subscribe(this::receive);
+  }
+
+  /**
+   * Queue the latest progress of a mission for the other nodes, replacing any queued one.
+   *
+   * @param missionId the mission ID
+   * @param progress the progress payload
+   */
+  public void publishProgress(UUID missionId, Object progress) {
+    if (messageBus.isDistributed()) {
+      pendingProgress.put(missionId, progress);
+    }
+  }
+
+  /**
+   * Queue a status notification of a mission for the other nodes.
+   *
+   * @param missionId the mission ID
+   * @param notification the notification payload
+   */
+  public void publishStatus(UUID missionId, Object notification) {
+    if (messageBus.isDistributed()) {
+      pendingEvents.add(
+          new ClusterMessage(
+              ClusterMessage.Type.STATUS, missionId, objectMapper.valueToTree(notification)));
+    }
+  }
+
+  /**
+   * Queue the live state of a mission for the node taking over its ownership.
+   *
+   * @param missionId the mission ID
+   * @param snapshot the live state snapshot
+   */
+  public void publishHandoff(UUID missionId, Object snapshot) {
+    if (messageBus.isDistributed()) {
+      pendingEvents.add(
+          new ClusterMessage(
+              ClusterMessage.Type.HANDOFF, missionId, objectMapper.valueToTree(snapshot)));
+    }
+  }
+
+  /**
+   * Queue a progress frame for the node owning its mission, which ingests it.
+   *
+   * @param missionId the mission ID
+   * @param owner the node ID of the owner
+   * @param frame the frame as received
+   */
+  public void publishIngest(UUID missionId, String owner, JsonNode frame) {
+    if (messageBus.isDistributed()) {
+      ObjectNode payload = objectMapper.createObjectNode();
+      payload.put("owner", owner);
+      payload.set("frame", frame);
+      pendingEvents.add(new ClusterMessage(ClusterMessage.Type.INGEST, missionId, payload));
+    }
+  }
+
+  /**
+   * Whether updates reach other nodes.
+   *
+   * @return true if running with a distributed message bus
+   */
+  public boolean isDistributed() {
+    return messageBus.isDistributed();
+  }
+
+  /**
+   * Register a listener for mission updates published by other nodes.
+   *
+   * @param listener the listener
+   */
+  public void addListener(Consumer<ClusterMessage> listener) {
+    listeners.add(listener);
+  }
+
+  /** Publish the updates queued since the last flush as one batch. */
+  @Scheduled(fixedDelayString = "${app.cluster.flush-ms:100}")
+  public void flush() {
+    if (pendingProgress.isEmpty() && pendingEvents.isEmpty()) {
+      return;
+    }
+
+    List<ClusterMessage> messages = new ArrayList<>();
+    for (UUID missionId : new ArrayList<>(pendingProgress.keySet())) {
+      Object progress = pendingProgress.remove(missionId);
+      if (progress != null) {
+        messages.add(
+            new ClusterMessage(
+                ClusterMessage.Type.PROGRESS, missionId, objectMapper.valueToTree(progress)));
+      }
+    }
+    // Status changes go after progress so a final position never overtakes a completion
+    ClusterMessage event;
+    while ((event = pendingEvents.poll()) != null) {
+      messages.add(event);
+    }
+
+    try {
+      messageBus.publish(new ClusterBatch(clusterConfig.getNodeId(), messages));
+    } catch (Exception e) {
+      log.warn("Failed to publish {} cluster messages: {}", messages.size(), e.getMessage());
+    }
+  }
+
+  private void receive(ClusterBatch batch) {
+    if (clusterConfig.getNodeId().equals(batch.getOrigin())) {
+      return;
+    }
+    for (ClusterMessage message : batch.getMessages()) {
+      for (Consumer<ClusterMessage> listener : listeners) {
+        try {
+          listener.accept(message);
+        } catch (Exception e) {
+          log.warn(
+              "Failed to deliver cluster message for mission {}: {}",
+              message.getMissionId(),
+              e.getMessage());
+        }
+      }
+    }
+  }
+}
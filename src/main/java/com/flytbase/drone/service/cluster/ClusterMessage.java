@@ -0,0 +1,30 @@
+package com.flytbase.drone.service.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A mission update forwarded to the other nodes of the cluster. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterMessage {
+
+  private Type type;
+  private UUID missionId;
+  private JsonNode payload;
+
+  /** Kind of mission update. */
+  public enum Type {
+    /** Latest progress of a mission; only the most recent one per flush is forwarded. */
+    PROGRESS,
+    /** Status change or alert notification; every one is forwarded, in order. */
+    STATUS,
+    /** Live state snapshot of a mission whose ownership moved to another node. */
+    HANDOFF,
+    /** STOMP progress frame received by a node that does not own the mission, for its owner. */
+    INGEST
+  }
+}
@@ -0,0 +1,31 @@
+package com.flytbase.drone.service.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Publish/subscribe transport between application nodes. A published batch is delivered to the
+ * subscribers of every node, including the publishing one.
+ */
+public interface ClusterMessageBus {
+
+  /**
+   * Publish a batch of mission updates.
+   *
+   * @param batch the batch to publish
+   */
+  void publish(ClusterBatch batch);
+
+  /**
+   * Register a subscriber for batches published by any node.
+   *
+   * @param subscriber the subscriber
+   */
+  void subscribe(Consumer<ClusterBatch> subscriber);
+
+  /**
+   * Whether this bus connects to other nodes. When it does not, there is nothing to publish.
+   *
+   * @return true if batches reach other nodes
+   */
+  boolean isDistributed();
+}
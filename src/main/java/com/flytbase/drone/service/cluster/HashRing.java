@@ -0,0 +1,80 @@
+package com.flytbase.drone.service.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Immutable consistent-hash ring mapping mission IDs to nodes. Each node is placed on the ring at
+ * several points, so adding or removing a node only moves the missions adjacent to its points.
+ */
+public final class HashRing {
+
+  private final NavigableMap<Long, String> points = new TreeMap<>();
+  private final Set<String> nodes;
+
+  /**
+   * Create a ring over the given nodes.
+   *
+   * @param nodes the node IDs
+   * @param virtualNodes the number of points per node
+   */
+  public HashRing(Collection<String> nodes, int virtualNodes) {
+    this.nodes = Collections.unmodifiableSet(new TreeSet<>(nodes));
+    for (String node : this.nodes) {
+      for (int i = 0; i < virtualNodes; i++) {
+        points.put(hash(node + "#" + i), node);
+      }
+    }
+  }
+
+  /**
+   * Get the node owning a mission.
+   *
+   * @param missionId the mission ID
+   * @return the owning node ID, or null if the ring is empty
+   */
+  public String ownerOf(UUID missionId) {
+    if (points.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Long, String> entry =
+        points.ceilingEntry(
+            mix(missionId.getMostSignificantBits() ^ mix(missionId.getLeastSignificantBits())));
+    return entry != null ? entry.getValue() : points.firstEntry().getValue();
+  }
+
+  /**
+   * Get the nodes on the ring.
+   *
+   * @return the node IDs
+   */
+  public Set<String> getNodes() {
+    return nodes;
+  }
+
+  private static long hash(String value) {
+    // 64-bit FNV-1a, finished with a mix so nearby inputs spread over the ring
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b;
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+}
@@ -0,0 +1,34 @@
+package com.flytbase.drone.service.cluster;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Message bus for a single node: batches are handed straight to local subscribers. */
+@Component
+@ConditionalOnProperty(
+    prefix = "app.cluster",
+    name = "bus",
+    havingValue = "in-process",
+    matchIfMissing = true)
+public class InProcessClusterMessageBus implements ClusterMessageBus {
+
+  private final List<Consumer<ClusterBatch>> subscribers = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void publish(ClusterBatch batch) {
+    subscribers.forEach(subscriber -> subscriber.accept(batch));
+  }
+
+  @Override
+  public void subscribe(Consumer<ClusterBatch> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  @Override
+  public boolean isDistributed() {
+    return false;
+  }
+}
@@ -0,0 +1,153 @@
+package com.flytbase.drone.service.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.config.ClusterConfig;
+import com.flytbase.drone.dto.telemetry.TelemetryResponse;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.exception.ForwardedRequestException;
+import com.flytbase.drone.service.ingest.IngestGateway;
+import com.flytbase.drone.service.ingest.TelemetryDecoder;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import javax.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Forwards telemetry ingest for missions owned by another node to that node, so that each mission
+ * is ingested in one place. Forwarded requests carry {@link #FORWARDED_HEADER} and are always
+ * accepted by the receiver, which prevents loops while nodes briefly disagree on ownership.
+ *
+ * <p>STOMP frames carry no credentials to pass on over HTTP, so they are relayed over the cluster
+ * bus instead, addressed to the owner, which ingests them as if they had arrived on its own socket.
+ * Like the frames themselves, relayed frames are not acknowledged.
+ */
+@Service
+@Slf4j
+public class IngestForwarder {
+
+  /** Header marking a request that has already been forwarded once. */
+  public static final String FORWARDED_HEADER = "X-Cluster-Forwarded-By";
+
+  private final MissionOwnershipService ownershipService;
+  private final ClusterBroadcaster clusterBroadcaster;
+  private final IngestGateway ingestGateway;
+  private final TelemetryDecoder telemetryDecoder;
+  private final ObjectMapper objectMapper;
+  private final ClusterConfig clusterConfig;
+  private final RestTemplate restTemplate;
+
+  @Autowired
+  public IngestForwarder(
+      MissionOwnershipService ownershipService,
+      ClusterBroadcaster clusterBroadcaster,
+      IngestGateway ingestGateway,
+      TelemetryDecoder telemetryDecoder,
+      ObjectMapper objectMapper,
+      ClusterConfig clusterConfig,
+      RestTemplateBuilder restTemplateBuilder) {
+    this.ownershipService = ownershipService;
+    this.clusterBroadcaster = clusterBroadcaster;
+    this.ingestGateway = ingestGateway;
+    this.telemetryDecoder = telemetryDecoder;
+    this.objectMapper = objectMapper;
+    this.clusterConfig = clusterConfig;
+    this.restTemplate =
+        restTemplateBuilder
+            .setConnectTimeout(Duration.ofMillis(clusterConfig.getForwardTimeoutMs()))
+            .setReadTimeout(Duration.ofMillis(clusterConfig.getForwardTimeoutMs()))
+            .build();
+  }
+
+  @PostConstruct
+  public void registerRelayListener() {
+    clusterBroadcaster.addListener(this::handleClusterMessage);
+  }
+
+  /**
+   * Forward a telemetry sample to the node owning its mission.
+   *
+   * @param missionId the mission ID
+   * @param body the telemetry sample as received, forwarded without re-encoding
+   * @param authorization the caller's Authorization header, passed on to the owner
+   * @return the owner's response, or empty if this node owns the mission or the owner could not be
+   *     reached and the sample should be ingested locally
+   * @throws ForwardedRequestException if the owner rejected the sample with a client error
+   */
+  public Optional<TelemetryResponse> forward(UUID missionId, byte[] body, String authorization) {
+    Optional<String> ownerUrl = ownershipService.getOwnerUrl(missionId);
+    if (!ownerUrl.isPresent()) {
+      return Optional.empty();
+    }
+
+    HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    if (authorization != null) {
+      headers.set(HttpHeaders.AUTHORIZATION, authorization);
+    }
+    headers.set(FORWARDED_HEADER, clusterConfig.getNodeId());
+
+    try {
+      return Optional.ofNullable(
+          restTemplate.postForObject(
+              ownerUrl.get() + "/api/telemetry/missions/" + missionId,
+              new HttpEntity<>(body, headers),
+              TelemetryResponse.class));
+    } catch (HttpClientErrorException e) {
+      // Relay the owner's verdict, such as 401, 403, 404 or 409, as it was given
+      throw new ForwardedRequestException(
+          e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+    } catch (RestClientException e) {
+      log.warn("Owner of mission {} unreachable, ingesting locally: {}", missionId, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Relay a STOMP progress frame to the node owning its mission.
+   *
+   * @param missionId the mission ID
+   * @param frame the frame as received, already validated by decoding it
+   * @return true if another node owns the mission and the frame was relayed to it, false if it
+   *     should be ingested locally
+   * @throws BusinessException if the frame is not JSON
+   */
+  public boolean relay(UUID missionId, byte[] frame) {
+    Optional<String> owner = ownershipService.getRemoteOwner(missionId);
+    if (!owner.isPresent()) {
+      return false;
+    }
+    try {
+      clusterBroadcaster.publishIngest(missionId, owner.get(), objectMapper.readTree(frame));
+    } catch (IOException e) {
+      throw new BusinessException("Malformed progress frame", e);
+    }
+    return true;
+  }
+
+  /** Ingest frames relayed to this node, whether or not it still considers itself the owner. */
+  private void handleClusterMessage(ClusterMessage message) {
+    JsonNode payload = message.getPayload();
+    if (message.getType() != ClusterMessage.Type.INGEST
+        || !clusterConfig.getNodeId().equals(payload.path("owner").asText())) {
+      return;
+    }
+    try {
+      byte[] frame = objectMapper.writeValueAsBytes(payload.get("frame"));
+      ingestGateway.submit(telemetryDecoder.decodeProgress(message.getMissionId(), frame));
+    } catch (Exception e) {
+      log.warn("Invalid relayed frame for mission {}: {}", message.getMissionId(), e.getMessage());
+    }
+  }
+}
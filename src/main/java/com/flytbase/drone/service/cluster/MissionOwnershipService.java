@@ -0,0 +1,259 @@
+package com.flytbase.drone.service.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.config.ClusterConfig;
+import com.flytbase.drone.dto.mission.MissionSnapshotResponse;
+import com.flytbase.drone.entity.ClusterMember;
+import com.flytbase.drone.repository.ClusterMemberRepository;
+import com.flytbase.drone.service.MissionLiveStateService;
+import com.flytbase.drone.service.ingest.IngestGateway;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Assigns each mission to exactly one node by consistent hashing over the live cluster members, so
+ * that the owning node alone ingests its telemetry and keeps its authoritative live state.
+ * Membership is a heartbeat table in PostgreSQL. When members join or leave, the live state of
+ * every mission that moves is handed to its new owner over the cluster bus; a node that takes over
+ * a mission without a handoff reloads it from the database, whether the previous owner died, the
+ * live state was too large to hand off, or the handoff did not arrive in time.
+ *
+ * <p>With the in-process bus there is a single node, which owns every mission.
+ */
+@Service
+@Slf4j
+public class MissionOwnershipService {
+
+  private final ClusterMemberRepository memberRepository;
+  private final ClusterConfig clusterConfig;
+  private final ClusterBroadcaster clusterBroadcaster;
+  private final MissionLiveStateService liveStateService;
+  private final IngestGateway ingestGateway;
+  private final ObjectMapper objectMapper;
+  private final LocalDateTime startedAt = LocalDateTime.now();
+
+  private volatile HashRing ring;
+  private volatile Map<String, String> memberUrls = Collections.emptyMap();
+  private volatile boolean joined;
+
+  /** Missions taken over from a live member, with the time by which their handoff is due. */
+  private final Map<UUID, Long> awaitingHandoff = new ConcurrentHashMap<>();
+
+  @Autowired
+  public MissionOwnershipService(
+      ClusterMemberRepository memberRepository,
+      ClusterConfig clusterConfig,
+      ClusterBroadcaster clusterBroadcaster,
+      MissionLiveStateService liveStateService,
+      IngestGateway ingestGateway,
+      ObjectMapper objectMapper) {
+    this.memberRepository = memberRepository;
+    this.clusterConfig = clusterConfig;
+    this.clusterBroadcaster = clusterBroadcaster;
+    this.liveStateService = liveStateService;
+    this.ingestGateway = ingestGateway;
+    this.objectMapper = objectMapper;
+    this.ring =
+        new HashRing(
+            Collections.singleton(clusterConfig.getNodeId()), clusterConfig.getVirtualNodes());
+  }
+
+  @PostConstruct
+  public void registerHandoffListener() {
+    clusterBroadcaster.addListener(this::handleClusterMessage);
+  }
+
+  /**
+   * Check whether this node owns a mission.
+   *
+   * @param missionId the mission ID
+   * @return true if this node owns the mission
+   */
+  public boolean isLocal(UUID missionId) {
+    return clusterConfig.getNodeId().equals(ring.ownerOf(missionId));
+  }
+
+  /**
+   * Get the node owning a mission, if it is another node.
+   *
+   * @param missionId the mission ID
+   * @return the owner's node ID, or empty if this node owns the mission
+   */
+  public Optional<String> getRemoteOwner(UUID missionId) {
+    String owner = ring.ownerOf(missionId);
+    if (owner == null || owner.equals(clusterConfig.getNodeId())) {
+      return Optional.empty();
+    }
+    return Optional.of(owner);
+  }
+
+  /**
+   * Get the base URL of the node owning a mission.
+   *
+   * @param missionId the mission ID
+   * @return the owner's base URL, or empty if this node owns the mission or the owner is unknown
+   */
+  public Optional<String> getOwnerUrl(UUID missionId) {
+    String owner = ring.ownerOf(missionId);
+    if (owner == null || owner.equals(clusterConfig.getNodeId())) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(memberUrls.get(owner));
+  }
+
+  /** Renew this node's membership and rebalance missions if the set of live members changed. */
+  @Scheduled(fixedDelayString = "${app.cluster.heartbeat-ms:5000}")
+  public void heartbeat() {
+    if (!clusterBroadcaster.isDistributed()) {
+      return;
+    }
+
+    try {
+      LocalDateTime now = LocalDateTime.now();
+      memberRepository.save(
+          new ClusterMember(clusterConfig.getNodeId(), clusterConfig.getBaseUrl(), startedAt, now));
+
+      LocalDateTime cutoff = now.minus(Duration.ofMillis(clusterConfig.getMemberTimeoutMs()));
+      List<ClusterMember> members = memberRepository.findByLastHeartbeatAfter(cutoff);
+      Map<String, String> urls = new HashMap<>();
+      for (ClusterMember member : members) {
+        urls.put(member.getNodeId(), member.getBaseUrl());
+      }
+      urls.put(clusterConfig.getNodeId(), clusterConfig.getBaseUrl());
+      memberUrls = urls;
+
+      HashRing previous = ring;
+      if (!joined) {
+        // Until its first heartbeat this node only knew itself: the missions it owns now were
+        // owned by the members already running, which hand them off
+        Set<String> others = new HashSet<>(urls.keySet());
+        others.remove(clusterConfig.getNodeId());
+        if (!others.isEmpty()) {
+          previous = new HashRing(others, clusterConfig.getVirtualNodes());
+        }
+        joined = true;
+      }
+      if (!urls.keySet().equals(previous.getNodes())) {
+        rebalance(previous, new HashRing(urls.keySet(), clusterConfig.getVirtualNodes()));
+      }
+      reloadMissingHandoffs();
+
+      // Rows of members that have been gone for a long time are no longer useful
+      memberRepository.deleteByLastHeartbeatBefore(
+          now.minus(Duration.ofMillis(clusterConfig.getMemberTimeoutMs() * 10)));
+    } catch (Exception e) {
+      log.warn("Cluster heartbeat failed: {}", e.getMessage());
+    }
+  }
+
+  /** Leave the cluster on shutdown, handing every owned mission to its next owner. */
+  @PreDestroy
+  public void leave() {
+    if (!clusterBroadcaster.isDistributed()) {
+      return;
+    }
+
+    try {
+      memberRepository.deleteById(clusterConfig.getNodeId());
+      Set<String> remaining = new HashSet<>(ring.getNodes());
+      remaining.remove(clusterConfig.getNodeId());
+      rebalance(ring, new HashRing(remaining, clusterConfig.getVirtualNodes()));
+      clusterBroadcaster.flush();
+    } catch (Exception e) {
+      log.warn("Failed to leave the cluster cleanly: {}", e.getMessage());
+    }
+  }
+
+  private void rebalance(HashRing previous, HashRing next) {
+    ring = next;
+    log.info("Cluster membership changed: {}", next.getNodes());
+
+    String self = clusterConfig.getNodeId();
+    int handedOff = 0;
+    int reloaded = 0;
+    int awaited = 0;
+    long handoffDue = System.currentTimeMillis() + clusterConfig.getHandoffTimeoutMs();
+    for (UUID missionId : liveStateService.getMissionIds()) {
+      String previousOwner = previous.ownerOf(missionId);
+      boolean wasOwner = self.equals(previousOwner);
+      boolean isOwner = self.equals(next.ownerOf(missionId));
+      if (wasOwner != isOwner) {
+        // Samples of the mission may have been ingested on another node in the meantime
+        ingestGateway.evict(missionId);
+      }
+      if (wasOwner && !isOwner) {
+        awaitingHandoff.remove(missionId);
+        Optional<MissionSnapshotResponse> snapshot = liveStateService.getSnapshot(missionId);
+        if (snapshot.isPresent()) {
+          clusterBroadcaster.publishHandoff(missionId, snapshot.get());
+          handedOff++;
+        }
+      } else if (!wasOwner && isOwner && !next.getNodes().contains(previousOwner)) {
+        // The previous owner is gone; progress is replicated to every node, but alerts and the
+        // flight path are only known to the owner, so reload them. A handoff from an owner that
+        // left cleanly replaces this state when it arrives.
+        liveStateService.loadMission(missionId);
+        reloaded++;
+      } else if (!wasOwner && isOwner) {
+        awaitingHandoff.put(missionId, handoffDue);
+        awaited++;
+      }
+    }
+    if (handedOff > 0 || reloaded > 0 || awaited > 0) {
+      log.info(
+          "Handed off {} missions, took over {} missions, awaiting {} handoffs",
+          handedOff,
+          reloaded,
+          awaited);
+    }
+  }
+
+  /** Reload the live state of missions taken over whose handoff is overdue. */
+  private void reloadMissingHandoffs() {
+    long now = System.currentTimeMillis();
+    for (Map.Entry<UUID, Long> entry : awaitingHandoff.entrySet()) {
+      UUID missionId = entry.getKey();
+      if (entry.getValue() <= now && awaitingHandoff.remove(missionId, entry.getValue())) {
+        if (isLocal(missionId)) {
+          log.warn("No live state handoff for mission {}, reloading it", missionId);
+          liveStateService.loadMission(missionId);
+        }
+      }
+    }
+  }
+
+  private void handleClusterMessage(ClusterMessage message) {
+    // Applied even if this node's view of the ring lags behind the sender's by a heartbeat
+    if (message.getType() != ClusterMessage.Type.HANDOFF) {
+      return;
+    }
+    awaitingHandoff.remove(message.getMissionId());
+    if (message.getPayload() == null || message.getPayload().isNull()) {
+      // Handed off without its live state, which was too large for the bus
+      liveStateService.loadMission(message.getMissionId());
+      return;
+    }
+    try {
+      liveStateService.restore(
+          objectMapper.treeToValue(message.getPayload(), MissionSnapshotResponse.class));
+    } catch (Exception e) {
+      log.warn("Invalid live state handoff for mission {}", message.getMissionId());
+      liveStateService.loadMission(message.getMissionId());
+    }
+  }
+}
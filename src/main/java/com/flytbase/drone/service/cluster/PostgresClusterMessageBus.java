@@ -0,0 +1,187 @@
+package com.flytbase.drone.service.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.config.ClusterConfig;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Message bus on PostgreSQL LISTEN/NOTIFY, so nodes sharing the database need no further
+ * infrastructure. Batches are sent as JSON notifications, split to stay under the notification
+ * payload limit, and received by a dedicated listener connection per node. A handoff too large for
+ * one notification is sent without its live state, which the new owner then reloads.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.cluster", name = "bus", havingValue = "postgres")
+@Slf4j
+public class PostgresClusterMessageBus implements ClusterMessageBus {
+
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  private final DataSource dataSource;
+  private final ClusterConfig clusterConfig;
+  private final ObjectMapper objectMapper;
+
+  private final List<Consumer<ClusterBatch>> subscribers = new CopyOnWriteArrayList<>();
+  private volatile boolean running;
+  private Thread listener;
+
+  @Autowired
+  public PostgresClusterMessageBus(
+      DataSource dataSource, ClusterConfig clusterConfig, ObjectMapper objectMapper) {
+    this.dataSource = dataSource;
+    this.clusterConfig = clusterConfig;
+    this.objectMapper = objectMapper;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!CHANNEL_NAME.matcher(clusterConfig.getChannel()).matches()) {
+      throw new IllegalStateException(
+          "Invalid cluster notification channel: " + clusterConfig.getChannel());
+    }
+    running = true;
+    listener = new Thread(this::listen, "cluster-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    if (listener != null) {
+      listener.interrupt();
+    }
+  }
+
+  @Override
+  public void publish(ClusterBatch batch) {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+      notify(statement, batch.getOrigin(), batch.getMessages());
+    } catch (SQLException e) {
+      log.warn("Failed to publish cluster batch: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void subscribe(Consumer<ClusterBatch> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  @Override
+  public boolean isDistributed() {
+    return true;
+  }
+
+  /** Send messages as one notification, halving them until each payload fits. */
+  private void notify(PreparedStatement statement, String origin, List<ClusterMessage> messages)
+      throws SQLException {
+    String payload = serialize(new ClusterBatch(origin, messages));
+    if (payload == null) {
+      return;
+    }
+
+    if (payload.getBytes(StandardCharsets.UTF_8).length > clusterConfig.getMaxPayloadBytes()) {
+      if (messages.size() == 1) {
+        ClusterMessage message = messages.get(0);
+        if (message.getType() == ClusterMessage.Type.HANDOFF && message.getPayload() != null) {
+          // The new owner reloads the live state from the database instead
+          log.warn(
+              "Handing off mission {} without its live state: payload exceeds {} bytes",
+              message.getMissionId(),
+              clusterConfig.getMaxPayloadBytes());
+          notify(
+              statement,
+              origin,
+              Collections.singletonList(
+                  new ClusterMessage(ClusterMessage.Type.HANDOFF, message.getMissionId(), null)));
+          return;
+        }
+        log.warn(
+            "Dropping cluster message for mission {}: payload exceeds {} bytes",
+            message.getMissionId(),
+            clusterConfig.getMaxPayloadBytes());
+        return;
+      }
+      int half = messages.size() / 2;
+      notify(statement, origin, messages.subList(0, half));
+      notify(statement, origin, messages.subList(half, messages.size()));
+      return;
+    }
+
+    statement.setString(1, clusterConfig.getChannel());
+    statement.setString(2, payload);
+    statement.execute();
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + clusterConfig.getChannel());
+        }
+        log.info("Listening for cluster messages on channel {}", clusterConfig.getChannel());
+
+        while (running) {
+          PGNotification[] notifications =
+              pgConnection.getNotifications(clusterConfig.getListenTimeoutMs());
+          if (notifications != null) {
+            for (PGNotification notification : notifications) {
+              dispatch(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Cluster listener connection failed, reconnecting: {}", e.getMessage());
+        try {
+          Thread.sleep(clusterConfig.getReconnectDelayMs());
+        } catch (InterruptedException ie) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  private void dispatch(String payload) {
+    try {
+      ClusterBatch batch = objectMapper.readValue(payload, ClusterBatch.class);
+      for (Consumer<ClusterBatch> subscriber : subscribers) {
+        subscriber.accept(batch);
+      }
+    } catch (Exception e) {
+      log.warn("Failed to handle cluster notification: {}", e.getMessage());
+    }
+  }
+
+  private String serialize(ClusterBatch batch) {
+    try {
+      return objectMapper.writeValueAsString(batch);
+    } catch (Exception e) {
+      log.warn("Failed to serialize cluster batch: {}", e.getMessage());
+      return null;
+    }
+  }
+}
@@ -0,0 +1,653 @@
+package com.flytbase.drone.service.ingest;
+
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.dto.mission.MissionAlertResponse;
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import com.flytbase.drone.dto.telemetry.IngestStatsResponse;
+import com.flytbase.drone.dto.telemetry.TelemetryRateResponse;
+import com.flytbase.drone.dto.telemetry.TelemetryResponse;
+import com.flytbase.drone.entity.DroneTelemetry;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.entity.MissionAlert;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.service.MissionLiveStateService;
+import com.flytbase.drone.service.MissionWebSocketService;
+import com.flytbase.drone.service.TelemetryService;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Single entry point for telemetry, whatever transport it arrives on. Samples are queued per
+ * mission and written in micro-batches by a small worker pool, so neither the clientInboundChannel
+ * nor the REST threads of other missions wait on the database. Per batch, the gateway orders the
+ * samples by timestamp, drops retransmitted duplicates, persists everything with one mission
+ * lookup, computes progress once, raises alerts with a per-mission window and broadcasts the latest
+ * state. At most one batch per mission is in flight, so a mission's samples are handled in order.
+ *
+ * <p>With the {@link TelemetryWal} enabled, a sample is acknowledged once it is durable in the log
+ * rather than once it is in the database. Batches that fail, or that arrive while the database is
+ * down, stay in the log for the {@link TelemetryWalReplayer}.
+ *
+ * <p>With rate control enabled, every batch that advances a mission updates the send interval the
+ * {@link TelemetryRateAdvisor} recommends to its drone. The interval is returned with each ingest
+ * response and pushed over STOMP when it changes noticeably.
+ */
+@Service
+@Slf4j
+public class IngestGateway {
+
+  /** Number of recent drone-reported timestamps remembered per mission to detect duplicates. */
+  private static final int DEDUPE_WINDOW = 64;
+
+  /** Minimum time between two alerts of the same type for one mission. */
+  private static final Duration ALERT_WINDOW = Duration.ofMinutes(5);
+
+  /** Relative change of the recommended interval that is pushed to the drone. */
+  private static final double RATE_PUSH_THRESHOLD = 0.25;
+
+  private final TelemetryService telemetryService;
+  private final MissionWebSocketService webSocketService;
+  private final MissionLiveStateService liveStateService;
+  private final TelemetryHistoryBuffer historyBuffer;
+  private final TelemetryWal wal;
+  private final TelemetryWalReplayer replayer;
+  private final TelemetryRateAdvisor rateAdvisor;
+  private final IngestConfig ingestConfig;
+  private final ScheduledExecutorService workers;
+
+  private final Map<UUID, MissionIngest> missions = new ConcurrentHashMap<>();
+
+  // Throughput counters
+  private final Map<TelemetrySample.Source, SourceCounters> counters =
+      new EnumMap<>(TelemetrySample.Source.class);
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder batchedSamples = new LongAdder();
+  private final LongAdder writeNanos = new LongAdder();
+  private final AtomicInteger queuedSamples = new AtomicInteger();
+
+  @Autowired
+  public IngestGateway(
+      TelemetryService telemetryService,
+      MissionWebSocketService webSocketService,
+      MissionLiveStateService liveStateService,
+      TelemetryHistoryBuffer historyBuffer,
+      TelemetryWal wal,
+      TelemetryWalReplayer replayer,
+      TelemetryRateAdvisor rateAdvisor,
+      IngestConfig ingestConfig) {
+    this.telemetryService = telemetryService;
+    this.webSocketService = webSocketService;
+    this.liveStateService = liveStateService;
+    this.historyBuffer = historyBuffer;
+    this.wal = wal;
+    this.replayer = replayer;
+    this.rateAdvisor = rateAdvisor;
+    this.ingestConfig = ingestConfig;
+    for (TelemetrySample.Source source : TelemetrySample.Source.values()) {
+      counters.put(source, new SourceCounters());
+    }
+
+    AtomicInteger threadCount = new AtomicInteger();
+    this.workers =
+        Executors.newScheduledThreadPool(
+            ingestConfig.getWorkerThreads(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "ingest-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Queue a sample without waiting for it to be written.
+   *
+   * @param sample the sample
+   * @return a future completed with the stored record once the sample's batch is written, with null
+   *     if the sample was a duplicate; with the write-ahead log, completed with the received
+   *     sample, without an ID, once it is durable in the log
+   */
+  public CompletableFuture<TelemetryResponse> submit(TelemetrySample sample) {
+    if (!TelemetrySample.isPresent(sample.getLatitude())
+        || !TelemetrySample.isPresent(sample.getLongitude())) {
+      counters.get(sample.getSource()).rejected.increment();
+      CompletableFuture<TelemetryResponse> rejected = new CompletableFuture<>();
+      rejected.completeExceptionally(new BusinessException("Latitude and longitude are required"));
+      return rejected;
+    }
+
+    PendingSample pending = new PendingSample(sample);
+    if (wal.isEnabled()) {
+      pending.walEntry = wal.append(sample);
+    }
+    // Queued under the map's lock, so an eviction never drops an entry with samples queued
+    MissionIngest ingest =
+        missions.compute(
+            sample.getMissionId(),
+            (id, existing) -> {
+              MissionIngest queued = existing != null ? existing : new MissionIngest();
+              queued.queue.add(pending);
+              return queued;
+            });
+    queuedSamples.incrementAndGet();
+    schedule(sample.getMissionId(), ingest, ingestConfig.getBatchWindowMs());
+    if (pending.walEntry != null) {
+      return pending.walEntry.durable().thenApply(v -> acknowledgement(sample));
+    }
+    return pending.future;
+  }
+
+  /**
+   * Queue a sample and wait for it to be written, or with the write-ahead log, to be logged.
+   *
+   * @param sample the sample
+   * @return the stored record, or null if the sample was a duplicate
+   */
+  public TelemetryResponse ingest(TelemetrySample sample) {
+    try {
+      return submit(sample).get(ingestConfig.getRestTimeoutMs(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof BusinessException) {
+        throw (BusinessException) e.getCause();
+      }
+      throw new BusinessException("Failed to record telemetry", e.getCause());
+    } catch (TimeoutException e) {
+      throw new BusinessException("Timed out recording telemetry");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BusinessException("Interrupted while recording telemetry");
+    }
+  }
+
+  /**
+   * Check whether samples are acknowledged before they are stored in the database.
+   *
+   * @return true if the write-ahead log is enabled
+   */
+  public boolean isAsynchronous() {
+    return wal.isEnabled();
+  }
+
+  /**
+   * Drop the ingest state and recent telemetry of a mission, once it has completed or been aborted
+   * or its ownership has moved between nodes. A mission with a batch in flight or samples queued
+   * keeps its state until they are written, so its samples are still handled one batch at a time
+   * and in order; the last batch then drops it.
+   *
+   * @param missionId the mission ID
+   */
+  public void evict(UUID missionId) {
+    missions.computeIfPresent(
+        missionId,
+        (id, ingest) -> {
+          ingest.evicted = true;
+          return ingest.isIdle() ? null : ingest;
+        });
+    historyBuffer.evict(missionId);
+  }
+
+  /**
+   * Get throughput counters per transport.
+   *
+   * @return the ingest statistics
+   */
+  public IngestStatsResponse getStats() {
+    IngestStatsResponse stats = new IngestStatsResponse();
+    counters.forEach(
+        (source, counter) ->
+            stats
+                .getSources()
+                .add(
+                    new IngestStatsResponse.SourceStats(
+                        source.name(),
+                        counter.accepted.sum(),
+                        counter.duplicates.sum(),
+                        counter.rejected.sum(),
+                        counter.samplesPerSecond)));
+    long batchCount = batches.sum();
+    stats.setBatches(batchCount);
+    if (batchCount > 0) {
+      stats.setAverageBatchSize((double) batchedSamples.sum() / batchCount);
+      stats.setAverageWriteMs(writeNanos.sum() / 1_000_000.0 / batchCount);
+    }
+    stats.setQueuedSamples(queuedSamples.get());
+    stats.setHistoryBuffers(historyBuffer.getBufferCount());
+    stats.setHistoryBufferBytesPerMission(historyBuffer.getBytesPerMission());
+    stats.setHistoryBufferBytes(
+        historyBuffer.getBufferCount() * historyBuffer.getBytesPerMission());
+    return stats;
+  }
+
+  /** Update the per-transport sample rates over the last interval. */
+  @Scheduled(fixedRateString = "${app.ingest.stats-interval-ms:10000}")
+  public void updateRates() {
+    double seconds = ingestConfig.getStatsIntervalMs() / 1000.0;
+    for (SourceCounters counter : counters.values()) {
+      long accepted = counter.accepted.sum();
+      counter.samplesPerSecond = (accepted - counter.acceptedAtLastRate) / seconds;
+      counter.acceptedAtLastRate = accepted;
+    }
+  }
+
+  /** Write whatever is still queued before shutting the workers down. */
+  @PreDestroy
+  public void shutdown() {
+    workers.shutdown();
+    try {
+      workers.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    missions.forEach(
+        (missionId, ingest) -> {
+          while (!ingest.queue.isEmpty()) {
+            write(missionId, ingest);
+          }
+        });
+  }
+
+  private void schedule(UUID missionId, MissionIngest ingest, long delayMs) {
+    if (ingest.scheduled.compareAndSet(false, true)) {
+      workers.schedule(() -> drain(missionId, ingest), delayMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void drain(UUID missionId, MissionIngest ingest) {
+    try {
+      write(missionId, ingest);
+    } finally {
+      ingest.scheduled.set(false);
+      // Samples that arrived while this batch was being written start the next one right away
+      if (!ingest.queue.isEmpty()) {
+        schedule(missionId, ingest, 0);
+      } else if (ingest.evicted) {
+        missions.computeIfPresent(
+            missionId, (id, current) -> current == ingest && ingest.isIdle() ? null : current);
+      }
+    }
+  }
+
+  private void write(UUID missionId, MissionIngest ingest) {
+    List<PendingSample> batch = new ArrayList<>();
+    PendingSample next;
+    while (batch.size() < ingestConfig.getMaxBatchSize() && (next = ingest.queue.poll()) != null) {
+      batch.add(next);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    queuedSamples.addAndGet(-batch.size());
+
+    batch.sort(Comparator.comparing(pending -> pending.sample.getTimestamp()));
+    List<PendingSample> accepted = new ArrayList<>(batch.size());
+    for (PendingSample pending : batch) {
+      TelemetrySample sample = pending.sample;
+      if (sample.isTimestampReported() && !ingest.remember(sample.getTimestamp())) {
+        counters.get(sample.getSource()).duplicates.increment();
+        release(pending);
+        pending.future.complete(null);
+      } else {
+        accepted.add(pending);
+      }
+    }
+    if (accepted.isEmpty()) {
+      return;
+    }
+
+    List<TelemetrySample> samples =
+        accepted.stream().map(pending -> pending.sample).collect(Collectors.toList());
+    if (wal.isEnabled() && replayer.isDatabaseDown()) {
+      // Keep the batch in the log instead of waiting on the database to time out again
+      accepted.forEach(pending -> wal.fail(pending.walEntry));
+      return;
+    }
+    TelemetrySample latest = samples.get(samples.size() - 1);
+    // Samples older than what has already been applied are stored but do not move the mission
+    boolean advances =
+        ingest.lastTimestamp == null || !latest.getTimestamp().isBefore(ingest.lastTimestamp);
+    if (advances) {
+      for (TelemetrySample sample : samples) {
+        if (TelemetrySample.isPresent(sample.getWaypointIndex())) {
+          ingest.lastWaypointIndex = sample.getWaypointIndex();
+        }
+      }
+    }
+
+    Integer totalWaypoints = liveStateService.getWaypointCount(missionId);
+    List<DroneTelemetry> saved;
+    double completion;
+    long start = System.nanoTime();
+    try {
+      if (ingest.sampleCount < 0) {
+        ingest.sampleCount = telemetryService.countSamples(missionId);
+      }
+      completion = completionPercentage(ingest, totalWaypoints, samples.size());
+      saved =
+          telemetryService.persistBatch(
+              missionId, samples, advances ? latest : null, completion, totalWaypoints);
+    } catch (Exception e) {
+      if (wal.isEnabled() && !(e instanceof BusinessException)) {
+        // Already acknowledged; the replayer writes the batch once the database is back
+        accepted.forEach(pending -> wal.fail(pending.walEntry));
+        replayer.reportFailure();
+        log.warn(
+            "Failed to record {} samples for mission {}, kept in the write-ahead log: {}",
+            samples.size(),
+            missionId,
+            e.getMessage());
+        return;
+      }
+      BusinessException failure =
+          e instanceof BusinessException
+              ? (BusinessException) e
+              : new BusinessException("Failed to record telemetry", e);
+      for (PendingSample pending : accepted) {
+        counters.get(pending.sample.getSource()).rejected.increment();
+        release(pending);
+        pending.future.completeExceptionally(failure);
+      }
+      log.warn(
+          "Failed to record {} samples for mission {}: {}",
+          samples.size(),
+          missionId,
+          e.getMessage());
+      return;
+    }
+    writeNanos.add(System.nanoTime() - start);
+    batches.increment();
+    batchedSamples.add(samples.size());
+    historyBuffer.append(missionId, saved, ingest.sampleCount == 0);
+    ingest.sampleCount += samples.size();
+
+    Mission mission = saved.get(0).getMission();
+    if (advances && rateAdvisor.isEnabled()) {
+      adviseRate(missionId, mission, ingest, samples);
+    }
+    TelemetryRateResponse rate = ingest.rate;
+    for (int i = 0; i < accepted.size(); i++) {
+      PendingSample pending = accepted.get(i);
+      counters.get(pending.sample.getSource()).accepted.increment();
+      release(pending);
+      TelemetryResponse response = TelemetryResponse.fromEntity(saved.get(i));
+      response.setRecommendedIntervalMs(rate != null ? rate.getIntervalMs() : null);
+      pending.future.complete(response);
+    }
+
+    for (TelemetrySample sample : samples) {
+      checkAlerts(ingest, mission, sample);
+    }
+    if (advances) {
+      ingest.lastTimestamp = latest.getTimestamp();
+      webSocketService.broadcastProgressUpdate(
+          missionId,
+          toProgressResponse(
+              mission, saved.get(saved.size() - 1), ingest, completion, totalWaypoints));
+    }
+  }
+
+  private void release(PendingSample pending) {
+    if (pending.walEntry != null) {
+      wal.release(pending.walEntry);
+    }
+  }
+
+  /** The response to a sample acknowledged once it is in the write-ahead log. */
+  private TelemetryResponse acknowledgement(TelemetrySample sample) {
+    TelemetryResponse response = new TelemetryResponse();
+    response.setMissionId(sample.getMissionId());
+    response.setTimestamp(sample.getTimestamp());
+    response.setLatitude(TelemetrySample.nullable(sample.getLatitude()));
+    response.setLongitude(TelemetrySample.nullable(sample.getLongitude()));
+    response.setAltitude(TelemetrySample.nullable(sample.getAltitude()));
+    response.setGpsSatellites(TelemetrySample.nullable(sample.getGpsSatellites()));
+    response.setGpsHdop(TelemetrySample.nullable(sample.getGpsHdop()));
+    response.setHeading(TelemetrySample.nullable(sample.getHeading()));
+    response.setPitch(TelemetrySample.nullable(sample.getPitch()));
+    response.setRoll(TelemetrySample.nullable(sample.getRoll()));
+    response.setGroundSpeed(TelemetrySample.nullable(sample.getGroundSpeed()));
+    response.setVerticalSpeed(TelemetrySample.nullable(sample.getVerticalSpeed()));
+    response.setBatteryVoltage(TelemetrySample.nullable(sample.getBatteryVoltage()));
+    response.setBatteryCurrent(TelemetrySample.nullable(sample.getBatteryCurrent()));
+    response.setBatteryLevel(TelemetrySample.nullable(sample.getBatteryLevel()));
+    response.setBatteryTemperature(TelemetrySample.nullable(sample.getBatteryTemperature()));
+    response.setMotorRpm(sample.getMotorRpm());
+    response.setSignalStrength(TelemetrySample.nullable(sample.getSignalStrength()));
+    MissionIngest ingest = missions.get(sample.getMissionId());
+    TelemetryRateResponse rate = ingest != null ? ingest.rate : null;
+    response.setRecommendedIntervalMs(rate != null ? rate.getIntervalMs() : null);
+    return response;
+  }
+
+  /** Update the interval recommended to the drone, pushing it if it changed noticeably. */
+  private void adviseRate(
+      UUID missionId, Mission mission, MissionIngest ingest, List<TelemetrySample> samples) {
+    TelemetryRateResponse rate =
+        rateAdvisor.recommend(
+            missionId,
+            mission.getDrone().getId(),
+            samples,
+            ingest.lastHeading,
+            ingest.lastWaypointIndex,
+            queuedSamples.get());
+    for (TelemetrySample sample : samples) {
+      if (TelemetrySample.isPresent(sample.getHeading())) {
+        ingest.lastHeading = sample.getHeading();
+      }
+    }
+    ingest.rate = rate;
+
+    TelemetryRateResponse pushed = ingest.pushedRate;
+    if (pushed == null
+        || pushed.getReason() != rate.getReason()
+        || Math.abs(rate.getIntervalMs() - pushed.getIntervalMs())
+            >= pushed.getIntervalMs() * RATE_PUSH_THRESHOLD) {
+      ingest.pushedRate = rate;
+      webSocketService.sendTelemetryRate(rate);
+    }
+  }
+
+  /**
+   * Completion from the last reported waypoint when the flight path is known, otherwise estimated
+   * from the number of samples received.
+   */
+  private double completionPercentage(
+      MissionIngest ingest, Integer totalWaypoints, int newSamples) {
+    if (TelemetrySample.isPresent(ingest.lastWaypointIndex)
+        && totalWaypoints != null
+        && totalWaypoints > 0) {
+      return Math.min(100.0, (ingest.lastWaypointIndex + 1) * 100.0 / totalWaypoints);
+    }
+    return Math.min(100.0, (ingest.sampleCount + newSamples) * 2.0);
+  }
+
+  private void checkAlerts(MissionIngest ingest, Mission mission, TelemetrySample sample) {
+    // Low battery alert
+    if (TelemetrySample.isPresent(sample.getBatteryLevel()) && sample.getBatteryLevel() < 20) {
+      raiseAlert(
+          ingest,
+          mission,
+          MissionAlert.AlertType.LOW_BATTERY,
+          MissionAlert.Severity.WARNING,
+          "Battery level critical: " + sample.getBatteryLevel() + "%");
+    }
+
+    // GPS signal loss
+    if (TelemetrySample.isPresent(sample.getGpsSatellites()) && sample.getGpsSatellites() < 6) {
+      raiseAlert(
+          ingest,
+          mission,
+          MissionAlert.AlertType.GPS_LOSS,
+          MissionAlert.Severity.WARNING,
+          "GPS signal weak: " + sample.getGpsSatellites() + " satellites");
+    }
+
+    // Altitude breach
+    // NaN, an altitude that was not reported, is never above the limit
+    if (sample.getAltitude() > mission.getFlightAltitude() + 50) {
+      raiseAlert(
+          ingest,
+          mission,
+          MissionAlert.AlertType.ALTITUDE_BREACH,
+          MissionAlert.Severity.CRITICAL,
+          "Altitude exceeded: "
+              + sample.getAltitude()
+              + "m (limit: "
+              + mission.getFlightAltitude()
+              + "m)");
+    }
+
+    // Signal strength
+    if (TelemetrySample.isPresent(sample.getSignalStrength()) && sample.getSignalStrength() < 30) {
+      raiseAlert(
+          ingest,
+          mission,
+          MissionAlert.AlertType.SIGNAL_LOSS,
+          MissionAlert.Severity.WARNING,
+          "Weak signal strength: " + sample.getSignalStrength() + "%");
+    }
+  }
+
+  /** Raise an alert unless one of the same type was raised for the mission within the window. */
+  private void raiseAlert(
+      MissionIngest ingest,
+      Mission mission,
+      MissionAlert.AlertType type,
+      MissionAlert.Severity severity,
+      String message) {
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime windowStart = now.minus(ALERT_WINDOW);
+    LocalDateTime lastRaised = ingest.lastAlerts.get(type);
+    if (lastRaised == null && telemetryService.hasAlertSince(mission.getId(), type, windowStart)) {
+      // Raised before this node started tracking the mission; suppress for a full window
+      ingest.lastAlerts.put(type, now);
+      return;
+    }
+    if (lastRaised != null && lastRaised.isAfter(windowStart)) {
+      return;
+    }
+
+    try {
+      MissionAlert alert = telemetryService.saveAlert(mission.getId(), type, severity, message);
+      ingest.lastAlerts.put(type, now);
+      liveStateService.addAlert(
+          mission.getId(), MissionAlertResponse.fromEntity(alert, mission.getId()));
+      webSocketService.sendStatusChangeNotification(mission.getId(), "ALERT", message);
+    } catch (Exception e) {
+      log.warn(
+          "Failed to raise {} alert for mission {}: {}", type, mission.getId(), e.getMessage());
+    }
+  }
+
+  private MissionProgressResponse toProgressResponse(
+      Mission mission,
+      DroneTelemetry telemetry,
+      MissionIngest ingest,
+      double completion,
+      Integer totalWaypoints) {
+    MissionProgressResponse response = new MissionProgressResponse();
+    response.setId(telemetry.getId());
+    response.setMissionId(mission.getId());
+    response.setMissionName(mission.getName());
+    response.setCurrentWaypointIndex(TelemetrySample.nullable(ingest.lastWaypointIndex));
+    response.setTotalWaypoints(totalWaypoints);
+    response.setLatitude(telemetry.getGpsLatitude());
+    response.setLongitude(telemetry.getGpsLongitude());
+    response.setAltitude((int) Math.round(telemetry.getGpsAltitude()));
+    response.setSpeed(telemetry.getGroundSpeed());
+    response.setHeading(telemetry.getHeading());
+    response.setVerticalSpeed(telemetry.getVerticalSpeed());
+    response.setBatteryLevel(telemetry.getBatteryLevel());
+    response.setDroneStatus(mission.getDrone().getStatus().name());
+    response.setMissionStatus(mission.getStatus().name());
+    response.setCompletionPercentage(completion);
+    response.setTimestamp(telemetry.getTimestamp());
+    return response;
+  }
+
+  /** A queued sample and the future of its caller. */
+  private static class PendingSample {
+    private final TelemetrySample sample;
+    private final CompletableFuture<TelemetryResponse> future = new CompletableFuture<>();
+    private TelemetryWal.Entry walEntry;
+
+    private PendingSample(TelemetrySample sample) {
+      this.sample = sample;
+    }
+  }
+
+  /**
+   * Ingest state of a single mission. Everything except the queue and the scheduled and evicted
+   * flags is only touched by the one batch of the mission in flight.
+   */
+  private static class MissionIngest {
+    private final Queue<PendingSample> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Set<LocalDateTime> recentTimestamps = new LinkedHashSet<>();
+    private final Map<MissionAlert.AlertType, LocalDateTime> lastAlerts =
+        new EnumMap<>(MissionAlert.AlertType.class);
+    private long sampleCount = -1;
+    private LocalDateTime lastTimestamp;
+    private int lastWaypointIndex = TelemetrySample.ABSENT;
+    private double lastHeading = Double.NaN;
+    private TelemetryRateResponse pushedRate;
+
+    /** Latest recommended interval, also read when acknowledging samples from the log. */
+    private volatile TelemetryRateResponse rate;
+
+    /** Set once the mission is evicted; the entry is dropped as soon as it is idle. */
+    private volatile boolean evicted;
+
+    /** Whether no batch is scheduled or in flight and no sample is queued. */
+    private boolean isIdle() {
+      return !scheduled.get() && queue.isEmpty();
+    }
+
+    /** Remember a drone-reported timestamp; returns false if it was seen recently. */
+    private boolean remember(LocalDateTime timestamp) {
+      if (!recentTimestamps.add(timestamp)) {
+        return false;
+      }
+      if (recentTimestamps.size() > DEDUPE_WINDOW) {
+        Iterator<LocalDateTime> oldest = recentTimestamps.iterator();
+        oldest.next();
+        oldest.remove();
+      }
+      return true;
+    }
+  }
+
+  /** Throughput counters of a single transport. */
+  private static class SourceCounters {
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile long acceptedAtLastRate;
+    private volatile double samplesPerSecond;
+  }
+}
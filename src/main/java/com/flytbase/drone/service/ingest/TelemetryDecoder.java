@@ -0,0 +1,343 @@
+package com.flytbase.drone.service.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.exception.FieldValidationException;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decodes telemetry payloads straight into a {@link TelemetrySample} with Jackson's streaming
+ * parser. The request DTO, the reflective databind path and bean validation are skipped: each
+ * number is read once as a primitive and stored unboxed in the sample that is queued for ingest, so
+ * decoding a sample allocates little beyond the sample itself. Missing and null numbers become
+ * {@code NaN} or {@link TelemetrySample#ABSENT}.
+ *
+ * <p>REST payloads follow {@link com.flytbase.drone.dto.telemetry.TelemetryRequest} and are
+ * validated against the same constraints; STOMP frames follow {@link
+ * com.flytbase.drone.dto.mission.MissionProgressRequest}. Unknown fields are ignored and numbers
+ * sent as strings are accepted, as databind does.
+ */
+@Component
+public class TelemetryDecoder {
+
+  private static final double NO_LIMIT = Double.POSITIVE_INFINITY;
+
+  private final JsonFactory jsonFactory;
+
+  @Autowired
+  public TelemetryDecoder(ObjectMapper objectMapper) {
+    this.jsonFactory = objectMapper.getFactory();
+  }
+
+  /**
+   * Decode and validate a REST telemetry payload.
+   *
+   * @param missionId the mission ID
+   * @param body the JSON payload
+   * @return the sample
+   */
+  public TelemetrySample decodeTelemetry(UUID missionId, byte[] body) {
+    TelemetrySample sample = new TelemetrySample();
+    sample.setMissionId(missionId);
+    sample.setSource(TelemetrySample.Source.REST);
+    sample.setTimestamp(LocalDateTime.now());
+
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      startObject(parser);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "latitude":
+            sample.setLatitude(readDouble(parser, field));
+            break;
+          case "longitude":
+            sample.setLongitude(readDouble(parser, field));
+            break;
+          case "altitude":
+            sample.setAltitude(readDouble(parser, field));
+            break;
+          case "gpsSatellites":
+            sample.setGpsSatellites(readInteger(parser, field));
+            break;
+          case "gpsHdop":
+            sample.setGpsHdop(readDouble(parser, field));
+            break;
+          case "heading":
+            sample.setHeading(readDouble(parser, field));
+            break;
+          case "pitch":
+            sample.setPitch(readDouble(parser, field));
+            break;
+          case "roll":
+            sample.setRoll(readDouble(parser, field));
+            break;
+          case "groundSpeed":
+            sample.setGroundSpeed(readDouble(parser, field));
+            break;
+          case "verticalSpeed":
+            sample.setVerticalSpeed(readDouble(parser, field));
+            break;
+          case "batteryVoltage":
+            sample.setBatteryVoltage(readDouble(parser, field));
+            break;
+          case "batteryCurrent":
+            sample.setBatteryCurrent(readDouble(parser, field));
+            break;
+          case "batteryLevel":
+            sample.setBatteryLevel(readInteger(parser, field));
+            break;
+          case "batteryTemperature":
+            sample.setBatteryTemperature(readDouble(parser, field));
+            break;
+          case "motorRpm":
+            sample.setMotorRpm(readString(parser, field));
+            break;
+          case "signalStrength":
+            sample.setSignalStrength(readInteger(parser, field));
+            break;
+          default:
+            parser.skipChildren();
+        }
+      }
+    } catch (JsonProcessingException e) {
+      throw new BusinessException("Malformed telemetry: " + e.getOriginalMessage());
+    } catch (IOException e) {
+      throw new BusinessException("Failed to read telemetry", e);
+    }
+
+    validateTelemetry(sample);
+    return sample;
+  }
+
+  /**
+   * Decode a STOMP progress frame.
+   *
+   * @param missionId the mission ID
+   * @param payload the JSON payload
+   * @return the sample
+   */
+  public TelemetrySample decodeProgress(UUID missionId, byte[] payload) {
+    TelemetrySample sample = new TelemetrySample();
+    sample.setMissionId(missionId);
+    sample.setSource(TelemetrySample.Source.STOMP);
+
+    try (JsonParser parser = jsonFactory.createParser(payload)) {
+      startObject(parser);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "currentWaypointIndex":
+            sample.setWaypointIndex(readInteger(parser, field));
+            break;
+          case "latitude":
+            sample.setLatitude(readDouble(parser, field));
+            break;
+          case "longitude":
+            sample.setLongitude(readDouble(parser, field));
+            break;
+          case "altitude":
+            int altitude = readInteger(parser, field);
+            sample.setAltitude(TelemetrySample.isPresent(altitude) ? altitude : Double.NaN);
+            break;
+          case "speed":
+            sample.setGroundSpeed(readDouble(parser, field));
+            break;
+          case "batteryLevel":
+            sample.setBatteryLevel(readInteger(parser, field));
+            break;
+          case "timestamp":
+            sample.setTimestamp(readTimestamp(parser, field));
+            break;
+          default:
+            // Includes missionId, which is taken from the destination
+            parser.skipChildren();
+        }
+      }
+    } catch (JsonProcessingException e) {
+      throw new BusinessException("Malformed progress frame: " + e.getOriginalMessage());
+    } catch (IOException e) {
+      throw new BusinessException("Failed to read progress frame", e);
+    }
+
+    sample.setTimestampReported(sample.getTimestamp() != null);
+    if (sample.getTimestamp() == null) {
+      sample.setTimestamp(LocalDateTime.now());
+    }
+    return sample;
+  }
+
+  private void startObject(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new BusinessException("Telemetry must be a JSON object");
+    }
+  }
+
+  private double readDouble(JsonParser parser, String field) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_NUMBER_INT:
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_NULL:
+        return Double.NaN;
+      case VALUE_STRING:
+        String text = parser.getText().trim();
+        try {
+          return text.isEmpty() ? Double.NaN : Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+          throw invalid(field, "a number");
+        }
+      default:
+        throw invalid(field, "a number");
+    }
+  }
+
+  private int readInteger(JsonParser parser, String field) throws IOException {
+    switch (parser.currentToken()) {
+      case VALUE_NUMBER_INT:
+        return parser.getIntValue();
+      case VALUE_NUMBER_FLOAT:
+        // Truncated, as databind does
+        return (int) parser.getDoubleValue();
+      case VALUE_NULL:
+        return TelemetrySample.ABSENT;
+      case VALUE_STRING:
+        String text = parser.getText().trim();
+        try {
+          return text.isEmpty() ? TelemetrySample.ABSENT : Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+          throw invalid(field, "an integer");
+        }
+      default:
+        throw invalid(field, "an integer");
+    }
+  }
+
+  private String readString(JsonParser parser, String field) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      throw invalid(field, "a string");
+    }
+    return parser.getText();
+  }
+
+  private LocalDateTime readTimestamp(JsonParser parser, String field) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (token != JsonToken.VALUE_STRING) {
+      throw invalid(field, "an ISO-8601 date-time");
+    }
+    String text = parser.getText().trim();
+    try {
+      if (text.isEmpty()) {
+        return null;
+      }
+      // A UTC instant is accepted like the Java time module does
+      return text.endsWith("Z")
+          ? LocalDateTime.ofInstant(Instant.parse(text), ZoneOffset.UTC)
+          : LocalDateTime.parse(text);
+    } catch (DateTimeParseException e) {
+      throw invalid(field, "an ISO-8601 date-time");
+    }
+  }
+
+  private BusinessException invalid(String field, String expected) {
+    return new BusinessException("Invalid telemetry: " + field + " must be " + expected);
+  }
+
+  /** The constraints of {@link com.flytbase.drone.dto.telemetry.TelemetryRequest}. */
+  private void validateTelemetry(TelemetrySample sample) {
+    Map<String, String> errors = new HashMap<>();
+    required(errors, "latitude", sample.getLatitude(), "Latitude is required");
+    range(errors, "latitude", sample.getLatitude(), -90, 90, "Latitude must be between -90 and 90");
+    required(errors, "longitude", sample.getLongitude(), "Longitude is required");
+    range(
+        errors,
+        "longitude",
+        sample.getLongitude(),
+        -180,
+        180,
+        "Longitude must be between -180 and 180");
+    required(errors, "altitude", sample.getAltitude(), "Altitude is required");
+    range(errors, "altitude", sample.getAltitude(), 0, NO_LIMIT, "Altitude cannot be negative");
+    range(
+        errors, "altitude", sample.getAltitude(), -NO_LIMIT, 1000, "Altitude cannot exceed 1000m");
+    range(errors, "heading", sample.getHeading(), 0, 360, "Heading must be between 0 and 360");
+    range(errors, "pitch", sample.getPitch(), -90, 90, "Pitch must be between -90 and 90");
+    range(errors, "roll", sample.getRoll(), -180, 180, "Roll must be between -180 and 180");
+    range(
+        errors,
+        "groundSpeed",
+        sample.getGroundSpeed(),
+        0,
+        NO_LIMIT,
+        "Ground speed cannot be negative");
+    range(
+        errors,
+        "batteryVoltage",
+        sample.getBatteryVoltage(),
+        0,
+        NO_LIMIT,
+        "Battery voltage cannot be negative");
+    required(errors, "batteryLevel", number(sample.getBatteryLevel()), "Battery level is required");
+    range(
+        errors,
+        "batteryLevel",
+        number(sample.getBatteryLevel()),
+        0,
+        100,
+        "Battery level must be between 0 and 100");
+    range(
+        errors,
+        "signalStrength",
+        number(sample.getSignalStrength()),
+        0,
+        100,
+        "Signal strength must be between 0 and 100");
+    if (!errors.isEmpty()) {
+      throw new FieldValidationException(errors);
+    }
+  }
+
+  private void required(Map<String, String> errors, String field, double value, String message) {
+    if (Double.isNaN(value)) {
+      errors.put(field, message);
+    }
+  }
+
+  /** Check a bound, skipping values that were not reported. */
+  private void range(
+      Map<String, String> errors,
+      String field,
+      double value,
+      double min,
+      double max,
+      String message) {
+    if (value < min || value > max) {
+      errors.put(field, message);
+    }
+  }
+
+  private static double number(int value) {
+    return TelemetrySample.isPresent(value) ? value : Double.NaN;
+  }
+}
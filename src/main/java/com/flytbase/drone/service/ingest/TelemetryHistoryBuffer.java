@@ -0,0 +1,116 @@
+package com.flytbase.drone.service.ingest;
+
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.dto.telemetry.TelemetryResponse;
+import com.flytbase.drone.entity.DroneTelemetry;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recent telemetry of the active missions ingested on this node, kept in memory so that live charts
+ * polling the last few minutes of history do not query the database. Each mission gets a {@link
+ * TelemetryRingBuffer} of {@code app.ingest.history-capacity} samples, allocated with its first
+ * batch and released when the mission ends or moves to another node.
+ */
+@Service
+public class TelemetryHistoryBuffer {
+
+  private final IngestConfig ingestConfig;
+  private final Map<UUID, TelemetryRingBuffer> buffers = new ConcurrentHashMap<>();
+
+  @Autowired
+  public TelemetryHistoryBuffer(IngestConfig ingestConfig) {
+    this.ingestConfig = ingestConfig;
+  }
+
+  /**
+   * Add a batch of stored samples of one mission.
+   *
+   * @param missionId the mission ID
+   * @param saved the stored samples, ordered by timestamp
+   * @param firstSamples whether these are the first samples of the mission, so that the buffer
+   *     holds its complete history until it wraps
+   */
+  public void append(UUID missionId, List<DroneTelemetry> saved, boolean firstSamples) {
+    if (ingestConfig.getHistoryCapacity() <= 0 || saved.isEmpty()) {
+      return;
+    }
+    TelemetryRingBuffer buffer =
+        buffers.computeIfAbsent(
+            missionId,
+            id ->
+                new TelemetryRingBuffer(
+                    id,
+                    saved.get(0).getDrone().getId(),
+                    ingestConfig.getHistoryCapacity(),
+                    firstSamples
+                        ? Long.MIN_VALUE
+                        : TelemetryRingBuffer.toMicros(saved.get(0).getTimestamp())));
+    for (DroneTelemetry telemetry : saved) {
+      buffer.append(telemetry);
+    }
+  }
+
+  /**
+   * Get telemetry history from memory, newest first.
+   *
+   * @param missionId the mission ID
+   * @param startTime the start of the range, inclusive
+   * @param endTime the end of the range, inclusive
+   * @param pageable the requested page
+   * @return the page, or empty if the range is not held in memory
+   */
+  public Optional<Page<TelemetryResponse>> getHistory(
+      UUID missionId, LocalDateTime startTime, LocalDateTime endTime, Pageable pageable) {
+    TelemetryRingBuffer buffer = buffers.get(missionId);
+    if (buffer == null) {
+      return Optional.empty();
+    }
+
+    long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+    int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+    List<TelemetryResponse> content = new ArrayList<>(Math.min(limit, 256));
+    int total = buffer.query(startTime, endTime, offset, limit, content);
+    if (total < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(new PageImpl<>(content, pageable, total));
+  }
+
+  /**
+   * Release the buffer of a mission.
+   *
+   * @param missionId the mission ID
+   */
+  public void evict(UUID missionId) {
+    buffers.remove(missionId);
+  }
+
+  /**
+   * Get the number of missions with a buffer.
+   *
+   * @return the number of buffers
+   */
+  public int getBufferCount() {
+    return buffers.size();
+  }
+
+  /**
+   * Get the fixed memory held by the buffer of one mission.
+   *
+   * @return the size in bytes
+   */
+  public long getBytesPerMission() {
+    return TelemetryRingBuffer.sizeInBytes(Math.max(0, ingestConfig.getHistoryCapacity()));
+  }
+}
@@ -0,0 +1,159 @@
+package com.flytbase.drone.service.ingest;
+
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.dto.telemetry.TelemetryRateResponse;
+import com.flytbase.drone.dto.telemetry.TelemetryRateResponse.Reason;
+import com.flytbase.drone.service.MissionLiveStateService;
+import com.flytbase.drone.util.geometry.DistanceCalculator;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.locationtech.jts.geom.Coordinate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recommends the interval at which a drone should send telemetry, so that drones hovering or on
+ * straight legs stop sending samples that add nothing. The interval stays at its minimum after an
+ * alert, on a heading change and near a waypoint, where the path turns. Away from waypoints it
+ * grows with the distance to the closest one, but never so far that the drone could reach the turn
+ * before its next sample. When the position along the flight path is not known, or the GPS fix is
+ * poor, a default interval is used. Under load, every interval that is not held at the minimum is
+ * stretched up to twice its length.
+ */
+@Service
+public class TelemetryRateAdvisor {
+
+  private final MissionLiveStateService liveStateService;
+  private final DistanceCalculator distanceCalculator;
+  private final IngestConfig.RateControl config;
+
+  @Autowired
+  public TelemetryRateAdvisor(
+      MissionLiveStateService liveStateService,
+      DistanceCalculator distanceCalculator,
+      IngestConfig ingestConfig) {
+    this.liveStateService = liveStateService;
+    this.distanceCalculator = distanceCalculator;
+    this.config = ingestConfig.getRateControl();
+  }
+
+  /**
+   * Check whether intervals are recommended.
+   *
+   * @return true if rate control is enabled
+   */
+  public boolean isEnabled() {
+    return config.isEnabled();
+  }
+
+  /**
+   * Recommend a send interval from a batch of samples of one mission.
+   *
+   * @param missionId the mission ID
+   * @param droneId the ID of the drone flying the mission
+   * @param samples the samples, ordered by timestamp
+   * @param previousHeading the heading of the sample before the batch, or NaN if not known
+   * @param waypointIndex the last waypoint index reported for the mission, or {@link
+   *     TelemetrySample#ABSENT}
+   * @param queuedSamples the number of samples waiting to be written on this node
+   * @return the recommendation
+   */
+  public TelemetryRateResponse recommend(
+      UUID missionId,
+      UUID droneId,
+      List<TelemetrySample> samples,
+      double previousHeading,
+      int waypointIndex,
+      int queuedSamples) {
+    TelemetrySample latest = samples.get(samples.size() - 1);
+    LocalDateTime now = LocalDateTime.now();
+
+    Optional<LocalDateTime> alertTime = liveStateService.getLatestAlertTime(missionId);
+    if (alertTime.isPresent()
+        && alertTime.get().isAfter(now.minusNanos(config.getAlertHoldMs() * 1_000_000L))) {
+      return response(missionId, droneId, config.getMinIntervalMs(), Reason.ALERT, now);
+    }
+    if (maxHeadingChange(samples, previousHeading) >= config.getTurnHeadingDegrees()) {
+      return response(missionId, droneId, config.getMinIntervalMs(), Reason.TURN, now);
+    }
+
+    double distance = distanceToWaypoint(missionId, latest, waypointIndex);
+    boolean trusted =
+        !TelemetrySample.isPresent(latest.getGpsHdop())
+            || latest.getGpsHdop() <= config.getMaxHdop();
+    if (Double.isNaN(distance) || !trusted) {
+      long interval = loaded(config.getDefaultIntervalMs(), queuedSamples);
+      return response(missionId, droneId, interval, Reason.UNCERTAIN, now);
+    }
+    if (distance <= config.getNearWaypointMeters()) {
+      return response(missionId, droneId, config.getMinIntervalMs(), Reason.WAYPOINT, now);
+    }
+
+    double span = Math.max(1, config.getFarWaypointMeters() - config.getNearWaypointMeters());
+    double fraction = Math.min(1, (distance - config.getNearWaypointMeters()) / span);
+    long interval =
+        loaded(
+            config.getMinIntervalMs()
+                + Math.round(fraction * (config.getMaxIntervalMs() - config.getMinIntervalMs())),
+            queuedSamples);
+    // Sample again before the drone can enter the turn
+    if (latest.getGroundSpeed() > 0) {
+      long untilTurn =
+          (long) ((distance - config.getNearWaypointMeters()) / latest.getGroundSpeed() * 1000);
+      interval = Math.max(config.getMinIntervalMs(), Math.min(interval, untilTurn));
+    }
+    return response(missionId, droneId, interval, Reason.CRUISE, now);
+  }
+
+  /** Stretch an interval by up to a factor of two as the ingest queue fills, within the maximum. */
+  private long loaded(long interval, int queuedSamples) {
+    double load = Math.min(1, queuedSamples / (double) Math.max(1, config.getLoadQueuedSamples()));
+    return Math.min(config.getMaxIntervalMs(), Math.round(interval * (1 + load)));
+  }
+
+  /** Largest heading change between consecutive samples, in degrees. */
+  private double maxHeadingChange(List<TelemetrySample> samples, double previousHeading) {
+    double max = 0;
+    double previous = previousHeading;
+    for (TelemetrySample sample : samples) {
+      if (!TelemetrySample.isPresent(sample.getHeading())) {
+        continue;
+      }
+      if (TelemetrySample.isPresent(previous)) {
+        double change = Math.abs(sample.getHeading() - previous) % 360;
+        max = Math.max(max, change > 180 ? 360 - change : change);
+      }
+      previous = sample.getHeading();
+    }
+    return max;
+  }
+
+  /**
+   * Distance in meters to the closer of the last reached and the next waypoint, or NaN if the
+   * position along the flight path is not known.
+   */
+  private double distanceToWaypoint(UUID missionId, TelemetrySample latest, int waypointIndex) {
+    if (!TelemetrySample.isPresent(waypointIndex)
+        || !TelemetrySample.isPresent(latest.getLatitude())
+        || !TelemetrySample.isPresent(latest.getLongitude())) {
+      return Double.NaN;
+    }
+    Coordinate position = new Coordinate(latest.getLongitude(), latest.getLatitude());
+    double distance = Double.NaN;
+    for (int index = waypointIndex; index <= waypointIndex + 1; index++) {
+      Optional<Coordinate> waypoint = liveStateService.getWaypointPosition(missionId, index);
+      if (waypoint.isPresent()) {
+        double toWaypoint = distanceCalculator.calculateDistance(position, waypoint.get());
+        distance = Double.isNaN(distance) ? toWaypoint : Math.min(distance, toWaypoint);
+      }
+    }
+    return distance;
+  }
+
+  private static TelemetryRateResponse response(
+      UUID missionId, UUID droneId, long intervalMs, Reason reason, LocalDateTime now) {
+    return new TelemetryRateResponse(droneId, missionId, intervalMs, reason, now);
+  }
+}
@@ -0,0 +1,284 @@
+package com.flytbase.drone.service.ingest;
+
+import com.flytbase.drone.dto.telemetry.TelemetryResponse;
+import com.flytbase.drone.entity.DroneTelemetry;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixed-capacity ring buffer of the most recent telemetry of one mission, kept in timestamp order.
+ * Every field is stored in its own primitive column, so appending a sample neither boxes values nor
+ * keeps the entity it came from; absent values are stored as {@code NaN} or {@link #ABSENT}.
+ * Objects are only created for the samples a query returns.
+ *
+ * <p>The buffer knows which part of the mission's history it holds completely: every sample with a
+ * timestamp at or after {@link #coveredFrom}. Queries starting earlier must go to the database.
+ */
+final class TelemetryRingBuffer {
+
+  /** Marker for an absent integer value. */
+  private static final int ABSENT = Integer.MIN_VALUE;
+
+  /** Bytes per sample: timestamp and ID, 12 double, 3 int and one reference column. */
+  private static final int BYTES_PER_SAMPLE =
+      3 * Long.BYTES + 12 * Double.BYTES + 3 * Integer.BYTES + Long.BYTES;
+
+  /** Number of columns, for the array header overhead. */
+  private static final int COLUMNS = 19;
+
+  private static final int ARRAY_HEADER_BYTES = 16;
+
+  private final UUID missionId;
+  private final UUID droneId;
+  private final int capacity;
+
+  private final long[] timestamps;
+  private final long[] idMostBits;
+  private final long[] idLeastBits;
+  private final double[] latitude;
+  private final double[] longitude;
+  private final double[] altitude;
+  private final double[] gpsHdop;
+  private final double[] heading;
+  private final double[] pitch;
+  private final double[] roll;
+  private final double[] groundSpeed;
+  private final double[] verticalSpeed;
+  private final double[] batteryVoltage;
+  private final double[] batteryCurrent;
+  private final double[] batteryTemperature;
+  private final int[] gpsSatellites;
+  private final int[] batteryLevel;
+  private final int[] signalStrength;
+  private final String[] motorRpm;
+
+  /** Physical index of the oldest sample. */
+  private int head;
+
+  private int size;
+
+  /** Timestamp in epoch microseconds from which on the buffer holds every sample. */
+  private long coveredFrom;
+
+  TelemetryRingBuffer(UUID missionId, UUID droneId, int capacity, long coveredFrom) {
+    this.missionId = missionId;
+    this.droneId = droneId;
+    this.capacity = capacity;
+    this.coveredFrom = coveredFrom;
+    timestamps = new long[capacity];
+    idMostBits = new long[capacity];
+    idLeastBits = new long[capacity];
+    latitude = new double[capacity];
+    longitude = new double[capacity];
+    altitude = new double[capacity];
+    gpsHdop = new double[capacity];
+    heading = new double[capacity];
+    pitch = new double[capacity];
+    roll = new double[capacity];
+    groundSpeed = new double[capacity];
+    verticalSpeed = new double[capacity];
+    batteryVoltage = new double[capacity];
+    batteryCurrent = new double[capacity];
+    batteryTemperature = new double[capacity];
+    gpsSatellites = new int[capacity];
+    batteryLevel = new int[capacity];
+    signalStrength = new int[capacity];
+    motorRpm = new String[capacity];
+  }
+
+  /**
+   * Get the memory held by a buffer, not counting the motor RPM strings it references.
+   *
+   * @param capacity the buffer capacity
+   * @return the size in bytes
+   */
+  static long sizeInBytes(int capacity) {
+    return (long) capacity * BYTES_PER_SAMPLE + (long) COLUMNS * ARRAY_HEADER_BYTES;
+  }
+
+  /**
+   * Convert a timestamp to the epoch microseconds stored in the buffer, the precision of the
+   * database column.
+   *
+   * @param timestamp the timestamp
+   * @return the epoch microseconds
+   */
+  static long toMicros(LocalDateTime timestamp) {
+    return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+  }
+
+  private static LocalDateTime fromMicros(long micros) {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(micros, 1_000_000L),
+        (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+        ZoneOffset.UTC);
+  }
+
+  /**
+   * Add a stored sample. A sample older than the newest one is inserted at its place; one older
+   * than anything the buffer covers is left to the database.
+   *
+   * @param telemetry the stored sample
+   */
+  synchronized void append(DroneTelemetry telemetry) {
+    long timestamp = toMicros(telemetry.getTimestamp());
+    if (timestamp < coveredFrom) {
+      return;
+    }
+    if (size == capacity) {
+      if (timestamp < timestamps[head]) {
+        // Older than everything retained; the buffer no longer covers up to this sample
+        coveredFrom = timestamp + 1;
+        return;
+      }
+      coveredFrom = Math.max(coveredFrom, timestamps[head] + 1);
+      head = physical(1);
+      size--;
+    }
+
+    int position = size;
+    while (position > 0 && timestamps[physical(position - 1)] > timestamp) {
+      move(physical(position - 1), physical(position));
+      position--;
+    }
+    write(physical(position), timestamp, telemetry);
+    size++;
+  }
+
+  /**
+   * Find the samples within a time range, newest first.
+   *
+   * @param start the start of the range, inclusive
+   * @param end the end of the range, inclusive
+   * @param offset the number of matching samples to skip
+   * @param limit the maximum number of samples to return
+   * @param page receives the requested samples
+   * @return the total number of matching samples, or -1 if the buffer does not cover the range
+   */
+  synchronized int query(
+      LocalDateTime start,
+      LocalDateTime end,
+      long offset,
+      int limit,
+      List<TelemetryResponse> page) {
+    long startMicros = toMicros(start);
+    if (startMicros < coveredFrom) {
+      return -1;
+    }
+    int from = lowerBound(startMicros);
+    int to = lowerBound(toMicros(end) + 1) - 1;
+    int total = Math.max(0, to - from + 1);
+
+    for (long i = to - offset; i >= from && page.size() < limit; i--) {
+      page.add(toResponse(physical((int) i)));
+    }
+    return total;
+  }
+
+  /** Logical index of the first sample with a timestamp at or after the given one. */
+  private int lowerBound(long micros) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (timestamps[physical(mid)] < micros) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int physical(int logical) {
+    int index = head + logical;
+    return index >= capacity ? index - capacity : index;
+  }
+
+  private void write(int i, long timestamp, DroneTelemetry telemetry) {
+    timestamps[i] = timestamp;
+    idMostBits[i] = telemetry.getId().getMostSignificantBits();
+    idLeastBits[i] = telemetry.getId().getLeastSignificantBits();
+    latitude[i] = orNaN(telemetry.getGpsLatitude());
+    longitude[i] = orNaN(telemetry.getGpsLongitude());
+    altitude[i] = orNaN(telemetry.getGpsAltitude());
+    gpsHdop[i] = orNaN(telemetry.getGpsHdop());
+    heading[i] = orNaN(telemetry.getHeading());
+    pitch[i] = orNaN(telemetry.getPitch());
+    roll[i] = orNaN(telemetry.getRoll());
+    groundSpeed[i] = orNaN(telemetry.getGroundSpeed());
+    verticalSpeed[i] = orNaN(telemetry.getVerticalSpeed());
+    batteryVoltage[i] = orNaN(telemetry.getBatteryVoltage());
+    batteryCurrent[i] = orNaN(telemetry.getBatteryCurrent());
+    batteryTemperature[i] = orNaN(telemetry.getBatteryTemperature());
+    gpsSatellites[i] = orAbsent(telemetry.getGpsSatellites());
+    batteryLevel[i] = orAbsent(telemetry.getBatteryLevel());
+    signalStrength[i] = orAbsent(telemetry.getSignalStrength());
+    motorRpm[i] = telemetry.getMotorRpm();
+  }
+
+  private void move(int from, int to) {
+    timestamps[to] = timestamps[from];
+    idMostBits[to] = idMostBits[from];
+    idLeastBits[to] = idLeastBits[from];
+    latitude[to] = latitude[from];
+    longitude[to] = longitude[from];
+    altitude[to] = altitude[from];
+    gpsHdop[to] = gpsHdop[from];
+    heading[to] = heading[from];
+    pitch[to] = pitch[from];
+    roll[to] = roll[from];
+    groundSpeed[to] = groundSpeed[from];
+    verticalSpeed[to] = verticalSpeed[from];
+    batteryVoltage[to] = batteryVoltage[from];
+    batteryCurrent[to] = batteryCurrent[from];
+    batteryTemperature[to] = batteryTemperature[from];
+    gpsSatellites[to] = gpsSatellites[from];
+    batteryLevel[to] = batteryLevel[from];
+    signalStrength[to] = signalStrength[from];
+    motorRpm[to] = motorRpm[from];
+  }
+
+  private TelemetryResponse toResponse(int i) {
+    TelemetryResponse response = new TelemetryResponse();
+    response.setId(new UUID(idMostBits[i], idLeastBits[i]));
+    response.setMissionId(missionId);
+    response.setDroneId(droneId);
+    response.setTimestamp(fromMicros(timestamps[i]));
+    response.setLatitude(toDouble(latitude[i]));
+    response.setLongitude(toDouble(longitude[i]));
+    response.setAltitude(toDouble(altitude[i]));
+    response.setGpsSatellites(toInteger(gpsSatellites[i]));
+    response.setGpsHdop(toDouble(gpsHdop[i]));
+    response.setHeading(toDouble(heading[i]));
+    response.setPitch(toDouble(pitch[i]));
+    response.setRoll(toDouble(roll[i]));
+    response.setGroundSpeed(toDouble(groundSpeed[i]));
+    response.setVerticalSpeed(toDouble(verticalSpeed[i]));
+    response.setBatteryVoltage(toDouble(batteryVoltage[i]));
+    response.setBatteryCurrent(toDouble(batteryCurrent[i]));
+    response.setBatteryLevel(toInteger(batteryLevel[i]));
+    response.setBatteryTemperature(toDouble(batteryTemperature[i]));
+    response.setMotorRpm(motorRpm[i]);
+    response.setSignalStrength(toInteger(signalStrength[i]));
+    return response;
+  }
+
+  private static double orNaN(Double value) {
+    return value != null ? value : Double.NaN;
+  }
+
+  private static int orAbsent(Integer value) {
+    return value != null ? value : ABSENT;
+  }
+
+  private static Double toDouble(double value) {
+    return Double.isNaN(value) ? null : value;
+  }
+
+  private static Integer toInteger(int value) {
+    return value == ABSENT ? null : value;
+  }
+}
@@ -0,0 +1,137 @@
+package com.flytbase.drone.service.ingest;
+
+import com.flytbase.drone.dto.telemetry.TelemetryRequest;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Canonical telemetry sample, independent of the transport it arrived on. Both REST telemetry and
+ * STOMP progress frames are decoded into this record by the {@link TelemetryDecoder} before
+ * entering the {@link IngestGateway}.
+ *
+ * <p>Measurements are primitives, so decoding a sample allocates no boxes: a value that was not
+ * reported is {@code NaN}, or {@link #ABSENT} for integers, as in the {@link TelemetryRingBuffer}.
+ * Boxing to nullable values happens only where entities and DTOs are built, through {@link
+ * #nullable(double)} and {@link #nullable(int)}.
+ */
+@Data
+@NoArgsConstructor
+public class TelemetrySample {
+
+  /** Value of an integer measurement that was not reported. */
+  public static final int ABSENT = Integer.MIN_VALUE;
+
+  /** Transport a sample arrived on. */
+  public enum Source {
+    REST,
+    STOMP
+  }
+
+  private UUID missionId;
+  private Source source;
+
+  /** Time the sample was taken, as reported by the drone, or the time it was received. */
+  private LocalDateTime timestamp;
+
+  /** Whether the timestamp was reported by the drone; only those can identify duplicates. */
+  private boolean timestampReported;
+
+  private double latitude = Double.NaN;
+  private double longitude = Double.NaN;
+  private double altitude = Double.NaN;
+  private int waypointIndex = ABSENT;
+  private double heading = Double.NaN;
+  private double pitch = Double.NaN;
+  private double roll = Double.NaN;
+  private double groundSpeed = Double.NaN;
+  private double verticalSpeed = Double.NaN;
+  private int batteryLevel = ABSENT;
+  private double batteryVoltage = Double.NaN;
+  private double batteryCurrent = Double.NaN;
+  private double batteryTemperature = Double.NaN;
+  private int gpsSatellites = ABSENT;
+  private double gpsHdop = Double.NaN;
+  private int signalStrength = ABSENT;
+  private String motorRpm;
+
+  /**
+   * Create a sample from a REST telemetry request.
+   *
+   * @param missionId the mission ID
+   * @param request the telemetry request
+   * @return the sample
+   */
+  public static TelemetrySample fromTelemetryRequest(UUID missionId, TelemetryRequest request) {
+    TelemetrySample sample = new TelemetrySample();
+    sample.setMissionId(missionId);
+    sample.setSource(Source.REST);
+    sample.setTimestamp(LocalDateTime.now());
+    sample.setLatitude(orNaN(request.getLatitude()));
+    sample.setLongitude(orNaN(request.getLongitude()));
+    sample.setAltitude(orNaN(request.getAltitude()));
+    sample.setHeading(orNaN(request.getHeading()));
+    sample.setPitch(orNaN(request.getPitch()));
+    sample.setRoll(orNaN(request.getRoll()));
+    sample.setGroundSpeed(orNaN(request.getGroundSpeed()));
+    sample.setVerticalSpeed(orNaN(request.getVerticalSpeed()));
+    sample.setBatteryLevel(orAbsent(request.getBatteryLevel()));
+    sample.setBatteryVoltage(orNaN(request.getBatteryVoltage()));
+    sample.setBatteryCurrent(orNaN(request.getBatteryCurrent()));
+    sample.setBatteryTemperature(orNaN(request.getBatteryTemperature()));
+    sample.setGpsSatellites(orAbsent(request.getGpsSatellites()));
+    sample.setGpsHdop(orNaN(request.getGpsHdop()));
+    sample.setSignalStrength(orAbsent(request.getSignalStrength()));
+    sample.setMotorRpm(request.getMotorRpm());
+    return sample;
+  }
+
+  /**
+   * Check whether a measurement was reported.
+   *
+   * @param value the measurement
+   * @return true unless the value is {@code NaN}
+   */
+  public static boolean isPresent(double value) {
+    return !Double.isNaN(value);
+  }
+
+  /**
+   * Check whether an integer measurement was reported.
+   *
+   * @param value the measurement
+   * @return true unless the value is {@link #ABSENT}
+   */
+  public static boolean isPresent(int value) {
+    return value != ABSENT;
+  }
+
+  /**
+   * Box a measurement for an entity or DTO.
+   *
+   * @param value the measurement
+   * @return the value, or null if it was not reported
+   */
+  public static Double nullable(double value) {
+    return Double.isNaN(value) ? null : value;
+  }
+
+  /**
+   * Box an integer measurement for an entity or DTO.
+   *
+   * @param value the measurement
+   * @return the value, or null if it was not reported
+   */
+  public static Integer nullable(int value) {
+    return value == ABSENT ? null : value;
+  }
+
+  private static double orNaN(Double value) {
+    return value != null ? value : Double.NaN;
+  }
+
+  private static int orAbsent(Integer value) {
+    return value != null ? value : ABSENT;
+  }
+}
@@ -0,0 +1,645 @@
+package com.flytbase.drone.service.ingest;
+
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.exception.BusinessException;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Segmented write-ahead log of accepted telemetry samples. Samples are appended to memory-mapped
+ * segment files and acknowledged once a flusher thread has fsynced them; every sample appended
+ * while a sync is running is covered by the next one, so concurrent writers share syncs.
+ *
+ * <p>A sample is released once it is stored in the database, and a full segment is deleted once all
+ * its samples are released. Samples whose database write failed, and all samples found in segments
+ * left by a previous process, are marked failed and written by the {@link TelemetryWalReplayer}.
+ * Records carry a CRC, so a record torn by a crash ends its segment.
+ *
+ * <p>The mapping of a deleted segment is released by the flusher once no sync can be using it, and
+ * all mappings are released on close; otherwise a deleted segment would keep its disk space until
+ * its buffer is garbage collected.
+ *
+ * <p>Disabled unless {@code app.ingest.wal.enabled} is set; then every method is a no-op.
+ */
+@Component
+@Slf4j
+public class TelemetryWal {
+
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".wal";
+
+  /** Length and CRC of the payload. */
+  private static final int RECORD_HEADER_BYTES = 8;
+
+  /** Fixed part of an encoded sample: mission ID, timestamp, source, flags and presence mask. */
+  private static final int SAMPLE_FIXED_BYTES = 16 + 8 + 1 + 1 + 4;
+
+  // Nullable fields in encoding order, as bits of the presence mask
+  private static final int LATITUDE = 1;
+  private static final int LONGITUDE = 1 << 1;
+  private static final int ALTITUDE = 1 << 2;
+  private static final int HEADING = 1 << 3;
+  private static final int PITCH = 1 << 4;
+  private static final int ROLL = 1 << 5;
+  private static final int GROUND_SPEED = 1 << 6;
+  private static final int VERTICAL_SPEED = 1 << 7;
+  private static final int BATTERY_VOLTAGE = 1 << 8;
+  private static final int BATTERY_CURRENT = 1 << 9;
+  private static final int BATTERY_TEMPERATURE = 1 << 10;
+  private static final int GPS_HDOP = 1 << 11;
+  private static final int WAYPOINT_INDEX = 1 << 12;
+  private static final int BATTERY_LEVEL = 1 << 13;
+  private static final int GPS_SATELLITES = 1 << 14;
+  private static final int SIGNAL_STRENGTH = 1 << 15;
+  private static final int MOTOR_RPM = 1 << 16;
+
+  private static final int DOUBLE_FIELDS_MASK = (1 << 12) - 1;
+  private static final int INT_FIELDS_MASK =
+      WAYPOINT_INDEX | BATTERY_LEVEL | GPS_SATELLITES | SIGNAL_STRENGTH;
+
+  /**
+   * {@code sun.misc.Unsafe.invokeCleaner}, the supported way to unmap a buffer on Java 9 and later;
+   * null if unavailable, leaving mappings to the garbage collector.
+   */
+  private static final Object UNSAFE;
+
+  private static final Method INVOKE_CLEANER;
+
+  static {
+    Object unsafe = null;
+    Method invokeCleaner = null;
+    try {
+      Class<?> type = Class.forName("sun.misc.Unsafe");
+      Field field = type.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      unsafe = field.get(null);
+      invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.warn("Cannot unmap telemetry log segments, leaving them to the GC: {}", e.toString());
+    }
+    UNSAFE = unsafe;
+    INVOKE_CLEANER = invokeCleaner;
+  }
+
+  private final IngestConfig.Wal config;
+
+  // Guarded by this
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  private final Set<Segment> dirty = new HashSet<>();
+  private final List<Segment> deleted = new ArrayList<>();
+  private Segment active;
+  private long nextSequence;
+  private int failedRecords;
+
+  private final BlockingQueue<Entry> syncRequests = new LinkedBlockingQueue<>();
+  private Thread flusher;
+  private volatile boolean running;
+
+  @Autowired
+  public TelemetryWal(IngestConfig ingestConfig) {
+    this.config = ingestConfig.getWal();
+  }
+
+  /** Recover the segments left by the previous process and start the flusher. */
+  @PostConstruct
+  public void open() throws IOException {
+    if (!config.isEnabled()) {
+      return;
+    }
+
+    Path directory = Paths.get(config.getDirectory());
+    Files.createDirectories(directory);
+    TreeMap<Long, Path> existing = new TreeMap<>();
+    try (DirectoryStream<Path> files =
+        Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        existing.put(
+            Long.parseLong(
+                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())),
+            file);
+      }
+    }
+
+    synchronized (this) {
+      for (Long sequence : existing.keySet()) {
+        Segment segment = Segment.recover(existing.get(sequence));
+        if (segment.records == 0) {
+          unmap(segment.buffer);
+          Files.deleteIfExists(segment.path);
+          continue;
+        }
+        // Whatever the previous process wrote may not have reached the database
+        segment.sealed = true;
+        segment.pending = segment.records;
+        segment.failed.set(0, segment.records);
+        failedRecords += segment.records;
+        segments.addLast(segment);
+      }
+      nextSequence = existing.isEmpty() ? 1 : existing.lastKey() + 1;
+      roll();
+    }
+
+    running = true;
+    flusher = new Thread(this::flushLoop, "telemetry-wal-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+    log.info("Telemetry write-ahead log in {}: {} samples to replay", directory, failedRecords);
+  }
+
+  /** Stop the flusher once every pending sync has completed, then release the segments. */
+  @PreDestroy
+  public void close() throws InterruptedException {
+    running = false;
+    if (flusher == null) {
+      return;
+    }
+    flusher.join(TimeUnit.SECONDS.toMillis(5));
+    if (flusher.isAlive()) {
+      // Still syncing: leave the mappings to the garbage collector rather than pull them away
+      log.warn("Telemetry write-ahead log flusher did not stop; segments stay mapped");
+      return;
+    }
+    synchronized (this) {
+      segments.forEach(segment -> unmap(segment.buffer));
+      deleted.forEach(segment -> unmap(segment.buffer));
+      segments.clear();
+      deleted.clear();
+      dirty.clear();
+      active = null;
+    }
+  }
+
+  /**
+   * Check whether the log is enabled.
+   *
+   * @return true if samples go through the log
+   */
+  public boolean isEnabled() {
+    return config.isEnabled();
+  }
+
+  /**
+   * Append a sample.
+   *
+   * @param sample the sample
+   * @return the entry, whose {@link Entry#durable()} completes once the sample is on disk
+   */
+  public Entry append(TelemetrySample sample) {
+    int mask = presence(sample);
+    byte[] motorRpm =
+        sample.getMotorRpm() != null ? sample.getMotorRpm().getBytes(StandardCharsets.UTF_8) : null;
+    int size = RECORD_HEADER_BYTES + encodedSize(mask, motorRpm);
+    Entry entry;
+    synchronized (this) {
+      if (active.position + size > active.buffer.capacity()) {
+        if (size > config.getSegmentBytes()) {
+          throw new BusinessException("Telemetry sample too large for the write-ahead log");
+        }
+        active.sealed = true;
+        deleteIfDrained(active);
+        roll();
+      }
+
+      int start = active.position;
+      ByteBuffer buffer = active.buffer;
+      encode(buffer, start + RECORD_HEADER_BYTES, sample, mask, motorRpm);
+      buffer.putInt(
+          start + 4, crc(buffer, start + RECORD_HEADER_BYTES, size - RECORD_HEADER_BYTES));
+      // The length goes last: a record with a length is complete unless torn by the OS
+      buffer.putInt(start, size - RECORD_HEADER_BYTES);
+
+      active.position += size;
+      active.pending++;
+      entry = new Entry(active, active.records++);
+      dirty.add(active);
+    }
+    syncRequests.add(entry);
+    return entry;
+  }
+
+  /**
+   * Release a sample that is stored in the database, or that will never be.
+   *
+   * @param entry the entry
+   */
+  public synchronized void release(Entry entry) {
+    Segment segment = entry.segment;
+    if (segment.failed.get(entry.index)) {
+      segment.failed.clear(entry.index);
+      failedRecords--;
+    }
+    segment.pending--;
+    deleteIfDrained(segment);
+  }
+
+  /**
+   * Mark a sample whose database write failed, leaving it to the replayer.
+   *
+   * @param entry the entry
+   */
+  public synchronized void fail(Entry entry) {
+    if (!entry.segment.failed.get(entry.index)) {
+      entry.segment.failed.set(entry.index);
+      failedRecords++;
+    }
+  }
+
+  /**
+   * Get the number of samples waiting for the replayer.
+   *
+   * @return the number of failed samples
+   */
+  public synchronized int getFailedRecords() {
+    return failedRecords;
+  }
+
+  /**
+   * Read failed samples, oldest first.
+   *
+   * @param limit the maximum number of samples
+   * @return the samples with their entries
+   */
+  public synchronized List<Record> readFailed(int limit) {
+    List<Record> records = new ArrayList<>();
+    for (Segment segment : segments) {
+      if (records.size() >= limit) {
+        break;
+      }
+      if (segment.failed.isEmpty()) {
+        continue;
+      }
+      int position = 0;
+      for (int index = 0; index < segment.records && records.size() < limit; index++) {
+        int length = segment.buffer.getInt(position);
+        if (segment.failed.get(index)) {
+          records.add(
+              new Record(
+                  new Entry(segment, index),
+                  decode(segment.buffer, position + RECORD_HEADER_BYTES)));
+        }
+        position += RECORD_HEADER_BYTES + length;
+      }
+    }
+    return records;
+  }
+
+  private void roll() {
+    if (segments.size() >= config.getMaxSegments()) {
+      throw new BusinessException("Telemetry write-ahead log is full");
+    }
+    Path path =
+        Paths.get(
+            config.getDirectory(),
+            String.format("%s%020d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+    try {
+      active = Segment.create(path, config.getSegmentBytes());
+      nextSequence++;
+    } catch (IOException e) {
+      throw new BusinessException("Failed to create telemetry log segment", e);
+    }
+    segments.addLast(active);
+  }
+
+  private void deleteIfDrained(Segment segment) {
+    if (!segment.sealed || segment.pending > 0) {
+      return;
+    }
+    segments.remove(segment);
+    dirty.remove(segment);
+    // The flusher may be syncing it right now, so it unmaps it after its current sync
+    deleted.add(segment);
+    try {
+      Files.deleteIfExists(segment.path);
+    } catch (IOException e) {
+      log.warn("Failed to delete telemetry log segment {}: {}", segment.path, e.getMessage());
+    }
+  }
+
+  /**
+   * Sync the segments written to, then acknowledge every sample appended before the sync. Segments
+   * deleted before a sync starts are no longer dirty, and this thread is the only one touching the
+   * buffers outside the log's lock, so they are unmapped once it has finished the previous sync.
+   */
+  private void flushLoop() {
+    List<Entry> batch = new ArrayList<>();
+    while (running || !syncRequests.isEmpty()) {
+      try {
+        Entry first = syncRequests.poll(100, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          batch.add(first);
+          syncRequests.drainTo(batch);
+        }
+
+        List<Segment> toSync = new ArrayList<>();
+        synchronized (this) {
+          deleted.forEach(segment -> unmap(segment.buffer));
+          deleted.clear();
+          // Only with samples to acknowledge: a segment is dirty before its sample is queued
+          if (!batch.isEmpty()) {
+            toSync.addAll(dirty);
+            dirty.clear();
+          }
+        }
+        if (batch.isEmpty()) {
+          continue;
+        }
+        for (Segment segment : toSync) {
+          segment.buffer.force();
+        }
+        batch.forEach(entry -> entry.durable.complete(null));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.error("Failed to sync telemetry write-ahead log", e);
+        BusinessException failure =
+            new BusinessException("Failed to write telemetry to the write-ahead log", e);
+        batch.forEach(entry -> entry.durable.completeExceptionally(failure));
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Release a mapping now instead of when its buffer is garbage collected. The buffer must not be
+   * touched afterwards: any access would crash the JVM.
+   */
+  private static void unmap(MappedByteBuffer buffer) {
+    if (INVOKE_CLEANER == null) {
+      return;
+    }
+    try {
+      INVOKE_CLEANER.invoke(UNSAFE, buffer);
+    } catch (ReflectiveOperationException e) {
+      log.warn("Failed to unmap telemetry log segment: {}", e.toString());
+    }
+  }
+
+  private static int crc(ByteBuffer buffer, int offset, int length) {
+    ByteBuffer view = buffer.duplicate();
+    view.position(offset).limit(offset + length);
+    CRC32 crc = new CRC32();
+    crc.update(view);
+    return (int) crc.getValue();
+  }
+
+  /** Bit per present field, in encoding order. */
+  private static int presence(TelemetrySample sample) {
+    int mask = 0;
+    mask |= present(sample.getLatitude(), LATITUDE);
+    mask |= present(sample.getLongitude(), LONGITUDE);
+    mask |= present(sample.getAltitude(), ALTITUDE);
+    mask |= present(sample.getHeading(), HEADING);
+    mask |= present(sample.getPitch(), PITCH);
+    mask |= present(sample.getRoll(), ROLL);
+    mask |= present(sample.getGroundSpeed(), GROUND_SPEED);
+    mask |= present(sample.getVerticalSpeed(), VERTICAL_SPEED);
+    mask |= present(sample.getBatteryVoltage(), BATTERY_VOLTAGE);
+    mask |= present(sample.getBatteryCurrent(), BATTERY_CURRENT);
+    mask |= present(sample.getBatteryTemperature(), BATTERY_TEMPERATURE);
+    mask |= present(sample.getGpsHdop(), GPS_HDOP);
+    mask |= present(sample.getWaypointIndex(), WAYPOINT_INDEX);
+    mask |= present(sample.getBatteryLevel(), BATTERY_LEVEL);
+    mask |= present(sample.getGpsSatellites(), GPS_SATELLITES);
+    mask |= present(sample.getSignalStrength(), SIGNAL_STRENGTH);
+    if (sample.getMotorRpm() != null) {
+      mask |= MOTOR_RPM;
+    }
+    return mask;
+  }
+
+  private static int present(double value, int field) {
+    return TelemetrySample.isPresent(value) ? field : 0;
+  }
+
+  private static int present(int value, int field) {
+    return TelemetrySample.isPresent(value) ? field : 0;
+  }
+
+  private static int encodedSize(int mask, byte[] motorRpm) {
+    int size =
+        SAMPLE_FIXED_BYTES
+            + Integer.bitCount(mask & DOUBLE_FIELDS_MASK) * Double.BYTES
+            + Integer.bitCount(mask & INT_FIELDS_MASK) * Integer.BYTES;
+    return motorRpm != null ? size + Integer.BYTES + motorRpm.length : size;
+  }
+
+  private static void encode(
+      ByteBuffer buffer, int offset, TelemetrySample sample, int mask, byte[] motorRpm) {
+    ByteBuffer out = buffer.duplicate();
+    out.position(offset);
+    out.putLong(sample.getMissionId().getMostSignificantBits());
+    out.putLong(sample.getMissionId().getLeastSignificantBits());
+    LocalDateTime timestamp = sample.getTimestamp();
+    out.putLong(timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000);
+    out.put((byte) sample.getSource().ordinal());
+    out.put((byte) (sample.isTimestampReported() ? 1 : 0));
+    out.putInt(mask);
+
+    putDouble(out, sample.getLatitude());
+    putDouble(out, sample.getLongitude());
+    putDouble(out, sample.getAltitude());
+    putDouble(out, sample.getHeading());
+    putDouble(out, sample.getPitch());
+    putDouble(out, sample.getRoll());
+    putDouble(out, sample.getGroundSpeed());
+    putDouble(out, sample.getVerticalSpeed());
+    putDouble(out, sample.getBatteryVoltage());
+    putDouble(out, sample.getBatteryCurrent());
+    putDouble(out, sample.getBatteryTemperature());
+    putDouble(out, sample.getGpsHdop());
+    putInt(out, sample.getWaypointIndex());
+    putInt(out, sample.getBatteryLevel());
+    putInt(out, sample.getGpsSatellites());
+    putInt(out, sample.getSignalStrength());
+    if (motorRpm != null) {
+      out.putInt(motorRpm.length);
+      out.put(motorRpm);
+    }
+  }
+
+  private static TelemetrySample decode(ByteBuffer buffer, int offset) {
+    ByteBuffer in = buffer.duplicate();
+    in.position(offset);
+    TelemetrySample sample = new TelemetrySample();
+    sample.setMissionId(new UUID(in.getLong(), in.getLong()));
+    long micros = in.getLong();
+    sample.setTimestamp(
+        LocalDateTime.ofEpochSecond(
+            Math.floorDiv(micros, 1_000_000L),
+            (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+            ZoneOffset.UTC));
+    sample.setSource(TelemetrySample.Source.values()[in.get()]);
+    sample.setTimestampReported(in.get() != 0);
+    int mask = in.getInt();
+
+    sample.setLatitude(getDouble(in, mask, LATITUDE));
+    sample.setLongitude(getDouble(in, mask, LONGITUDE));
+    sample.setAltitude(getDouble(in, mask, ALTITUDE));
+    sample.setHeading(getDouble(in, mask, HEADING));
+    sample.setPitch(getDouble(in, mask, PITCH));
+    sample.setRoll(getDouble(in, mask, ROLL));
+    sample.setGroundSpeed(getDouble(in, mask, GROUND_SPEED));
+    sample.setVerticalSpeed(getDouble(in, mask, VERTICAL_SPEED));
+    sample.setBatteryVoltage(getDouble(in, mask, BATTERY_VOLTAGE));
+    sample.setBatteryCurrent(getDouble(in, mask, BATTERY_CURRENT));
+    sample.setBatteryTemperature(getDouble(in, mask, BATTERY_TEMPERATURE));
+    sample.setGpsHdop(getDouble(in, mask, GPS_HDOP));
+    sample.setWaypointIndex(getInt(in, mask, WAYPOINT_INDEX));
+    sample.setBatteryLevel(getInt(in, mask, BATTERY_LEVEL));
+    sample.setGpsSatellites(getInt(in, mask, GPS_SATELLITES));
+    sample.setSignalStrength(getInt(in, mask, SIGNAL_STRENGTH));
+    if ((mask & MOTOR_RPM) != 0) {
+      byte[] motorRpm = new byte[in.getInt()];
+      in.get(motorRpm);
+      sample.setMotorRpm(new String(motorRpm, StandardCharsets.UTF_8));
+    }
+    return sample;
+  }
+
+  private static void putDouble(ByteBuffer out, double value) {
+    if (TelemetrySample.isPresent(value)) {
+      out.putDouble(value);
+    }
+  }
+
+  private static void putInt(ByteBuffer out, int value) {
+    if (TelemetrySample.isPresent(value)) {
+      out.putInt(value);
+    }
+  }
+
+  private static double getDouble(ByteBuffer in, int mask, int field) {
+    return (mask & field) != 0 ? in.getDouble() : Double.NaN;
+  }
+
+  private static int getInt(ByteBuffer in, int mask, int field) {
+    return (mask & field) != 0 ? in.getInt() : TelemetrySample.ABSENT;
+  }
+
+  /** Position of an appended sample in the log. */
+  public static final class Entry {
+    private final Segment segment;
+    private final int index;
+    private final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+    private Entry(Segment segment, int index) {
+      this.segment = segment;
+      this.index = index;
+    }
+
+    /**
+     * Get the future completed once the sample has been synced to disk.
+     *
+     * @return the future
+     */
+    public CompletableFuture<Void> durable() {
+      return durable;
+    }
+  }
+
+  /** A sample read back from the log. */
+  public static final class Record {
+    private final Entry entry;
+    private final TelemetrySample sample;
+
+    private Record(Entry entry, TelemetrySample sample) {
+      this.entry = entry;
+      this.sample = sample;
+    }
+
+    public Entry getEntry() {
+      return entry;
+    }
+
+    public TelemetrySample getSample() {
+      return sample;
+    }
+  }
+
+  /** One memory-mapped segment file. Mutable state is guarded by the log. */
+  private static final class Segment {
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final BitSet failed = new BitSet();
+    private int position;
+    private int records;
+    private int pending;
+    private boolean sealed;
+
+    private Segment(Path path, MappedByteBuffer buffer) {
+      this.path = path;
+      this.buffer = buffer;
+    }
+
+    private static Segment create(Path path, int bytes) throws IOException {
+      try (FileChannel channel =
+          FileChannel.open(
+              path,
+              StandardOpenOption.CREATE_NEW,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE)) {
+        return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes));
+      }
+    }
+
+    /** Open an existing segment and find its complete records. */
+    private static Segment recover(Path path) throws IOException {
+      Segment segment;
+      try (FileChannel channel =
+          FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+        segment = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+      }
+
+      ByteBuffer buffer = segment.buffer;
+      int position = 0;
+      while (position + RECORD_HEADER_BYTES <= buffer.capacity()) {
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + RECORD_HEADER_BYTES + length > buffer.capacity()) {
+          break;
+        }
+        if (crc(buffer, position + RECORD_HEADER_BYTES, length) != buffer.getInt(position + 4)) {
+          log.warn("Torn record in telemetry log segment {} at {}", path, position);
+          break;
+        }
+        segment.records++;
+        position += RECORD_HEADER_BYTES + length;
+      }
+      segment.position = position;
+      return segment;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.flytbase.drone.service.ingest;
+
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.service.TelemetryService;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Writes samples held in the {@link TelemetryWal} to the database: those left by a previous process
+ * on startup, and those whose write failed while the database was unavailable. While the database
+ * is known to be down, the {@link IngestGateway} leaves new samples in the log instead of waiting
+ * on connection timeouts.
+ */
+@Service
+@Slf4j
+public class TelemetryWalReplayer {
+
+  private final TelemetryWal wal;
+  private final TelemetryService telemetryService;
+  private final TelemetryHistoryBuffer historyBuffer;
+  private final IngestConfig ingestConfig;
+
+  private volatile long databaseDownUntil;
+
+  @Autowired
+  public TelemetryWalReplayer(
+      TelemetryWal wal,
+      TelemetryService telemetryService,
+      TelemetryHistoryBuffer historyBuffer,
+      IngestConfig ingestConfig) {
+    this.wal = wal;
+    this.telemetryService = telemetryService;
+    this.historyBuffer = historyBuffer;
+    this.ingestConfig = ingestConfig;
+  }
+
+  /**
+   * Check whether a recent database write failed, so that writes should wait for the replayer.
+   *
+   * @return true if the database is considered unavailable
+   */
+  public boolean isDatabaseDown() {
+    return System.currentTimeMillis() < databaseDownUntil;
+  }
+
+  /** Record a failed database write; the next replay attempt decides whether it has recovered. */
+  public void reportFailure() {
+    databaseDownUntil = System.currentTimeMillis() + ingestConfig.getWal().getReplayIntervalMs();
+  }
+
+  /** Write failed samples to the database, oldest first, until none are left or a write fails. */
+  @Scheduled(fixedDelayString = "${app.ingest.wal.replay-interval-ms:5000}")
+  public void replay() {
+    if (!wal.isEnabled()) {
+      return;
+    }
+
+    int replayed = 0;
+    while (wal.getFailedRecords() > 0) {
+      List<TelemetryWal.Record> records = wal.readFailed(ingestConfig.getMaxBatchSize());
+      if (records.isEmpty()) {
+        break;
+      }
+
+      Map<UUID, List<TelemetryWal.Record>> byMission = new LinkedHashMap<>();
+      for (TelemetryWal.Record record : records) {
+        byMission
+            .computeIfAbsent(record.getSample().getMissionId(), id -> new ArrayList<>())
+            .add(record);
+      }
+      for (Map.Entry<UUID, List<TelemetryWal.Record>> mission : byMission.entrySet()) {
+        List<TelemetrySample> samples = new ArrayList<>(mission.getValue().size());
+        mission.getValue().forEach(record -> samples.add(record.getSample()));
+        try {
+          replayed += telemetryService.persistReplayed(mission.getKey(), samples);
+        } catch (Exception e) {
+          reportFailure();
+          log.warn(
+              "Database unavailable, {} telemetry samples kept in the write-ahead log: {}",
+              wal.getFailedRecords(),
+              e.getMessage());
+          return;
+        }
+        mission.getValue().forEach(record -> wal.release(record.getEntry()));
+        // The recent telemetry in memory misses the replayed samples
+        historyBuffer.evict(mission.getKey());
+      }
+    }
+
+    databaseDownUntil = 0;
+    if (replayed > 0) {
+      log.info("Replayed {} telemetry samples from the write-ahead log", replayed);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.flytbase.drone.service.livestate;
+
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Progress store keeping the latest update of each mission as an object on the heap. */
+@Component
+@ConditionalOnProperty(
+    prefix = "app.live-state",
+    name = "store",
+    havingValue = "heap",
+    matchIfMissing = true)
+public class HeapLiveProgressStore implements LiveProgressStore {
+
+  private final Map<UUID, MissionProgressResponse> progress = new ConcurrentHashMap<>();
+
+  @Override
+  public void put(UUID missionId, MissionProgressResponse update) {
+    progress.put(missionId, update);
+  }
+
+  @Override
+  public Optional<MissionProgressResponse> get(UUID missionId) {
+    return Optional.ofNullable(progress.get(missionId));
+  }
+
+  @Override
+  public void remove(UUID missionId) {
+    progress.remove(missionId);
+  }
+
+  @Override
+  public void retainAll(Collection<UUID> missionIds) {
+    progress.keySet().retainAll(missionIds);
+  }
+
+  @Override
+  public Set<UUID> getMissionIds() {
+    return new HashSet<>(progress.keySet());
+  }
+}
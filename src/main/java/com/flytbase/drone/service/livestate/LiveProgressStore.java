@@ -0,0 +1,48 @@
+package com.flytbase.drone.service.livestate;
+
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/** Store of the latest progress update of each running mission. */
+public interface LiveProgressStore {
+
+  /**
+   * Record the latest progress update of a mission.
+   *
+   * @param missionId the mission ID
+   * @param progress the progress update
+   */
+  void put(UUID missionId, MissionProgressResponse progress);
+
+  /**
+   * Get the latest progress update of a mission.
+   *
+   * @param missionId the mission ID
+   * @return the latest progress, or empty if none is stored
+   */
+  Optional<MissionProgressResponse> get(UUID missionId);
+
+  /**
+   * Forget the progress of a mission.
+   *
+   * @param missionId the mission ID
+   */
+  void remove(UUID missionId);
+
+  /**
+   * Forget the progress of every mission not in the given set.
+   *
+   * @param missionIds the missions to keep
+   */
+  void retainAll(Collection<UUID> missionIds);
+
+  /**
+   * Get the IDs of all missions with stored progress.
+   *
+   * @return the mission IDs
+   */
+  Set<UUID> getMissionIds();
+}
@@ -0,0 +1,516 @@
+package com.flytbase.drone.service.livestate;
+
+import com.flytbase.drone.config.LiveStateConfig;
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import com.flytbase.drone.entity.Drone;
+import com.flytbase.drone.entity.Mission;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Progress store keeping the latest update of each mission in a fixed-size record outside the heap,
+ * so that tracking a very large fleet creates no long-lived objects for the collector to trace.
+ * Records live in one direct buffer, or in a memory-mapped file when {@code app.live-state.file} is
+ * set; the file outlives the process and is scanned on startup to recover the live state.
+ *
+ * <p>Missions are found through an open-addressing table of slot numbers, keyed by mission ID.
+ * Updates are serialized and published with a per-record sequence number, so readers never lock: a
+ * reader that sees the sequence number change while it copies a record retries. Mission names
+ * longer than {@link #NAME_CAPACITY} bytes of UTF-8 are truncated.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.live-state", name = "store", havingValue = "off-heap")
+@Slf4j
+public class OffHeapLiveProgressStore implements LiveProgressStore {
+
+  // Version 2 added the heading, vertical speed and interpolated flag; files of version 1 are
+  // reformatted on startup
+  private static final int MAGIC = 0x4C505332;
+  private static final int HEADER_BYTES = 64;
+  private static final int RECORD_BYTES = 384;
+
+  // Header layout
+  private static final int HEADER_MAGIC = 0;
+  private static final int HEADER_RECORD_BYTES = 4;
+  private static final int HEADER_CAPACITY = 8;
+
+  // Record layout
+  private static final int SEQUENCE = 0;
+  private static final int MISSION_MSB = 8;
+  private static final int MISSION_LSB = 16;
+  private static final int ID_MSB = 24;
+  private static final int ID_LSB = 32;
+  private static final int TIMESTAMP = 40;
+  private static final int LATITUDE = 48;
+  private static final int LONGITUDE = 56;
+  private static final int SPEED = 64;
+  private static final int COMPLETION = 72;
+  private static final int WAYPOINT = 80;
+  private static final int TOTAL_WAYPOINTS = 84;
+  private static final int ALTITUDE = 88;
+  private static final int BATTERY = 92;
+  private static final int DRONE_STATUS = 96;
+  private static final int MISSION_STATUS = 97;
+  private static final int FLAGS = 98;
+  private static final int HEADING = 104;
+  private static final int VERTICAL_SPEED = 112;
+  private static final int NAME_LENGTH = 120;
+  private static final int NAME = 122;
+  private static final int NAME_CAPACITY = RECORD_BYTES - NAME;
+
+  private static final byte OCCUPIED = 1;
+  private static final byte HAS_ID = 2;
+  private static final byte INTERPOLATED = 4;
+
+  private static final int ABSENT = Integer.MIN_VALUE;
+  private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+  // Index entries other than slot + 1
+  private static final int EMPTY = 0;
+  private static final int DELETED = -1;
+
+  private static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+  private static final VarHandle ENTRIES = MethodHandles.arrayElementVarHandle(int[].class);
+
+  private static final Drone.DroneStatus[] DRONE_STATUSES = Drone.DroneStatus.values();
+  private static final Mission.MissionStatus[] MISSION_STATUSES = Mission.MissionStatus.values();
+
+  private final int capacity;
+  private final ByteBuffer buffer;
+
+  // Written only under the store's lock
+  private final int[] freeSlots;
+  private int freeCount;
+  private int deleted;
+  private boolean fullLogged;
+
+  /** Slot + 1 per position; replaced as a whole when rebuilt, so readers see a stable table. */
+  private volatile int[] index;
+
+  @Autowired
+  public OffHeapLiveProgressStore(LiveStateConfig liveStateConfig) throws IOException {
+    this.capacity = liveStateConfig.getCapacity();
+    long bytes = HEADER_BYTES + (long) capacity * RECORD_BYTES;
+    if (capacity <= 0 || bytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Invalid live state capacity: " + capacity);
+    }
+
+    String file = liveStateConfig.getFile();
+    if (file == null || file.isEmpty()) {
+      buffer = ByteBuffer.allocateDirect((int) bytes);
+    } else {
+      try (FileChannel channel =
+          FileChannel.open(
+              Paths.get(file),
+              StandardOpenOption.CREATE,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE)) {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+      }
+    }
+    buffer.order(ByteOrder.nativeOrder());
+
+    freeSlots = new int[capacity];
+    index = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+
+    if (buffer.getInt(HEADER_MAGIC) == MAGIC
+        && buffer.getInt(HEADER_RECORD_BYTES) == RECORD_BYTES
+        && buffer.getInt(HEADER_CAPACITY) == capacity) {
+      int recovered = recover();
+      log.info("Off-heap live state: {} slots, recovered {} missions", capacity, recovered);
+    } else {
+      format();
+      log.info("Off-heap live state: {} slots, {} MB", capacity, bytes >> 20);
+    }
+  }
+
+  @Override
+  public synchronized void put(UUID missionId, MissionProgressResponse progress) {
+    long msb = missionId.getMostSignificantBits();
+    long lsb = missionId.getLeastSignificantBits();
+    int[] table = index;
+    int position = position(table, msb, lsb);
+    if (position >= 0) {
+      write(table[position] - 1, msb, lsb, progress);
+      return;
+    }
+
+    if (freeCount == 0) {
+      if (!fullLogged) {
+        log.warn("Off-heap live state is full ({} missions), progress is not stored", capacity);
+        fullLogged = true;
+      }
+      return;
+    }
+    int slot = freeSlots[--freeCount];
+    write(slot, msb, lsb, progress);
+    insert(table, slot, msb, lsb);
+  }
+
+  @Override
+  public Optional<MissionProgressResponse> get(UUID missionId) {
+    long msb = missionId.getMostSignificantBits();
+    long lsb = missionId.getLeastSignificantBits();
+    int[] table = index;
+    int position = position(table, msb, lsb);
+    if (position < 0) {
+      return Optional.empty();
+    }
+    int entry = (int) ENTRIES.getAcquire(table, position);
+    return entry > 0 ? read(entry - 1, msb, lsb) : Optional.empty();
+  }
+
+  @Override
+  public synchronized void remove(UUID missionId) {
+    int[] table = index;
+    int position =
+        position(table, missionId.getMostSignificantBits(), missionId.getLeastSignificantBits());
+    if (position >= 0) {
+      removeAt(table, position);
+    }
+  }
+
+  @Override
+  public synchronized void retainAll(Collection<UUID> missionIds) {
+    Set<UUID> keep = new HashSet<>(missionIds);
+    List<UUID> stale = new ArrayList<>();
+    for (UUID missionId : getMissionIds()) {
+      if (!keep.contains(missionId)) {
+        stale.add(missionId);
+      }
+    }
+    stale.forEach(this::remove);
+  }
+
+  @Override
+  public synchronized Set<UUID> getMissionIds() {
+    Set<UUID> missionIds = new HashSet<>();
+    for (int entry : index) {
+      if (entry > 0) {
+        missionIds.add(missionIdAt(entry - 1));
+      }
+    }
+    return missionIds;
+  }
+
+  /** Flush a memory-mapped file so that a clean shutdown leaves the latest state on disk. */
+  @PreDestroy
+  public void close() {
+    if (buffer instanceof MappedByteBuffer) {
+      ((MappedByteBuffer) buffer).force();
+    }
+  }
+
+  private void format() {
+    for (int i = 0; i + Long.BYTES <= buffer.capacity(); i += Long.BYTES) {
+      buffer.putLong(i, 0L);
+    }
+    buffer.putInt(HEADER_MAGIC, MAGIC);
+    buffer.putInt(HEADER_RECORD_BYTES, RECORD_BYTES);
+    buffer.putInt(HEADER_CAPACITY, capacity);
+    for (int slot = capacity - 1; slot >= 0; slot--) {
+      freeSlots[freeCount++] = slot;
+    }
+  }
+
+  /** Rebuild the index from the records left by the previous process. */
+  private int recover() {
+    int recovered = 0;
+    for (int slot = capacity - 1; slot >= 0; slot--) {
+      int base = offset(slot);
+      long sequence = (long) LONGS.get(buffer, base + SEQUENCE);
+      boolean occupied = (buffer.get(base + FLAGS) & OCCUPIED) != 0;
+      if (occupied && (sequence & 1) == 0) {
+        insert(index, slot, buffer.getLong(base + MISSION_MSB), buffer.getLong(base + MISSION_LSB));
+        recovered++;
+      } else {
+        // Free, or torn by a crash in the middle of an update
+        buffer.put(base + FLAGS, (byte) 0);
+        LONGS.set(buffer, base + SEQUENCE, sequence + (sequence & 1));
+        freeSlots[freeCount++] = slot;
+      }
+    }
+    return recovered;
+  }
+
+  private int offset(int slot) {
+    return HEADER_BYTES + slot * RECORD_BYTES;
+  }
+
+  /** Position of a mission in the index, or -1. Safe without the lock; callers re-check keys. */
+  private int position(int[] table, long msb, long lsb) {
+    int mask = table.length - 1;
+    int position = hash(msb, lsb) & mask;
+    for (int probes = 0; probes < table.length; probes++) {
+      int entry = (int) ENTRIES.getAcquire(table, position);
+      if (entry == EMPTY) {
+        return -1;
+      }
+      if (entry > 0) {
+        int base = offset(entry - 1);
+        if (buffer.getLong(base + MISSION_MSB) == msb
+            && buffer.getLong(base + MISSION_LSB) == lsb) {
+          return position;
+        }
+      }
+      position = (position + 1) & mask;
+    }
+    return -1;
+  }
+
+  private void insert(int[] table, int slot, long msb, long lsb) {
+    int mask = table.length - 1;
+    int position = hash(msb, lsb) & mask;
+    while (table[position] > 0) {
+      position = (position + 1) & mask;
+    }
+    if (table[position] == DELETED) {
+      deleted--;
+    }
+    ENTRIES.setRelease(table, position, slot + 1);
+  }
+
+  private void removeAt(int[] table, int position) {
+    int slot = table[position] - 1;
+    ENTRIES.setRelease(table, position, DELETED);
+    deleted++;
+
+    int base = offset(slot);
+    long sequence = (long) LONGS.get(buffer, base + SEQUENCE);
+    LONGS.setOpaque(buffer, base + SEQUENCE, sequence + 1);
+    VarHandle.storeStoreFence();
+    buffer.put(base + FLAGS, (byte) 0);
+    LONGS.setRelease(buffer, base + SEQUENCE, sequence + 2);
+    freeSlots[freeCount++] = slot;
+    fullLogged = false;
+
+    if (deleted > table.length / 4) {
+      rebuild(table);
+    }
+  }
+
+  /** Replace the index with one without deleted entries, which lengthen every probe. */
+  private void rebuild(int[] table) {
+    int[] rebuilt = new int[table.length];
+    int mask = rebuilt.length - 1;
+    for (int entry : table) {
+      if (entry > 0) {
+        int base = offset(entry - 1);
+        int position =
+            hash(buffer.getLong(base + MISSION_MSB), buffer.getLong(base + MISSION_LSB)) & mask;
+        while (rebuilt[position] != EMPTY) {
+          position = (position + 1) & mask;
+        }
+        rebuilt[position] = entry;
+      }
+    }
+    deleted = 0;
+    index = rebuilt;
+  }
+
+  private void write(int slot, long msb, long lsb, MissionProgressResponse progress) {
+    int base = offset(slot);
+    long sequence = (long) LONGS.get(buffer, base + SEQUENCE);
+    LONGS.setOpaque(buffer, base + SEQUENCE, sequence + 1);
+    VarHandle.storeStoreFence();
+
+    buffer.putLong(base + MISSION_MSB, msb);
+    buffer.putLong(base + MISSION_LSB, lsb);
+    UUID id = progress.getId();
+    buffer.putLong(base + ID_MSB, id != null ? id.getMostSignificantBits() : 0L);
+    buffer.putLong(base + ID_LSB, id != null ? id.getLeastSignificantBits() : 0L);
+    buffer.putLong(
+        base + TIMESTAMP,
+        progress.getTimestamp() != null ? toMicros(progress.getTimestamp()) : NO_TIMESTAMP);
+    buffer.putDouble(base + LATITUDE, orNaN(progress.getLatitude()));
+    buffer.putDouble(base + LONGITUDE, orNaN(progress.getLongitude()));
+    buffer.putDouble(base + SPEED, orNaN(progress.getSpeed()));
+    buffer.putDouble(base + COMPLETION, orNaN(progress.getCompletionPercentage()));
+    buffer.putDouble(base + HEADING, orNaN(progress.getHeading()));
+    buffer.putDouble(base + VERTICAL_SPEED, orNaN(progress.getVerticalSpeed()));
+    buffer.putInt(base + WAYPOINT, orAbsent(progress.getCurrentWaypointIndex()));
+    buffer.putInt(base + TOTAL_WAYPOINTS, orAbsent(progress.getTotalWaypoints()));
+    buffer.putInt(base + ALTITUDE, orAbsent(progress.getAltitude()));
+    buffer.putInt(base + BATTERY, orAbsent(progress.getBatteryLevel()));
+    buffer.put(base + DRONE_STATUS, encodeStatus(progress.getDroneStatus(), DRONE_STATUSES));
+    buffer.put(base + MISSION_STATUS, encodeStatus(progress.getMissionStatus(), MISSION_STATUSES));
+    buffer.putShort(base + NAME_LENGTH, writeName(base + NAME, progress.getMissionName()));
+    buffer.put(
+        base + FLAGS,
+        (byte)
+            (OCCUPIED
+                | (id != null ? HAS_ID : 0)
+                | (progress.isInterpolated() ? INTERPOLATED : 0)));
+
+    LONGS.setRelease(buffer, base + SEQUENCE, sequence + 2);
+  }
+
+  private Optional<MissionProgressResponse> read(int slot, long msb, long lsb) {
+    int base = offset(slot);
+    while (true) {
+      long before = (long) LONGS.getAcquire(buffer, base + SEQUENCE);
+      if ((before & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+
+      byte flags = buffer.get(base + FLAGS);
+      boolean sameMission =
+          buffer.getLong(base + MISSION_MSB) == msb && buffer.getLong(base + MISSION_LSB) == lsb;
+      MissionProgressResponse progress = decode(base, msb, lsb, flags);
+
+      VarHandle.loadLoadFence();
+      if ((long) LONGS.getOpaque(buffer, base + SEQUENCE) != before) {
+        continue;
+      }
+      // The slot may have been freed or reused since the index was read
+      return (flags & OCCUPIED) != 0 && sameMission ? Optional.of(progress) : Optional.empty();
+    }
+  }
+
+  /** Copy a record into a response; values may be torn, the caller validates the copy. */
+  private MissionProgressResponse decode(int base, long msb, long lsb, byte flags) {
+    MissionProgressResponse progress = new MissionProgressResponse();
+    progress.setMissionId(new UUID(msb, lsb));
+    if ((flags & HAS_ID) != 0) {
+      progress.setId(new UUID(buffer.getLong(base + ID_MSB), buffer.getLong(base + ID_LSB)));
+    }
+    long timestamp = buffer.getLong(base + TIMESTAMP);
+    progress.setTimestamp(timestamp != NO_TIMESTAMP ? fromMicros(timestamp) : null);
+    progress.setLatitude(toDouble(buffer.getDouble(base + LATITUDE)));
+    progress.setLongitude(toDouble(buffer.getDouble(base + LONGITUDE)));
+    progress.setSpeed(toDouble(buffer.getDouble(base + SPEED)));
+    progress.setCompletionPercentage(toDouble(buffer.getDouble(base + COMPLETION)));
+    progress.setHeading(toDouble(buffer.getDouble(base + HEADING)));
+    progress.setVerticalSpeed(toDouble(buffer.getDouble(base + VERTICAL_SPEED)));
+    progress.setInterpolated((flags & INTERPOLATED) != 0);
+    progress.setCurrentWaypointIndex(toInteger(buffer.getInt(base + WAYPOINT)));
+    progress.setTotalWaypoints(toInteger(buffer.getInt(base + TOTAL_WAYPOINTS)));
+    progress.setAltitude(toInteger(buffer.getInt(base + ALTITUDE)));
+    progress.setBatteryLevel(toInteger(buffer.getInt(base + BATTERY)));
+    progress.setDroneStatus(decodeStatus(buffer.get(base + DRONE_STATUS), DRONE_STATUSES));
+    progress.setMissionStatus(decodeStatus(buffer.get(base + MISSION_STATUS), MISSION_STATUSES));
+    progress.setMissionName(readName(base + NAME, buffer.getShort(base + NAME_LENGTH)));
+    return progress;
+  }
+
+  private UUID missionIdAt(int slot) {
+    int base = offset(slot);
+    return new UUID(buffer.getLong(base + MISSION_MSB), buffer.getLong(base + MISSION_LSB));
+  }
+
+  /** Write a name as UTF-8, returning its length, or -1 for null. ASCII needs no allocation. */
+  private short writeName(int position, String name) {
+    if (name == null) {
+      return -1;
+    }
+    int length = Math.min(name.length(), NAME_CAPACITY);
+    boolean ascii = true;
+    for (int i = 0; i < length && ascii; i++) {
+      ascii = name.charAt(i) < 0x80;
+    }
+    if (ascii && name.length() <= NAME_CAPACITY) {
+      for (int i = 0; i < length; i++) {
+        buffer.put(position + i, (byte) name.charAt(i));
+      }
+      return (short) length;
+    }
+
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    length = Math.min(bytes.length, NAME_CAPACITY);
+    // Do not cut a multi-byte character in half
+    while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+      length--;
+    }
+    for (int i = 0; i < length; i++) {
+      buffer.put(position + i, bytes[i]);
+    }
+    return (short) length;
+  }
+
+  private String readName(int position, short length) {
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[Math.min(length, NAME_CAPACITY)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(position + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static byte encodeStatus(String status, Enum<?>[] values) {
+    if (status != null) {
+      for (int i = 0; i < values.length; i++) {
+        if (values[i].name().equals(status)) {
+          return (byte) (i + 1);
+        }
+      }
+    }
+    return 0;
+  }
+
+  private static String decodeStatus(byte code, Enum<?>[] values) {
+    return code > 0 && code <= values.length ? values[code - 1].name() : null;
+  }
+
+  private static int hash(long msb, long lsb) {
+    long h = msb ^ Long.rotateLeft(lsb, 32);
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return (int) h;
+  }
+
+  private static long toMicros(LocalDateTime timestamp) {
+    return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+  }
+
+  private static LocalDateTime fromMicros(long micros) {
+    return LocalDateTime.ofEpochSecond(
+        Math.floorDiv(micros, 1_000_000L),
+        (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+        ZoneOffset.UTC);
+  }
+
+  private static double orNaN(Double value) {
+    return value != null ? value : Double.NaN;
+  }
+
+  private static int orAbsent(Integer value) {
+    return value != null ? value : ABSENT;
+  }
+
+  private static Double toDouble(double value) {
+    return Double.isNaN(value) ? null : value;
+  }
+
+  private static Integer toInteger(int value) {
+    return value == ABSENT ? null : value;
+  }
+}
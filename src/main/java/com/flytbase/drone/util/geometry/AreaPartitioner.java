@@ -0,0 +1,226 @@
+package com.flytbase.drone.util.geometry;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits a survey area among several drones into strips of about equal coverage time. For a sweep
+ * direction, the sweep lines are clipped in one pass and cut into consecutive runs of equal flight
+ * time, each run becoming the strip of one drone; strips are cut halfway between lines, so every
+ * line is flown by exactly one drone. Strips are handed to drones in the order of their home
+ * locations across the sweep, which keeps transits short and uncrossed.
+ *
+ * <p>Candidate directions are the minimum-width direction of the area, the direction across it, and
+ * {@code app.flight-path.sweep.candidate-angles} evenly spread directions. They are scored in
+ * parallel by the longest drone time, coverage plus the round trip from home, and the best
+ * direction whose strips are each a single polygon wins.
+ */
+@Component
+public class AreaPartitioner {
+
+  private final FlightPathConfig.Sweep config;
+
+  @Autowired
+  public AreaPartitioner(FlightPathConfig flightPathConfig) {
+    this.config = flightPathConfig.getSweep();
+  }
+
+  /**
+   * Split a survey area among drones.
+   *
+   * @param boundary the survey polygon in longitude and latitude
+   * @param spacing the distance between sweep lines in meters
+   * @param speed the flight speed in meters per second
+   * @param homes the home location of every drone, x being the longitude
+   * @return the sub-area of every drone, in the order of the homes
+   * @throws IllegalArgumentException if the area cannot be split into that many connected parts
+   */
+  public List<Polygon> partition(
+      Polygon boundary, double spacing, double speed, List<Coordinate> homes) {
+    if (!(spacing > 0) || !(speed > 0)) {
+      throw new IllegalArgumentException("Line spacing and speed must be positive");
+    }
+    if (homes.size() < 2) {
+      return new ArrayList<>(Arrays.asList(boundary));
+    }
+    LocalFrame frame = LocalFrame.centeredOn(boundary);
+    Polygon local = frame.toLocal(boundary);
+    List<Coordinate> localHomes =
+        homes.stream().map(home -> frame.toLocal(home.x, home.y)).collect(Collectors.toList());
+
+    double minimumWidth = SurveyPlanner.minimumWidthAngle(local);
+    int spread = Math.max(0, config.getCandidateAngles());
+    double[] candidates = new double[2 + spread];
+    candidates[0] = minimumWidth;
+    candidates[1] = (minimumWidth + 90) % 180;
+    for (int i = 0; i < spread; i++) {
+      candidates[2 + i] = i * 180.0 / spread;
+    }
+
+    List<Split> splits =
+        IntStream.range(0, candidates.length)
+            .parallel()
+            .mapToObj(i -> split(local, spacing, speed, candidates[i], localHomes))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    splits.sort(Comparator.comparingDouble(split -> split.seconds));
+
+    for (Split split : splits) {
+      List<Polygon> parts = cut(local, split);
+      if (parts != null) {
+        return parts.stream().map(frame::toGeographic).collect(Collectors.toList());
+      }
+    }
+    throw new IllegalArgumentException(
+        "Survey area cannot be split into " + homes.size() + " connected parts");
+  }
+
+  /** Cut the sweep lines at an angle into runs of equal flight time, or null if too few. */
+  private Split split(
+      Polygon local, double spacing, double speed, double angle, List<Coordinate> homes) {
+    ScanlineClipper clipper = new ScanlineClipper(local, angle);
+    double width = clipper.getMaxV() - clipper.getMinV();
+    long lineCount = Math.max(1, (long) Math.ceil(width / spacing));
+    int parts = homes.size();
+    if (lineCount > SurveyPlanner.MAX_LINES || lineCount < parts) {
+      return null;
+    }
+    double firstV = clipper.getMinV() + (width - (lineCount - 1) * spacing) / 2;
+
+    // Flight time and the sum of segment midpoints along each line
+    int lines = (int) lineCount;
+    double[] seconds = new double[lines];
+    double[] middles = new double[lines];
+    int[] segmentCounts = new int[lines];
+    double total = 0;
+    for (int line = 0; line < lines; line++) {
+      double[] segments = clipper.clip(firstV + line * spacing);
+      if (segments == null) {
+        return null;
+      }
+      for (int i = 0; i + 1 < segments.length; i += 2) {
+        seconds[line] += (segments[i + 1] - segments[i]) / speed + config.getTurnSeconds();
+        middles[line] += (segments[i] + segments[i + 1]) / 2;
+        segmentCounts[line]++;
+      }
+      total += seconds[line];
+    }
+
+    // Runs end where the running time first reaches each equal share, leaving a line per run
+    int[] ends = new int[parts];
+    double running = 0;
+    int run = 0;
+    for (int line = 0; line < lines && run < parts - 1; line++) {
+      running += seconds[line];
+      int remainingLines = lines - 1 - line;
+      int remainingRuns = parts - 1 - run;
+      if (running >= total * (run + 1) / parts || remainingLines == remainingRuns) {
+        ends[run++] = line + 1;
+      }
+    }
+    ends[parts - 1] = lines;
+
+    // Runs go to drones in the order of their homes across the sweep
+    Integer[] order = new Integer[parts];
+    for (int i = 0; i < parts; i++) {
+      order[i] = i;
+    }
+    double sin = Math.sin(Math.toRadians(angle));
+    double cos = Math.cos(Math.toRadians(angle));
+    Arrays.sort(
+        order, Comparator.comparingDouble(i -> -homes.get(i).x * sin + homes.get(i).y * cos));
+
+    Split split = new Split(clipper, firstV, spacing, ends, new int[parts]);
+    int start = 0;
+    for (int runIndex = 0; runIndex < parts; runIndex++) {
+      double runSeconds = 0;
+      double u = 0;
+      double v = 0;
+      int segments = 0;
+      for (int line = start; line < ends[runIndex]; line++) {
+        runSeconds += seconds[line];
+        u += middles[line];
+        v += segmentCounts[line] * (firstV + line * spacing);
+        segments += segmentCounts[line];
+      }
+      int drone = order[runIndex];
+      split.runOfDrone[drone] = runIndex;
+      if (segments > 0) {
+        Coordinate center = clipper.toFrame(u / segments, v / segments);
+        runSeconds += 2 * homes.get(drone).distance(center) / speed;
+      }
+      split.seconds = Math.max(split.seconds, runSeconds);
+      start = ends[runIndex];
+    }
+    return split;
+  }
+
+  /** Cut the polygon into the strips of a split, or null if a strip is not a single polygon. */
+  private static List<Polygon> cut(Polygon local, Split split) {
+    ScanlineClipper clipper = split.clipper;
+    double minU = clipper.getMinU() - 1;
+    double maxU = clipper.getMaxU() + 1;
+    int parts = split.ends.length;
+
+    Polygon[] strips = new Polygon[parts];
+    for (int run = 0; run < parts; run++) {
+      // Strips meet halfway between the last line of a run and the first of the next
+      double low =
+          run == 0
+              ? clipper.getMinV() - 1
+              : split.firstV + (split.ends[run - 1] - 0.5) * split.spacing;
+      double high =
+          run == parts - 1
+              ? clipper.getMaxV() + 1
+              : split.firstV + (split.ends[run] - 0.5) * split.spacing;
+      Coordinate[] corners = {
+        clipper.toFrame(minU, low),
+        clipper.toFrame(maxU, low),
+        clipper.toFrame(maxU, high),
+        clipper.toFrame(minU, high),
+        clipper.toFrame(minU, low)
+      };
+      Geometry strip = local.intersection(local.getFactory().createPolygon(corners));
+      if (!(strip instanceof Polygon) || strip.isEmpty()) {
+        return null;
+      }
+      strips[run] = (Polygon) strip;
+    }
+
+    List<Polygon> byDrone = new ArrayList<>(parts);
+    for (int drone = 0; drone < parts; drone++) {
+      byDrone.add(strips[split.runOfDrone[drone]]);
+    }
+    return byDrone;
+  }
+
+  /** Runs of sweep lines at an angle and the drone flying each. */
+  private static final class Split {
+    private final ScanlineClipper clipper;
+    private final double firstV;
+    private final double spacing;
+    private final int[] ends;
+    private final int[] runOfDrone;
+    private double seconds;
+
+    private Split(
+        ScanlineClipper clipper, double firstV, double spacing, int[] ends, int[] runOfDrone) {
+      this.clipper = clipper;
+      this.firstV = firstV;
+      this.spacing = spacing;
+      this.ends = ends;
+      this.runOfDrone = runOfDrone;
+    }
+  }
+}
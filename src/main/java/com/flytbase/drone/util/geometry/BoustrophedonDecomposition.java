@@ -0,0 +1,315 @@
+package com.flytbase.drone.util.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Splits the clipped lines of a sweep into boustrophedon cells and orders them into one flight.
+ * Lines are added in sweep order; a segment continues the cell of the segment it overlaps on the
+ * previous line when each overlaps only the other. Wherever a line splits around a hole or a
+ * concave notch, or segments merge again beyond it, new cells start, so every cell is monotone
+ * across the sweep and its lines can be flown back and forth without leaving the polygon.
+ *
+ * <p>Each cell can be entered at either end of its first or its last line. Cells are ordered
+ * greedily, always flying to the nearest entry of a remaining cell, and the order is then improved
+ * by 2-opt, reversing runs of cells while that shortens the transits between them. The flight
+ * starts where an undivided sweep would: at the start of the first line.
+ *
+ * <p>Transits are measured by the {@link TransitRouter}: straight where the polygon covers them,
+ * and otherwise along the shortest path around the holes and notches in the way, which is also the
+ * path flown. Straight distances bound transit lengths from below, so entries are tried nearest
+ * first and only transits that could shorten the flight are routed.
+ *
+ * <p>Positions are in the sweep frame of a {@link ScanlineClipper}: u along the lines and v across
+ * them.
+ */
+final class BoustrophedonDecomposition {
+
+  /** Upper bound on 2-opt passes, each of which costs the square of the number of cells. */
+  private static final int MAX_TWO_OPT_PASSES = 16;
+
+  /** Number of cells above which the greedy order is kept as is. */
+  private static final int MAX_TWO_OPT_CELLS = 2_000;
+
+  private final TransitRouter router;
+  private final List<Cell> cells = new ArrayList<>();
+
+  private double[] previousSegments = new double[0];
+  private Cell[] previousCells = new Cell[0];
+
+  /**
+   * Create a decomposition of the sweep of a polygon.
+   *
+   * @param router the router of transits inside the polygon, in the sweep frame
+   */
+  BoustrophedonDecomposition(TransitRouter router) {
+    this.router = router;
+  }
+
+  /**
+   * Add the next line of the sweep.
+   *
+   * @param v the position of the line across the sweep, above that of the previous line
+   * @param segments the start and end of every segment of the line, in ascending order
+   */
+  void addLine(double v, double[] segments) {
+    double[] current = nonEmpty(segments);
+    int count = current.length / 2;
+    int previousCount = previousSegments.length / 2;
+
+    // Overlaps between the segments of this line and the last one, both sorted along the line
+    int[] overlaps = new int[count];
+    int[] previousOverlaps = new int[previousCount];
+    int[] match = new int[count];
+    int i = 0;
+    int j = 0;
+    while (i < previousCount && j < count) {
+      double previousTo = previousSegments[2 * i + 1];
+      double to = current[2 * j + 1];
+      if (current[2 * j] < previousTo && previousSegments[2 * i] < to) {
+        previousOverlaps[i]++;
+        overlaps[j]++;
+        match[j] = i;
+      }
+      if (previousTo < to) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+
+    Cell[] currentCells = new Cell[count];
+    for (j = 0; j < count; j++) {
+      if (overlaps[j] == 1 && previousOverlaps[match[j]] == 1) {
+        currentCells[j] = previousCells[match[j]];
+      } else {
+        currentCells[j] = new Cell();
+        cells.add(currentCells[j]);
+      }
+      currentCells[j].add(v, current[2 * j], current[2 * j + 1]);
+    }
+    previousSegments = current;
+    previousCells = currentCells;
+  }
+
+  /**
+   * Order the cells and plan the flight through them.
+   *
+   * @param parallelCells the number of cells from which cell paths are planned in parallel
+   * @return the entry and exit point of every segment in flight order, in the sweep frame
+   */
+  List<Coordinate> plan(int parallelCells) {
+    if (cells.isEmpty()) {
+      return new ArrayList<>();
+    }
+    List<Visit> tour = orderGreedily();
+    if (tour.size() <= MAX_TWO_OPT_CELLS) {
+      improveByTwoOpt(tour, transits(tour));
+    }
+
+    IntStream indices = IntStream.range(0, tour.size());
+    if (tour.size() >= parallelCells) {
+      indices = indices.parallel();
+    }
+    List<List<Coordinate>> paths =
+        indices.mapToObj(index -> tour.get(index).path()).collect(Collectors.toList());
+
+    List<Coordinate> waypoints = new ArrayList<>();
+    for (List<Coordinate> path : paths) {
+      if (!waypoints.isEmpty()) {
+        List<Coordinate> transit = router.route(waypoints.get(waypoints.size() - 1), path.get(0));
+        waypoints.addAll(transit.subList(1, transit.size() - 1));
+      }
+      waypoints.addAll(path);
+    }
+    return waypoints;
+  }
+
+  /** Visit the cells nearest entry first, starting at the start of the first line. */
+  private List<Visit> orderGreedily() {
+    List<Cell> remaining = new ArrayList<>(cells);
+    List<Visit> tour = new ArrayList<>(cells.size());
+    Visit visit = new Visit(remaining.remove(0), true, true);
+    tour.add(visit);
+
+    while (!remaining.isEmpty()) {
+      Coordinate exit = visit.exit();
+      // Entries of the remaining cells, by straight distance
+      Visit[] candidates = new Visit[remaining.size() * 4];
+      double[] distances = new double[candidates.length];
+      Integer[] order = new Integer[candidates.length];
+      for (int index = 0; index < candidates.length; index++) {
+        int variant = index % 4;
+        candidates[index] = new Visit(remaining.get(index / 4), variant < 2, variant % 2 == 0);
+        distances[index] = exit.distance(candidates[index].entry());
+        order[index] = index;
+      }
+      Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+
+      int nearest = order[0];
+      double nearestLength = Double.POSITIVE_INFINITY;
+      for (int index : order) {
+        if (distances[index] >= nearestLength) {
+          break;
+        }
+        double length = router.length(exit, candidates[index].entry());
+        if (length < nearestLength) {
+          nearest = index;
+          nearestLength = length;
+        }
+      }
+      remaining.remove(nearest / 4);
+      visit = candidates[nearest];
+      tour.add(visit);
+    }
+    return tour;
+  }
+
+  /** Length of the transit into every visit but the first, indexed by the visit. */
+  private double[] transits(List<Visit> tour) {
+    double[] transits = new double[tour.size()];
+    for (int index = 1; index < tour.size(); index++) {
+      transits[index] = router.length(tour.get(index - 1).exit(), tour.get(index).entry());
+    }
+    return transits;
+  }
+
+  /** Reverse runs of visits, keeping the first one, while that shortens the transits. */
+  private void improveByTwoOpt(List<Visit> tour, double[] transits) {
+    int size = tour.size();
+    boolean improved = true;
+    for (int pass = 0; improved && pass < MAX_TWO_OPT_PASSES; pass++) {
+      improved = false;
+      for (int first = 1; first < size - 1; first++) {
+        for (int last = first + 1; last < size; last++) {
+          Coordinate before = tour.get(first - 1).exit();
+          Coordinate after = last + 1 < size ? tour.get(last + 1).entry() : null;
+          Visit firstVisit = tour.get(first);
+          Visit lastVisit = tour.get(last);
+
+          double current = transits[first] + (after != null ? transits[last + 1] : 0);
+          double straight = before.distance(lastVisit.exit());
+          if (after != null) {
+            straight += firstVisit.entry().distance(after);
+          }
+          if (straight >= current - 1e-9) {
+            continue;
+          }
+          double into = router.length(before, lastVisit.exit());
+          double out = after != null ? router.length(firstVisit.entry(), after) : 0;
+          if (into + out < current - 1e-9) {
+            reverse(tour, first, last);
+            reverse(transits, first + 1, last);
+            transits[first] = into;
+            if (after != null) {
+              transits[last + 1] = out;
+            }
+            improved = true;
+          }
+        }
+      }
+    }
+  }
+
+  /** Reverse a run of visits, flying each of them backwards. */
+  private static void reverse(List<Visit> tour, int first, int last) {
+    Collections.reverse(tour.subList(first, last + 1));
+    for (int index = first; index <= last; index++) {
+      tour.set(index, tour.get(index).reversed());
+    }
+  }
+
+  /** Reverse a run of transit lengths, those between the visits of a reversed run. */
+  private static void reverse(double[] transits, int first, int last) {
+    for (; first < last; first++, last--) {
+      double transit = transits[first];
+      transits[first] = transits[last];
+      transits[last] = transit;
+    }
+  }
+
+  private static double[] nonEmpty(double[] segments) {
+    double[] kept = new double[segments.length];
+    int length = 0;
+    for (int i = 0; i + 1 < segments.length; i += 2) {
+      if (segments[i + 1] > segments[i]) {
+        kept[length++] = segments[i];
+        kept[length++] = segments[i + 1];
+      }
+    }
+    return length == kept.length ? kept : Arrays.copyOf(kept, length);
+  }
+
+  /** A monotone cell: one segment on each of a run of consecutive lines. */
+  private static final class Cell {
+    private final List<double[]> lines = new ArrayList<>();
+
+    private void add(double v, double from, double to) {
+      lines.add(new double[] {v, from, to});
+    }
+
+    /** Start or end of the line at an index in the order it is flown from a given end. */
+    private Coordinate point(int index, boolean fromFirst, boolean startLow, boolean end) {
+      double[] line = lines.get(fromFirst ? index : lines.size() - 1 - index);
+      // Every other line is flown the opposite way
+      boolean low = startLow == (index % 2 == 0);
+      return new Coordinate(low != end ? line[1] : line[2], line[0]);
+    }
+  }
+
+  /** A cell flown from one end of its first or last line, possibly backwards. */
+  private static final class Visit {
+    private final Cell cell;
+    private final boolean fromFirst;
+    private final boolean startLow;
+    private final boolean backwards;
+
+    private Visit(Cell cell, boolean fromFirst, boolean startLow) {
+      this(cell, fromFirst, startLow, false);
+    }
+
+    private Visit(Cell cell, boolean fromFirst, boolean startLow, boolean backwards) {
+      this.cell = cell;
+      this.fromFirst = fromFirst;
+      this.startLow = startLow;
+      this.backwards = backwards;
+    }
+
+    private Coordinate entry() {
+      return backwards ? end() : start();
+    }
+
+    private Coordinate exit() {
+      return backwards ? start() : end();
+    }
+
+    private Visit reversed() {
+      return new Visit(cell, fromFirst, startLow, !backwards);
+    }
+
+    private Coordinate start() {
+      return cell.point(0, fromFirst, startLow, false);
+    }
+
+    private Coordinate end() {
+      return cell.point(cell.lines.size() - 1, fromFirst, startLow, true);
+    }
+
+    private List<Coordinate> path() {
+      List<Coordinate> path = new ArrayList<>(cell.lines.size() * 2);
+      for (int index = 0; index < cell.lines.size(); index++) {
+        path.add(cell.point(index, fromFirst, startLow, false));
+        path.add(cell.point(index, fromFirst, startLow, true));
+      }
+      if (backwards) {
+        Collections.reverse(path);
+      }
+      return path;
+    }
+  }
+}
@@ -17,11 +17,25 @@ public class DistanceCalculator {
    * @return the distance in meters
    */
   public double calculateDistance(Coordinate coord1, Coordinate coord2) {
+    return calculateDistance(coord1.x, coord1.y, coord2.x, coord2.y);
+  }
+
+  /**
+   * Calculate the distance between two positions using the Haversine formula, without allocating.
+   *
+   * @param longitude1 the longitude of the first position in degrees
+   * @param latitude1 the latitude of the first position in degrees
+   * @param longitude2 the longitude of the second position in degrees
+   * @param latitude2 the latitude of the second position in degrees
+   * @return the distance in meters
+   */
+  public double calculateDistance(
+      double longitude1, double latitude1, double longitude2, double latitude2) {
     // Convert coordinates from degrees to radians
-    double lat1 = Math.toRadians(coord1.y);
-    double lon1 = Math.toRadians(coord1.x);
-    double lat2 = Math.toRadians(coord2.y);
-    double lon2 = Math.toRadians(coord2.x);
+    double lat1 = Math.toRadians(latitude1);
+    double lon1 = Math.toRadians(longitude1);
+    double lat2 = Math.toRadians(latitude2);
+    double lon2 = Math.toRadians(longitude2);
 
     // Haversine formula
     double dLat = lat2 - lat1;
@@ -34,6 +48,28 @@ public class DistanceCalculator {
     return EARTH_RADIUS_METERS * c;
   }
 
+  /**
+   * Calculate the initial bearing from one position to another, without allocating.
+   *
+   * @param longitude1 the longitude of the first position in degrees
+   * @param latitude1 the latitude of the first position in degrees
+   * @param longitude2 the longitude of the second position in degrees
+   * @param latitude2 the latitude of the second position in degrees
+   * @return the bearing in degrees (0 = north, 90 = east, etc.), or NaN for the same position
+   */
+  public double calculateBearing(
+      double longitude1, double latitude1, double longitude2, double latitude2) {
+    double lat1 = Math.toRadians(latitude1);
+    double lat2 = Math.toRadians(latitude2);
+    double dLon = Math.toRadians(longitude2 - longitude1);
+    double y = Math.sin(dLon) * Math.cos(lat2);
+    double x = Math.cos(lat1) * Math.sin(lat2) - Math.sin(lat1) * Math.cos(lat2) * Math.cos(dLon);
+    if (x == 0 && y == 0) {
+      return Double.NaN;
+    }
+    return (Math.toDegrees(Math.atan2(y, x)) + 360) % 360;
+  }
+
   /**
    * Calculate the total distance of a path.
    *
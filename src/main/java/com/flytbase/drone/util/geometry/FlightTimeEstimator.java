@@ -0,0 +1,118 @@
+package com.flytbase.drone.util.geometry;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Estimates the time taken to fly a flight path. Legs are flown at the flight speed through the
+ * air, so wind changes the ground speed by its component along the leg and the crab angle needed
+ * against its component across. Climbs and descents happen at fixed vertical rates while moving, so
+ * a leg takes the longer of its horizontal and vertical times. At each waypoint the drone brakes to
+ * the speed at which it can take the turn, {@code cos(change / 2)} of the flight speed, and
+ * accelerates back, losing {@code (v - u)^2 / (a v)} seconds; reversals and vertical-only legs stop
+ * it completely.
+ *
+ * <p>The walk reads the primitive waypoint arrays once and does not allocate.
+ */
+@Component
+public class FlightTimeEstimator {
+
+  private final DistanceCalculator distanceCalculator;
+  private final FlightPathConfig.Flight config;
+
+  @Autowired
+  public FlightTimeEstimator(
+      DistanceCalculator distanceCalculator, FlightPathConfig flightPathConfig) {
+    this.distanceCalculator = distanceCalculator;
+    this.config = flightPathConfig.getFlight();
+  }
+
+  /**
+   * Estimate the flight time of a path in still air.
+   *
+   * @param path the flight path
+   * @param speed the flight speed in meters per second
+   * @return the flight time in seconds
+   * @throws IllegalArgumentException if the speed is not positive
+   */
+  public double estimateSeconds(PackedWaypoints path, double speed) {
+    return estimateSeconds(path, speed, 0, 0);
+  }
+
+  /**
+   * Estimate the flight time of a path in a steady wind.
+   *
+   * @param path the flight path
+   * @param speed the flight speed through the air in meters per second
+   * @param windSpeed the wind speed in meters per second
+   * @param windDirection the direction the wind blows from, in degrees clockwise from north
+   * @return the flight time in seconds
+   * @throws IllegalArgumentException if the speed is not positive, or the wind is too strong to fly
+   *     a leg against
+   */
+  public double estimateSeconds(
+      PackedWaypoints path, double speed, double windSpeed, double windDirection) {
+    if (!(speed > 0)) {
+      throw new IllegalArgumentException("Speed must be positive");
+    }
+    // Wind vector, pointing where the wind blows to
+    double windEast = -windSpeed * Math.sin(Math.toRadians(windDirection));
+    double windNorth = -windSpeed * Math.cos(Math.toRadians(windDirection));
+    double stop = speed / config.getAcceleration();
+
+    double seconds = 0;
+    double heading = Double.NaN;
+    double altitude = path.size() > 0 ? path.getAltitude(0) : Double.NaN;
+    for (int i = 1; i < path.size(); i++) {
+      // A missing altitude is taken to be the one before it
+      double next = Double.isNaN(path.getAltitude(i)) ? altitude : path.getAltitude(i);
+      double climb = Double.isNaN(altitude) || Double.isNaN(next) ? 0 : next - altitude;
+      altitude = next;
+      double vertical =
+          climb > 0 ? climb / config.getClimbRate() : -climb / config.getDescentRate();
+      double bearing =
+          distanceCalculator.calculateBearing(
+              path.getLongitude(i - 1),
+              path.getLatitude(i - 1),
+              path.getLongitude(i),
+              path.getLatitude(i));
+
+      if (Double.isNaN(bearing)) {
+        // Straight up or down: come to a stop first
+        if (!Double.isNaN(heading)) {
+          seconds += stop / 2;
+          heading = Double.NaN;
+        }
+        seconds += vertical;
+        continue;
+      }
+
+      if (Double.isNaN(heading)) {
+        seconds += stop / 2;
+      } else {
+        double change = Math.abs(bearing - heading) % 360;
+        change = Math.min(change, 360 - change);
+        double lost = 1 - Math.cos(Math.toRadians(change) / 2);
+        seconds += stop * lost * lost;
+      }
+      heading = bearing;
+
+      double sin = Math.sin(Math.toRadians(bearing));
+      double cos = Math.cos(Math.toRadians(bearing));
+      double along = windEast * sin + windNorth * cos;
+      double across = windEast * cos - windNorth * sin;
+      double groundSpeed = Math.sqrt(Math.max(0, speed * speed - across * across)) + along;
+      if (!(groundSpeed > 0)) {
+        throw new IllegalArgumentException(
+            "Wind of " + windSpeed + " m/s is too strong to fly at " + speed + " m/s");
+      }
+      double horizontal = (path.getDistanceTo(i) - path.getDistanceTo(i - 1)) / groundSpeed;
+      seconds += Math.max(horizontal, vertical);
+    }
+    if (!Double.isNaN(heading)) {
+      seconds += stop / 2;
+    }
+    return seconds;
+  }
+}
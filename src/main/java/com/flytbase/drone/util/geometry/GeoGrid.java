@@ -0,0 +1,64 @@
+package com.flytbase.drone.util.geometry;
+
+/**
+ * Uniform latitude/longitude grid. Cells are addressed by a single {@code long} key packing the
+ * column and row indices, so lookups never allocate.
+ */
+public final class GeoGrid {
+
+  private final double cellSize;
+
+  /**
+   * Create a grid.
+   *
+   * @param cellSize the size of a cell in degrees
+   */
+  public GeoGrid(double cellSize) {
+    if (cellSize <= 0) {
+      throw new IllegalArgumentException("Cell size must be positive");
+    }
+    this.cellSize = cellSize;
+  }
+
+  /**
+   * Get the column index of a longitude.
+   *
+   * @param longitude the longitude in degrees
+   * @return the column index
+   */
+  public int column(double longitude) {
+    return (int) Math.floor((longitude + 180.0) / cellSize);
+  }
+
+  /**
+   * Get the row index of a latitude.
+   *
+   * @param latitude the latitude in degrees
+   * @return the row index
+   */
+  public int row(double latitude) {
+    return (int) Math.floor((latitude + 90.0) / cellSize);
+  }
+
+  /**
+   * Get the key of the cell containing a point.
+   *
+   * @param latitude the latitude in degrees
+   * @param longitude the longitude in degrees
+   * @return the cell key
+   */
+  public long cellKey(double latitude, double longitude) {
+    return key(column(longitude), row(latitude));
+  }
+
+  /**
+   * Pack a column and row index into a cell key.
+   *
+   * @param column the column index
+   * @param row the row index
+   * @return the cell key
+   */
+  public static long key(int column, int row) {
+    return ((long) column << 32) | (row & 0xffffffffL);
+  }
+}
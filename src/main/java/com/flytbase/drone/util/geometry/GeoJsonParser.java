@@ -102,4 +102,31 @@ public class GeoJsonParser {
     return String.format(
         "{\"lat\": %f, \"lng\": %f, \"alt\": %d}", coordinate.y, coordinate.x, altitude);
   }
+
+  /**
+   * Convert a JTS Polygon, holes included, to a GeoJSON polygon string.
+   *
+   * @param polygon the JTS Polygon
+   * @return the GeoJSON polygon string
+   */
+  public String polygonToGeoJson(Polygon polygon) {
+    StringBuilder sb = new StringBuilder("{\"type\": \"Polygon\", \"coordinates\": [");
+    appendRing(sb, polygon.getExteriorRing().getCoordinates());
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      sb.append(", ");
+      appendRing(sb, polygon.getInteriorRingN(i).getCoordinates());
+    }
+    return sb.append("]}").toString();
+  }
+
+  private void appendRing(StringBuilder sb, Coordinate[] ring) {
+    sb.append('[');
+    for (int i = 0; i < ring.length; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append('[').append(ring[i].x).append(", ").append(ring[i].y).append(']');
+    }
+    sb.append(']');
+  }
 }
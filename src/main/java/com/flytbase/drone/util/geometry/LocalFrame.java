@@ -0,0 +1,131 @@
+package com.flytbase.drone.util.geometry;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Local east-north tangent plane around an origin, in meters. Longitude and latitude offsets are
+ * scaled by the WGS84 radii of curvature at the origin, which keeps distances within a few
+ * kilometers of the origin accurate to well under 0.1%, and the projection is exactly invertible.
+ * Coordinates follow the JTS convention: x is the longitude or east, y the latitude or north.
+ */
+public final class LocalFrame {
+
+  private static final double SEMI_MAJOR_AXIS = 6378137.0;
+  private static final double FLATTENING = 1 / 298.257223563;
+  private static final double ECCENTRICITY_SQUARED = FLATTENING * (2 - FLATTENING);
+
+  private final double originLongitude;
+  private final double originLatitude;
+  private final double metersPerDegreeLongitude;
+  private final double metersPerDegreeLatitude;
+
+  /**
+   * Create a frame.
+   *
+   * @param originLongitude the longitude of the origin in degrees
+   * @param originLatitude the latitude of the origin in degrees
+   */
+  public LocalFrame(double originLongitude, double originLatitude) {
+    this.originLongitude = originLongitude;
+    this.originLatitude = originLatitude;
+    double sin = Math.sin(Math.toRadians(originLatitude));
+    double w = 1 - ECCENTRICITY_SQUARED * sin * sin;
+    double primeVertical = SEMI_MAJOR_AXIS / Math.sqrt(w);
+    double meridian = SEMI_MAJOR_AXIS * (1 - ECCENTRICITY_SQUARED) / (w * Math.sqrt(w));
+    this.metersPerDegreeLongitude =
+        Math.toRadians(1) * primeVertical * Math.cos(Math.toRadians(originLatitude));
+    this.metersPerDegreeLatitude = Math.toRadians(1) * meridian;
+  }
+
+  /**
+   * Create a frame centered on the bounding box of a geometry.
+   *
+   * @param geometry the geometry in longitude and latitude
+   * @return the frame
+   */
+  public static LocalFrame centeredOn(Geometry geometry) {
+    Envelope envelope = geometry.getEnvelopeInternal();
+    return new LocalFrame(
+        (envelope.getMinX() + envelope.getMaxX()) / 2,
+        (envelope.getMinY() + envelope.getMaxY()) / 2);
+  }
+
+  /**
+   * Project a position into the frame.
+   *
+   * @param longitude the longitude in degrees
+   * @param latitude the latitude in degrees
+   * @return the east and north offsets in meters
+   */
+  public Coordinate toLocal(double longitude, double latitude) {
+    return new Coordinate(
+        (longitude - originLongitude) * metersPerDegreeLongitude,
+        (latitude - originLatitude) * metersPerDegreeLatitude);
+  }
+
+  /**
+   * Project a position in the frame back to longitude and latitude.
+   *
+   * @param east the east offset in meters
+   * @param north the north offset in meters
+   * @return the position in degrees
+   */
+  public Coordinate toGeographic(double east, double north) {
+    return new Coordinate(
+        originLongitude + east / metersPerDegreeLongitude,
+        originLatitude + north / metersPerDegreeLatitude);
+  }
+
+  /**
+   * Project a polygon, holes included, into the frame.
+   *
+   * @param polygon the polygon in longitude and latitude
+   * @return the polygon in meters
+   */
+  public Polygon toLocal(Polygon polygon) {
+    GeometryFactory factory = polygon.getFactory();
+    LinearRing shell = toLocal(factory, polygon.getExteriorRing().getCoordinates());
+    LinearRing[] holes = new LinearRing[polygon.getNumInteriorRing()];
+    for (int i = 0; i < holes.length; i++) {
+      holes[i] = toLocal(factory, polygon.getInteriorRingN(i).getCoordinates());
+    }
+    return factory.createPolygon(shell, holes);
+  }
+
+  /**
+   * Project a polygon in the frame, holes included, back to longitude and latitude.
+   *
+   * @param polygon the polygon in meters
+   * @return the polygon in longitude and latitude
+   */
+  public Polygon toGeographic(Polygon polygon) {
+    GeometryFactory factory = polygon.getFactory();
+    LinearRing shell = toGeographic(factory, polygon.getExteriorRing().getCoordinates());
+    LinearRing[] holes = new LinearRing[polygon.getNumInteriorRing()];
+    for (int i = 0; i < holes.length; i++) {
+      holes[i] = toGeographic(factory, polygon.getInteriorRingN(i).getCoordinates());
+    }
+    return factory.createPolygon(shell, holes);
+  }
+
+  private LinearRing toLocal(GeometryFactory factory, Coordinate[] ring) {
+    Coordinate[] projected = new Coordinate[ring.length];
+    for (int i = 0; i < ring.length; i++) {
+      projected[i] = toLocal(ring[i].x, ring[i].y);
+    }
+    return factory.createLinearRing(projected);
+  }
+
+  private LinearRing toGeographic(GeometryFactory factory, Coordinate[] ring) {
+    Coordinate[] projected = new Coordinate[ring.length];
+    for (int i = 0; i < ring.length; i++) {
+      projected[i] = toGeographic(ring[i].x, ring[i].y);
+    }
+    return factory.createLinearRing(projected);
+  }
+}
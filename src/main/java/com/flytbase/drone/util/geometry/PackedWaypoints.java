@@ -0,0 +1,230 @@
+package com.flytbase.drone.util.geometry;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Immutable waypoints of a flight path held in primitive arrays, with the cumulative path distance
+ * at every waypoint. Paths are parsed once from the waypoint JSON and stored next to it in a binary
+ * form: a format version and the waypoint count as 32-bit integers, then per waypoint the latitude,
+ * longitude, altitude and cumulative distance in meters as 64-bit floats. A missing altitude is
+ * stored as {@code NaN}.
+ */
+public final class PackedWaypoints {
+
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+  private static final int WAYPOINT_BYTES = 4 * Double.BYTES;
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+  private static final DistanceCalculator DISTANCE_CALCULATOR = new DistanceCalculator();
+
+  private final double[] latitudes;
+  private final double[] longitudes;
+  private final double[] altitudes;
+  private final double[] distances;
+
+  /** Wrap arrays without copying them; the caller must not modify them afterwards. */
+  PackedWaypoints(double[] latitudes, double[] longitudes, double[] altitudes, double[] distances) {
+    this.latitudes = latitudes;
+    this.longitudes = longitudes;
+    this.altitudes = altitudes;
+    this.distances = distances;
+  }
+
+  /**
+   * Create waypoints from their positions, computing the cumulative distances.
+   *
+   * @param latitudes the latitudes
+   * @param longitudes the longitudes
+   * @param altitudes the altitudes, {@code NaN} where missing
+   * @return the waypoints
+   */
+  public static PackedWaypoints of(double[] latitudes, double[] longitudes, double[] altitudes) {
+    int count = latitudes.length;
+    double[] distances = new double[count];
+    for (int i = 1; i < count; i++) {
+      distances[i] =
+          distances[i - 1]
+              + DISTANCE_CALCULATOR.calculateDistance(
+                  new Coordinate(longitudes[i - 1], latitudes[i - 1]),
+                  new Coordinate(longitudes[i], latitudes[i]));
+    }
+    return new PackedWaypoints(latitudes.clone(), longitudes.clone(), altitudes.clone(), distances);
+  }
+
+  /**
+   * Parse waypoint JSON, an array of objects with {@code lat}, {@code lng} and optionally {@code
+   * alt}.
+   *
+   * @param json the waypoint JSON
+   * @return the waypoints
+   * @throws IOException if the JSON is malformed or a waypoint lacks a position
+   */
+  public static PackedWaypoints parseJson(String json) throws IOException {
+    double[] latitudes = new double[16];
+    double[] longitudes = new double[16];
+    double[] altitudes = new double[16];
+    int count = 0;
+
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new IOException("Waypoints must be a JSON array");
+      }
+      while (parser.nextToken() == JsonToken.START_OBJECT) {
+        double latitude = Double.NaN;
+        double longitude = Double.NaN;
+        double altitude = Double.NaN;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.currentName();
+          JsonToken value = parser.nextToken();
+          if (!value.isNumeric()) {
+            parser.skipChildren();
+            continue;
+          }
+          switch (field) {
+            case "lat":
+              latitude = parser.getDoubleValue();
+              break;
+            case "lng":
+              longitude = parser.getDoubleValue();
+              break;
+            case "alt":
+              altitude = parser.getDoubleValue();
+              break;
+            default:
+              break;
+          }
+        }
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+          throw new IOException("Waypoint " + count + " has no lat and lng");
+        }
+        if (count == latitudes.length) {
+          latitudes = Arrays.copyOf(latitudes, count * 2);
+          longitudes = Arrays.copyOf(longitudes, count * 2);
+          altitudes = Arrays.copyOf(altitudes, count * 2);
+        }
+        latitudes[count] = latitude;
+        longitudes[count] = longitude;
+        altitudes[count] = altitude;
+        count++;
+      }
+      if (parser.currentToken() != JsonToken.END_ARRAY) {
+        throw new IOException("Waypoints must be JSON objects");
+      }
+    }
+    return of(
+        Arrays.copyOf(latitudes, count),
+        Arrays.copyOf(longitudes, count),
+        Arrays.copyOf(altitudes, count));
+  }
+
+  /**
+   * Read waypoints from their binary form.
+   *
+   * @param data the binary form
+   * @return the waypoints
+   * @throws IllegalArgumentException if the data is not in the expected format
+   */
+  public static PackedWaypoints decode(byte[] data) {
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    if (data.length < HEADER_BYTES || buffer.getInt() != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unknown waypoint data format");
+    }
+    int count = buffer.getInt();
+    if (count < 0 || data.length != HEADER_BYTES + (long) count * WAYPOINT_BYTES) {
+      throw new IllegalArgumentException("Truncated waypoint data");
+    }
+
+    double[] latitudes = new double[count];
+    double[] longitudes = new double[count];
+    double[] altitudes = new double[count];
+    double[] distances = new double[count];
+    for (int i = 0; i < count; i++) {
+      latitudes[i] = buffer.getDouble();
+      longitudes[i] = buffer.getDouble();
+      altitudes[i] = buffer.getDouble();
+      distances[i] = buffer.getDouble();
+    }
+    return new PackedWaypoints(latitudes, longitudes, altitudes, distances);
+  }
+
+  /**
+   * Write the waypoints in their binary form.
+   *
+   * @return the binary form
+   */
+  public byte[] encode() {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + size() * WAYPOINT_BYTES);
+    buffer.putInt(FORMAT_VERSION);
+    buffer.putInt(size());
+    for (int i = 0; i < size(); i++) {
+      buffer.putDouble(latitudes[i]);
+      buffer.putDouble(longitudes[i]);
+      buffer.putDouble(altitudes[i]);
+      buffer.putDouble(distances[i]);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * Get the number of waypoints.
+   *
+   * @return the number of waypoints
+   */
+  public int size() {
+    return latitudes.length;
+  }
+
+  public double getLatitude(int index) {
+    return latitudes[index];
+  }
+
+  public double getLongitude(int index) {
+    return longitudes[index];
+  }
+
+  /**
+   * Get the altitude of a waypoint.
+   *
+   * @param index the waypoint index
+   * @return the altitude, or {@code NaN} if the waypoint has none
+   */
+  public double getAltitude(int index) {
+    return altitudes[index];
+  }
+
+  /**
+   * Get the distance flown along the path from the first waypoint to a waypoint.
+   *
+   * @param index the waypoint index
+   * @return the distance in meters
+   */
+  public double getDistanceTo(int index) {
+    return distances[index];
+  }
+
+  /**
+   * Get the length of the path.
+   *
+   * @return the distance in meters
+   */
+  public double getTotalDistance() {
+    return size() > 0 ? distances[size() - 1] : 0;
+  }
+
+  /**
+   * Get the position of a waypoint as a coordinate, x being the longitude.
+   *
+   * @param index the waypoint index
+   * @return the coordinate
+   */
+  public Coordinate getCoordinate(int index) {
+    return new Coordinate(longitudes[index], latitudes[index]);
+  }
+}
@@ -0,0 +1,136 @@
+package com.flytbase.drone.util.geometry;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Spaces sweep lines and photo triggers by the ground footprint of a camera. At a flight altitude,
+ * a camera with sensor width {@code w} and focal length {@code f} sees a strip {@code w * altitude
+ * / f} wide; the ground sampling distance is that width over the image width in pixels. Sweep lines
+ * are one footprint width apart less the side overlap, and photos are taken one footprint height
+ * apart less the front overlap, the camera's image width lying across the lines.
+ *
+ * <p>Photos are triggered by distance along the whole path, as drones do in distance-interval mode,
+ * starting at the first waypoint. Stored paths do not tell sweep lines from the turns between them
+ * and the transits between cells, so photos are planned along those too: the photo count is an
+ * upper bound, over by about the turn and transit length over the trigger distance.
+ */
+@Component
+public class PhotoPlanner {
+
+  /** Upper bound on the number of photos of one path, against degenerate distances. */
+  static final int MAX_PHOTOS = 1_000_000;
+
+  private final FlightPathConfig config;
+
+  @Autowired
+  public PhotoPlanner(FlightPathConfig config) {
+    this.config = config;
+  }
+
+  /**
+   * Get the camera profile of a drone model.
+   *
+   * @param model the drone model, may be null
+   * @return the model's camera, or the default camera if it has none
+   */
+  public FlightPathConfig.Camera getCamera(String model) {
+    FlightPathConfig.Camera camera = model != null ? config.getCameras().get(model) : null;
+    return camera != null ? camera : config.getCamera();
+  }
+
+  /**
+   * Get the ground sampling distance of a camera.
+   *
+   * @param camera the camera
+   * @param altitude the altitude above ground in meters
+   * @return the ground distance covered by one pixel, in meters
+   */
+  public static double groundSamplingDistance(FlightPathConfig.Camera camera, double altitude) {
+    return footprintWidth(camera, altitude) / camera.getImageWidth();
+  }
+
+  /**
+   * Get the spacing between sweep lines for a side overlap.
+   *
+   * @param camera the camera
+   * @param altitude the altitude above ground in meters
+   * @param overlapPercentage the side overlap between neighboring lines
+   * @return the spacing in meters
+   */
+  public static double lineSpacing(
+      FlightPathConfig.Camera camera, double altitude, int overlapPercentage) {
+    return footprintWidth(camera, altitude) * (1.0 - overlapPercentage / 100.0);
+  }
+
+  /**
+   * Get the distance between photos along a line for a front overlap.
+   *
+   * @param camera the camera
+   * @param altitude the altitude above ground in meters
+   * @param overlapPercentage the front overlap between consecutive photos
+   * @return the distance in meters
+   */
+  public static double triggerDistance(
+      FlightPathConfig.Camera camera, double altitude, int overlapPercentage) {
+    double footprintHeight = camera.getSensorHeightMm() * altitude / camera.getFocalLengthMm();
+    return footprintHeight * (1.0 - overlapPercentage / 100.0);
+  }
+
+  /**
+   * Get the positions at which photos are taken along a path, in one pass over the waypoints.
+   * Positions between waypoints are interpolated linearly, which is exact to well under a meter
+   * over the short legs of survey patterns.
+   *
+   * @param path the flight path
+   * @param distance the distance between photos in meters
+   * @return the photo positions, one every {@code distance} meters from the first waypoint, with
+   *     their distances along the path
+   * @throws IllegalArgumentException if the distance is not positive, or gives too many photos
+   */
+  public static PackedWaypoints triggerPoints(PackedWaypoints path, double distance) {
+    if (!(distance > 0)) {
+      throw new IllegalArgumentException("Photo distance must be positive");
+    }
+    int size = path.size();
+    if (size == 0) {
+      return new PackedWaypoints(new double[0], new double[0], new double[0], new double[0]);
+    }
+    double photos = Math.floor(path.getTotalDistance() / distance) + 1;
+    if (photos > MAX_PHOTOS) {
+      throw new IllegalArgumentException(
+          "Photo distance of " + distance + " m needs " + (long) photos + " photos on the path");
+    }
+
+    int count = (int) photos;
+    double[] latitudes = new double[count];
+    double[] longitudes = new double[count];
+    double[] altitudes = new double[count];
+    double[] distances = new double[count];
+    int leg = Math.min(1, size - 1);
+    for (int i = 0; i < count; i++) {
+      double along = i * distance;
+      while (leg < size - 1 && path.getDistanceTo(leg) < along) {
+        leg++;
+      }
+      int start = Math.max(0, leg - 1);
+      double from = path.getDistanceTo(start);
+      double to = path.getDistanceTo(leg);
+      double t = to > from ? Math.min(1, (along - from) / (to - from)) : 1;
+      latitudes[i] = interpolate(path.getLatitude(start), path.getLatitude(leg), t);
+      longitudes[i] = interpolate(path.getLongitude(start), path.getLongitude(leg), t);
+      altitudes[i] = interpolate(path.getAltitude(start), path.getAltitude(leg), t);
+      distances[i] = along;
+    }
+    return new PackedWaypoints(latitudes, longitudes, altitudes, distances);
+  }
+
+  private static double footprintWidth(FlightPathConfig.Camera camera, double altitude) {
+    return camera.getSensorWidthMm() * altitude / camera.getFocalLengthMm();
+  }
+
+  private static double interpolate(double from, double to, double t) {
+    return from + (to - from) * t;
+  }
+}
@@ -0,0 +1,217 @@
+package com.flytbase.drone.util.geometry;
+
+import java.util.Arrays;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.AffineTransformation;
+
+/**
+ * Clips parallel sweep lines to a polygon in a single pass. The edges of every ring, holes
+ * included, are rotated into the sweep frame, where lines run along u at a fixed v, and sorted once
+ * by their lowest v. Lines are then clipped in ascending v order while an active edge list is
+ * maintained: each line costs the edges it crosses, so a sweep of L lines over E edges costs O((E +
+ * L) log E) instead of one polygon overlay per line.
+ *
+ * <p>Crossings are paired by the even-odd rule, which matches the polygon's interior as long as its
+ * rings do not intersect. An edge covers the half-open range {@code [minV, maxV)}, so a line
+ * through a vertex counts it once, and edges along the line are ignored.
+ */
+final class ScanlineClipper {
+
+  private final double cos;
+  private final double sin;
+
+  // Edges in the sweep frame, sorted by lowest v: u at the lower end, slope du/dv, v range
+  private double[] edgeU;
+  private double[] edgeSlope;
+  private double[] edgeMinV;
+  private double[] edgeMaxV;
+  private int edgeCount;
+
+  private double minU = Double.POSITIVE_INFINITY;
+  private double maxU = Double.NEGATIVE_INFINITY;
+  private double minV = Double.POSITIVE_INFINITY;
+  private double maxV = Double.NEGATIVE_INFINITY;
+
+  // Sweep state
+  private int[] active;
+  private int activeCount;
+  private int nextEdge;
+  private double lastV = Double.NEGATIVE_INFINITY;
+  private double[] crossings = new double[8];
+
+  /**
+   * Create a clipper for lines at an angle.
+   *
+   * @param polygon the polygon, in a metric frame
+   * @param angle the direction of the lines in degrees, counterclockwise from the x axis
+   */
+  ScanlineClipper(Polygon polygon, double angle) {
+    this.cos = Math.cos(Math.toRadians(angle));
+    this.sin = Math.sin(Math.toRadians(angle));
+
+    int capacity = polygon.getExteriorRing().getNumPoints();
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      capacity += polygon.getInteriorRingN(i).getNumPoints();
+    }
+    edgeU = new double[capacity];
+    edgeSlope = new double[capacity];
+    edgeMinV = new double[capacity];
+    edgeMaxV = new double[capacity];
+
+    addRing(polygon.getExteriorRing().getCoordinates());
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      addRing(polygon.getInteriorRingN(i).getCoordinates());
+    }
+    sortEdges();
+    active = new int[Math.max(1, edgeCount)];
+  }
+
+  /** Create a clipper sharing the edges of another, with a sweep state of its own. */
+  private ScanlineClipper(ScanlineClipper other) {
+    this.cos = other.cos;
+    this.sin = other.sin;
+    this.edgeU = other.edgeU;
+    this.edgeSlope = other.edgeSlope;
+    this.edgeMinV = other.edgeMinV;
+    this.edgeMaxV = other.edgeMaxV;
+    this.edgeCount = other.edgeCount;
+    this.minU = other.minU;
+    this.maxU = other.maxU;
+    this.minV = other.minV;
+    this.maxV = other.maxV;
+    this.active = new int[other.active.length];
+  }
+
+  /**
+   * Create a clipper for the same polygon and angle that starts its sweep afresh. Edges are shared
+   * and never modified once sorted, so clippers forked from one another can clip separate runs of
+   * lines concurrently, each in ascending order.
+   *
+   * @return the new clipper
+   */
+  ScanlineClipper fork() {
+    return new ScanlineClipper(this);
+  }
+
+  /** Lowest position across the lines covered by the polygon. */
+  double getMinV() {
+    return minV;
+  }
+
+  /** Highest position across the lines covered by the polygon. */
+  double getMaxV() {
+    return maxV;
+  }
+
+  /** Lowest position along the lines covered by the polygon. */
+  double getMinU() {
+    return minU;
+  }
+
+  /** Highest position along the lines covered by the polygon. */
+  double getMaxU() {
+    return maxU;
+  }
+
+  /** Rotate a frame position into the position along the lines. */
+  double toU(double x, double y) {
+    return x * cos + y * sin;
+  }
+
+  /** Rotate a sweep position back into the frame. */
+  Coordinate toFrame(double u, double v) {
+    return new Coordinate(u * cos - v * sin, u * sin + v * cos);
+  }
+
+  /** Rotate a polygon in the frame into the sweep frame, where x is u and y is v. */
+  Polygon toSweep(Polygon polygon) {
+    return (Polygon) new AffineTransformation(cos, sin, 0, -sin, cos, 0).transform(polygon);
+  }
+
+  /**
+   * Clip the line at a position across the sweep. Lines must be clipped in ascending order.
+   *
+   * @param v the position of the line across the sweep
+   * @return the start and end along the line of every segment inside the polygon, in ascending
+   *     order, or null if the crossings do not pair up, as for a self-intersecting polygon
+   */
+  double[] clip(double v) {
+    if (v < lastV) {
+      throw new IllegalStateException("Lines must be clipped in ascending order");
+    }
+    lastV = v;
+
+    // Activate edges starting at or below the line, drop those ending at or below it
+    while (nextEdge < edgeCount && edgeMinV[nextEdge] <= v) {
+      active[activeCount++] = nextEdge++;
+    }
+    int count = 0;
+    int kept = 0;
+    for (int i = 0; i < activeCount; i++) {
+      int edge = active[i];
+      if (edgeMaxV[edge] <= v) {
+        continue;
+      }
+      active[kept++] = edge;
+      if (count == crossings.length) {
+        crossings = Arrays.copyOf(crossings, count * 2);
+      }
+      crossings[count++] = edgeU[edge] + (v - edgeMinV[edge]) * edgeSlope[edge];
+    }
+    activeCount = kept;
+
+    if (count % 2 != 0) {
+      return null;
+    }
+    Arrays.sort(crossings, 0, count);
+    return Arrays.copyOf(crossings, count);
+  }
+
+  private void addRing(Coordinate[] ring) {
+    for (int i = 0; i + 1 < ring.length; i++) {
+      double u1 = toU(ring[i].x, ring[i].y);
+      double v1 = -ring[i].x * sin + ring[i].y * cos;
+      double u2 = toU(ring[i + 1].x, ring[i + 1].y);
+      double v2 = -ring[i + 1].x * sin + ring[i + 1].y * cos;
+      minU = Math.min(minU, Math.min(u1, u2));
+      maxU = Math.max(maxU, Math.max(u1, u2));
+      minV = Math.min(minV, Math.min(v1, v2));
+      maxV = Math.max(maxV, Math.max(v1, v2));
+      if (v1 == v2) {
+        // Along the lines; never crossed
+        continue;
+      }
+      boolean upward = v1 < v2;
+      edgeU[edgeCount] = upward ? u1 : u2;
+      edgeMinV[edgeCount] = upward ? v1 : v2;
+      edgeMaxV[edgeCount] = upward ? v2 : v1;
+      edgeSlope[edgeCount] = (u2 - u1) / (v2 - v1);
+      edgeCount++;
+    }
+  }
+
+  /** Sort the edge columns by lowest v. */
+  private void sortEdges() {
+    Integer[] order = new Integer[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(edgeMinV[a], edgeMinV[b]));
+
+    double[] u = new double[edgeCount];
+    double[] slope = new double[edgeCount];
+    double[] low = new double[edgeCount];
+    double[] high = new double[edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      u[i] = edgeU[order[i]];
+      slope[i] = edgeSlope[order[i]];
+      low[i] = edgeMinV[order[i]];
+      high[i] = edgeMaxV[order[i]];
+    }
+    edgeU = u;
+    edgeSlope = slope;
+    edgeMinV = low;
+    edgeMaxV = high;
+  }
+}
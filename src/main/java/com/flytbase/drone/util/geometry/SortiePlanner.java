@@ -0,0 +1,235 @@
+package com.flytbase.drone.util.geometry;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits a flight path into sorties that each fit on one battery. The path is walked once with an
+ * energy model: level flight at the cruise power for the time taken at the mission speed, climbs at
+ * a fixed energy per meter, and turns in proportion to the heading change. Each sortie starts with
+ * a resume leg from home, climbing from the ground, and ends with a return-to-home leg.
+ *
+ * <p>Once the usable energy (the capacity less the reserve) would not cover the next waypoint and
+ * the return from it, the sortie ends at its cheapest split point: the waypoint whose round trip
+ * from home costs the least, among those reached in the last {@code split-window-percent} of the
+ * usable energy. The next sortie resumes there. The walk reads the primitive waypoint arrays and
+ * does not allocate per waypoint, so it stays linear on paths of 100k waypoints.
+ */
+@Component
+public class SortiePlanner {
+
+  private final DistanceCalculator distanceCalculator;
+  private final FlightPathConfig.Battery config;
+
+  @Autowired
+  public SortiePlanner(DistanceCalculator distanceCalculator, FlightPathConfig flightPathConfig) {
+    this.distanceCalculator = distanceCalculator;
+    this.config = flightPathConfig.getBattery();
+  }
+
+  /**
+   * Split a flight path into sorties.
+   *
+   * @param path the flight path
+   * @param homeLongitude the longitude of the drone's home location
+   * @param homeLatitude the latitude of the drone's home location
+   * @param speed the flight speed in meters per second
+   * @return the sorties in flight order
+   * @throws IllegalArgumentException if the speed is not positive, or a waypoint cannot be reached
+   *     and left on one battery
+   */
+  public List<Sortie> plan(
+      PackedWaypoints path, double homeLongitude, double homeLatitude, double speed) {
+    if (!(speed > 0)) {
+      throw new IllegalArgumentException("Speed must be positive");
+    }
+    List<Sortie> sorties = new ArrayList<>();
+    int count = path.size();
+    if (count == 0) {
+      return sorties;
+    }
+
+    Legs legs = new Legs(path, homeLongitude, homeLatitude, config.getCruisePowerWatts() / speed);
+    double usable = config.getCapacityWh() * 3600 * (1 - config.getReservePercent() / 100);
+    double window = usable * (1 - config.getSplitWindowPercent() / 100);
+    if (legs.resume(0) + legs.back(0) > usable) {
+      throw new IllegalArgumentException("The flight path starts out of range of home");
+    }
+
+    // Energy flown along the path, from its first waypoint
+    double along = 0;
+    int first = 0;
+    double firstAlong = 0;
+    double resume = legs.resume(0);
+    int best = -1;
+    double bestAlong = 0;
+    double bestCost = Double.POSITIVE_INFINITY;
+    double heading = Double.NaN;
+
+    for (int i = 1; i < count; i++) {
+      double step =
+          (path.getDistanceTo(i) - path.getDistanceTo(i - 1)) * legs.joulesPerMeter
+              + climb(path.getAltitude(i - 1), path.getAltitude(i));
+      double next =
+          distanceCalculator.calculateBearing(
+              path.getLongitude(i - 1),
+              path.getLatitude(i - 1),
+              path.getLongitude(i),
+              path.getLatitude(i));
+      if (!Double.isNaN(heading) && !Double.isNaN(next)) {
+        double change = Math.abs(next - heading) % 360;
+        step += config.getTurnJoules() * Math.min(change, 360 - change) / 180;
+      }
+
+      // End the sortie while the next waypoint and the return from it do not fit
+      while (resume + along - firstAlong + step + legs.back(i) > usable) {
+        int split = best >= 0 ? best : i - 1;
+        double splitAlong = best >= 0 ? bestAlong : along;
+        if (split == first) {
+          throw new IllegalArgumentException(
+              "Waypoint " + i + " cannot be reached and left on one battery");
+        }
+        double energy = resume + splitAlong - firstAlong + legs.back(split);
+        sorties.add(sortie(path, legs, first, split, energy, speed));
+        first = split;
+        firstAlong = splitAlong;
+        resume = legs.resume(split);
+        best = -1;
+        bestCost = Double.POSITIVE_INFINITY;
+      }
+
+      along += step;
+      if (!Double.isNaN(next)) {
+        heading = next;
+      }
+      if (resume + along - firstAlong >= window) {
+        double cost = legs.back(i) + legs.resume(i);
+        if (cost <= bestCost) {
+          best = i;
+          bestAlong = along;
+          bestCost = cost;
+        }
+      }
+    }
+
+    double energy = resume + along - firstAlong + legs.back(count - 1);
+    sorties.add(sortie(path, legs, first, count - 1, energy, speed));
+    return sorties;
+  }
+
+  private static Sortie sortie(
+      PackedWaypoints path, Legs legs, int first, int last, double joules, double speed) {
+    double pathDistance = path.getDistanceTo(last) - path.getDistanceTo(first);
+    double resumeDistance = legs.distance(first);
+    double returnDistance = legs.distance(last);
+    double seconds = (resumeDistance + pathDistance + returnDistance) / speed;
+    return new Sortie(
+        first, last, pathDistance, resumeDistance, returnDistance, joules / 3600, seconds);
+  }
+
+  /** Energy of a climb between two altitudes, which may be missing. */
+  private double climb(double from, double to) {
+    if (Double.isNaN(from) || Double.isNaN(to) || to <= from) {
+      return 0;
+    }
+    return (to - from) * config.getClimbJoulesPerMeter();
+  }
+
+  /** Energy of the legs between home and the waypoints of a path. */
+  private final class Legs {
+    private final PackedWaypoints path;
+    private final double homeLongitude;
+    private final double homeLatitude;
+    private final double joulesPerMeter;
+
+    private Legs(
+        PackedWaypoints path, double homeLongitude, double homeLatitude, double joulesPerMeter) {
+      this.path = path;
+      this.homeLongitude = homeLongitude;
+      this.homeLatitude = homeLatitude;
+      this.joulesPerMeter = joulesPerMeter;
+    }
+
+    /** Distance in meters from home to a waypoint. */
+    private double distance(int index) {
+      return distanceCalculator.calculateDistance(
+          homeLongitude, homeLatitude, path.getLongitude(index), path.getLatitude(index));
+    }
+
+    /** Energy to fly back home from a waypoint; the descent is free. */
+    private double back(int index) {
+      return distance(index) * joulesPerMeter;
+    }
+
+    /** Energy to fly from home to a waypoint, climbing from the ground. */
+    private double resume(int index) {
+      return distance(index) * joulesPerMeter + climb(0, path.getAltitude(index));
+    }
+  }
+
+  /** A part of a flight path flown on one battery, from home and back. */
+  public static final class Sortie {
+    private final int firstWaypoint;
+    private final int lastWaypoint;
+    private final double pathDistance;
+    private final double resumeDistance;
+    private final double returnDistance;
+    private final double energyWh;
+    private final double durationSeconds;
+
+    private Sortie(
+        int firstWaypoint,
+        int lastWaypoint,
+        double pathDistance,
+        double resumeDistance,
+        double returnDistance,
+        double energyWh,
+        double durationSeconds) {
+      this.firstWaypoint = firstWaypoint;
+      this.lastWaypoint = lastWaypoint;
+      this.pathDistance = pathDistance;
+      this.resumeDistance = resumeDistance;
+      this.returnDistance = returnDistance;
+      this.energyWh = energyWh;
+      this.durationSeconds = durationSeconds;
+    }
+
+    /** Index of the waypoint the sortie resumes the path at. */
+    public int getFirstWaypoint() {
+      return firstWaypoint;
+    }
+
+    /** Index of the waypoint the sortie returns home from. */
+    public int getLastWaypoint() {
+      return lastWaypoint;
+    }
+
+    /** Distance flown along the path, in meters. */
+    public double getPathDistance() {
+      return pathDistance;
+    }
+
+    /** Distance from home to the first waypoint, in meters. */
+    public double getResumeDistance() {
+      return resumeDistance;
+    }
+
+    /** Distance from the last waypoint back home, in meters. */
+    public double getReturnDistance() {
+      return returnDistance;
+    }
+
+    /** Estimated energy used, in watt-hours. */
+    public double getEnergyWh() {
+      return energyWh;
+    }
+
+    /** Flight time at the mission speed, in seconds, without turns. */
+    public double getDurationSeconds() {
+      return durationSeconds;
+    }
+  }
+}
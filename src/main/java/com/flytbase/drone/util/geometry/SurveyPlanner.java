@@ -0,0 +1,394 @@
+package com.flytbase.drone.util.geometry;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Polygon;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plans survey sweeps in meters. The survey polygon is projected into a {@link LocalFrame} centered
+ * on it, parallel lines are laid across it at the requested spacing and clipped to it in one pass
+ * by a {@link ScanlineClipper}. The clipped segments are split into monotone cells around holes and
+ * concave notches by a {@link BoustrophedonDecomposition}, flown cell by cell with transits kept
+ * inside the polygon by a {@link TransitRouter}, and projected back to longitude and latitude. The
+ * number of lines is the width of the polygon across the sweep divided by the spacing, so the cost
+ * grows linearly with that width rather than depending on the units of the input. Sweeps with many
+ * lines are clipped in parallel strips.
+ */
+@Component
+public class SurveyPlanner {
+
+  /** Upper bound on the number of lines of one sweep, against degenerate spacings. */
+  static final int MAX_LINES = 100_000;
+
+  private final FlightPathConfig.Sweep config;
+
+  @Autowired
+  public SurveyPlanner(FlightPathConfig flightPathConfig) {
+    this.config = flightPathConfig.getSweep();
+  }
+
+  /**
+   * Plan a sweep of parallel lines flown in alternating directions.
+   *
+   * @param boundary the survey polygon in longitude and latitude
+   * @param spacing the distance between lines in meters
+   * @param angle the direction of the lines in degrees, counterclockwise from east
+   * @return the entry and exit point of every segment in flight order
+   * @throws IllegalArgumentException if the spacing is not positive or yields too many lines
+   */
+  public List<Coordinate> planSweep(Polygon boundary, double spacing, double angle) {
+    checkSpacing(spacing);
+    LocalFrame frame = LocalFrame.centeredOn(boundary);
+    Polygon local = frame.toLocal(boundary);
+    return toGeographic(frame, plan(local, clip(local, spacing, angle)));
+  }
+
+  /**
+   * Plan a sweep in the direction of the lowest estimated flight time. Candidates are the direction
+   * of minimum width of the polygon's convex hull, which needs the fewest lines, the direction
+   * across it, and {@code app.flight-path.sweep.candidate-angles} evenly spread directions, which
+   * catch concave polygons where fewer lines do not mean fewer turns. Each candidate's lines are
+   * clipped once and scored by their length at the speed plus {@code turn-seconds} per segment, as
+   * the {@link AreaPartitioner} does; ties go to the minimum-width direction. Only the winner is
+   * decomposed into cells and planned, from the lines clipped to score it.
+   *
+   * @param boundary the survey polygon in longitude and latitude
+   * @param spacing the distance between lines in meters
+   * @param speed the flight speed in meters per second
+   * @return the direction and the waypoints of the sweep
+   * @throws IllegalArgumentException if the spacing or speed is not positive, or the spacing yields
+   *     too many lines in every direction
+   */
+  public SweepPlan planBestSweep(Polygon boundary, double spacing, double speed) {
+    checkSpacing(spacing);
+    if (!(speed > 0)) {
+      throw new IllegalArgumentException("Speed must be positive");
+    }
+    LocalFrame frame = LocalFrame.centeredOn(boundary);
+    Polygon local = frame.toLocal(boundary);
+
+    double minimumWidth = minimumWidthAngle(local);
+    int spread = Math.max(0, config.getCandidateAngles());
+    double[] candidates = new double[2 + spread];
+    candidates[0] = minimumWidth;
+    candidates[1] = (minimumWidth + 90) % 180;
+    for (int i = 0; i < spread; i++) {
+      candidates[2 + i] = i * 180.0 / spread;
+    }
+
+    ClippedSweep[] clipped = new ClippedSweep[candidates.length];
+    IntStream indices = IntStream.range(0, candidates.length);
+    if (config.isParallelScoring()) {
+      indices = indices.parallel();
+    }
+    indices.forEach(i -> clipped[i] = clipOrNull(local, spacing, candidates[i]));
+
+    int best = 0;
+    for (int i = 1; i < candidates.length; i++) {
+      if (seconds(clipped[i], speed) < seconds(clipped[best], speed)) {
+        best = i;
+      }
+    }
+    ClippedSweep winner =
+        clipped[best] != null ? clipped[best] : clip(local, spacing, candidates[best]);
+    return new SweepPlan(candidates[best], toGeographic(frame, plan(local, winner)));
+  }
+
+  /**
+   * Get the direction of the edge of the polygon's convex hull across which the hull is narrowest,
+   * by rotating calipers. Lines along it need the fewest passes to cover the polygon.
+   *
+   * @param local the polygon in a metric frame
+   * @return the direction in degrees, counterclockwise from the x axis, in [0, 180)
+   */
+  static double minimumWidthAngle(Polygon local) {
+    Geometry hull = local.convexHull();
+    if (!(hull instanceof Polygon)) {
+      return 0;
+    }
+    Coordinate[] ring = ((Polygon) hull).getExteriorRing().getCoordinates();
+    int count = ring.length - 1;
+
+    double minWidth = Double.POSITIVE_INFINITY;
+    double angle = 0;
+    int far = 1;
+    for (int i = 0; i < count; i++) {
+      Coordinate from = ring[i];
+      Coordinate to = ring[i + 1];
+      double length = from.distance(to);
+      if (length == 0) {
+        continue;
+      }
+      // The farthest vertex from each edge only moves forward around the hull
+      far = Math.max(far, i + 1);
+      while (area(from, to, ring[(far + 1) % count]) > area(from, to, ring[far % count])) {
+        far++;
+      }
+      double width = area(from, to, ring[far % count]) / length;
+      if (width < minWidth) {
+        minWidth = width;
+        angle = Math.toDegrees(Math.atan2(to.y - from.y, to.x - from.x));
+      }
+    }
+    return ((angle % 180) + 180) % 180;
+  }
+
+  /** Clip the lines of a sweep, or null if the spacing yields too many lines at the angle. */
+  private ClippedSweep clipOrNull(Polygon local, double spacing, double angle) {
+    try {
+      return clip(local, spacing, angle);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Estimate the time to fly clipped lines: their length at the speed, plus {@code turn-seconds}
+   * for every segment. Transits between cells are left out.
+   */
+  private double seconds(ClippedSweep sweep, double speed) {
+    if (sweep == null) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double length = 0;
+    int segments = 0;
+    for (double[] line : sweep.lines) {
+      for (int i = 0; i + 1 < line.length; i += 2) {
+        length += line[i + 1] - line[i];
+        segments++;
+      }
+    }
+    return length / speed + segments * config.getTurnSeconds();
+  }
+
+  /** Lay the lines of a sweep across the polygon and clip them, in the polygon's metric frame. */
+  private ClippedSweep clip(Polygon local, double spacing, double angle) {
+    // Sweep frame: u runs along the lines, v across them
+    ScanlineClipper clipper = new ScanlineClipper(local, angle);
+    double width = clipper.getMaxV() - clipper.getMinV();
+    long lineCount = Math.max(1, (long) Math.ceil(width / spacing));
+    if (lineCount > MAX_LINES) {
+      throw new IllegalArgumentException(
+          "Line spacing of " + spacing + " m needs " + lineCount + " lines to cover the area");
+    }
+    // Lines are centered across the polygon, half a spacing in from its edges
+    double firstV = clipper.getMinV() + (width - (lineCount - 1) * spacing) / 2;
+
+    double[][] lines =
+        clipSweep(
+            local,
+            clipper,
+            firstV,
+            spacing,
+            (int) lineCount,
+            config.getParallelLines(),
+            config.getStripLines());
+    return new ClippedSweep(clipper, firstV, spacing, lines);
+  }
+
+  /** Plan the flight over clipped lines, in the polygon's metric frame. */
+  private List<Coordinate> plan(Polygon local, ClippedSweep sweep) {
+    ScanlineClipper clipper = sweep.clipper;
+    BoustrophedonDecomposition cells =
+        new BoustrophedonDecomposition(new TransitRouter(clipper.toSweep(local)));
+    for (int line = 0; line < sweep.lines.length; line++) {
+      cells.addLine(sweep.firstV + line * sweep.spacing, sweep.lines[line]);
+    }
+
+    List<Coordinate> waypoints = cells.plan(config.getParallelCells());
+    for (int i = 0; i < waypoints.size(); i++) {
+      Coordinate position = waypoints.get(i);
+      waypoints.set(i, clipper.toFrame(position.x, position.y));
+    }
+    return waypoints;
+  }
+
+  private static List<Coordinate> toGeographic(LocalFrame frame, List<Coordinate> local) {
+    List<Coordinate> waypoints = new ArrayList<>(local.size());
+    for (Coordinate coordinate : local) {
+      waypoints.add(frame.toGeographic(coordinate.x, coordinate.y));
+    }
+    return waypoints;
+  }
+
+  /**
+   * Clip the lines of a sweep, in parallel strips if there are many of them.
+   *
+   * @param local the polygon in a metric frame
+   * @param clipper a clipper for the polygon, forked for every run of lines
+   * @param firstV the position of the first line across the sweep
+   * @param spacing the distance between lines
+   * @param lineCount the number of lines
+   * @param parallelLines the number of lines from which they are clipped in parallel
+   * @param stripLines the number of lines of each strip clipped in parallel
+   * @return the start and end along the line of every segment of each line inside the polygon
+   */
+  static double[][] clipSweep(
+      Polygon local,
+      ScanlineClipper clipper,
+      double firstV,
+      double spacing,
+      int lineCount,
+      int parallelLines,
+      int stripLines) {
+    double[][] lines = new double[lineCount][];
+    if (lineCount >= parallelLines) {
+      ForkJoinPool.commonPool()
+          .invoke(new ClipStrip(local, clipper, firstV, spacing, lines, 0, lineCount, stripLines));
+    } else {
+      clipLines(local, clipper.fork(), firstV, spacing, lines, 0, lineCount);
+    }
+    return lines;
+  }
+
+  /** Clip a run of lines in ascending order. */
+  private static void clipLines(
+      Polygon local,
+      ScanlineClipper clipper,
+      double firstV,
+      double spacing,
+      double[][] lines,
+      int from,
+      int to) {
+    for (int line = from; line < to; line++) {
+      double v = firstV + line * spacing;
+      double[] segments = clipper.clip(v);
+      lines[line] = segments != null ? segments : clipWithOverlay(local, clipper, v);
+    }
+  }
+
+  private static void checkSpacing(double spacing) {
+    if (!(spacing > 0)) {
+      throw new IllegalArgumentException("Line spacing must be positive");
+    }
+  }
+
+  /** Twice the area of the triangle of an edge and a point. */
+  private static double area(Coordinate from, Coordinate to, Coordinate point) {
+    return Math.abs((to.x - from.x) * (point.y - from.y) - (to.y - from.y) * (point.x - from.x));
+  }
+
+  /**
+   * Clip one line with a polygon overlay, for polygons whose crossings do not pair up under the
+   * even-odd rule.
+   */
+  static double[] clipWithOverlay(Polygon local, ScanlineClipper clipper, double v) {
+    Coordinate start = clipper.toFrame(clipper.getMinU() - 1, v);
+    Coordinate end = clipper.toFrame(clipper.getMaxU() + 1, v);
+    Geometry clipped =
+        local.getFactory().createLineString(new Coordinate[] {start, end}).intersection(local);
+
+    List<double[]> parts = new ArrayList<>();
+    for (int i = 0; i < clipped.getNumGeometries(); i++) {
+      Geometry part = clipped.getGeometryN(i);
+      if (!(part instanceof LineString) || part.getLength() == 0) {
+        continue;
+      }
+      Coordinate[] coordinates = part.getCoordinates();
+      Coordinate last = coordinates[coordinates.length - 1];
+      double from = clipper.toU(coordinates[0].x, coordinates[0].y);
+      double to = clipper.toU(last.x, last.y);
+      parts.add(new double[] {Math.min(from, to), Math.max(from, to)});
+    }
+    parts.sort((a, b) -> Double.compare(a[0], b[0]));
+
+    double[] segments = new double[parts.size() * 2];
+    for (int i = 0; i < parts.size(); i++) {
+      segments[2 * i] = parts.get(i)[0];
+      segments[2 * i + 1] = parts.get(i)[1];
+    }
+    return segments;
+  }
+
+  /** A sweep direction and its waypoints. */
+  public static final class SweepPlan {
+    private final double angle;
+    private final List<Coordinate> waypoints;
+
+    private SweepPlan(double angle, List<Coordinate> waypoints) {
+      this.angle = angle;
+      this.waypoints = waypoints;
+    }
+
+    /** The direction of the lines in degrees, counterclockwise from east. */
+    public double getAngle() {
+      return angle;
+    }
+
+    /** The entry and exit point of every segment in flight order, in longitude and latitude. */
+    public List<Coordinate> getWaypoints() {
+      return waypoints;
+    }
+  }
+
+  /** The lines of a sweep clipped to the polygon, in the sweep frame of their clipper. */
+  private static final class ClippedSweep {
+    private final ScanlineClipper clipper;
+    private final double firstV;
+    private final double spacing;
+    private final double[][] lines;
+
+    private ClippedSweep(ScanlineClipper clipper, double firstV, double spacing, double[][] lines) {
+      this.clipper = clipper;
+      this.firstV = firstV;
+      this.spacing = spacing;
+      this.lines = lines;
+    }
+  }
+
+  /**
+   * Clips a run of lines by splitting it into strips of consecutive lines, each clipped by its own
+   * fork of the clipper. Every line is clipped exactly as in a single pass, so the result does not
+   * depend on the split.
+   */
+  private static final class ClipStrip extends RecursiveAction {
+    private final Polygon local;
+    private final ScanlineClipper clipper;
+    private final double firstV;
+    private final double spacing;
+    private final double[][] lines;
+    private final int from;
+    private final int to;
+    private final int stripLines;
+
+    private ClipStrip(
+        Polygon local,
+        ScanlineClipper clipper,
+        double firstV,
+        double spacing,
+        double[][] lines,
+        int from,
+        int to,
+        int stripLines) {
+      this.local = local;
+      this.clipper = clipper;
+      this.firstV = firstV;
+      this.spacing = spacing;
+      this.lines = lines;
+      this.from = from;
+      this.to = to;
+      this.stripLines = stripLines;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= Math.max(1, stripLines)) {
+        clipLines(local, clipper.fork(), firstV, spacing, lines, from, to);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new ClipStrip(local, clipper, firstV, spacing, lines, from, middle, stripLines),
+          new ClipStrip(local, clipper, firstV, spacing, lines, middle, to, stripLines));
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.flytbase.drone.util.geometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+/**
+ * Routes transits between the cells of a sweep inside the survey polygon. A transit flies straight
+ * when the polygon covers the segment between its ends. Otherwise it takes the shortest path inside
+ * the polygon, which only bends at reflex corners, where the boundary turns away from the interior:
+ * the path is found by A* search over the corners, with the segments the polygon covers as edges.
+ *
+ * <p>Cell ends are computed crossings of the boundary, so the polygon is grown by {@link
+ * #TOLERANCE} before testing whether it covers a segment.
+ */
+final class TransitRouter {
+
+  /** Distance in meters by which a transit may stray outside the polygon, against rounding. */
+  static final double TOLERANCE = 1e-6;
+
+  private final Polygon polygon;
+  private final Coordinate[] corners;
+  private PreparedGeometry area;
+
+  /**
+   * Create a router for a polygon.
+   *
+   * @param polygon the polygon, in a metric frame
+   */
+  TransitRouter(Polygon polygon) {
+    this.polygon = polygon;
+    List<Coordinate> reflex = new ArrayList<>();
+    addReflexCorners(polygon.getExteriorRing().getCoordinates(), false, reflex);
+    for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+      addReflexCorners(polygon.getInteriorRingN(i).getCoordinates(), true, reflex);
+    }
+    this.corners = reflex.toArray(new Coordinate[0]);
+  }
+
+  /**
+   * Check whether a transit can fly straight.
+   *
+   * @param from the start of the transit
+   * @param to the end of the transit
+   * @return true if the polygon covers the segment between them
+   */
+  boolean isDirect(Coordinate from, Coordinate to) {
+    if (area == null) {
+      // Only sweeps of more than one cell have transits
+      area = PreparedGeometryFactory.prepare(polygon.buffer(TOLERANCE));
+    }
+    GeometryFactory factory = polygon.getFactory();
+    return area.covers(factory.createLineString(new Coordinate[] {from, to}));
+  }
+
+  /**
+   * Get the length of a transit.
+   *
+   * @param from the start of the transit
+   * @param to the end of the transit
+   * @return the length in meters of the shortest path between them inside the polygon
+   */
+  double length(Coordinate from, Coordinate to) {
+    if (isDirect(from, to)) {
+      return from.distance(to);
+    }
+    List<Coordinate> path = route(from, to);
+    double length = 0;
+    for (int i = 1; i < path.size(); i++) {
+      length += path.get(i - 1).distance(path.get(i));
+    }
+    return length;
+  }
+
+  /**
+   * Get the shortest path of a transit inside the polygon.
+   *
+   * @param from the start of the transit
+   * @param to the end of the transit
+   * @return the points of the path, from the start to the end; the straight segment if the ends
+   *     cannot be joined inside the polygon
+   */
+  List<Coordinate> route(Coordinate from, Coordinate to) {
+    if (isDirect(from, to)) {
+      return Arrays.asList(from, to);
+    }
+
+    // Nodes: the corners, then the start and the end
+    int count = corners.length + 2;
+    int start = count - 2;
+    int end = count - 1;
+    double[] distance = new double[count];
+    int[] previous = new int[count];
+    boolean[] done = new boolean[count];
+    Arrays.fill(distance, Double.POSITIVE_INFINITY);
+    distance[start] = 0;
+    previous[start] = -1;
+
+    // Entries are the node and its distance from the start plus the straight distance to the end
+    PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[1], b[1]));
+    queue.add(new double[] {start, from.distance(to)});
+    while (!queue.isEmpty()) {
+      int node = (int) queue.poll()[0];
+      if (done[node]) {
+        continue;
+      }
+      if (node == end) {
+        return path(previous, end, from, to);
+      }
+      done[node] = true;
+      Coordinate position = node(node, from, to);
+      for (int next = 0; next < count; next++) {
+        if (done[next] || next == start) {
+          continue;
+        }
+        Coordinate target = node(next, from, to);
+        double candidate = distance[node] + position.distance(target);
+        if (candidate < distance[next] && isDirect(position, target)) {
+          distance[next] = candidate;
+          previous[next] = node;
+          queue.add(new double[] {next, candidate + target.distance(to)});
+        }
+      }
+    }
+    return Arrays.asList(from, to);
+  }
+
+  private Coordinate node(int index, Coordinate from, Coordinate to) {
+    if (index < corners.length) {
+      return corners[index];
+    }
+    return index == corners.length ? from : to;
+  }
+
+  private List<Coordinate> path(int[] previous, int end, Coordinate from, Coordinate to) {
+    List<Coordinate> path = new ArrayList<>();
+    for (int node = end; node >= 0; node = previous[node]) {
+      path.add(node(node, from, to));
+    }
+    Collections.reverse(path);
+    return path;
+  }
+
+  /** Add the corners of a ring at which the boundary turns away from the polygon's interior. */
+  private static void addReflexCorners(Coordinate[] ring, boolean hole, List<Coordinate> corners) {
+    int size = ring.length - 1;
+    // The interior lies left of a counterclockwise shell and right of a counterclockwise hole
+    boolean interiorLeft = Orientation.isCCW(ring) != hole;
+    for (int i = 0; i < size; i++) {
+      Coordinate before = ring[(i + size - 1) % size];
+      Coordinate corner = ring[i];
+      Coordinate after = ring[(i + 1) % size];
+      int turn = Orientation.index(before, corner, after);
+      if (turn == (interiorLeft ? Orientation.CLOCKWISE : Orientation.COUNTERCLOCKWISE)) {
+        corners.add(corner);
+      }
+    }
+  }
+}
@@ -0,0 +1,6 @@
+-- V10: Photo trigger points of flight paths.
+-- Positions at which the drone's camera takes a photo, spaced by its ground footprint less the
+-- mission overlap, packed like waypoint_data. Rows written before these columns have no count.
+
+ALTER TABLE flight_paths ADD COLUMN photo_count INTEGER;
+ALTER TABLE flight_paths ADD COLUMN photo_data BYTEA;
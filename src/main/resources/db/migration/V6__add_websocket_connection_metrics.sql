@@ -0,0 +1,18 @@
+-- V6: Replace per-session WebSocket rows with aggregate connection metrics.
+-- Session state (subscriptions, heartbeats, queue depth) is now tracked in memory.
+
+DROP TABLE IF EXISTS websocket_sessions;
+
+CREATE TABLE websocket_connection_metrics (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    recorded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    active_sessions INTEGER NOT NULL,
+    active_subscriptions INTEGER NOT NULL,
+    connects INTEGER NOT NULL,
+    disconnects INTEGER NOT NULL,
+    evictions INTEGER NOT NULL,
+    heartbeats BIGINT NOT NULL,
+    peak_outbound_queue_depth INTEGER NOT NULL
+);
+
+CREATE INDEX idx_ws_metrics_recorded_at ON websocket_connection_metrics(recorded_at DESC);
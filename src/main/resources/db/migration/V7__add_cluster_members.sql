@@ -0,0 +1,11 @@
+-- V7: Cluster membership for consistent-hash mission ownership.
+-- Each node upserts its row on every heartbeat; rows without a recent heartbeat are dead.
+
+CREATE TABLE cluster_members (
+    node_id VARCHAR(64) PRIMARY KEY,
+    base_url VARCHAR(255) NOT NULL,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_heartbeat TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_cluster_members_last_heartbeat ON cluster_members(last_heartbeat);
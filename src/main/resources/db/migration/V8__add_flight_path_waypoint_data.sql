@@ -0,0 +1,6 @@
+-- V8: Binary copy of flight path waypoints.
+-- Packed float64 latitude, longitude, altitude and cumulative distance per waypoint, so that
+-- paths can be loaded without parsing the JSON. Rows written before this column are filled in
+-- the first time their path is loaded.
+
+ALTER TABLE flight_paths ADD COLUMN waypoint_data BYTEA;
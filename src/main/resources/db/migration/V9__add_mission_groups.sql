@@ -0,0 +1,7 @@
+-- V9: Groups of missions flown together over one survey area.
+-- Missions created by splitting a survey area among several drones share a group ID; each flies
+-- its own sub-area, stored as a survey area of its own.
+
+ALTER TABLE missions ADD COLUMN group_id UUID;
+
+CREATE INDEX idx_missions_group_id ON missions(group_id);
@@ -0,0 +1,91 @@
+package com.flytbase.drone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.flytbase.drone.config.LiveTrackConfig;
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import com.flytbase.drone.util.geometry.DistanceCalculator;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+class LiveTrackInterpolatorTest {
+
+  private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+  private final LiveMapService liveMapService = mock(LiveMapService.class);
+  private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+  private final UUID missionId = UUID.randomUUID();
+  private LiveTrackInterpolator interpolator;
+
+  @BeforeEach
+  void setUp() {
+    LiveTrackConfig config = new LiveTrackConfig();
+    config.setEnabled(true);
+    config.setMaxExtrapolationMs(60_000);
+    interpolator =
+        new LiveTrackInterpolator(messagingTemplate, liveMapService, distanceCalculator, config);
+  }
+
+  @Test
+  void projectsAlongTheCourseBetweenSamplesWithoutHeading() {
+    interpolator.update(missionId, progress(37.0, -122.0));
+    interpolator.update(missionId, progress(37.001, -121.999));
+
+    interpolator.tick();
+
+    ArgumentCaptor<MissionProgressResponse> frame =
+        ArgumentCaptor.forClass(MissionProgressResponse.class);
+    verify(messagingTemplate).convertAndSend(eq("/topic/missions/" + missionId), frame.capture());
+    double course = distanceCalculator.calculateBearing(-122.0, 37.0, -121.999, 37.001);
+    assertEquals(course, frame.getValue().getHeading(), 1e-9);
+    assertTrue(frame.getValue().isInterpolated());
+    assertTrue(frame.getValue().getLatitude() >= 37.001);
+  }
+
+  @Test
+  void keepsTheCourseWhileTheDroneReportsTheSamePosition() {
+    interpolator.update(missionId, progress(37.0, -122.0));
+    interpolator.update(missionId, progress(37.001, -121.999));
+    interpolator.update(missionId, progress(37.001, -121.999));
+
+    interpolator.tick();
+
+    ArgumentCaptor<MissionProgressResponse> frame =
+        ArgumentCaptor.forClass(MissionProgressResponse.class);
+    verify(messagingTemplate).convertAndSend(eq("/topic/missions/" + missionId), frame.capture());
+    double course = distanceCalculator.calculateBearing(-122.0, 37.0, -121.999, 37.001);
+    assertEquals(course, frame.getValue().getHeading(), 1e-9);
+  }
+
+  @Test
+  void stopsProjectingRemovedMissions() {
+    MissionProgressResponse progress = progress(37.0, -122.0);
+    progress.setHeading(90.0);
+    interpolator.update(missionId, progress);
+    interpolator.remove(missionId);
+
+    interpolator.tick();
+
+    verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+    verify(liveMapService, never()).updatePosition(any(), any());
+  }
+
+  private MissionProgressResponse progress(double latitude, double longitude) {
+    MissionProgressResponse progress = new MissionProgressResponse();
+    progress.setMissionId(missionId);
+    progress.setLatitude(latitude);
+    progress.setLongitude(longitude);
+    progress.setAltitude(80);
+    progress.setSpeed(10.0);
+    progress.setMissionStatus("ACTIVE");
+    return progress;
+  }
+}
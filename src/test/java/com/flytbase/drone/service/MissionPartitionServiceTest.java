@@ -0,0 +1,214 @@
+package com.flytbase.drone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import com.flytbase.drone.dto.mission.CreateMissionRequest;
+import com.flytbase.drone.dto.mission.MissionResponse;
+import com.flytbase.drone.dto.mission.PartitionMissionRequest;
+import com.flytbase.drone.entity.Drone;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.entity.Organization;
+import com.flytbase.drone.entity.SurveyArea;
+import com.flytbase.drone.entity.User;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.repository.DroneRepository;
+import com.flytbase.drone.repository.MissionRepository;
+import com.flytbase.drone.repository.SurveyAreaRepository;
+import com.flytbase.drone.util.geometry.AreaPartitioner;
+import com.flytbase.drone.util.geometry.GeoJsonParser;
+import com.flytbase.drone.util.geometry.LocalFrame;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+class MissionPartitionServiceTest {
+
+  private static final LocalFrame FRAME = new LocalFrame(8.54, 47.37);
+
+  private final MissionRepository missionRepository = mock(MissionRepository.class);
+  private final DroneRepository droneRepository = mock(DroneRepository.class);
+  private final SurveyAreaRepository surveyAreaRepository = mock(SurveyAreaRepository.class);
+  private final UserService userService = mock(UserService.class);
+  private final MissionService missionService = mock(MissionService.class);
+  private final FlightPathService flightPathService = mock(FlightPathService.class);
+  private final GeoJsonParser geoJsonParser = new GeoJsonParser();
+  private final FlightPathConfig config = new FlightPathConfig();
+  private final MissionPartitionService partitionService =
+      new MissionPartitionService(
+          missionRepository,
+          droneRepository,
+          surveyAreaRepository,
+          userService,
+          missionService,
+          flightPathService,
+          new PatternCache(geoJsonParser, config),
+          new AreaPartitioner(config),
+          geoJsonParser);
+
+  private final Organization organization = new Organization();
+  private final User user = new User();
+  private final SurveyArea surveyArea = new SurveyArea();
+  private final Map<UUID, Mission> missions = new HashMap<>();
+  private final List<SurveyArea> parts = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    organization.setId(1L);
+    user.setId(2L);
+    user.setFullName("Planner");
+    user.setOrganization(organization);
+    when(userService.getCurrentUser()).thenReturn(user);
+
+    // A 2 by 1 km field
+    GeometryFactory factory = new GeometryFactory();
+    Polygon boundary =
+        FRAME.toGeographic(
+            factory.createPolygon(
+                new Coordinate[] {
+                  new Coordinate(-1000, -500),
+                  new Coordinate(1000, -500),
+                  new Coordinate(1000, 500),
+                  new Coordinate(-1000, 500),
+                  new Coordinate(-1000, -500)
+                }));
+    surveyArea.setId(UUID.randomUUID());
+    surveyArea.setName("Field");
+    surveyArea.setArea(2_000_000.0);
+    surveyArea.setOrganization(organization);
+    surveyArea.setBoundaryPolygon(geoJsonParser.polygonToGeoJson(boundary));
+    when(surveyAreaRepository.findById(surveyArea.getId())).thenReturn(Optional.of(surveyArea));
+    when(surveyAreaRepository.save(any(SurveyArea.class)))
+        .thenAnswer(
+            invocation -> {
+              SurveyArea part = invocation.getArgument(0);
+              part.setId(UUID.randomUUID());
+              parts.add(part);
+              return part;
+            });
+
+    when(flightPathService.lineSpacing(any(), anyInt(), anyInt())).thenReturn(30.0);
+    when(missionService.createMission(any()))
+        .thenAnswer(invocation -> createMission(invocation.getArgument(0)));
+    when(missionRepository.findById(any()))
+        .thenAnswer(invocation -> Optional.ofNullable(missions.get(invocation.getArgument(0))));
+    when(missionRepository.save(any(Mission.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  void createsAMissionOverAPartForEveryDrone() throws IOException {
+    List<Drone> drones = List.of(drone(-1500, 0), drone(1500, 0), drone(0, 800));
+
+    List<MissionResponse> created = partitionService.createPartitionedMissions(request(drones));
+
+    assertEquals(3, created.size());
+    assertEquals(3, parts.size());
+    UUID groupId = created.get(0).getGroupId();
+    assertNotNull(groupId);
+    double area = 0;
+    for (int i = 0; i < created.size(); i++) {
+      MissionResponse mission = created.get(i);
+      assertEquals(groupId, mission.getGroupId());
+      assertEquals(drones.get(i).getId(), mission.getDroneId());
+      assertEquals("Survey " + (i + 1) + "/3", mission.getName());
+      SurveyArea part = parts.get(i);
+      assertEquals(part.getId(), mission.getSurveyAreaId());
+      assertEquals("Field - Survey " + (i + 1) + "/3", part.getName());
+      area += part.getArea();
+      geoJsonParser.parsePolygon(part.getBoundaryPolygon());
+      verify(missionService).generatePattern(eq(mission.getId()), any());
+    }
+    assertEquals(surveyArea.getArea(), area, surveyArea.getArea() * 1e-6);
+  }
+
+  @Test
+  void refusesADroneListedTwice() {
+    Drone drone = drone(0, 0);
+
+    assertThrows(
+        BusinessException.class,
+        () -> partitionService.createPartitionedMissions(request(List.of(drone, drone))));
+    verify(missionService, never()).createMission(any());
+  }
+
+  @Test
+  void refusesADroneThatIsNotAvailable() {
+    Drone busy = drone(0, 0);
+    busy.setStatus(Drone.DroneStatus.IN_MISSION);
+
+    assertThrows(
+        BusinessException.class,
+        () -> partitionService.createPartitionedMissions(request(List.of(drone(100, 0), busy))));
+    verify(surveyAreaRepository, never()).save(any());
+  }
+
+  private PartitionMissionRequest request(List<Drone> drones) {
+    PartitionMissionRequest request = new PartitionMissionRequest();
+    request.setName("Survey");
+    request.setDroneIds(drones.stream().map(Drone::getId).collect(Collectors.toList()));
+    request.setSurveyAreaId(surveyArea.getId());
+    request.setType(Mission.MissionType.MAPPING);
+    request.setFlightAltitude(100);
+    request.setSpeed(10.0);
+    request.setOverlapPercentage(70);
+    request.setPatternType(Mission.PatternType.LINEAR);
+    return request;
+  }
+
+  /** An available drone based at a position in meters from the middle of the field. */
+  private Drone drone(double east, double north) {
+    Coordinate home = FRAME.toGeographic(east, north);
+    Drone drone = new Drone();
+    drone.setId(UUID.randomUUID());
+    drone.setName("Drone " + drone.getId());
+    drone.setOrganization(organization);
+    drone.setStatus(Drone.DroneStatus.AVAILABLE);
+    drone.setHomeLocationLongitude(home.x);
+    drone.setHomeLocationLatitude(home.y);
+    when(droneRepository.findByIdAndOrganizationId(drone.getId(), organization.getId()))
+        .thenReturn(Optional.of(drone));
+    return drone;
+  }
+
+  private MissionResponse createMission(CreateMissionRequest request) {
+    Drone drone =
+        droneRepository.findByIdAndOrganizationId(request.getDroneId(), organization.getId()).get();
+    SurveyArea part =
+        parts.stream().filter(p -> p.getId().equals(request.getSurveyAreaId())).findFirst().get();
+    Mission mission = new Mission();
+    mission.setId(UUID.randomUUID());
+    mission.setName(request.getName());
+    mission.setOrganization(organization);
+    mission.setDrone(drone);
+    mission.setSurveyArea(part);
+    mission.setCreatedBy(user);
+    mission.setType(request.getType());
+    mission.setStatus(Mission.MissionStatus.PLANNED);
+    mission.setFlightAltitude(request.getFlightAltitude());
+    mission.setSpeed(request.getSpeed());
+    mission.setOverlapPercentage(request.getOverlapPercentage());
+    mission.setPatternType(request.getPatternType());
+    missions.put(mission.getId(), mission);
+    return MissionResponse.fromEntity(mission);
+  }
+}
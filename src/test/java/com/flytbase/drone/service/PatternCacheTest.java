@@ -0,0 +1,187 @@
+package com.flytbase.drone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import com.flytbase.drone.dto.flightpath.PatternCacheStatsResponse;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.entity.SurveyArea;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.util.geometry.GeoJsonParser;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PatternCacheTest {
+
+  private static final List<double[]> SHELL =
+      List.of(
+          new double[] {8.540, 47.370},
+          new double[] {8.550, 47.370},
+          new double[] {8.550, 47.380},
+          new double[] {8.540, 47.380});
+
+  private static final List<double[]> HOLE =
+      List.of(
+          new double[] {8.544, 47.374},
+          new double[] {8.544, 47.376},
+          new double[] {8.546, 47.376},
+          new double[] {8.546, 47.374});
+
+  private final AtomicInteger generated = new AtomicInteger();
+
+  @Test
+  void hashesRotatedAndReversedRingsToTheSameKey() {
+    PatternCache cache = cache(16);
+    String hash = cache.getBoundary(area(geoJson(SHELL, HOLE))).getHash();
+
+    assertEquals(hash, cache.getBoundary(area(geoJson(rotate(SHELL, 2), HOLE))).getHash());
+    assertEquals(hash, cache.getBoundary(area(geoJson(reverse(SHELL), HOLE))).getHash());
+    assertEquals(
+        hash,
+        cache
+            .getBoundary(area(geoJson(reverse(rotate(SHELL, 1)), rotate(reverse(HOLE), 3))))
+            .getHash());
+    // Without the hole, or with a moved corner, the boundary is another one
+    assertNotEquals(hash, cache.getBoundary(area(geoJson(SHELL))).getHash());
+    List<double[]> moved = new ArrayList<>(SHELL);
+    moved.set(2, new double[] {8.551, 47.380});
+    assertNotEquals(hash, cache.getBoundary(area(geoJson(moved, HOLE))).getHash());
+  }
+
+  @Test
+  void sharesPatternsBetweenAreasWithTheSameBoundary() {
+    PatternCache cache = cache(16);
+    PatternCache.Boundary first = cache.getBoundary(area(geoJson(SHELL)));
+    PatternCache.Boundary rotated = cache.getBoundary(area(geoJson(rotate(reverse(SHELL), 1))));
+
+    PatternCache.GeneratedPattern pattern = get(cache, first, 30);
+
+    assertSame(pattern, get(cache, rotated, 30));
+    assertEquals(1, generated.get());
+    // Any other parameter is another pattern
+    get(cache, first, 20);
+    assertEquals(2, generated.get());
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedPattern() {
+    PatternCache cache = cache(2);
+    PatternCache.Boundary boundary = cache.getBoundary(area(geoJson(SHELL)));
+
+    PatternCache.GeneratedPattern first = get(cache, boundary, 10);
+    get(cache, boundary, 20);
+    // Touching the first makes the second the eldest
+    assertSame(first, get(cache, boundary, 10));
+    get(cache, boundary, 30);
+
+    assertSame(first, get(cache, boundary, 10));
+    assertEquals(3, generated.get());
+    get(cache, boundary, 20);
+    assertEquals(4, generated.get());
+
+    PatternCacheStatsResponse stats = cache.getStats();
+    assertEquals(2, stats.getHits());
+    assertEquals(4, stats.getMisses());
+    assertEquals(2, stats.getEvictions());
+    assertEquals(2.0 / 6, stats.getHitRate(), 1e-12);
+    assertEquals(2, stats.getSize());
+    assertEquals(2, stats.getCapacity());
+  }
+
+  @Test
+  void reportsAnEmptyCache() {
+    PatternCacheStatsResponse stats = cache(4).getStats();
+
+    assertEquals(0, stats.getHits());
+    assertEquals(0, stats.getMisses());
+    assertEquals(0, stats.getHitRate());
+    assertEquals(0, stats.getSize());
+    assertEquals(4, stats.getCapacity());
+  }
+
+  @Test
+  void reparsesTheBoundaryOnceItsGeoJsonChanges() {
+    PatternCache cache = cache(16);
+    SurveyArea area = area(geoJson(SHELL));
+    PatternCache.Boundary boundary = cache.getBoundary(area);
+
+    assertSame(boundary, cache.getBoundary(area));
+
+    area.setBoundaryPolygon(geoJson(SHELL, HOLE));
+    PatternCache.Boundary changed = cache.getBoundary(area);
+
+    assertNotEquals(boundary.getHash(), changed.getHash());
+    assertEquals(1, changed.getPolygon().getNumInteriorRing());
+    assertSame(changed, cache.getBoundary(area));
+  }
+
+  @Test
+  void refusesAnInvalidBoundary() {
+    SurveyArea area = area("{\"type\":\"Point\",\"coordinates\":[8.54,47.37]}");
+
+    assertThrows(BusinessException.class, () -> cache(16).getBoundary(area));
+  }
+
+  private PatternCache cache(int capacity) {
+    FlightPathConfig config = new FlightPathConfig();
+    config.setPatternCacheCapacity(capacity);
+    return new PatternCache(new GeoJsonParser(), config);
+  }
+
+  private PatternCache.GeneratedPattern get(
+      PatternCache cache, PatternCache.Boundary boundary, double spacing) {
+    return cache.get(
+        boundary,
+        Mission.PatternType.LINEAR,
+        100,
+        spacing,
+        10,
+        polygon -> {
+          generated.incrementAndGet();
+          return new PatternCache.GeneratedPattern("[]", null);
+        });
+  }
+
+  private static SurveyArea area(String geoJson) {
+    SurveyArea area = new SurveyArea();
+    area.setId(UUID.randomUUID());
+    area.setBoundaryPolygon(geoJson);
+    return area;
+  }
+
+  private static List<double[]> rotate(List<double[]> ring, int by) {
+    List<double[]> rotated = new ArrayList<>(ring);
+    Collections.rotate(rotated, by);
+    return rotated;
+  }
+
+  private static List<double[]> reverse(List<double[]> ring) {
+    List<double[]> reversed = new ArrayList<>(ring);
+    Collections.reverse(reversed);
+    return reversed;
+  }
+
+  /** A GeoJSON polygon of open rings, each closed by repeating its first corner. */
+  @SafeVarargs
+  private static String geoJson(List<double[]>... rings) {
+    return Arrays.stream(rings)
+        .map(
+            ring -> {
+              List<double[]> closed = new ArrayList<>(ring);
+              closed.add(ring.get(0));
+              return closed.stream()
+                  .map(corner -> "[" + corner[0] + "," + corner[1] + "]")
+                  .collect(Collectors.joining(",", "[", "]"));
+            })
+        .collect(Collectors.joining(",", "{\"type\":\"Polygon\",\"coordinates\":[", "]}"));
+  }
+}
@@ -0,0 +1,94 @@
+package com.flytbase.drone.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flytbase.drone.entity.Drone;
+import com.flytbase.drone.entity.DroneTelemetry;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.repository.DroneTelemetryRepository;
+import com.flytbase.drone.repository.MissionAlertRepository;
+import com.flytbase.drone.repository.MissionProgressCacheRepository;
+import com.flytbase.drone.repository.MissionProgressRepository;
+import com.flytbase.drone.repository.MissionRepository;
+import com.flytbase.drone.service.ingest.TelemetryHistoryBuffer;
+import com.flytbase.drone.service.ingest.TelemetrySample;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class TelemetryServiceTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+  private final DroneTelemetryRepository telemetryRepository = mock(DroneTelemetryRepository.class);
+  private final MissionRepository missionRepository = mock(MissionRepository.class);
+  private final TelemetryService telemetryService =
+      new TelemetryService(
+          telemetryRepository,
+          missionRepository,
+          mock(MissionProgressRepository.class),
+          mock(MissionProgressCacheRepository.class),
+          mock(MissionAlertRepository.class),
+          mock(TelemetryHistoryBuffer.class));
+  private final UUID missionId = UUID.randomUUID();
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void skipsReplayedSamplesAlreadyStored() {
+    when(missionRepository.findById(missionId)).thenReturn(Optional.of(mission()));
+    // Stored before the process stopped, but never released from the log
+    when(telemetryRepository.findTimestamps(missionId, START, START.plusSeconds(3)))
+        .thenReturn(List.of(START, START.plusSeconds(2)));
+
+    int stored =
+        telemetryService.persistReplayed(
+            missionId, List.of(sample(3), sample(0), sample(1), sample(2), sample(1)));
+
+    assertEquals(2, stored);
+    ArgumentCaptor<List<DroneTelemetry>> saved = ArgumentCaptor.forClass(List.class);
+    verify(telemetryRepository).saveAll(saved.capture());
+    assertEquals(
+        List.of(START.plusSeconds(3), START.plusSeconds(1)),
+        saved.getValue().stream().map(DroneTelemetry::getTimestamp).collect(Collectors.toList()));
+  }
+
+  @Test
+  void dropsReplayedSamplesOfADeletedMission() {
+    when(missionRepository.findById(missionId)).thenReturn(Optional.empty());
+
+    assertEquals(0, telemetryService.persistReplayed(missionId, List.of(sample(0))));
+    verify(telemetryRepository, never()).findTimestamps(any(), any(), any());
+    verify(telemetryRepository, never()).saveAll(anyList());
+  }
+
+  private Mission mission() {
+    Drone drone = new Drone();
+    drone.setId(UUID.randomUUID());
+    Mission mission = new Mission();
+    mission.setId(missionId);
+    mission.setDrone(drone);
+    mission.setStatus(Mission.MissionStatus.COMPLETED);
+    return mission;
+  }
+
+  private TelemetrySample sample(int second) {
+    TelemetrySample sample = new TelemetrySample();
+    sample.setMissionId(missionId);
+    sample.setSource(TelemetrySample.Source.STOMP);
+    sample.setTimestamp(START.plusSeconds(second));
+    sample.setTimestampReported(true);
+    sample.setLatitude(37.7749);
+    sample.setLongitude(-122.4194);
+    return sample;
+  }
+}
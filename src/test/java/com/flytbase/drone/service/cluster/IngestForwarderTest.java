@@ -0,0 +1,109 @@
+package com.flytbase.drone.service.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flytbase.drone.config.ClusterConfig;
+import com.flytbase.drone.service.ingest.IngestGateway;
+import com.flytbase.drone.service.ingest.TelemetryDecoder;
+import com.flytbase.drone.service.ingest.TelemetrySample;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+class IngestForwarderTest {
+
+  private static final byte[] FRAME =
+      "{\"latitude\":37.7749,\"longitude\":-122.4194,\"altitude\":80,\"batteryLevel\":64}"
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final MissionOwnershipService ownershipService = mock(MissionOwnershipService.class);
+  private final ClusterBroadcaster clusterBroadcaster = mock(ClusterBroadcaster.class);
+  private final IngestGateway ingestGateway = mock(IngestGateway.class);
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final UUID missionId = UUID.randomUUID();
+  private IngestForwarder forwarder;
+  private Consumer<ClusterMessage> listener;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    ClusterConfig clusterConfig = new ClusterConfig();
+    clusterConfig.setNodeId("node-a");
+    forwarder =
+        new IngestForwarder(
+            ownershipService,
+            clusterBroadcaster,
+            ingestGateway,
+            new TelemetryDecoder(objectMapper),
+            objectMapper,
+            clusterConfig,
+            new RestTemplateBuilder());
+    forwarder.registerRelayListener();
+    ArgumentCaptor<Consumer<ClusterMessage>> captor = ArgumentCaptor.forClass(Consumer.class);
+    verify(clusterBroadcaster).addListener(captor.capture());
+    listener = captor.getValue();
+  }
+
+  @Test
+  void relaysFramesForMissionsOwnedElsewhereToTheirOwner() throws Exception {
+    when(ownershipService.getRemoteOwner(missionId)).thenReturn(Optional.of("node-b"));
+
+    assertTrue(forwarder.relay(missionId, FRAME));
+
+    verify(clusterBroadcaster)
+        .publishIngest(eq(missionId), eq("node-b"), eq(objectMapper.readTree(FRAME)));
+  }
+
+  @Test
+  void leavesFramesForLocalMissionsToBeIngestedHere() {
+    when(ownershipService.getRemoteOwner(missionId)).thenReturn(Optional.empty());
+
+    assertFalse(forwarder.relay(missionId, FRAME));
+
+    verify(clusterBroadcaster, never()).publishIngest(any(), anyString(), any());
+  }
+
+  @Test
+  void ingestsFramesRelayedToThisNode() throws Exception {
+    listener.accept(relayed("node-a"));
+
+    ArgumentCaptor<TelemetrySample> sample = ArgumentCaptor.forClass(TelemetrySample.class);
+    verify(ingestGateway).submit(sample.capture());
+    assertEquals(missionId, sample.getValue().getMissionId());
+    assertEquals(TelemetrySample.Source.STOMP, sample.getValue().getSource());
+    assertEquals(37.7749, sample.getValue().getLatitude(), 1e-9);
+    assertEquals(64, sample.getValue().getBatteryLevel());
+  }
+
+  @Test
+  void ignoresFramesRelayedToOtherNodes() throws Exception {
+    listener.accept(relayed("node-b"));
+
+    verify(ingestGateway, never()).submit(any());
+  }
+
+  private ClusterMessage relayed(String owner) throws Exception {
+    ObjectNode payload = objectMapper.createObjectNode();
+    payload.put("owner", owner);
+    JsonNode frame = objectMapper.readTree(FRAME);
+    payload.set("frame", frame);
+    return new ClusterMessage(ClusterMessage.Type.INGEST, missionId, payload);
+  }
+}
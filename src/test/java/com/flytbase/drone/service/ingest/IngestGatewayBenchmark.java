@@ -0,0 +1,165 @@
+package com.flytbase.drone.service.ingest;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.dto.telemetry.TelemetryResponse;
+import com.flytbase.drone.entity.Drone;
+import com.flytbase.drone.entity.DroneTelemetry;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.service.MissionLiveStateService;
+import com.flytbase.drone.service.MissionWebSocketService;
+import com.flytbase.drone.service.TelemetryService;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Samples ingested per second through {@link IngestGateway} on each transport, with the database
+ * write stubbed out so the gateway's own cost shows. Each thread is one drone flying its own
+ * mission: over REST it posts a sample and waits for the stored record, as the endpoint does; over
+ * STOMP it sends a burst of progress frames without waiting and then waits for the last one. Run
+ * with {@code mvn test -Dbenchmark=true -Dtest=IngestGatewayBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class IngestGatewayBenchmark {
+
+  private static final int BURST = 50;
+
+  private static final byte[] TELEMETRY =
+      ("{\"latitude\":37.774929,\"longitude\":-122.419416,\"altitude\":80.5,"
+              + "\"gpsSatellites\":14,\"heading\":271.5,\"groundSpeed\":12.4,"
+              + "\"batteryVoltage\":22.8,\"batteryLevel\":64}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private static final byte[] PROGRESS =
+      ("{\"currentWaypointIndex\":12,\"latitude\":37.774929,\"longitude\":-122.419416,"
+              + "\"altitude\":80,\"speed\":12.4,\"batteryLevel\":64}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  @Param({"0", "5"})
+  private long batchWindowMs;
+
+  private final TelemetryDecoder decoder = new TelemetryDecoder(new ObjectMapper());
+  private IngestGateway gateway;
+
+  /** The mission flown by one benchmark thread. */
+  @State(Scope.Thread)
+  public static class Flight {
+
+    private final UUID missionId = UUID.randomUUID();
+  }
+
+  @Setup
+  public void setUp() {
+    // Stub-only mocks keep no record of their invocations, which would grow without bound
+    TelemetryService telemetryService = mock(TelemetryService.class, withSettings().stubOnly());
+    when(telemetryService.persistBatch(any(), anyList(), any(), anyDouble(), any()))
+        .thenAnswer(
+            invocation -> {
+              UUID missionId = invocation.getArgument(0);
+              Mission mission = mission(missionId);
+              List<TelemetrySample> samples = invocation.getArgument(1);
+              return samples.stream()
+                  .map(sample -> saved(mission, sample))
+                  .collect(Collectors.toList());
+            });
+    IngestConfig config = new IngestConfig();
+    config.setBatchWindowMs(batchWindowMs);
+    gateway =
+        new IngestGateway(
+            telemetryService,
+            mock(MissionWebSocketService.class, withSettings().stubOnly()),
+            mock(MissionLiveStateService.class, withSettings().stubOnly()),
+            mock(TelemetryHistoryBuffer.class, withSettings().stubOnly()),
+            mock(TelemetryWal.class, withSettings().stubOnly()),
+            mock(TelemetryWalReplayer.class, withSettings().stubOnly()),
+            mock(TelemetryRateAdvisor.class, withSettings().stubOnly()),
+            config);
+  }
+
+  @TearDown
+  public void tearDown() {
+    gateway.shutdown();
+  }
+
+  @Benchmark
+  public TelemetryResponse rest(Flight flight) {
+    return gateway.ingest(decoder.decodeTelemetry(flight.missionId, TELEMETRY));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BURST)
+  public TelemetryResponse stomp(Flight flight) throws Exception {
+    CompletableFuture<TelemetryResponse> last = null;
+    for (int i = 0; i < BURST; i++) {
+      last = gateway.submit(decoder.decodeProgress(flight.missionId, PROGRESS));
+    }
+    return last.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  void run() throws RunnerException {
+    new Runner(new OptionsBuilder().include(IngestGatewayBenchmark.class.getName()).build()).run();
+  }
+
+  private static Mission mission(UUID missionId) {
+    Drone drone = new Drone();
+    drone.setId(UUID.randomUUID());
+    drone.setStatus(Drone.DroneStatus.AVAILABLE);
+    Mission mission = new Mission();
+    mission.setId(missionId);
+    mission.setName("Survey");
+    mission.setDrone(drone);
+    mission.setStatus(Mission.MissionStatus.ACTIVE);
+    mission.setFlightAltitude(80);
+    return mission;
+  }
+
+  private static DroneTelemetry saved(Mission mission, TelemetrySample sample) {
+    DroneTelemetry telemetry = new DroneTelemetry();
+    telemetry.setId(UUID.randomUUID());
+    telemetry.setMission(mission);
+    telemetry.setDrone(mission.getDrone());
+    telemetry.setTimestamp(sample.getTimestamp());
+    telemetry.setGpsLatitude(sample.getLatitude());
+    telemetry.setGpsLongitude(sample.getLongitude());
+    telemetry.setGpsAltitude(sample.getAltitude());
+    return telemetry;
+  }
+}
@@ -0,0 +1,176 @@
+package com.flytbase.drone.service.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.dto.telemetry.TelemetryResponse;
+import com.flytbase.drone.entity.Drone;
+import com.flytbase.drone.entity.DroneTelemetry;
+import com.flytbase.drone.entity.Mission;
+import com.flytbase.drone.service.MissionLiveStateService;
+import com.flytbase.drone.service.MissionWebSocketService;
+import com.flytbase.drone.service.TelemetryService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IngestGatewayTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+  private final TelemetryService telemetryService = mock(TelemetryService.class);
+  private final UUID missionId = UUID.randomUUID();
+  private final Mission mission = mission(missionId);
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final CountDownLatch writing = new CountDownLatch(1);
+  private final CountDownLatch release = new CountDownLatch(1);
+  private IngestGateway gateway;
+
+  @BeforeEach
+  void setUp() {
+    when(telemetryService.persistBatch(eq(missionId), anyList(), any(), anyDouble(), any()))
+        .thenAnswer(
+            invocation -> {
+              maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+              writing.countDown();
+              try {
+                release.await(5, TimeUnit.SECONDS);
+                List<TelemetrySample> samples = invocation.getArgument(1);
+                return samples.stream().map(this::saved).collect(Collectors.toList());
+              } finally {
+                inFlight.decrementAndGet();
+              }
+            });
+    gateway =
+        new IngestGateway(
+            telemetryService,
+            mock(MissionWebSocketService.class),
+            mock(MissionLiveStateService.class),
+            mock(TelemetryHistoryBuffer.class),
+            mock(TelemetryWal.class),
+            mock(TelemetryWalReplayer.class),
+            mock(TelemetryRateAdvisor.class),
+            new IngestConfig());
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    gateway.shutdown();
+  }
+
+  @Test
+  void keepsOneBatchInFlightWhenEvictedDuringABatch() throws Exception {
+    CompletableFuture<TelemetryResponse> first = gateway.submit(sample(0));
+    assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+    gateway.evict(missionId);
+    CompletableFuture<TelemetryResponse> second = gateway.submit(sample(1));
+    // The second sample waits for the first batch instead of starting a batch of its own
+    Thread.sleep(200);
+    assertEquals(1, inFlight.get());
+
+    release.countDown();
+    assertNotNull(first.get(5, TimeUnit.SECONDS));
+    assertNotNull(second.get(5, TimeUnit.SECONDS));
+    assertEquals(1, maxInFlight.get());
+    verify(telemetryService, times(2))
+        .persistBatch(eq(missionId), anyList(), any(), anyDouble(), any());
+  }
+
+  @Test
+  void dropsTheStateOfAnEvictedMissionOnceIdle() throws Exception {
+    release.countDown();
+    assertNotNull(gateway.submit(sample(0)).get(5, TimeUnit.SECONDS));
+    // A retransmission is recognized while the mission is tracked
+    assertNull(gateway.submit(sample(0)).get(5, TimeUnit.SECONDS));
+
+    gateway.evict(missionId);
+
+    // Tracking starts afresh, as on the node the mission moved to
+    assertNotNull(submitUntilAccepted(sample(0)));
+  }
+
+  @Test
+  void dropsTheStateOfAMissionEvictedDuringABatchOnceItIsWritten() throws Exception {
+    CompletableFuture<TelemetryResponse> first = gateway.submit(sample(0));
+    assertTrue(writing.await(5, TimeUnit.SECONDS));
+    gateway.evict(missionId);
+    release.countDown();
+    assertNotNull(first.get(5, TimeUnit.SECONDS));
+
+    // The batch in flight removed the entry on its way out, dedupe window included
+    assertNotNull(submitUntilAccepted(sample(0)));
+  }
+
+  /**
+   * Resubmit a sample until it is not a duplicate. A batch's futures complete just before the batch
+   * lets go of its mission, so a mission evicted right after still holds its dedupe window for a
+   * moment.
+   */
+  private TelemetryResponse submitUntilAccepted(TelemetrySample sample) throws Exception {
+    long deadline = System.currentTimeMillis() + 5000;
+    TelemetryResponse response = gateway.submit(sample).get(5, TimeUnit.SECONDS);
+    while (response == null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      response = gateway.submit(sample).get(5, TimeUnit.SECONDS);
+    }
+    return response;
+  }
+
+  private TelemetrySample sample(int second) {
+    TelemetrySample sample = new TelemetrySample();
+    sample.setMissionId(missionId);
+    sample.setSource(TelemetrySample.Source.STOMP);
+    sample.setTimestamp(START.plusSeconds(second));
+    sample.setTimestampReported(true);
+    sample.setLatitude(37.7749);
+    sample.setLongitude(-122.4194);
+    return sample;
+  }
+
+  private DroneTelemetry saved(TelemetrySample sample) {
+    DroneTelemetry telemetry = new DroneTelemetry();
+    telemetry.setId(UUID.randomUUID());
+    telemetry.setMission(mission);
+    telemetry.setDrone(mission.getDrone());
+    telemetry.setTimestamp(sample.getTimestamp());
+    telemetry.setGpsLatitude(sample.getLatitude());
+    telemetry.setGpsLongitude(sample.getLongitude());
+    telemetry.setGpsAltitude(100.0);
+    return telemetry;
+  }
+
+  private static Mission mission(UUID missionId) {
+    Drone drone = new Drone();
+    drone.setId(UUID.randomUUID());
+    drone.setStatus(Drone.DroneStatus.AVAILABLE);
+    Mission mission = new Mission();
+    mission.setId(missionId);
+    mission.setName("Survey");
+    mission.setDrone(drone);
+    mission.setStatus(Mission.MissionStatus.ACTIVE);
+    mission.setFlightAltitude(100);
+    return mission;
+  }
+}
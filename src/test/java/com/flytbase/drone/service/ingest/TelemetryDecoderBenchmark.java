@@ -0,0 +1,72 @@
+package com.flytbase.drone.service.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.dto.telemetry.TelemetryRequest;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Decoding a full telemetry payload with the streaming decoder, against databind into the request
+ * DTO. Run with {@code mvn test -Dbenchmark=true -Dtest=TelemetryDecoderBenchmark}; the GC profiler
+ * reports the bytes allocated per sample as {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryDecoderBenchmark {
+
+  private static final byte[] PAYLOAD =
+      ("{\"latitude\":37.774929,\"longitude\":-122.419416,\"altitude\":80.5,"
+              + "\"gpsSatellites\":14,\"gpsHdop\":0.8,\"heading\":271.5,\"pitch\":-2.5,"
+              + "\"roll\":1.25,\"groundSpeed\":12.4,\"verticalSpeed\":-0.3,"
+              + "\"batteryVoltage\":22.8,\"batteryCurrent\":18.2,\"batteryLevel\":64,"
+              + "\"batteryTemperature\":41.5,\"motorRpm\":\"5200,5210,5190,5205\","
+              + "\"signalStrength\":87}")
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final TelemetryDecoder decoder = new TelemetryDecoder(objectMapper);
+  private final UUID missionId = UUID.randomUUID();
+
+  @Benchmark
+  public TelemetrySample streaming() {
+    return decoder.decodeTelemetry(missionId, PAYLOAD);
+  }
+
+  @Benchmark
+  public TelemetrySample databind() throws IOException {
+    TelemetryRequest request = objectMapper.readValue(PAYLOAD, TelemetryRequest.class);
+    return TelemetrySample.fromTelemetryRequest(missionId, request);
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  void run() throws RunnerException {
+    new Runner(
+            new OptionsBuilder()
+                .include(TelemetryDecoderBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build())
+        .run();
+  }
+}
@@ -0,0 +1,120 @@
+package com.flytbase.drone.service.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flytbase.drone.exception.BusinessException;
+import com.flytbase.drone.exception.FieldValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TelemetryDecoderTest {
+
+  private final TelemetryDecoder decoder = new TelemetryDecoder(new ObjectMapper());
+  private final UUID missionId = UUID.randomUUID();
+
+  @Test
+  void decodesReportedValues() {
+    TelemetrySample sample =
+        decoder.decodeTelemetry(
+            missionId,
+            json(
+                "{\"latitude\":37.5,\"longitude\":\"-122.25\",\"altitude\":80,"
+                    + "\"heading\":90.5,\"batteryLevel\":64,\"gpsSatellites\":12.9,"
+                    + "\"motorRpm\":\"5200,5210\",\"unknown\":{\"a\":[1,2]}}"));
+
+    assertEquals(missionId, sample.getMissionId());
+    assertEquals(TelemetrySample.Source.REST, sample.getSource());
+    assertEquals(37.5, sample.getLatitude());
+    assertEquals(-122.25, sample.getLongitude());
+    assertEquals(80.0, sample.getAltitude());
+    assertEquals(90.5, sample.getHeading());
+    assertEquals(64, sample.getBatteryLevel());
+    assertEquals(12, sample.getGpsSatellites());
+    assertEquals("5200,5210", sample.getMotorRpm());
+  }
+
+  @Test
+  void leavesMissingValuesAbsent() {
+    TelemetrySample sample =
+        decoder.decodeTelemetry(
+            missionId,
+            json(
+                "{\"latitude\":37.5,\"longitude\":-122.25,\"altitude\":80,\"batteryLevel\":64,"
+                    + "\"heading\":null,\"signalStrength\":\"\"}"));
+
+    assertFalse(TelemetrySample.isPresent(sample.getHeading()));
+    assertFalse(TelemetrySample.isPresent(sample.getPitch()));
+    assertFalse(TelemetrySample.isPresent(sample.getSignalStrength()));
+    assertFalse(TelemetrySample.isPresent(sample.getGpsSatellites()));
+    assertNull(TelemetrySample.nullable(sample.getHeading()));
+    assertNull(TelemetrySample.nullable(sample.getSignalStrength()));
+    assertNull(sample.getMotorRpm());
+  }
+
+  @Test
+  void rejectsMissingAndOutOfRangeValues() {
+    FieldValidationException e =
+        assertThrows(
+            FieldValidationException.class,
+            () ->
+                decoder.decodeTelemetry(
+                    missionId,
+                    json(
+                        "{\"latitude\":91,\"altitude\":-1,\"heading\":361,\"batteryLevel\":101}")));
+
+    assertEquals("Latitude must be between -90 and 90", e.getErrors().get("latitude"));
+    assertEquals("Longitude is required", e.getErrors().get("longitude"));
+    assertEquals("Altitude cannot be negative", e.getErrors().get("altitude"));
+    assertEquals("Heading must be between 0 and 360", e.getErrors().get("heading"));
+    assertEquals("Battery level must be between 0 and 100", e.getErrors().get("batteryLevel"));
+  }
+
+  @Test
+  void rejectsNonNumericValues() {
+    BusinessException e =
+        assertThrows(
+            BusinessException.class,
+            () -> decoder.decodeTelemetry(missionId, json("{\"latitude\":\"north\"}")));
+
+    assertEquals("Invalid telemetry: latitude must be a number", e.getMessage());
+  }
+
+  @Test
+  void decodesProgressFrames() {
+    TelemetrySample sample =
+        decoder.decodeProgress(
+            missionId,
+            json(
+                "{\"currentWaypointIndex\":3,\"latitude\":37.5,\"longitude\":-122.25,"
+                    + "\"altitude\":80,\"speed\":12.5,\"timestamp\":\"2024-05-01T10:15:30Z\"}"));
+
+    assertEquals(TelemetrySample.Source.STOMP, sample.getSource());
+    assertEquals(3, sample.getWaypointIndex());
+    assertEquals(80.0, sample.getAltitude());
+    assertEquals(12.5, sample.getGroundSpeed());
+    assertFalse(TelemetrySample.isPresent(sample.getBatteryLevel()));
+    assertEquals(LocalDateTime.of(2024, 5, 1, 10, 15, 30), sample.getTimestamp());
+    assertTrue(sample.isTimestampReported());
+  }
+
+  @Test
+  void timestampsProgressFramesWithoutOne() {
+    TelemetrySample sample =
+        decoder.decodeProgress(missionId, json("{\"latitude\":37.5,\"altitude\":null}"));
+
+    assertFalse(TelemetrySample.isPresent(sample.getAltitude()));
+    assertFalse(sample.isTimestampReported());
+    assertTrue(sample.getTimestamp() != null);
+  }
+
+  private static byte[] json(String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+}
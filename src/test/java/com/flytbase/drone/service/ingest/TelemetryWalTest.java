@@ -0,0 +1,253 @@
+package com.flytbase.drone.service.ingest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flytbase.drone.config.IngestConfig;
+import com.flytbase.drone.exception.BusinessException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TelemetryWalTest {
+
+  /** A sample with a position and altitude encodes to 62 bytes, so four fit in a segment. */
+  private static final int SEGMENT_BYTES = 256;
+
+  private static final int RECORDS_PER_SEGMENT = 4;
+
+  private static final LocalDateTime START = LocalDateTime.of(2026, 10, 19, 12, 0);
+
+  @TempDir Path directory;
+
+  private final UUID missionId = UUID.randomUUID();
+  private final List<TelemetryWal> opened = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() throws Exception {
+    for (TelemetryWal wal : opened) {
+      wal.close();
+    }
+  }
+
+  @Test
+  void replaysEverySampleLeftByThePreviousProcess() throws Exception {
+    TelemetryWal wal = open(16);
+    appendDurably(wal, 3);
+    wal.close();
+
+    TelemetryWal reopened = open(16);
+
+    assertEquals(3, reopened.getFailedRecords());
+    assertEquals(List.of(0, 1, 2), seconds(reopened.readFailed(100)));
+  }
+
+  @Test
+  void replaysOnlyCompleteRecordsWhenTheTailIsTruncated() throws Exception {
+    TelemetryWal wal = open(16);
+    appendDurably(wal, 3);
+    wal.close();
+    Path segment = onlySegment();
+    int torn = recordOffset(segment, 2) + 20;
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.truncate(torn);
+    }
+
+    TelemetryWal reopened = open(16);
+
+    assertEquals(2, reopened.getFailedRecords());
+    assertEquals(List.of(0, 1), seconds(reopened.readFailed(100)));
+  }
+
+  @Test
+  void replaysOnlyCompleteRecordsWhenTheTailIsTorn() throws Exception {
+    TelemetryWal wal = open(16);
+    appendDurably(wal, 3);
+    wal.close();
+    Path segment = onlySegment();
+    // The length of the last record reached the disk, the end of its payload did not
+    zero(segment, recordOffset(segment, 3) - 10, 10);
+
+    TelemetryWal reopened = open(16);
+
+    assertEquals(2, reopened.getFailedRecords());
+    assertEquals(List.of(0, 1), seconds(reopened.readFailed(100)));
+  }
+
+  @Test
+  void endsTheSegmentAtARecordWithABadCrc() throws Exception {
+    TelemetryWal wal = open(16);
+    appendDurably(wal, 3);
+    wal.close();
+    Path segment = onlySegment();
+    int offset = recordOffset(segment, 1) + 30;
+    try (FileChannel channel =
+        FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      ByteBuffer value = ByteBuffer.allocate(1);
+      channel.read(value, offset);
+      value.put(0, (byte) (value.get(0) ^ 0x5a)).rewind();
+      channel.write(value, offset);
+    }
+
+    TelemetryWal reopened = open(16);
+
+    assertEquals(List.of(0), seconds(reopened.readFailed(100)));
+  }
+
+  @Test
+  void rollsOverToANewSegmentWhenFull() throws Exception {
+    TelemetryWal wal = open(16);
+
+    appendDurably(wal, RECORDS_PER_SEGMENT * 2 + 1);
+
+    assertEquals(3, segments().size());
+    wal.close();
+    assertEquals(RECORDS_PER_SEGMENT * 2 + 1, open(16).readFailed(100).size());
+  }
+
+  @Test
+  void deletesASegmentOnceAllItsSamplesAreReleased() throws Exception {
+    TelemetryWal wal = open(16);
+    List<TelemetryWal.Entry> entries = appendDurably(wal, RECORDS_PER_SEGMENT + 1);
+    List<Path> files = segments();
+
+    entries.subList(0, RECORDS_PER_SEGMENT - 1).forEach(wal::release);
+    assertTrue(Files.exists(files.get(0)));
+    wal.release(entries.get(RECORDS_PER_SEGMENT - 1));
+
+    assertFalse(Files.exists(files.get(0)));
+    // The active segment stays, even once drained
+    wal.release(entries.get(RECORDS_PER_SEGMENT));
+    assertEquals(List.of(files.get(1)), segments());
+  }
+
+  @Test
+  void deletesARecoveredSegmentOnceReplayed() throws Exception {
+    TelemetryWal wal = open(16);
+    appendDurably(wal, 2);
+    wal.close();
+    Path recovered = onlySegment();
+
+    TelemetryWal reopened = open(16);
+    reopened.readFailed(100).forEach(record -> reopened.release(record.getEntry()));
+
+    assertEquals(0, reopened.getFailedRecords());
+    assertFalse(Files.exists(recovered));
+  }
+
+  @Test
+  void refusesSamplesAtTheMaximumNumberOfSegments() throws Exception {
+    TelemetryWal wal = open(2);
+    List<TelemetryWal.Entry> entries = appendDurably(wal, RECORDS_PER_SEGMENT * 2);
+
+    BusinessException full = assertThrows(BusinessException.class, () -> wal.append(sample(100)));
+    assertEquals("Telemetry write-ahead log is full", full.getMessage());
+
+    entries.subList(0, RECORDS_PER_SEGMENT).forEach(wal::release);
+    wal.append(sample(100)).durable().get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void keepsFailedSamplesForTheReplayer() throws Exception {
+    TelemetryWal wal = open(16);
+    List<TelemetryWal.Entry> entries = appendDurably(wal, 3);
+
+    wal.release(entries.get(0));
+    wal.fail(entries.get(2));
+    wal.fail(entries.get(2));
+
+    assertEquals(1, wal.getFailedRecords());
+    List<TelemetryWal.Record> failed = wal.readFailed(100);
+    assertEquals(List.of(2), seconds(failed));
+    TelemetrySample sample = failed.get(0).getSample();
+    assertEquals(missionId, sample.getMissionId());
+    assertEquals(TelemetrySample.Source.STOMP, sample.getSource());
+    assertEquals(80.5, sample.getAltitude());
+    assertFalse(TelemetrySample.isPresent(sample.getHeading()));
+  }
+
+  private TelemetryWal open(int maxSegments) throws IOException {
+    IngestConfig config = new IngestConfig();
+    config.getWal().setEnabled(true);
+    config.getWal().setDirectory(directory.toString());
+    config.getWal().setSegmentBytes(SEGMENT_BYTES);
+    config.getWal().setMaxSegments(maxSegments);
+    TelemetryWal wal = new TelemetryWal(config);
+    wal.open();
+    opened.add(wal);
+    return wal;
+  }
+
+  private List<TelemetryWal.Entry> appendDurably(TelemetryWal wal, int count) throws Exception {
+    List<TelemetryWal.Entry> entries = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      entries.add(wal.append(sample(i)));
+    }
+    for (TelemetryWal.Entry entry : entries) {
+      entry.durable().get(5, TimeUnit.SECONDS);
+    }
+    return entries;
+  }
+
+  private TelemetrySample sample(int second) {
+    TelemetrySample sample = new TelemetrySample();
+    sample.setMissionId(missionId);
+    sample.setSource(TelemetrySample.Source.STOMP);
+    sample.setTimestamp(START.plusSeconds(second));
+    sample.setTimestampReported(true);
+    sample.setLatitude(37.7749);
+    sample.setLongitude(-122.4194);
+    sample.setAltitude(80.5);
+    return sample;
+  }
+
+  private static List<Integer> seconds(List<TelemetryWal.Record> records) {
+    return records.stream()
+        .map(record -> (int) START.until(record.getSample().getTimestamp(), ChronoUnit.SECONDS))
+        .collect(Collectors.toList());
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().collect(Collectors.toList());
+    }
+  }
+
+  private Path onlySegment() throws IOException {
+    List<Path> files = segments();
+    assertEquals(1, files.size());
+    return files.get(0);
+  }
+
+  /** Offset of a record, found by following the lengths of the records before it. */
+  private static int recordOffset(Path segment, int index) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+    int offset = 0;
+    for (int i = 0; i < index; i++) {
+      offset += 8 + buffer.getInt(offset);
+    }
+    return offset;
+  }
+
+  private static void zero(Path segment, int offset, int length) throws IOException {
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(length), offset);
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package com.flytbase.drone.service.livestate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flytbase.drone.config.LiveStateConfig;
+import com.flytbase.drone.dto.mission.MissionProgressResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OffHeapLiveProgressStoreTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void keepsEveryProgressField() throws Exception {
+    OffHeapLiveProgressStore store = new OffHeapLiveProgressStore(config(""));
+    UUID missionId = UUID.randomUUID();
+    MissionProgressResponse progress = progress(missionId);
+
+    store.put(missionId, progress);
+
+    assertEquals(progress, store.get(missionId).orElseThrow());
+  }
+
+  @Test
+  void keepsMissingValuesMissing() throws Exception {
+    OffHeapLiveProgressStore store = new OffHeapLiveProgressStore(config(""));
+    UUID missionId = UUID.randomUUID();
+    MissionProgressResponse progress = new MissionProgressResponse();
+    progress.setMissionId(missionId);
+
+    store.put(missionId, progress);
+
+    MissionProgressResponse stored = store.get(missionId).orElseThrow();
+    assertNull(stored.getHeading());
+    assertNull(stored.getVerticalSpeed());
+    assertFalse(stored.isInterpolated());
+    assertEquals(progress, stored);
+  }
+
+  @Test
+  void recoversEveryProgressFieldFromFile() throws Exception {
+    String file = directory.resolve("live-state").toString();
+    UUID missionId = UUID.randomUUID();
+    MissionProgressResponse progress = progress(missionId);
+    OffHeapLiveProgressStore store = new OffHeapLiveProgressStore(config(file));
+    store.put(missionId, progress);
+    store.close();
+
+    OffHeapLiveProgressStore recovered = new OffHeapLiveProgressStore(config(file));
+
+    assertTrue(recovered.getMissionIds().contains(missionId));
+    assertEquals(progress, recovered.get(missionId).orElseThrow());
+  }
+
+  private static LiveStateConfig config(String file) {
+    LiveStateConfig config = new LiveStateConfig();
+    config.setStore("off-heap");
+    config.setCapacity(16);
+    config.setFile(file);
+    return config;
+  }
+
+  private static MissionProgressResponse progress(UUID missionId) {
+    MissionProgressResponse progress = new MissionProgressResponse();
+    progress.setId(UUID.randomUUID());
+    progress.setMissionId(missionId);
+    progress.setMissionName("Survey north field");
+    progress.setCurrentWaypointIndex(12);
+    progress.setTotalWaypoints(40);
+    progress.setLatitude(37.7749);
+    progress.setLongitude(-122.4194);
+    progress.setAltitude(80);
+    progress.setSpeed(12.5);
+    progress.setHeading(271.5);
+    progress.setVerticalSpeed(-1.25);
+    progress.setBatteryLevel(64);
+    progress.setDroneStatus("IN_MISSION");
+    progress.setMissionStatus("ACTIVE");
+    progress.setCompletionPercentage(30.0);
+    progress.setTimestamp(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000));
+    progress.setInterpolated(true);
+    return progress;
+  }
+}
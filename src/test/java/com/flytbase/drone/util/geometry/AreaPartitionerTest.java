@@ -0,0 +1,143 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+class AreaPartitionerTest {
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+  private static final LocalFrame FRAME = new LocalFrame(8.54, 47.37);
+  private static final double SPACING = 30;
+  private static final double SPEED = 10;
+
+  private final FlightPathConfig config = new FlightPathConfig();
+  private final AreaPartitioner partitioner = new AreaPartitioner(config);
+  private final SurveyPlanner planner = new SurveyPlanner(config);
+
+  @ParameterizedTest(name = "{0} drones")
+  @CsvSource({"2", "3", "5", "8"})
+  void coversTheAreaWithoutOverlap(int drones) {
+    Polygon boundary = FRAME.toGeographic(concaveWithHoles(3000, 2000));
+
+    List<Polygon> parts = partitioner.partition(boundary, SPACING, SPEED, homes(drones, 1));
+
+    assertEquals(drones, parts.size());
+    double area = boundary.getArea();
+    double sum = 0;
+    for (int i = 0; i < parts.size(); i++) {
+      assertTrue(parts.get(i).isValid(), "part " + i);
+      sum += parts.get(i).getArea();
+      for (int j = i + 1; j < parts.size(); j++) {
+        assertEquals(0, parts.get(i).intersection(parts.get(j)).getArea(), area * 1e-9);
+      }
+    }
+    assertEquals(area, sum, area * 1e-9);
+    Geometry union = FACTORY.buildGeometry(parts).union();
+    assertEquals(0, union.symDifference(boundary).getArea(), area * 1e-9);
+  }
+
+  @ParameterizedTest(name = "{0} drones")
+  @CsvSource({"2", "4", "6"})
+  void balancesTheCoverageTimeOfEveryDrone(int drones) {
+    Polygon boundary = FRAME.toGeographic(concaveWithHoles(4000, 3000));
+    double spacing = 10;
+
+    List<Polygon> parts = partitioner.partition(boundary, spacing, SPEED, homes(drones, 2));
+
+    double[] seconds = parts.stream().mapToDouble(part -> coverageSeconds(part, spacing)).toArray();
+    double longest = Arrays.stream(seconds).max().orElseThrow();
+    double shortest = Arrays.stream(seconds).min().orElseThrow();
+    assertTrue(shortest > longest * 0.95, Arrays.toString(seconds));
+  }
+
+  @Test
+  void splitsAmongTwentyDronesWithinASecond() {
+    Polygon boundary = FRAME.toGeographic(concaveWithHoles(6000, 4000));
+    List<Coordinate> homes = homes(20, 3);
+    // Warm up
+    partitioner.partition(boundary, SPACING, SPEED, homes);
+
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < 3; run++) {
+      long start = System.nanoTime();
+      List<Polygon> parts = partitioner.partition(boundary, SPACING, SPEED, homes);
+      best = Math.min(best, System.nanoTime() - start);
+      assertEquals(20, parts.size());
+    }
+    assertTrue(best < 1_000_000_000L, best / 1_000_000 + " ms");
+  }
+
+  /** Time to sweep a part at its best angle, turns included. */
+  private double coverageSeconds(Polygon part, double spacing) {
+    List<Coordinate> sweep = planner.planBestSweep(part, spacing, SPEED).getWaypoints();
+    double meters = 0;
+    for (int i = 1; i < sweep.size(); i++) {
+      meters += distance(sweep.get(i - 1), sweep.get(i));
+    }
+    return meters / SPEED + (sweep.size() / 2 - 1) * config.getSweep().getTurnSeconds();
+  }
+
+  private static double distance(Coordinate from, Coordinate to) {
+    return FRAME.toLocal(from.x, from.y).distance(FRAME.toLocal(to.x, to.y));
+  }
+
+  /** Homes spread randomly within a kilometer of the area. */
+  private static List<Coordinate> homes(int count, long seed) {
+    Random random = new Random(seed);
+    List<Coordinate> homes = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      homes.add(
+          FRAME.toGeographic(random.nextDouble() * 2000 - 1000, random.nextDouble() * 2000 - 1000));
+    }
+    return homes;
+  }
+
+  /** A rectangle in meters with a notch cut into its top edge and three square holes. */
+  private static Polygon concaveWithHoles(double width, double height) {
+    double w = width / 2;
+    double h = height / 2;
+    LinearRing shell =
+        FACTORY.createLinearRing(
+            new Coordinate[] {
+              new Coordinate(-w, -h),
+              new Coordinate(w, -h),
+              new Coordinate(w, h),
+              new Coordinate(w * 0.2, h),
+              new Coordinate(0, h * 0.2),
+              new Coordinate(-w * 0.2, h),
+              new Coordinate(-w, h),
+              new Coordinate(-w, -h)
+            });
+    double side = Math.min(width, height) / 10;
+    LinearRing[] holes = {
+      square(-w * 0.6, -h * 0.3, side), square(0, -h * 0.5, side), square(w * 0.6, 0, side)
+    };
+    return FACTORY.createPolygon(shell, holes);
+  }
+
+  private static LinearRing square(double x, double y, double side) {
+    double half = side / 2;
+    return FACTORY.createLinearRing(
+        new Coordinate[] {
+          new Coordinate(x - half, y - half),
+          new Coordinate(x - half, y + half),
+          new Coordinate(x + half, y + half),
+          new Coordinate(x + half, y - half),
+          new Coordinate(x - half, y - half)
+        });
+  }
+}
@@ -0,0 +1,91 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+class BoustrophedonDecompositionTest {
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+
+  @Test
+  void fliesOneCellLineByLine() {
+    Polygon square = FACTORY.createPolygon(ring(0, 0, 100, 0, 100, 100, 0, 100));
+    List<Coordinate> flight = plan(square, 0, 10);
+
+    assertEquals(20, flight.size());
+    assertEquals(new Coordinate(0, 5), flight.get(0));
+    assertEquals(new Coordinate(100, 5), flight.get(1));
+    assertEquals(new Coordinate(100, 15), flight.get(2));
+  }
+
+  @Test
+  void goesAroundANotchBetweenItsArms() {
+    // A U open to the top: the arms are separate cells above the bottom one
+    Polygon u =
+        FACTORY.createPolygon(
+            ring(0, 0, 100, 0, 100, 100, 60, 100, 60, 30, 40, 30, 40, 100, 0, 100));
+    Polygon sweep = new ScanlineClipper(u, 0).toSweep(u);
+    List<Coordinate> flight = plan(u, 0, 10);
+
+    assertInside(sweep, flight);
+    assertTrue(flight.contains(new Coordinate(40, 30)) || flight.contains(new Coordinate(60, 30)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0, 90, 180, 270})
+  void keepsTransitsInsideAroundHoles(double angle) {
+    // Rectangular holes leave room between them for transits that would cross one
+    Polygon field =
+        FACTORY.createPolygon(
+            ring(0, 0, 300, 0, 300, 200, 0, 200),
+            new LinearRing[] {
+              ring(40, 30, 120, 30, 120, 170, 40, 170), ring(180, 60, 260, 60, 260, 140, 180, 140)
+            });
+    Polygon sweep = new ScanlineClipper(field, angle).toSweep(field);
+
+    for (double spacing : new double[] {7, 10, 25}) {
+      assertInside(sweep, plan(field, angle, spacing));
+    }
+  }
+
+  /** Plan a sweep at an angle, returning the flight in the sweep frame. */
+  private static List<Coordinate> plan(Polygon polygon, double angle, double spacing) {
+    ScanlineClipper clipper = new ScanlineClipper(polygon, angle);
+    BoustrophedonDecomposition cells =
+        new BoustrophedonDecomposition(new TransitRouter(clipper.toSweep(polygon)));
+    for (double v = clipper.getMinV() + spacing / 2; v < clipper.getMaxV(); v += spacing) {
+      cells.addLine(v, clipper.clip(v));
+    }
+    return cells.plan(Integer.MAX_VALUE);
+  }
+
+  private static void assertInside(Polygon polygon, List<Coordinate> flight) {
+    Geometry area = polygon.buffer(TransitRouter.TOLERANCE);
+    for (int i = 1; i < flight.size(); i++) {
+      Coordinate from = flight.get(i - 1);
+      Coordinate to = flight.get(i);
+      assertTrue(
+          area.covers(FACTORY.createLineString(new Coordinate[] {from, to})),
+          "leg " + i + " from " + from + " to " + to + " leaves the polygon");
+    }
+  }
+
+  private static LinearRing ring(double... xy) {
+    Coordinate[] ring = new Coordinate[xy.length / 2 + 1];
+    for (int i = 0; i < xy.length / 2; i++) {
+      ring[i] = new Coordinate(xy[2 * i], xy[2 * i + 1]);
+    }
+    ring[ring.length - 1] = ring[0];
+    return FACTORY.createLinearRing(ring);
+  }
+}
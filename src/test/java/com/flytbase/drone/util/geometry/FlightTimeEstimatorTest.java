@@ -0,0 +1,104 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+
+class FlightTimeEstimatorTest {
+
+  private static final double SPEED = 10;
+  // 10 m/s at 2.5 m/s² takes 4 s to stop: starting and stopping each lose half of it
+  private static final double STOP = 4;
+
+  private final LocalFrame frame = new LocalFrame(8.54, 47.37);
+  private final FlightTimeEstimator estimator =
+      new FlightTimeEstimator(new DistanceCalculator(), new FlightPathConfig());
+
+  /** A kilometer east and back, reversing at the far end. */
+  private final PackedWaypoints outAndBack = path(0, 0, 0, 1000, 0, 0, 0, 0, 0);
+
+  @Test
+  void fliesAtTheSpeedInStillAir() {
+    double distance = outAndBack.getTotalDistance();
+
+    // Starting, the full stop of the reversal, and stopping
+    assertEquals(distance / SPEED + 2 * STOP, estimator.estimateSeconds(outAndBack, SPEED), 1e-3);
+  }
+
+  @Test
+  void slowsAgainstAHeadwindAndSpeedsUpWithATailwind() {
+    double out = outAndBack.getDistanceTo(1);
+    double back = outAndBack.getTotalDistance() - out;
+
+    // 5 m/s from the east: 5 m/s over the ground out, 15 m/s back
+    assertEquals(
+        out / 5 + back / 15 + 2 * STOP, estimator.estimateSeconds(outAndBack, SPEED, 5, 90), 1e-3);
+  }
+
+  @Test
+  void crabsIntoACrosswind() {
+    double distance = outAndBack.getTotalDistance();
+
+    // 5 m/s from the north: heading into it leaves sqrt(10² - 5²) m/s along the track. The great
+    // circle bearings of the legs are a few thousandths of a degree off east and west, which gives
+    // the wind a small component along them
+    assertEquals(
+        distance / Math.sqrt(75) + 2 * STOP,
+        estimator.estimateSeconds(outAndBack, SPEED, 5, 0),
+        0.05);
+  }
+
+  @Test
+  void climbsStraightUpAtTheClimbRate() {
+    // 100 m up on the spot at 5 m/s, then a meter north
+    PackedWaypoints path = path(0, 0, 0, 0, 0, 100, 0, 1, 100);
+    double meter = path.getTotalDistance();
+
+    assertEquals(100 / 5.0 + meter / SPEED + STOP, estimator.estimateSeconds(path, SPEED), 1e-3);
+  }
+
+  @Test
+  void takesTheLongerOfTheClimbAndTheLeg() {
+    // 100 m north climbing 100 m takes 20 s at 5 m/s, and descending it 33 s at 3 m/s
+    PackedWaypoints path = path(0, 0, 0, 0, 100, 100, 0, 200, 0);
+
+    assertEquals(100 / 5.0 + 100 / 3.0 + STOP, estimator.estimateSeconds(path, SPEED), 1e-3);
+  }
+
+  @Test
+  void brakesInProportionToTheTurn() {
+    // A right angle: slowing to cos(45°) of the speed loses (1 - cos 45°)² of a stop
+    PackedWaypoints path = path(0, 0, 0, 100, 0, 0, 100, 100, 0);
+    double lost = 1 - Math.cos(Math.PI / 4);
+
+    assertEquals(
+        path.getTotalDistance() / SPEED + STOP + STOP * lost * lost,
+        estimator.estimateSeconds(path, SPEED),
+        1e-2);
+  }
+
+  @Test
+  void rejectsWindStrongerThanTheSpeed() {
+    assertThrows(
+        IllegalArgumentException.class, () -> estimator.estimateSeconds(outAndBack, SPEED, 12, 90));
+    assertThrows(IllegalArgumentException.class, () -> estimator.estimateSeconds(outAndBack, 0));
+  }
+
+  /** A path through positions in meters east and north, with altitudes. */
+  private PackedWaypoints path(double... xyz) {
+    int count = xyz.length / 3;
+    double[] latitudes = new double[count];
+    double[] longitudes = new double[count];
+    double[] altitudes = new double[count];
+    for (int i = 0; i < count; i++) {
+      Coordinate position = frame.toGeographic(xyz[3 * i], xyz[3 * i + 1]);
+      longitudes[i] = position.x;
+      latitudes[i] = position.y;
+      altitudes[i] = xyz[3 * i + 2];
+    }
+    return PackedWaypoints.of(latitudes, longitudes, altitudes);
+  }
+}
@@ -0,0 +1,124 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class PhotoPlannerTest {
+
+  /** The default camera: a 13.2 by 8.8 mm sensor behind an 8.8 mm lens, 5472 pixels wide. */
+  private final FlightPathConfig.Camera camera = new FlightPathConfig.Camera();
+
+  @ParameterizedTest(name = "{0} m")
+  @CsvSource({"50, 0.013706", "100, 0.027412", "120, 0.032895"})
+  void samplesTheGroundByTheFootprintOverTheImageWidth(double altitude, double meters) {
+    assertEquals(meters, PhotoPlanner.groundSamplingDistance(camera, altitude), 1e-6);
+  }
+
+  @ParameterizedTest(name = "{0} m, {1}% overlap")
+  @CsvSource({"100, 0, 150", "100, 70, 45", "50, 80, 15", "100, 100, 0"})
+  void spacesLinesByTheFootprintWidthLessTheOverlap(double altitude, int overlap, double spacing) {
+    assertEquals(spacing, PhotoPlanner.lineSpacing(camera, altitude, overlap), 1e-9);
+  }
+
+  @ParameterizedTest(name = "{0} m, {1}% overlap")
+  @CsvSource({"100, 0, 100", "100, 70, 30", "50, 80, 10"})
+  void spacesPhotosByTheFootprintHeightLessTheOverlap(
+      double altitude, int overlap, double distance) {
+    assertEquals(distance, PhotoPlanner.triggerDistance(camera, altitude, overlap), 1e-9);
+  }
+
+  @Test
+  void usesTheCameraOfTheDroneModel() {
+    FlightPathConfig config = new FlightPathConfig();
+    FlightPathConfig.Camera wide = new FlightPathConfig.Camera();
+    wide.setFocalLengthMm(4.4);
+    config.getCameras().put("Wide", wide);
+    PhotoPlanner planner = new PhotoPlanner(config);
+
+    assertSame(wide, planner.getCamera("Wide"));
+    assertSame(config.getCamera(), planner.getCamera("Other"));
+    assertSame(config.getCamera(), planner.getCamera(null));
+  }
+
+  @Test
+  void triggersEveryDistanceFromTheFirstWaypoint() {
+    // Legs of 100, 50 and 100 m, climbing on the last one
+    PackedWaypoints path =
+        new PackedWaypoints(
+            new double[] {0, 0, 0.5, 0.5},
+            new double[] {0, 1, 1, 2},
+            new double[] {100, 100, 100, 120},
+            new double[] {0, 100, 150, 250});
+
+    PackedWaypoints photos = PhotoPlanner.triggerPoints(path, 40);
+
+    assertEquals(7, photos.size());
+    double[] along = new double[photos.size()];
+    for (int i = 0; i < photos.size(); i++) {
+      along[i] = photos.getDistanceTo(i);
+    }
+    assertArrayEquals(new double[] {0, 40, 80, 120, 160, 200, 240}, along);
+    // On the first leg
+    assertEquals(0, photos.getLatitude(2), 1e-12);
+    assertEquals(0.8, photos.getLongitude(2), 1e-12);
+    // Across the second, then along the last
+    assertEquals(0.2, photos.getLatitude(3), 1e-12);
+    assertEquals(1, photos.getLongitude(3), 1e-12);
+    assertEquals(0.5, photos.getLatitude(4), 1e-12);
+    assertEquals(1.1, photos.getLongitude(4), 1e-12);
+    assertEquals(102, photos.getAltitude(4), 1e-12);
+    assertEquals(1.9, photos.getLongitude(6), 1e-12);
+    assertEquals(118, photos.getAltitude(6), 1e-12);
+  }
+
+  @Test
+  void triggersOnceAtTheEndOfAnExactMultiple() {
+    PackedWaypoints path =
+        new PackedWaypoints(
+            new double[] {0, 0}, new double[] {0, 1}, new double[] {50, 50}, new double[] {0, 90});
+
+    PackedWaypoints photos = PhotoPlanner.triggerPoints(path, 30);
+
+    assertEquals(4, photos.size());
+    assertEquals(1, photos.getLongitude(3), 1e-12);
+  }
+
+  @Test
+  void triggersOnceOnAPathOfOneWaypoint() {
+    PackedWaypoints path =
+        new PackedWaypoints(
+            new double[] {47.37}, new double[] {8.54}, new double[] {80}, new double[] {0});
+
+    PackedWaypoints photos = PhotoPlanner.triggerPoints(path, 30);
+
+    assertEquals(1, photos.size());
+    assertEquals(47.37, photos.getLatitude(0));
+    assertEquals(8.54, photos.getLongitude(0));
+    assertEquals(0, PhotoPlanner.triggerPoints(emptyPath(), 30).size());
+  }
+
+  @Test
+  void refusesDistancesThatAreNotPositiveOrTooShort() {
+    PackedWaypoints path =
+        new PackedWaypoints(
+            new double[] {0, 0}, new double[] {0, 1}, new double[] {50, 50}, new double[] {0, 1e6});
+
+    assertThrows(IllegalArgumentException.class, () -> PhotoPlanner.triggerPoints(path, 0));
+    assertThrows(IllegalArgumentException.class, () -> PhotoPlanner.triggerPoints(path, -5));
+    assertThrows(
+        IllegalArgumentException.class, () -> PhotoPlanner.triggerPoints(path, Double.NaN));
+    assertThrows(IllegalArgumentException.class, () -> PhotoPlanner.triggerPoints(path, 0.5));
+    assertEquals(PhotoPlanner.MAX_PHOTOS, PhotoPlanner.triggerPoints(path, 1.000001).size());
+  }
+
+  private static PackedWaypoints emptyPath() {
+    return new PackedWaypoints(new double[0], new double[0], new double[0], new double[0]);
+  }
+}
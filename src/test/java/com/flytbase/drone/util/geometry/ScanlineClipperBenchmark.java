@@ -0,0 +1,95 @@
+package com.flytbase.drone.util.geometry;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Clipping every sweep line of a polygon with a hole with the scanline clipper, against one JTS
+ * overlay per line. Run with {@code mvn test -Dbenchmark=true -Dtest=ScanlineClipperBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanlineClipperBenchmark {
+
+  @Param({"100", "1000"})
+  private int vertices;
+
+  @Param({"100", "1000"})
+  private int lines;
+
+  private Polygon polygon;
+  private ScanlineClipper clipper;
+  private double spacing;
+
+  @Setup
+  public void setUp() {
+    GeometryFactory factory = new GeometryFactory();
+    polygon =
+        factory.createPolygon(
+            ring(factory, 1000, vertices), new LinearRing[] {ring(factory, 300, vertices / 4)});
+    clipper = new ScanlineClipper(polygon, 30);
+    spacing = (clipper.getMaxV() - clipper.getMinV()) / lines;
+  }
+
+  @Benchmark
+  public int scanline() {
+    ScanlineClipper sweep = clipper.fork();
+    int crossings = 0;
+    for (int i = 0; i < lines; i++) {
+      crossings += sweep.clip(clipper.getMinV() + (i + 0.5) * spacing).length;
+    }
+    return crossings;
+  }
+
+  @Benchmark
+  public int overlay() {
+    int crossings = 0;
+    for (int i = 0; i < lines; i++) {
+      double v = clipper.getMinV() + (i + 0.5) * spacing;
+      crossings += SurveyPlanner.clipWithOverlay(polygon, clipper, v).length;
+    }
+    return crossings;
+  }
+
+  /** A wavy ring around the origin, so lines cross it more than twice. */
+  private static LinearRing ring(GeometryFactory factory, double radius, int vertices) {
+    Coordinate[] ring = new Coordinate[vertices + 1];
+    for (int i = 0; i < vertices; i++) {
+      double angle = i * 2 * Math.PI / vertices;
+      double r = radius * (1 + 0.1 * Math.sin(7 * angle));
+      ring[i] = new Coordinate(r * Math.cos(angle), r * Math.sin(angle));
+    }
+    ring[vertices] = ring[0];
+    return factory.createLinearRing(ring);
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  void run() throws RunnerException {
+    new Runner(new OptionsBuilder().include(ScanlineClipperBenchmark.class.getName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,185 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Polygon;
+
+class ScanlineClipperTest {
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+  private static final double TOLERANCE = 1e-6;
+
+  @Test
+  void matchesTheOverlayOnRandomPolygonsWithHoles() {
+    Random random = new Random(42);
+    for (int polygon = 0; polygon < 50; polygon++) {
+      Polygon local = randomPolygon(random);
+      double angle = random.nextDouble() * 180;
+      ScanlineClipper clipper = new ScanlineClipper(local, angle);
+      ScanlineClipper reference = new ScanlineClipper(local, angle);
+
+      double v = clipper.getMinV() + random.nextDouble() * 5;
+      while (v < clipper.getMaxV()) {
+        assertSameSegments(
+            SurveyPlanner.clipWithOverlay(local, reference, v),
+            clipper.clip(v),
+            "polygon " + polygon + " at " + angle + "°, v = " + v);
+        v += 1 + random.nextDouble() * 20;
+      }
+    }
+  }
+
+  @Test
+  void countsLinesThroughVerticesOnce() {
+    // A diamond and a rotated square hole: every line below is through a vertex
+    Polygon local =
+        polygon(
+            ring(0, -100, 100, 0, 0, 100, -100, 0),
+            ring(-20, 0, 0, -20, 20, 0, 0, 20),
+            ring(40, 40, 50, 30, 60, 40, 50, 50));
+    ScanlineClipper clipper = new ScanlineClipper(local, 0);
+
+    // Vertices on both sides of the line: the edges in [minV, maxV) meet there once
+    assertSameSegments(new double[] {-100, -20, 20, 100}, clipper.clip(0), "through side vertices");
+    assertSameSegments(
+        new double[] {-60, 40, 60, 60},
+        clipper.clip(40),
+        "through two vertices of the second hole");
+    // The top vertex of the diamond: its edges end there, so the line is outside
+    assertArrayEquals(new double[0], clipper.clip(100));
+  }
+
+  @Test
+  void startsTheBottomVertexWithAnEmptySegment() {
+    Polygon local = polygon(ring(0, -100, 100, 0, 0, 100, -100, 0));
+    ScanlineClipper clipper = new ScanlineClipper(local, 0);
+
+    assertArrayEquals(new double[] {0, 0}, clipper.clip(-100));
+  }
+
+  @Test
+  void clipsLinesAlongHorizontalEdgesAsTheLineJustAbove() {
+    // An L with edges along the lines at y = 0, 5 and 10
+    Polygon local = polygon(ring(0, 0, 10, 0, 10, 5, 5, 5, 5, 10, 0, 10));
+    ScanlineClipper clipper = new ScanlineClipper(local, 0);
+    ScanlineClipper reference = new ScanlineClipper(local, 0);
+
+    for (double v : new double[] {0, 5, 10}) {
+      // Edges cover [minV, maxV): an edge along the line belongs to the region above it
+      assertSameSegments(
+          SurveyPlanner.clipWithOverlay(local, reference, v + 1e-9),
+          clipper.clip(v),
+          "along the edge at " + v);
+    }
+  }
+
+  @Test
+  void rotatesIntoTheSweepFrame() {
+    Polygon local = polygon(ring(0, 0, 10, 0, 10, 10, 0, 10));
+    ScanlineClipper clipper = new ScanlineClipper(local, 90);
+
+    // Lines run north; v grows westwards
+    assertEquals(-10, clipper.getMinV(), TOLERANCE);
+    assertEquals(0, clipper.getMaxV(), TOLERANCE);
+    assertSameSegments(new double[] {0, 10}, clipper.clip(-4), "a vertical line");
+    Coordinate position = clipper.toFrame(7, -4);
+    assertEquals(4, position.x, TOLERANCE);
+    assertEquals(7, position.y, TOLERANCE);
+  }
+
+  @Test
+  void forksClipFromTheStart() {
+    Polygon local = polygon(ring(0, 0, 10, 0, 10, 10, 0, 10));
+    ScanlineClipper clipper = new ScanlineClipper(local, 0);
+    clipper.clip(8);
+
+    assertThrows(IllegalStateException.class, () -> clipper.clip(2));
+    assertSameSegments(new double[] {0, 10}, clipper.fork().clip(2), "a fork");
+  }
+
+  /** Compare segments, ignoring empty ones and the split of touching ones. */
+  private static void assertSameSegments(double[] expected, double[] actual, String message) {
+    assertTrue(actual != null, message + ": crossings do not pair up");
+    double[] want = normalize(expected);
+    double[] got = normalize(actual);
+    assertEquals(want.length, got.length, message + ": " + Arrays.toString(got));
+    for (int i = 0; i < want.length; i++) {
+      assertEquals(want[i], got[i], TOLERANCE, message + ": " + Arrays.toString(got));
+    }
+  }
+
+  private static double[] normalize(double[] segments) {
+    List<Double> merged = new ArrayList<>();
+    for (int i = 0; i + 1 < segments.length; i += 2) {
+      if (segments[i + 1] - segments[i] <= TOLERANCE) {
+        continue;
+      }
+      int last = merged.size() - 1;
+      if (last > 0 && segments[i] - merged.get(last) <= TOLERANCE) {
+        merged.set(last, segments[i + 1]);
+      } else {
+        merged.add(segments[i]);
+        merged.add(segments[i + 1]);
+      }
+    }
+    return merged.stream().mapToDouble(Double::doubleValue).toArray();
+  }
+
+  /** A star-shaped polygon with up to three star-shaped holes. */
+  static Polygon randomPolygon(Random random) {
+    LinearRing shell = star(random, 0, 0, 600, 1000, 4 + random.nextInt(60));
+    List<LinearRing> holes = new ArrayList<>();
+    List<Coordinate> centers = new ArrayList<>();
+    int holeCount = random.nextInt(4);
+    for (int attempt = 0; attempt < 20 && holes.size() < holeCount; attempt++) {
+      double direction = random.nextDouble() * 2 * Math.PI;
+      double distance = random.nextDouble() * 400;
+      Coordinate center =
+          new Coordinate(distance * Math.cos(direction), distance * Math.sin(direction));
+      if (centers.stream().allMatch(other -> other.distance(center) > 220)) {
+        centers.add(center);
+        holes.add(star(random, center.x, center.y, 30, 100, 4 + random.nextInt(12)));
+      }
+    }
+    Polygon polygon = FACTORY.createPolygon(shell, holes.toArray(new LinearRing[0]));
+    assertTrue(polygon.isValid());
+    return polygon;
+  }
+
+  private static LinearRing star(
+      Random random, double x, double y, double minRadius, double maxRadius, int vertices) {
+    // One vertex in each sector, so the center stays inside and the ring never crosses itself
+    Coordinate[] ring = new Coordinate[vertices + 1];
+    for (int i = 0; i < vertices; i++) {
+      double angle = (i + 0.8 * random.nextDouble()) * 2 * Math.PI / vertices;
+      double radius = minRadius + random.nextDouble() * (maxRadius - minRadius);
+      ring[i] = new Coordinate(x + radius * Math.cos(angle), y + radius * Math.sin(angle));
+    }
+    ring[vertices] = ring[0];
+    return FACTORY.createLinearRing(ring);
+  }
+
+  private static Polygon polygon(LinearRing shell, LinearRing... holes) {
+    return FACTORY.createPolygon(shell, holes);
+  }
+
+  private static LinearRing ring(double... xy) {
+    Coordinate[] ring = new Coordinate[xy.length / 2 + 1];
+    for (int i = 0; i < xy.length / 2; i++) {
+      ring[i] = new Coordinate(xy[2 * i], xy[2 * i + 1]);
+    }
+    ring[ring.length - 1] = ring[0];
+    return FACTORY.createLinearRing(ring);
+  }
+}
@@ -0,0 +1,122 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.locationtech.jts.geom.Coordinate;
+
+class SortiePlannerTest {
+
+  private static final double ORIGIN_LONGITUDE = 8.54;
+  private static final double ORIGIN_LATITUDE = 47.37;
+  private static final double ALTITUDE = 50;
+
+  private final DistanceCalculator distanceCalculator = new DistanceCalculator();
+  private final LocalFrame frame = new LocalFrame(ORIGIN_LONGITUDE, ORIGIN_LATITUDE);
+
+  @ParameterizedTest(name = "{0} Wh at {1} m/s")
+  @CsvSource({"45, 10", "90, 5", "90, 10", "90, 15", "200, 10"})
+  void keepsEverySortieWithinTheUsableEnergy(double capacityWh, double speed) {
+    FlightPathConfig config = new FlightPathConfig();
+    config.getBattery().setCapacityWh(capacityWh);
+    SortiePlanner planner = new SortiePlanner(distanceCalculator, config);
+    // 30 lines of 1.5 km, 45 km in all: several sorties on any of these batteries
+    PackedWaypoints path = lawnmower(1500, 50);
+
+    List<SortiePlanner.Sortie> sorties =
+        planner.plan(path, ORIGIN_LONGITUDE, ORIGIN_LATITUDE, speed);
+
+    double usableWh = capacityWh * (1 - config.getBattery().getReservePercent() / 100);
+    assertTrue(sorties.size() > 1);
+    double pathDistance = 0;
+    for (int i = 0; i < sorties.size(); i++) {
+      SortiePlanner.Sortie sortie = sorties.get(i);
+      assertTrue(
+          sortie.getEnergyWh() <= usableWh + 1e-9,
+          "sortie " + i + " uses " + sortie.getEnergyWh() + " of " + usableWh + " Wh");
+      // Each sortie resumes where the last one returned home
+      int expectedFirst = i == 0 ? 0 : sorties.get(i - 1).getLastWaypoint();
+      assertEquals(expectedFirst, sortie.getFirstWaypoint());
+      assertTrue(sortie.getLastWaypoint() > sortie.getFirstWaypoint());
+      pathDistance += sortie.getPathDistance();
+    }
+    assertEquals(path.size() - 1, sorties.get(sorties.size() - 1).getLastWaypoint());
+    assertEquals(path.getTotalDistance(), pathDistance, 1e-6);
+  }
+
+  @Test
+  void countsTheClimbAndBothLegsHome() {
+    SortiePlanner planner = new SortiePlanner(distanceCalculator, new FlightPathConfig());
+    // A straight kilometer east with no turns, from 100 m south of home
+    PackedWaypoints path = path(0, -100, 500, -100, 1000, -100);
+
+    List<SortiePlanner.Sortie> sorties = planner.plan(path, ORIGIN_LONGITUDE, ORIGIN_LATITUDE, 10);
+
+    assertEquals(1, sorties.size());
+    SortiePlanner.Sortie sortie = sorties.get(0);
+    // The calculator's spherical earth differs from the WGS84 radii of the frame by about 0.3%
+    assertEquals(100, sortie.getResumeDistance(), 100 * 3e-3);
+    assertEquals(Math.hypot(1000, 100), sortie.getReturnDistance(), Math.hypot(1000, 100) * 3e-3);
+    double meters =
+        sortie.getResumeDistance() + sortie.getPathDistance() + sortie.getReturnDistance();
+    // 200 W at 10 m/s is 20 J/m, and the climb to 50 m costs 60 J/m
+    double joules = meters * 20 + ALTITUDE * 60;
+    assertEquals(joules / 3600, sortie.getEnergyWh(), 1e-9);
+    assertEquals(meters / 10, sortie.getDurationSeconds(), 1e-9);
+  }
+
+  @Test
+  void rejectsPathsOutOfRangeOfHome() {
+    SortiePlanner planner = new SortiePlanner(distanceCalculator, new FlightPathConfig());
+    // 72 Wh at 20 J/m covers 13 km, short of the round trip to a path 10 km away
+    PackedWaypoints path = path(10_000, 0, 10_100, 0);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> planner.plan(path, ORIGIN_LONGITUDE, ORIGIN_LATITUDE, 10));
+  }
+
+  @Test
+  void rejectsStandingStill() {
+    SortiePlanner planner = new SortiePlanner(distanceCalculator, new FlightPathConfig());
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> planner.plan(path(0, 0, 100, 0), ORIGIN_LONGITUDE, ORIGIN_LATITUDE, 0));
+  }
+
+  /** Lines east and west, a spacing apart, over a square north of home. */
+  private PackedWaypoints lawnmower(double side, double spacing) {
+    int lines = (int) (side / spacing);
+    double[] xy = new double[lines * 4];
+    for (int line = 0; line < lines; line++) {
+      boolean east = line % 2 == 0;
+      xy[4 * line] = east ? 0 : side;
+      xy[4 * line + 1] = line * spacing;
+      xy[4 * line + 2] = east ? side : 0;
+      xy[4 * line + 3] = line * spacing;
+    }
+    return path(xy);
+  }
+
+  /** A path through positions in meters from home, at the survey altitude. */
+  private PackedWaypoints path(double... xy) {
+    int count = xy.length / 2;
+    double[] latitudes = new double[count];
+    double[] longitudes = new double[count];
+    double[] altitudes = new double[count];
+    for (int i = 0; i < count; i++) {
+      Coordinate position = frame.toGeographic(xy[2 * i], xy[2 * i + 1]);
+      longitudes[i] = position.x;
+      latitudes[i] = position.y;
+      altitudes[i] = ALTITUDE;
+    }
+    return PackedWaypoints.of(latitudes, longitudes, altitudes);
+  }
+}
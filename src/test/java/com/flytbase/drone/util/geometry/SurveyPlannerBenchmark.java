@@ -0,0 +1,70 @@
+package com.flytbase.drone.util.geometry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Clipping the lines of a sweep in one pass, against parallel strips of the default 1024 lines on
+ * the common pool. Run with {@code mvn test -Dbenchmark=true -Dtest=SurveyPlannerBenchmark}; the
+ * speedup depends on the number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SurveyPlannerBenchmark {
+
+  private static final int STRIP_LINES = 1024;
+
+  @Param({"10000", "100000"})
+  private int lines;
+
+  private Polygon polygon;
+  private ScanlineClipper clipper;
+  private double firstV;
+  private double spacing;
+
+  @Setup
+  public void setUp() {
+    polygon = ScanlineClipperTest.randomPolygon(new Random(3));
+    clipper = new ScanlineClipper(polygon, 30);
+    spacing = (clipper.getMaxV() - clipper.getMinV()) / lines;
+    firstV = clipper.getMinV() + spacing / 2;
+  }
+
+  @Benchmark
+  public double[][] serial() {
+    return SurveyPlanner.clipSweep(
+        polygon, clipper, firstV, spacing, lines, Integer.MAX_VALUE, STRIP_LINES);
+  }
+
+  @Benchmark
+  public double[][] parallel() {
+    return SurveyPlanner.clipSweep(polygon, clipper, firstV, spacing, lines, 0, STRIP_LINES);
+  }
+
+  @Test
+  @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+  void run() throws RunnerException {
+    new Runner(new OptionsBuilder().include(SurveyPlannerBenchmark.class.getName()).build()).run();
+  }
+}
@@ -0,0 +1,206 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.flytbase.drone.config.FlightPathConfig;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.GeometryTransformer;
+
+class SurveyPlannerTest {
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+  private static final double ORIGIN_LONGITUDE = 8.54;
+  private static final double ORIGIN_LATITUDE = 47.37;
+
+  private final SurveyPlanner planner = new SurveyPlanner(new FlightPathConfig());
+
+  @ParameterizedTest(name = "{0} m square, {1} m spacing")
+  @CsvSource({
+    // 1 ha
+    "100, 30, 4",
+    // 100 ha
+    "1000, 30, 34",
+    // 10 km²
+    "3162.2777, 30, 106",
+    "3162.2777, 10, 317"
+  })
+  void laysOneLinePerSpacingAcrossTheArea(double side, double spacing, int lines) {
+    Polygon boundary = square(side);
+
+    List<Coordinate> waypoints = planner.planSweep(boundary, spacing, 0);
+
+    assertEquals(2 * lines, waypoints.size());
+    LocalFrame frame = LocalFrame.centeredOn(boundary);
+    TreeSet<Double> offsets = new TreeSet<>();
+    for (int i = 0; i < waypoints.size(); i += 2) {
+      Coordinate entry = frame.toLocal(waypoints.get(i).x, waypoints.get(i).y);
+      Coordinate exit = frame.toLocal(waypoints.get(i + 1).x, waypoints.get(i + 1).y);
+      // East-west lines across the whole square
+      assertEquals(entry.y, exit.y, 1e-6);
+      assertEquals(side, Math.abs(exit.x - entry.x), side * 1e-3);
+      offsets.add(entry.y);
+    }
+    assertEquals(lines, offsets.size());
+    Double previous = null;
+    for (double offset : offsets) {
+      if (previous != null) {
+        assertEquals(spacing, offset - previous, 1e-6);
+      }
+      previous = offset;
+    }
+    // Centered: the margins at both edges are equal
+    assertEquals(offsets.first() + side / 2, side / 2 - offsets.last(), side * 1e-3);
+  }
+
+  @ParameterizedTest(name = "{0} m")
+  @CsvSource({"100", "1000", "3162.2777"})
+  void projectsLocalPositionsAndBackExactly(double side) {
+    LocalFrame frame = new LocalFrame(ORIGIN_LONGITUDE, ORIGIN_LATITUDE);
+    DistanceCalculator distanceCalculator = new DistanceCalculator();
+
+    Coordinate corner = frame.toGeographic(side, side);
+    Coordinate local = frame.toLocal(corner.x, corner.y);
+
+    assertEquals(side, local.x, 1e-9);
+    assertEquals(side, local.y, 1e-9);
+    // The calculator's spherical earth differs from the WGS84 radii of the frame by about 0.15%
+    // at this latitude
+    double distance =
+        distanceCalculator.calculateDistance(ORIGIN_LONGITUDE, ORIGIN_LATITUDE, corner.x, corner.y);
+    assertEquals(side * Math.sqrt(2), distance, side * Math.sqrt(2) * 3e-3);
+  }
+
+  @Test
+  void clipsTheSameLinesInParallelStrips() {
+    Random random = new Random(7);
+    for (int polygon = 0; polygon < 40; polygon++) {
+      Polygon local = ScanlineClipperTest.randomPolygon(random);
+      double angle = random.nextDouble() * 180;
+      double spacing = 0.5 + random.nextDouble() * 5;
+      // Strips from single lines to more lines than the sweep has
+      int stripLines = 1 + random.nextInt(random.nextBoolean() ? 16 : 4096);
+      ScanlineClipper clipper = new ScanlineClipper(local, angle);
+      int lineCount = (int) Math.ceil((clipper.getMaxV() - clipper.getMinV()) / spacing);
+      double firstV = clipper.getMinV() + spacing / 2;
+
+      double[][] serial =
+          SurveyPlanner.clipSweep(
+              local, clipper, firstV, spacing, lineCount, Integer.MAX_VALUE, stripLines);
+      double[][] parallel =
+          SurveyPlanner.clipSweep(local, clipper, firstV, spacing, lineCount, 0, stripLines);
+
+      assertArrayEquals(
+          serial, parallel, lineCount + " lines at " + angle + "° in strips of " + stripLines);
+    }
+  }
+
+  @Test
+  void plansTheSameSweepInParallelStrips() {
+    FlightPathConfig config = new FlightPathConfig();
+    config.getSweep().setParallelLines(1);
+    config.getSweep().setStripLines(37);
+    SurveyPlanner parallelPlanner = new SurveyPlanner(config);
+    LocalFrame frame = new LocalFrame(ORIGIN_LONGITUDE, ORIGIN_LATITUDE);
+    Random random = new Random(11);
+
+    for (int polygon = 0; polygon < 10; polygon++) {
+      Polygon boundary = toGeographic(frame, ScanlineClipperTest.randomPolygon(random));
+      double angle = random.nextDouble() * 180;
+
+      assertEquals(
+          planner.planSweep(boundary, 5, angle), parallelPlanner.planSweep(boundary, 5, angle));
+    }
+  }
+
+  @ParameterizedTest(name = "{0}°")
+  @CsvSource({"0", "30", "75", "90", "120", "165", "200"})
+  void findsTheMinimumWidthAlongTheLongSideOfARotatedRectangle(double angle) {
+    Polygon rectangle = rotatedRectangle(400, 100, angle);
+
+    assertEquals(angle % 180, SurveyPlanner.minimumWidthAngle(rectangle), 1e-9);
+  }
+
+  @ParameterizedTest(name = "{0}°")
+  @CsvSource({"0", "30", "75", "120", "165"})
+  void sweepsALongRectangleAlongItsLength(double angle) {
+    LocalFrame frame = new LocalFrame(ORIGIN_LONGITUDE, ORIGIN_LATITUDE);
+    Polygon boundary = toGeographic(frame, rotatedRectangle(2000, 280, angle));
+
+    SurveyPlanner.SweepPlan sweep = planner.planBestSweep(boundary, 30, 10);
+
+    assertEquals(angle, sweep.getAngle(), 0.01);
+    // The scored lines are the ones flown
+    assertEquals(planner.planSweep(boundary, 30, sweep.getAngle()), sweep.getWaypoints());
+    assertEquals(2 * 10, sweep.getWaypoints().size());
+  }
+
+  @Test
+  void refusesASpeedThatIsNotPositive() {
+    Polygon boundary = square(100);
+
+    assertThrows(IllegalArgumentException.class, () -> planner.planBestSweep(boundary, 30, 0));
+    assertThrows(IllegalArgumentException.class, () -> planner.planBestSweep(boundary, 0, 10));
+  }
+
+  /** A rectangle in meters centered on the origin, its long side at an angle from the x axis. */
+  private static Polygon rotatedRectangle(double length, double width, double angle) {
+    double cos = Math.cos(Math.toRadians(angle));
+    double sin = Math.sin(Math.toRadians(angle));
+    double[][] corners = {
+      {-length / 2, -width / 2},
+      {length / 2, -width / 2},
+      {length / 2, width / 2},
+      {-length / 2, width / 2}
+    };
+    Coordinate[] ring = new Coordinate[5];
+    for (int i = 0; i < 4; i++) {
+      double x = corners[i][0];
+      double y = corners[i][1];
+      ring[i] = new Coordinate(x * cos - y * sin, x * sin + y * cos);
+    }
+    ring[4] = ring[0];
+    return FACTORY.createPolygon(ring);
+  }
+
+  /** A polygon in meters around the origin, in longitude and latitude. */
+  private static Polygon toGeographic(LocalFrame frame, Polygon local) {
+    return (Polygon)
+        new GeometryTransformer() {
+          @Override
+          protected CoordinateSequence transformCoordinates(
+              CoordinateSequence coordinates, Geometry parent) {
+            Coordinate[] geographic = new Coordinate[coordinates.size()];
+            for (int i = 0; i < geographic.length; i++) {
+              geographic[i] = frame.toGeographic(coordinates.getX(i), coordinates.getY(i));
+            }
+            return factory.getCoordinateSequenceFactory().create(geographic);
+          }
+        }.transform(local);
+  }
+
+  /** A square of a side in meters, in longitude and latitude. */
+  private static Polygon square(double side) {
+    LocalFrame frame = new LocalFrame(ORIGIN_LONGITUDE, ORIGIN_LATITUDE);
+    double half = side / 2;
+    return FACTORY.createPolygon(
+        new Coordinate[] {
+          frame.toGeographic(-half, -half),
+          frame.toGeographic(half, -half),
+          frame.toGeographic(half, half),
+          frame.toGeographic(-half, half),
+          frame.toGeographic(-half, -half)
+        });
+  }
+}
@@ -0,0 +1,59 @@
+package com.flytbase.drone.util.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LinearRing;
+
+class TransitRouterTest {
+
+  private static final GeometryFactory FACTORY = new GeometryFactory();
+
+  private final TransitRouter router =
+      new TransitRouter(
+          FACTORY.createPolygon(
+              ring(0, 0, 100, 0, 100, 100, 0, 100),
+              new LinearRing[] {ring(40, 20, 60, 20, 60, 70, 40, 70)}));
+
+  @Test
+  void fliesStraightWhereThePolygonCoversTheTransit() {
+    Coordinate from = new Coordinate(0, 10);
+    Coordinate to = new Coordinate(100, 10);
+
+    assertTrue(router.isDirect(from, to));
+    assertEquals(Arrays.asList(from, to), router.route(from, to));
+    assertEquals(100, router.length(from, to), 1e-9);
+  }
+
+  @Test
+  void fliesAlongTheBoundary() {
+    assertTrue(router.isDirect(new Coordinate(40, 20), new Coordinate(40, 70)));
+    assertTrue(router.isDirect(new Coordinate(0, 0), new Coordinate(0, 100)));
+  }
+
+  @Test
+  void goesAroundAHoleByItsNearerCorners() {
+    Coordinate from = new Coordinate(30, 30);
+    Coordinate to = new Coordinate(70, 30);
+
+    assertFalse(router.isDirect(from, to));
+    assertEquals(
+        Arrays.asList(from, new Coordinate(40, 20), new Coordinate(60, 20), to),
+        router.route(from, to));
+    assertEquals(20 + 2 * Math.sqrt(200), router.length(from, to), 1e-9);
+  }
+
+  private static LinearRing ring(double... xy) {
+    Coordinate[] ring = new Coordinate[xy.length / 2 + 1];
+    for (int i = 0; i < xy.length / 2; i++) {
+      ring[i] = new Coordinate(xy[2 * i], xy[2 * i + 1]);
+    }
+    ring[ring.length - 1] = ring[0];
+    return FACTORY.createLinearRing(ring);
+  }
+}